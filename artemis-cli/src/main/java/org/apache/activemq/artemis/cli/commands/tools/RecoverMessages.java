@@ -161,7 +161,7 @@ public class RecoverMessages extends DBOption {
             public void onReadAddRecord(RecordInfo info) throws Exception {
                if (userRecordsOfInterest.contains(info.getUserRecordType())) {
 
-                  if (targetJournal.getRecords().get(info.id) != null) {
+                  if (targetJournal.getRecords().contains(info.id)) {
                      // Really meant System.out.. user's information on the CLI
                      context.out.println("RecordID " + info.id + " would been duplicated, ignoring it");
                      return;
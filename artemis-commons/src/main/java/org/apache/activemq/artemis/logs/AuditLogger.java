@@ -2744,4 +2744,137 @@ public interface AuditLogger {
 
    @LogMessage(id = 601781, value = "User {} is getting authorization failure count on target resource: {}", level = LogMessage.Level.INFO)
    void getAuthorizationFailureCount(String user, Object source);
+
+   static void getConsumerFilterMismatches(Object source) {
+      BASE_LOGGER.getConsumerFilterMismatches(getCaller(), source);
+   }
+
+   @LogMessage(id = 601782, value = "User {} is getting consumer filter mismatches on target resource: {}", level = LogMessage.Level.INFO)
+   void getConsumerFilterMismatches(String user, Object source);
+
+   static void getConsumerFilterEvaluationsSkipped(Object source) {
+      BASE_LOGGER.getConsumerFilterEvaluationsSkipped(getCaller(), source);
+   }
+
+   @LogMessage(id = 601783, value = "User {} is getting consumer filter evaluations skipped on target resource: {}", level = LogMessage.Level.INFO)
+   void getConsumerFilterEvaluationsSkipped(String user, Object source);
+
+   static void getJournalCompactCount(Object source) {
+      BASE_LOGGER.getJournalCompactCount(getCaller(), source);
+   }
+
+   @LogMessage(id = 601784, value = "User {} is getting journal compact count on target resource: {}", level = LogMessage.Level.INFO)
+   void getJournalCompactCount(String user, Object source);
+
+   static void getJournalCompactProgress(Object source) {
+      BASE_LOGGER.getJournalCompactProgress(getCaller(), source);
+   }
+
+   @LogMessage(id = 601785, value = "User {} is getting journal compact progress on target resource: {}", level = LogMessage.Level.INFO)
+   void getJournalCompactProgress(String user, Object source);
+
+   static void getJournalCompactReclaimedBytes(Object source) {
+      BASE_LOGGER.getJournalCompactReclaimedBytes(getCaller(), source);
+   }
+
+   @LogMessage(id = 601786, value = "User {} is getting journal compact reclaimed bytes on target resource: {}", level = LogMessage.Level.INFO)
+   void getJournalCompactReclaimedBytes(String user, Object source);
+
+   static void getJournalCompactLastPauseTime(Object source) {
+      BASE_LOGGER.getJournalCompactLastPauseTime(getCaller(), source);
+   }
+
+   @LogMessage(id = 601787, value = "User {} is getting journal compact last pause time on target resource: {}", level = LogMessage.Level.INFO)
+   void getJournalCompactLastPauseTime(String user, Object source);
+
+   static void getJournalCompactMaxPauseTime(Object source) {
+      BASE_LOGGER.getJournalCompactMaxPauseTime(getCaller(), source);
+   }
+
+   @LogMessage(id = 601788, value = "User {} is getting journal compact max pause time on target resource: {}", level = LogMessage.Level.INFO)
+   void getJournalCompactMaxPauseTime(String user, Object source);
+
+   static void getPageCacheHitRatio(Object source) {
+      BASE_LOGGER.getPageCacheHitRatio(getCaller(), source);
+   }
+
+   @LogMessage(id = 601789, value = "User {} is getting page cache hit ratio on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageCacheHitRatio(String user, Object source);
+
+   static void getPageCacheResidentBytes(Object source) {
+      BASE_LOGGER.getPageCacheResidentBytes(getCaller(), source);
+   }
+
+   @LogMessage(id = 601790, value = "User {} is getting page cache resident bytes on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageCacheResidentBytes(String user, Object source);
+
+   static void getPageCompressionRatio(Object source) {
+      BASE_LOGGER.getPageCompressionRatio(getCaller(), source);
+   }
+
+   @LogMessage(id = 601791, value = "User {} is getting page compression ratio on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageCompressionRatio(String user, Object source);
+
+   static void getPageCompressionTime(Object source) {
+      BASE_LOGGER.getPageCompressionTime(getCaller(), source);
+   }
+
+   @LogMessage(id = 601792, value = "User {} is getting page compression time on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageCompressionTime(String user, Object source);
+
+   static void getPageCounterRebuildProgress(Object source) {
+      BASE_LOGGER.getPageCounterRebuildProgress(getCaller(), source);
+   }
+
+   @LogMessage(id = 601793, value = "User {} is getting page counter rebuild progress on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageCounterRebuildProgress(String user, Object source);
+
+   static void getPageIOWriteRate(Object source) {
+      BASE_LOGGER.getPageIOWriteRate(getCaller(), source);
+   }
+
+   @LogMessage(id = 601794, value = "User {} is getting page I/O write rate on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageIOWriteRate(String user, Object source);
+
+   static void getPageIOReadRate(Object source) {
+      BASE_LOGGER.getPageIOReadRate(getCaller(), source);
+   }
+
+   @LogMessage(id = 601795, value = "User {} is getting page I/O read rate on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageIOReadRate(String user, Object source);
+
+   static void getPageIOQueueingDelay(Object source) {
+      BASE_LOGGER.getPageIOQueueingDelay(getCaller(), source);
+   }
+
+   @LogMessage(id = 601796, value = "User {} is getting page I/O queueing delay on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageIOQueueingDelay(String user, Object source);
+
+   static void getPageSyncLatencyP50(Object source) {
+      BASE_LOGGER.getPageSyncLatencyP50(getCaller(), source);
+   }
+
+   @LogMessage(id = 601797, value = "User {} is getting page sync latency p50 on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageSyncLatencyP50(String user, Object source);
+
+   static void getPageSyncLatencyP99(Object source) {
+      BASE_LOGGER.getPageSyncLatencyP99(getCaller(), source);
+   }
+
+   @LogMessage(id = 601798, value = "User {} is getting page sync latency p99 on target resource: {}", level = LogMessage.Level.INFO)
+   void getPageSyncLatencyP99(String user, Object source);
+
+   static void getFlushCount(Object source) {
+      BASE_LOGGER.getFlushCount(getCaller(), source);
+   }
+
+   @LogMessage(id = 601799, value = "User {} is getting flush count on target resource: {}", level = LogMessage.Level.INFO)
+   void getFlushCount(String user, Object source);
+
+   static void getWrittenBytes(Object source) {
+      BASE_LOGGER.getWrittenBytes(getCaller(), source);
+   }
+
+   @LogMessage(id = 601800, value = "User {} is getting written bytes on target resource: {}", level = LogMessage.Level.INFO)
+   void getWrittenBytes(String user, Object source);
 }
@@ -0,0 +1,542 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.utils.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.StampedLock;
+
+import static org.apache.activemq.artemis.utils.Preconditions.checkArgument;
+
+/**
+ * Map from long to long.
+ *
+ * Provides similar methods as a {@literal ConcurrentMap<long,long>} with 2 differences:
+ * <ol>
+ * <li>No boxing/unboxing from {@literal long -> Long}
+ * <li>Open hash map with linear probing, keys and values stored next to each other on a single {@code long[]} per
+ * section: no node allocations nor objects to store the values
+ * </ol>
+ * <p>
+ * Keys and values <strong>MUST</strong> be &gt;= 0: {@code -1} is returned when a key is not found.
+ * <p>
+ * It's meant for concurrent maps whose values are primitive, i.e. counters: the large id maps of the broker (the
+ * journal records, the page transactions and the duplicate ids) map to objects, so they can't use it.
+ */
+public class ConcurrentLongLongHashMap {
+
+   public static final long ValueNotFound = -1L;
+
+   private static final long EmptyKey = -1L;
+   private static final long DeletedKey = -2L;
+
+   private static final float MapFillFactor = 0.66f;
+
+   private static final int DefaultExpectedItems = 256;
+   private static final int DefaultConcurrencyLevel = 16;
+
+   private final Section[] sections;
+
+   public ConcurrentLongLongHashMap() {
+      this(DefaultExpectedItems);
+   }
+
+   public ConcurrentLongLongHashMap(int expectedItems) {
+      this(expectedItems, DefaultConcurrencyLevel);
+   }
+
+   public ConcurrentLongLongHashMap(int expectedItems, int numSections) {
+      checkArgument(numSections > 0);
+      if (expectedItems < numSections) {
+         expectedItems = numSections;
+      }
+
+      int perSectionExpectedItems = expectedItems / numSections;
+      int perSectionCapacity = (int) (perSectionExpectedItems / MapFillFactor);
+      this.sections = new Section[numSections];
+
+      for (int i = 0; i < numSections; i++) {
+         sections[i] = new Section(perSectionCapacity);
+      }
+   }
+
+   public int size() {
+      int size = 0;
+      for (Section s : sections) {
+         //read-acquire s.size that was write-released by s.unlockWrite
+         s.tryOptimisticRead();
+         //a stale value won't hurt: anyway it's subject to concurrent modifications
+         size += s.size;
+      }
+      return size;
+   }
+
+   long getUsedBucketCount() {
+      long usedBucketCount = 0;
+      for (Section s : sections) {
+         usedBucketCount += s.usedBuckets;
+      }
+      return usedBucketCount;
+   }
+
+   public long capacity() {
+      long capacity = 0;
+      for (Section s : sections) {
+         capacity += s.capacity;
+      }
+      return capacity;
+   }
+
+   public boolean isEmpty() {
+      for (Section s : sections) {
+         //read-acquire s.size that was write-released by s.unlockWrite
+         s.tryOptimisticRead();
+         //a stale value won't hurt: anyway it's subject to concurrent modifications
+         if (s.size != 0) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   /**
+    * @return the value of {@code key} or {@link #ValueNotFound} if it's not in the map
+    */
+   public long get(long key) {
+      checkArgument(key >= 0);
+      long h = hash(key);
+      return getSection(h).get(key, (int) h);
+   }
+
+   public boolean containsKey(long key) {
+      return get(key) != ValueNotFound;
+   }
+
+   /**
+    * @return the previous value of {@code key} or {@link #ValueNotFound} if it wasn't in the map
+    */
+   public long put(long key, long value) {
+      checkArgument(key >= 0);
+      checkArgument(value >= 0);
+      long h = hash(key);
+      return getSection(h).put(key, value, (int) h, false);
+   }
+
+   /**
+    * @return the current value of {@code key} or {@link #ValueNotFound} if it wasn't in the map and
+    * {@code value} has been put
+    */
+   public long putIfAbsent(long key, long value) {
+      checkArgument(key >= 0);
+      checkArgument(value >= 0);
+      long h = hash(key);
+      return getSection(h).put(key, value, (int) h, true);
+   }
+
+   /**
+    * Adds {@code delta} to the value of {@code key}, or puts {@code delta} if it's not in the map.
+    *
+    * @return the new value of {@code key}
+    */
+   public long addAndGet(long key, long delta) {
+      checkArgument(key >= 0);
+      long h = hash(key);
+      return getSection(h).addAndGet(key, delta, (int) h);
+   }
+
+   /**
+    * @return the value removed or {@link #ValueNotFound} if {@code key} wasn't in the map
+    */
+   public long remove(long key) {
+      checkArgument(key >= 0);
+      long h = hash(key);
+      return getSection(h).remove(key, ValueNotFound, (int) h);
+   }
+
+   public boolean remove(long key, long value) {
+      checkArgument(key >= 0);
+      checkArgument(value >= 0);
+      long h = hash(key);
+      return getSection(h).remove(key, value, (int) h) != ValueNotFound;
+   }
+
+   private Section getSection(long hash) {
+      // Use 32 msb out of long to get the section
+      final int sectionIdx = (int) (hash >>> 32) & (sections.length - 1);
+      return sections[sectionIdx];
+   }
+
+   public void clear() {
+      for (Section s : sections) {
+         s.clear();
+      }
+   }
+
+   public void forEach(EntryProcessor processor) {
+      for (Section s : sections) {
+         s.forEach(processor);
+      }
+   }
+
+   /**
+    * @return a new list of all keys (makes a copy)
+    */
+   public List<Long> keys() {
+      List<Long> keys = new ArrayList<>(size());
+      forEach((key, value) -> keys.add(key));
+      return keys;
+   }
+
+   public interface EntryProcessor {
+      void accept(long key, long value);
+   }
+
+   // A section is a portion of the hash map that is covered by a single
+   @SuppressWarnings("serial")
+   private static final class Section extends StampedLock {
+
+      private static final AtomicIntegerFieldUpdater<Section> CAPACITY_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Section.class, "capacity");
+      // the key of a bucket at 2 * bucket, its value at 2 * bucket + 1
+      private long[] table;
+
+      private volatile int capacity;
+      private int size;
+      private int usedBuckets;
+      private int resizeThreshold;
+
+      Section(int capacity) {
+         this.capacity = alignToPowerOfTwo(capacity);
+         this.table = new long[2 * this.capacity];
+         this.size = 0;
+         this.usedBuckets = 0;
+         this.resizeThreshold = (int) (this.capacity * MapFillFactor);
+         Arrays.fill(table, EmptyKey);
+      }
+
+      @SuppressWarnings("NonAtomicVolatileUpdate")
+      long get(long key, int keyHash) {
+         long stamp = tryOptimisticRead();
+         boolean acquiredLock = false;
+
+         // the buckets are probed for this capacity: the search restarts on a rehashing
+         int capacity = this.capacity;
+         int bucket = signSafeMod(keyHash, capacity);
+
+         try {
+            while (true) {
+               // First try optimistic locking
+               long[] table = this.table;
+               long storedKey = table[2 * bucket];
+               long storedValue = table[2 * bucket + 1];
+
+               if (!acquiredLock && validate(stamp)) {
+                  // The values we have read are consistent
+                  if (storedKey == key) {
+                     return storedValue;
+                  } else if (storedKey == EmptyKey) {
+                     // Not found
+                     return ValueNotFound;
+                  }
+               } else {
+                  // Fallback to acquiring read lock
+                  if (!acquiredLock) {
+                     stamp = readLock();
+                     acquiredLock = true;
+                     table = this.table;
+                     storedKey = table[2 * bucket];
+                     storedValue = table[2 * bucket + 1];
+                  }
+
+                  if (capacity != this.capacity) {
+                     // There has been a rehashing. We need to restart the search
+                     capacity = this.capacity;
+                     bucket = signSafeMod(keyHash, capacity);
+                     continue;
+                  }
+
+                  if (storedKey == key) {
+                     return storedValue;
+                  } else if (storedKey == EmptyKey) {
+                     // Not found
+                     return ValueNotFound;
+                  }
+               }
+
+               bucket = signSafeMod(bucket + 1, capacity);
+            }
+         } finally {
+            if (acquiredLock) {
+               unlockRead(stamp);
+            }
+         }
+      }
+
+      @SuppressWarnings("NonAtomicVolatileUpdate")
+      long put(long key, long value, int keyHash, boolean onlyIfAbsent) {
+         int bucket = keyHash;
+
+         long stamp = writeLock();
+         int capacity = this.capacity;
+
+         // Remember where we find the first available spot
+         int firstDeletedKey = -1;
+
+         try {
+            while (true) {
+               bucket = signSafeMod(bucket, capacity);
+
+               long storedKey = table[2 * bucket];
+
+               if (storedKey == key) {
+                  long storedValue = table[2 * bucket + 1];
+                  if (!onlyIfAbsent) {
+                     // Over written an old value for same key
+                     table[2 * bucket + 1] = value;
+                  }
+                  return storedValue;
+               } else if (storedKey == EmptyKey) {
+                  // Found an empty bucket. This means the key is not in the map. If we've already seen a deleted
+                  // key, we should write at that position
+                  insert(bucket, firstDeletedKey, key, value);
+                  return ValueNotFound;
+               } else if (storedKey == DeletedKey) {
+                  // The bucket contained a different deleted key
+                  if (firstDeletedKey == -1) {
+                     firstDeletedKey = bucket;
+                  }
+               }
+
+               ++bucket;
+            }
+         } finally {
+            unlockWriteAndRehashIfNeeded(stamp);
+         }
+      }
+
+      @SuppressWarnings("NonAtomicVolatileUpdate")
+      long addAndGet(long key, long delta, int keyHash) {
+         int bucket = keyHash;
+
+         long stamp = writeLock();
+         int capacity = this.capacity;
+
+         int firstDeletedKey = -1;
+
+         try {
+            while (true) {
+               bucket = signSafeMod(bucket, capacity);
+
+               long storedKey = table[2 * bucket];
+
+               if (storedKey == key) {
+                  long newValue = table[2 * bucket + 1] + delta;
+                  checkArgument(newValue >= 0);
+                  table[2 * bucket + 1] = newValue;
+                  return newValue;
+               } else if (storedKey == EmptyKey) {
+                  checkArgument(delta >= 0);
+                  insert(bucket, firstDeletedKey, key, delta);
+                  return delta;
+               } else if (storedKey == DeletedKey) {
+                  if (firstDeletedKey == -1) {
+                     firstDeletedKey = bucket;
+                  }
+               }
+
+               ++bucket;
+            }
+         } finally {
+            unlockWriteAndRehashIfNeeded(stamp);
+         }
+      }
+
+      private void insert(int emptyBucket, int firstDeletedKey, long key, long value) {
+         final int bucket;
+         if (firstDeletedKey != -1) {
+            bucket = firstDeletedKey;
+         } else {
+            bucket = emptyBucket;
+            ++usedBuckets;
+         }
+
+         table[2 * bucket] = key;
+         table[2 * bucket + 1] = value;
+         ++size;
+      }
+
+      private void unlockWriteAndRehashIfNeeded(long stamp) {
+         if (usedBuckets > resizeThreshold) {
+            try {
+               rehash();
+            } finally {
+               unlockWrite(stamp);
+            }
+         } else {
+            unlockWrite(stamp);
+         }
+      }
+
+      @SuppressWarnings("NonAtomicVolatileUpdate")
+      private long remove(long key, long value, int keyHash) {
+         int bucket = keyHash;
+         long stamp = writeLock();
+
+         try {
+            while (true) {
+               int capacity = this.capacity;
+               bucket = signSafeMod(bucket, capacity);
+
+               long storedKey = table[2 * bucket];
+               if (storedKey == key) {
+                  long storedValue = table[2 * bucket + 1];
+                  if (value == ValueNotFound || value == storedValue) {
+                     --size;
+                     long nextKeyInArray = table[2 * signSafeMod(bucket + 1, capacity)];
+                     if (nextKeyInArray == EmptyKey) {
+                        table[2 * bucket] = EmptyKey;
+                        --usedBuckets;
+                     } else {
+                        table[2 * bucket] = DeletedKey;
+                     }
+
+                     return storedValue;
+                  } else {
+                     return ValueNotFound;
+                  }
+               } else if (storedKey == EmptyKey) {
+                  // Key wasn't found
+                  return ValueNotFound;
+               }
+
+               ++bucket;
+            }
+
+         } finally {
+            unlockWrite(stamp);
+         }
+      }
+
+      void clear() {
+         long stamp = writeLock();
+
+         try {
+            Arrays.fill(table, EmptyKey);
+            this.size = 0;
+            this.usedBuckets = 0;
+         } finally {
+            unlockWrite(stamp);
+         }
+      }
+
+      public void forEach(EntryProcessor processor) {
+         long stamp = tryOptimisticRead();
+
+         int capacity = this.capacity;
+         long[] table = this.table;
+
+         boolean acquiredReadLock = false;
+
+         try {
+
+            // Validate no rehashing
+            if (!validate(stamp)) {
+               // Fallback to read lock
+               stamp = readLock();
+               acquiredReadLock = true;
+
+               capacity = this.capacity;
+               table = this.table;
+            }
+
+            // Go through all the buckets for this section
+            for (int bucket = 0; bucket < capacity; bucket++) {
+               long storedKey = table[2 * bucket];
+               long storedValue = table[2 * bucket + 1];
+
+               if (!acquiredReadLock && !validate(stamp)) {
+                  // Fallback to acquiring read lock
+                  stamp = readLock();
+                  acquiredReadLock = true;
+
+                  storedKey = table[2 * bucket];
+                  storedValue = table[2 * bucket + 1];
+               }
+
+               if (storedKey != DeletedKey && storedKey != EmptyKey) {
+                  processor.accept(storedKey, storedValue);
+               }
+            }
+         } finally {
+            if (acquiredReadLock) {
+               unlockRead(stamp);
+            }
+         }
+      }
+
+      private void rehash() {
+         // Expand the hashmap
+         int newCapacity = capacity * 2;
+         long[] newTable = new long[2 * newCapacity];
+         Arrays.fill(newTable, EmptyKey);
+
+         // Re-hash table
+         for (int i = 0; i < capacity; i++) {
+            long storedKey = table[2 * i];
+            if (storedKey != EmptyKey && storedKey != DeletedKey) {
+               insertKeyValueNoLock(newTable, newCapacity, storedKey, table[2 * i + 1]);
+            }
+         }
+
+         table = newTable;
+         usedBuckets = size;
+         CAPACITY_UPDATER.lazySet(this, newCapacity);
+         resizeThreshold = (int) (newCapacity * MapFillFactor);
+      }
+
+      private static void insertKeyValueNoLock(long[] table, int capacity, long key, long value) {
+         int bucket = (int) hash(key);
+
+         while (true) {
+            bucket = signSafeMod(bucket, capacity);
+
+            if (table[2 * bucket] == EmptyKey) {
+               // The bucket is empty, so we can use it
+               table[2 * bucket] = key;
+               table[2 * bucket + 1] = value;
+               return;
+            }
+
+            ++bucket;
+         }
+      }
+   }
+
+   private static long hash(long key) {
+      return ConcurrentLongHashMap.hash(key);
+   }
+
+   private static int signSafeMod(long n, int max) {
+      return ConcurrentLongHashMap.signSafeMod(n, max);
+   }
+
+   private static int alignToPowerOfTwo(int n) {
+      return ConcurrentLongHashMap.alignToPowerOfTwo(n);
+   }
+}
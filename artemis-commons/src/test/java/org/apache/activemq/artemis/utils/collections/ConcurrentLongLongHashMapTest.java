@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.utils.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentLongLongHashMapTest {
+
+   private static final long NOT_FOUND = ConcurrentLongLongHashMap.ValueNotFound;
+
+   @Test
+   public void simpleInsertions() {
+      ConcurrentLongLongHashMap map = new ConcurrentLongLongHashMap(16);
+
+      assertTrue(map.isEmpty());
+      assertEquals(NOT_FOUND, map.put(1, 11));
+      assertFalse(map.isEmpty());
+
+      assertEquals(NOT_FOUND, map.put(2, 22));
+      assertEquals(NOT_FOUND, map.put(3, 33));
+
+      assertEquals(3, map.size());
+
+      assertEquals(11, map.get(1));
+      assertEquals(3, map.size());
+
+      assertEquals(11, map.remove(1));
+      assertEquals(2, map.size());
+      assertEquals(NOT_FOUND, map.get(1));
+      assertEquals(NOT_FOUND, map.get(5));
+      assertFalse(map.containsKey(1));
+      assertTrue(map.containsKey(2));
+
+      assertEquals(NOT_FOUND, map.put(1, 11));
+      assertEquals(3, map.size());
+      assertEquals(11, map.put(1, 111));
+      assertEquals(3, map.size());
+      assertEquals(111, map.get(1));
+   }
+
+   @Test
+   public void testRemove() {
+      ConcurrentLongLongHashMap map = new ConcurrentLongLongHashMap();
+
+      assertEquals(NOT_FOUND, map.put(1, 11));
+
+      assertFalse(map.remove(0, 0));
+      assertFalse(map.remove(1, 12));
+
+      assertFalse(map.isEmpty());
+      assertTrue(map.remove(1, 11));
+      assertTrue(map.isEmpty());
+   }
+
+   @Test
+   public void testPutIfAbsent() {
+      ConcurrentLongLongHashMap map = new ConcurrentLongLongHashMap();
+      assertEquals(NOT_FOUND, map.putIfAbsent(1, 11));
+      assertEquals(11, map.get(1));
+
+      assertEquals(11, map.putIfAbsent(1, 111));
+      assertEquals(11, map.get(1));
+   }
+
+   @Test
+   public void testAddAndGet() {
+      ConcurrentLongLongHashMap map = new ConcurrentLongLongHashMap();
+      assertEquals(5, map.addAndGet(1, 5));
+      assertEquals(8, map.addAndGet(1, 3));
+      assertEquals(0, map.addAndGet(1, -8));
+      assertEquals(0, map.get(1));
+      assertThrows(IllegalArgumentException.class, () -> map.addAndGet(1, -1));
+      assertEquals(0, map.get(1));
+   }
+
+   @Test
+   public void testNegativeArguments() {
+      ConcurrentLongLongHashMap map = new ConcurrentLongLongHashMap();
+      assertThrows(IllegalArgumentException.class, () -> map.put(-1, 1));
+      assertThrows(IllegalArgumentException.class, () -> map.put(1, -1));
+      assertThrows(IllegalArgumentException.class, () -> map.get(-2));
+      assertTrue(map.isEmpty());
+   }
+
+   @Test
+   public void testRehashingWithDeletes() {
+      int n = 16;
+      ConcurrentLongLongHashMap map = new ConcurrentLongLongHashMap(n / 2, 1);
+      assertEquals(n, map.capacity());
+      assertEquals(0, map.size());
+
+      for (int i = 0; i < n / 2; i++) {
+         map.put(i, i);
+      }
+
+      for (int i = 0; i < n / 2; i++) {
+         map.remove(i);
+      }
+
+      for (int i = n; i < (2 * n); i++) {
+         map.put(i, i);
+      }
+
+      assertEquals(2 * n, map.capacity());
+      assertEquals(n, map.size());
+      for (int i = n; i < (2 * n); i++) {
+         assertEquals(i, map.get(i));
+      }
+   }
+
+   @Test
+   public void testHashConflictWithDeletion() {
+      final int buckets = 16;
+      ConcurrentLongLongHashMap map = new ConcurrentLongLongHashMap(buckets, 1);
+
+      // Pick 2 keys that fall into the same bucket
+      long key1 = 1;
+      long key2 = 27;
+
+      int bucket1 = ConcurrentLongHashMap.signSafeMod(ConcurrentLongHashMap.hash(key1), buckets);
+      int bucket2 = ConcurrentLongHashMap.signSafeMod(ConcurrentLongHashMap.hash(key2), buckets);
+      assertEquals(bucket1, bucket2);
+
+      assertEquals(NOT_FOUND, map.put(key1, 1));
+      assertEquals(NOT_FOUND, map.put(key2, 2));
+      assertEquals(2, map.size());
+
+      assertEquals(1, map.remove(key1));
+      assertEquals(1, map.size());
+
+      assertEquals(NOT_FOUND, map.put(key1, 11));
+      assertEquals(2, map.size());
+
+      assertEquals(11, map.remove(key1));
+      assertEquals(1, map.size());
+      assertEquals(2, map.remove(key2));
+      assertTrue(map.isEmpty());
+      assertEquals(0, map.getUsedBucketCount());
+   }
+
+   @Test
+   public void testIteration() {
+      ConcurrentLongLongHashMap map = new ConcurrentLongLongHashMap();
+
+      assertEquals(Collections.emptyList(), map.keys());
+
+      map.put(0, 10);
+      map.put(1, 11);
+      map.put(2, 12);
+
+      List<Long> keys = map.keys();
+      Collections.sort(keys);
+      assertEquals(List.of(0L, 1L, 2L), keys);
+
+      List<Long> values = new ArrayList<>();
+      map.forEach((key, value) -> {
+         assertEquals(key + 10, value);
+         values.add((long) value);
+      });
+      assertEquals(3, values.size());
+
+      map.clear();
+      assertTrue(map.isEmpty());
+      assertEquals(NOT_FOUND, map.get(1));
+   }
+
+   @Test
+   public void concurrentAddAndGet() throws Throwable {
+      ConcurrentLongLongHashMap map = new ConcurrentLongLongHashMap(16, 4);
+      final int nThreads = 8;
+      final int keys = 10_000;
+      ExecutorService executor = Executors.newCachedThreadPool();
+      try {
+         List<Future<?>> futures = new ArrayList<>();
+         for (int i = 0; i < nThreads; i++) {
+            futures.add(executor.submit(() -> {
+               for (int key = 0; key < keys; key++) {
+                  map.addAndGet(key, 1);
+                  assertTrue(map.get(key) > 0);
+               }
+            }));
+         }
+         for (Future<?> future : futures) {
+            future.get();
+         }
+      } finally {
+         executor.shutdown();
+      }
+
+      assertEquals(keys, map.size());
+      for (int key = 0; key < keys; key++) {
+         assertEquals(nThreads, map.get(key));
+      }
+   }
+}
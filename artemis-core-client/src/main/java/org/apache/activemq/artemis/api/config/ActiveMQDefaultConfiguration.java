@@ -301,6 +301,12 @@ public final class ActiveMQDefaultConfiguration {
    // The minimal number of data files before we can start compacting
    private static int DEFAULT_JOURNAL_COMPACT_MIN_FILES = 10;
 
+   // Whether compacting only the oldest data files, as soon as they are sparse enough
+   private static boolean DEFAULT_JOURNAL_COMPACT_INCREMENTAL = false;
+
+   // The bytes compacting can read and write per second, -1 means no limit
+   private static long DEFAULT_JOURNAL_COMPACT_MAX_BYTES_PER_SECOND = -1;
+
    // The maximal number of data files before we can start deleting corrupted files instead of moving them to attic.
    private static int DEFAULT_JOURNAL_MAX_ATTIC_FILES = 10;
 
@@ -512,6 +518,12 @@ public final class ActiveMQDefaultConfiguration {
 
    public static final long DEFAULT_GLOBAL_MAX_MESSAGES = -1;
 
+   // Heap (in bytes) held by the read pages kept in memory once released, for all the addresses. -1 = 5% of the max heap
+   public static final long DEFAULT_PAGE_CACHE_MAX_SIZE = -1;
+
+   // Bytes per second of page files written and read by all the addresses. -1 = no limit
+   public static final long DEFAULT_PAGE_IO_MAX_BYTES_PER_SECOND = -1;
+
    public static final int DEFAULT_MAX_DISK_USAGE;
 
    static {
@@ -682,6 +694,9 @@ public final class ActiveMQDefaultConfiguration {
    // Whether or not to report security cache metrics
    private static final boolean DEFAULT_SECURITY_CACHE_METRICS = false;
 
+   // Whether or not to report filter cache metrics
+   private static final boolean DEFAULT_FILTER_CACHE_METRICS = false;
+
    // How often (in ms) to scan for expired MQTT sessions
    private static long DEFAULT_MQTT_SESSION_SCAN_INTERVAL = 500;
 
@@ -1106,6 +1121,20 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_JOURNAL_COMPACT_MIN_FILES;
    }
 
+   /**
+    * Whether compacting only the oldest data files, as soon as they are sparse enough
+    */
+   public static boolean isDefaultJournalCompactIncremental() {
+      return DEFAULT_JOURNAL_COMPACT_INCREMENTAL;
+   }
+
+   /**
+    * The bytes compacting can read and write per second, -1 means no limit
+    */
+   public static long getDefaultJournalCompactMaxBytesPerSecond() {
+      return DEFAULT_JOURNAL_COMPACT_MAX_BYTES_PER_SECOND;
+   }
+
    /**
     * how many journal files to be stored in the attic.
     */
@@ -1577,6 +1606,20 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_GLOBAL_MAX_MESSAGES;
    }
 
+   /**
+    * The default size (in bytes) of the read pages kept in memory once released. -1 = 5% of the max heap.
+    */
+   public static long getDefaultPageCacheMaxSize() {
+      return DEFAULT_PAGE_CACHE_MAX_SIZE;
+   }
+
+   /**
+    * The default bytes per second of page files written and read by all the addresses. -1 = no limit.
+    */
+   public static long getDefaultPageIOMaxBytesPerSecond() {
+      return DEFAULT_PAGE_IO_MAX_BYTES_PER_SECOND;
+   }
+
    public static int getDefaultMaxDiskUsage() {
       return DEFAULT_MAX_DISK_USAGE;
    }
@@ -1902,6 +1945,13 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_SECURITY_CACHE_METRICS;
    }
 
+   /**
+    * Whether or not to report filter cache metrics
+    */
+   public static Boolean getDefaultFilterCacheMetrics() {
+      return DEFAULT_FILTER_CACHE_METRICS;
+   }
+
    /**
     * How often (in ms) to scan for expired MQTT sessions
     */
@@ -24,6 +24,9 @@ import java.util.Map;
  */
 public interface AcceptorControl extends ActiveMQComponentControl {
 
+   String FLUSH_COUNT_DESCRIPTION = "number of times the connections of this acceptor flushed their writes";
+   String WRITTEN_BYTES_DESCRIPTION = "number of bytes written by the connections of this acceptor";
+
    /**
     * Returns the name of the acceptor
     */
@@ -43,6 +46,18 @@ public interface AcceptorControl extends ActiveMQComponentControl {
    @Attribute(desc = "parameters used to configure this acceptor")
    Map<String, Object> getParameters();
 
+   /**
+    * Returns the number of times the connections of this acceptor, including the closed ones, flushed their writes.
+    */
+   @Attribute(desc = FLUSH_COUNT_DESCRIPTION)
+   long getFlushCount();
+
+   /**
+    * Returns the number of bytes written by the connections of this acceptor, including the closed ones.
+    */
+   @Attribute(desc = WRITTEN_BYTES_DESCRIPTION)
+   long getWrittenBytes();
+
    /**
     * Re-create the acceptor with the existing configuration values. Useful, for example, for reloading key/trust
     * stores on acceptors which support SSL.
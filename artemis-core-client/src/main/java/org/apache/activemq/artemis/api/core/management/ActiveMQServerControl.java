@@ -31,6 +31,7 @@ public interface ActiveMQServerControl {
    String ADDRESS_MEMORY_USAGE_DESCRIPTION = "Memory used by all the addresses on broker for in-memory messages";
    String ADDRESS_MEMORY_USAGE_PERCENTAGE_DESCRIPTION = "Memory used by all the addresses on broker as a percentage of the global-max-size";
    String DISK_STORE_USAGE_DESCRIPTION = "Fraction of total disk store used";
+   String PAGE_COUNTER_REBUILD_PROGRESS_DESCRIPTION = "Fraction of the page files read by the last page counters rebuild";
    String REPLICA_SYNC_DESCRIPTION = "If the initial replication synchronization process is complete";
    String IS_ACTIVE_DESCRIPTION = "If the server is active";
    String AUTHENTICATION_SUCCESS_COUNT = "Number of successful authentication attempts";
@@ -239,6 +240,36 @@ public interface ActiveMQServerControl {
    @Attribute(desc = "Percentage of live data before compacting the journal")
    int getJournalCompactPercentage();
 
+   /**
+    * Returns how many times the message journal has been compacted.
+    */
+   @Attribute(desc = "Number of times the message journal has been compacted")
+   int getJournalCompactCount();
+
+   /**
+    * Returns the percentage of the files read by the running compacting of the message journal, {@code -1} if it isn't compacting.
+    */
+   @Attribute(desc = "Percentage of the files read by the running compacting of the message journal, -1 if it isn't compacting")
+   int getJournalCompactProgress();
+
+   /**
+    * Returns the bytes of the message journal files reclaimed by compacting.
+    */
+   @Attribute(desc = "Bytes of the message journal files reclaimed by compacting")
+   long getJournalCompactReclaimedBytes();
+
+   /**
+    * Returns the milliseconds the appends to the message journal have been blocked by its last compacting.
+    */
+   @Attribute(desc = "Milliseconds the appends to the message journal have been blocked by its last compacting")
+   long getJournalCompactLastPauseTime();
+
+   /**
+    * Returns the longest milliseconds the appends to the message journal have been blocked at once by compacting.
+    */
+   @Attribute(desc = "Longest milliseconds the appends to the message journal have been blocked at once by compacting")
+   long getJournalCompactMaxPauseTime();
+
    /**
     * Returns whether this server is using persistence and store data.
     */
@@ -2071,6 +2102,12 @@ public interface ActiveMQServerControl {
    @Attribute(desc = "Scan all paged destinations to rebuild the page counters")
    void rebuildPageCounters() throws Exception;
 
+   /**
+    * Returns the fraction of the page files read by the last page counters rebuild, {@code 1} once it's done
+    */
+   @Attribute(desc = PAGE_COUNTER_REBUILD_PROGRESS_DESCRIPTION)
+   double getPageCounterRebuildProgress();
+
    @Operation(desc = "Clear the authentication cache", impact = MBeanOperationInfo.ACTION)
    void clearAuthenticationCache() throws Exception;
 
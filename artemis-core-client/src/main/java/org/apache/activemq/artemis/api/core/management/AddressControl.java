@@ -27,6 +27,15 @@ public interface AddressControl {
    String UNROUTED_MESSAGE_COUNT_DESCRIPTION = "number of messages not routed to any bindings";
    String ADDRESS_SIZE_DESCRIPTION = "the number of estimated bytes being used by all the queue(s) bound to this address; used to control paging and blocking";
    String NUMBER_OF_PAGES_DESCRIPTION = "number of pages used by this address";
+   String PAGE_CACHE_HIT_RATIO_DESCRIPTION = "ratio of the pages of this address found in memory when a subscription needed them";
+   String PAGE_CACHE_RESIDENT_BYTES_DESCRIPTION = "the estimated heap held by the pages of this address in memory";
+   String PAGE_COMPRESSION_RATIO_DESCRIPTION = "ratio of the size of the messages paged for this address to the size they take on the page files";
+   String PAGE_COMPRESSION_TIME_DESCRIPTION = "the time, in milliseconds, spent on compressing the messages paged for this address";
+   String PAGE_IO_WRITE_RATE_DESCRIPTION = "the bytes per second written to the pages of this address on the last second";
+   String PAGE_IO_READ_RATE_DESCRIPTION = "the bytes per second read from the pages of this address on the last second";
+   String PAGE_IO_QUEUEING_DELAY_DESCRIPTION = "the average time, in milliseconds, the producers of this address were held back on the last second for going over its share of the page I/O";
+   String PAGE_SYNC_LATENCY_P50_DESCRIPTION = "the time, in milliseconds, within which half of the last durable sends to this address got their page files synced";
+   String PAGE_SYNC_LATENCY_P99_DESCRIPTION = "the time, in milliseconds, within which 99% of the last durable sends to this address got their page files synced";
 
    /**
     * Returns the managed address.
@@ -101,6 +110,66 @@ public interface AddressControl {
    @Attribute(desc = NUMBER_OF_PAGES_DESCRIPTION)
    long getNumberOfPages();
 
+   /**
+    * Returns the ratio (between 0 and 1) of the pages of this address found in memory when a subscription needed
+    * them, rather than read from their file.
+    */
+   @Attribute(desc = PAGE_CACHE_HIT_RATIO_DESCRIPTION)
+   double getPageCacheHitRatio();
+
+   /**
+    * Returns the number of bytes of the pages of this address held in memory, either used by its subscriptions or
+    * kept once released.
+    */
+   @Attribute(desc = PAGE_CACHE_RESIDENT_BYTES_DESCRIPTION)
+   long getPageCacheResidentBytes();
+
+   /**
+    * Returns how many times the messages paged for this address are bigger than the size they take on the page files,
+    * {@code 1} if they aren't compressed.
+    */
+   @Attribute(desc = PAGE_COMPRESSION_RATIO_DESCRIPTION)
+   double getPageCompressionRatio();
+
+   /**
+    * Returns the time, in milliseconds, spent on compressing the messages paged for this address.
+    */
+   @Attribute(desc = PAGE_COMPRESSION_TIME_DESCRIPTION)
+   long getPageCompressionTime();
+
+   /**
+    * Returns the bytes per second written to the pages of this address on the last second.
+    */
+   @Attribute(desc = PAGE_IO_WRITE_RATE_DESCRIPTION)
+   double getPageIOWriteRate();
+
+   /**
+    * Returns the bytes per second read from the pages of this address on the last second.
+    */
+   @Attribute(desc = PAGE_IO_READ_RATE_DESCRIPTION)
+   double getPageIOReadRate();
+
+   /**
+    * Returns the average time, in milliseconds, the producers of this address released on the last second were held
+    * back for going over its share of the page I/O of the broker.
+    */
+   @Attribute(desc = PAGE_IO_QUEUEING_DELAY_DESCRIPTION)
+   double getPageIOQueueingDelay();
+
+   /**
+    * Returns the time, in milliseconds, within which half of the last durable sends to this address got their page
+    * files synced.
+    */
+   @Attribute(desc = PAGE_SYNC_LATENCY_P50_DESCRIPTION)
+   double getPageSyncLatencyP50();
+
+   /**
+    * Returns the time, in milliseconds, within which 99% of the last durable sends to this address got their page files
+    * synced.
+    */
+   @Attribute(desc = PAGE_SYNC_LATENCY_P99_DESCRIPTION)
+   double getPageSyncLatencyP99();
+
    /**
     * Returns whether this address is paging.
     *
@@ -44,6 +44,8 @@ public interface QueueControl {
    String MESSAGES_ACKNOWLEDGED_DESCRIPTION = "number of messages acknowledged from this queue since it was created";
    String MESSAGES_EXPIRED_DESCRIPTION = "number of messages expired from this queue since it was created";
    String MESSAGES_KILLED_DESCRIPTION = "number of messages removed from this queue since it was created due to exceeding the max delivery attempts";
+   String CONSUMER_FILTER_MISMATCHES_DESCRIPTION = "number of times a consumer filter was found not to match a pending message of this queue and the mismatch was recorded";
+   String CONSUMER_FILTER_EVALUATIONS_SKIPPED_DESCRIPTION = "number of consumer filter evaluations avoided because the filter was already known not to match the pending message";
 
    /**
     * Returns the name of this queue.
@@ -218,6 +220,20 @@ public interface QueueControl {
    @Attribute(desc = MESSAGES_KILLED_DESCRIPTION)
    long getMessagesKilled();
 
+   /**
+    * Returns the number of times the filter of a consumer of this queue was found not to match a
+    * pending message and the mismatch was recorded on the message.
+    */
+   @Attribute(desc = CONSUMER_FILTER_MISMATCHES_DESCRIPTION)
+   long getConsumerFilterMismatches();
+
+   /**
+    * Returns the number of consumer filter evaluations avoided because the filter was already known
+    * not to match the pending message.
+    */
+   @Attribute(desc = CONSUMER_FILTER_EVALUATIONS_SKIPPED_DESCRIPTION)
+   long getConsumerFilterEvaluationsSkipped();
+
    /**
     * Returns the first message on the queue as JSON
     */
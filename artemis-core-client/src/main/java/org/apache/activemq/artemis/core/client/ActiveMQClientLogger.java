@@ -261,6 +261,12 @@ public interface ActiveMQClientLogger {
    @LogMessage(id = 212080, value = "Using legacy SSL store provider value: {}. Please use either 'keyStoreType' or 'trustStoreType' instead as appropriate.", level = LogMessage.Level.WARN)
    void oldStoreProvider(String value);
 
+   @LogMessage(id = 212081, value = "Unable to check io_uring availability ", level = LogMessage.Level.WARN)
+   void unableToCheckIoUringAvailability(Throwable e);
+
+   @LogMessage(id = 212082, value = "io_uring is not available, please add netty-incubator-transport-native-io_uring to the classpath or configure useIoUring=false to remove this warning", level = LogMessage.Level.WARN)
+   void unableToCheckIoUringAvailabilityNoClass();
+
    @LogMessage(id = 214000, value = "Failed to call onMessage", level = LogMessage.Level.ERROR)
    void onMessageError(Throwable e);
 
@@ -23,6 +23,7 @@ import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
@@ -43,9 +44,6 @@ import org.apache.activemq.artemis.spi.core.remoting.SessionContext;
 import org.apache.activemq.artemis.utils.FutureLatch;
 import org.apache.activemq.artemis.utils.ReusableLatch;
 import org.apache.activemq.artemis.utils.TokenBucketLimiter;
-import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
-import org.apache.activemq.artemis.utils.collections.PriorityLinkedList;
-import org.apache.activemq.artemis.utils.collections.PriorityLinkedListImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.lang.invoke.MethodHandles;
@@ -87,13 +85,22 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
    // Number of pending calls on flow control
    private final ReusableLatch pendingFlowControl = new ReusableLatch(0);
 
+   // The credits to be sent by the task already submitted to the flowControlExecutor, if not 0
+   private final AtomicInteger pendingCredits = new AtomicInteger();
+
+   private final Runnable pendingCreditsSender = this::sendPendingCredits;
+
    private final int initialWindow;
 
    private final int clientWindowSize;
 
    private final int ackBatchSize;
 
-   private final PriorityLinkedList<ClientMessageInternal> buffer = new PriorityLinkedListImpl<>(ClientConsumerImpl.NUM_PRIORITIES);
+   // Filled by handleMessage, always called holding the consumer lock, and polled holding the pollLock instead: just a
+   // receive() finding it empty and going to wait for a message needs the consumer lock too
+   private final SpscPriorityQueue<ClientMessageInternal> buffer = new SpscPriorityQueue<>(ClientConsumerImpl.NUM_PRIORITIES);
+
+   private final Object pollLock = new Object();
 
    private final Runner runner = new Runner();
 
@@ -125,7 +132,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
    private volatile ClientMessageInternal lastAckedMessage;
 
-   private boolean stopped = false;
+   private volatile boolean stopped = false;
 
    private AtomicLong forceDeliveryCount = new AtomicLong(0);
 
@@ -241,41 +248,43 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
       try {
          while (true) {
-            ClientMessageInternal m = null;
-
-            synchronized (this) {
-               while ((stopped || (m = buffer.poll()) == null) && !closed && toWait > 0) {
-                  if (start == -1) {
-                     start = System.currentTimeMillis();
-                  }
+            ClientMessageInternal m = stopped ? null : pollBuffer();
 
-                  if (m == null && forcingDelivery) {
-                     if (stopped) {
-                        break;
+            if (m == null) {
+               synchronized (this) {
+                  while ((stopped || (m = pollBuffer()) == null) && !closed && toWait > 0) {
+                     if (start == -1) {
+                        start = System.currentTimeMillis();
                      }
 
-                     // we only force delivery once per call to receive
-                     if (!deliveryForced) {
-                        callForceDelivery = true;
-                        break;
+                     if (m == null && forcingDelivery) {
+                        if (stopped) {
+                           break;
+                        }
+
+                        // we only force delivery once per call to receive
+                        if (!deliveryForced) {
+                           callForceDelivery = true;
+                           break;
+                        }
                      }
-                  }
 
-                  try {
-                     wait(toWait);
-                  } catch (InterruptedException e) {
-                     throw new ActiveMQInterruptedException(e);
-                  }
+                     try {
+                        wait(toWait);
+                     } catch (InterruptedException e) {
+                        throw new ActiveMQInterruptedException(e);
+                     }
 
-                  if (m != null || closed) {
-                     break;
-                  }
+                     if (m != null || closed) {
+                        break;
+                     }
 
-                  long now = System.currentTimeMillis();
+                     long now = System.currentTimeMillis();
 
-                  toWait -= now - start;
+                     toWait -= now - start;
 
-                  start = now;
+                     start = now;
+                  }
                }
             }
 
@@ -597,7 +606,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       }
 
       // Add it to the buffer
-      buffer.addTail(message, message.getPriority());
+      buffer.offer(message, message.getPriority());
 
       if (handler != null) {
          // Execute using executor
@@ -705,10 +714,9 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       synchronized (this) {
          // Need to send credits for the messages in the buffer
 
-         try (LinkedListIterator<ClientMessageInternal> iter = buffer.iterator()) {
-            while (iter.hasNext()) {
-               ClientMessageInternal message = iter.next();
-
+         try {
+            ClientMessageInternal message;
+            while ((message = pollBuffer()) != null) {
                if (message.isLargeMessage()) {
                   ClientLargeMessageInternal largeMessage = (ClientLargeMessageInternal) message;
                   largeMessage.getLargeMessageController().cancel();
@@ -836,7 +844,11 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
                creditsToSend = 0;
 
                if (credits > 0) {
-                  sendCredits(credits);
+                  if (clientWindowSize > 0) {
+                     sendCreditsBatched(credits);
+                  } else {
+                     sendCredits(credits);
+                  }
                }
             }
          }
@@ -883,7 +895,9 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
    }
 
    private void requeueExecutors() {
-      for (int i = 0; i < buffer.size(); i++) {
+      // the runners already queued can be polling the buffer meanwhile: one runner for each message there is right now
+      final int size = buffer.size();
+      for (int i = 0; i < size; i++) {
          queueExecutor();
       }
    }
@@ -910,6 +924,25 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       });
    }
 
+   /**
+    * Adds the credits to the ones of the task already submitted to send them, if it didn't run yet: just the credits
+    * returned by a consumer with a window can be merged, the ones of a slow consumer must be sent one by one.
+    */
+   private void sendCreditsBatched(final int credits) {
+      if (pendingCredits.getAndAdd(credits) == 0) {
+         pendingFlowControl.countUp();
+         flowControlExecutor.execute(pendingCreditsSender);
+      }
+   }
+
+   private void sendPendingCredits() {
+      try {
+         sessionContext.sendConsumerCredits(this, pendingCredits.getAndSet(0));
+      } finally {
+         pendingFlowControl.countDown();
+      }
+   }
+
    private void waitForOnMessageToComplete(boolean waitForOnMessage) {
       if (handler == null) {
          return;
@@ -961,9 +994,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
          failedOver = false;
 
-         synchronized (this) {
-            message = buffer.poll();
-         }
+         message = pollBuffer();
 
          if (message != null) {
             if (message.containsProperty(ClientConsumerImpl.FORCED_DELIVERY_MESSAGE)) {
@@ -1111,8 +1142,16 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       session.removeConsumer(this);
    }
 
+   private ClientMessageInternal pollBuffer() {
+      synchronized (pollLock) {
+         return buffer.poll();
+      }
+   }
+
    private void clearBuffer() {
-      buffer.clear();
+      synchronized (pollLock) {
+         buffer.clear();
+      }
    }
 
    private void doAck(final ClientMessageInternal message) throws ActiveMQException {
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.client.impl;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * A queue with a lane per priority, polling the elements of the highest priority first and in FIFO order within the
+ * same priority, like {@link org.apache.activemq.artemis.utils.collections.PriorityLinkedListImpl}.
+ * <p>
+ * There must be a single producer and a single consumer at a time: {@link #offer(Object, int)} is for the producer,
+ * {@link #poll()} and {@link #clear()} for the consumer, which don't need to share a lock. {@link #size()} can be called
+ * by any thread.
+ */
+final class SpscPriorityQueue<E> {
+
+   private static final AtomicLongFieldUpdater<SpscPriorityQueue> ADDED_UPDATER = AtomicLongFieldUpdater.newUpdater(SpscPriorityQueue.class, "added");
+
+   private static final AtomicLongFieldUpdater<SpscPriorityQueue> REMOVED_UPDATER = AtomicLongFieldUpdater.newUpdater(SpscPriorityQueue.class, "removed");
+
+   private final Queue<E>[] lanes;
+
+   // written by the producer only
+   private volatile long added;
+
+   // written by the consumer only
+   private volatile long removed;
+
+   @SuppressWarnings("unchecked")
+   SpscPriorityQueue(final int priorities) {
+      lanes = new Queue[priorities];
+      for (int i = 0; i < priorities; i++) {
+         lanes[i] = PlatformDependent.newSpscQueue();
+      }
+   }
+
+   void offer(final E e, final int priority) {
+      lanes[priority].offer(e);
+      ADDED_UPDATER.lazySet(this, added + 1);
+   }
+
+   E poll() {
+      // an element just offered could be missed here: the producer has to wake the consumer up once it's counted
+      if (removed == added) {
+         return null;
+      }
+      final Queue<E>[] lanes = this.lanes;
+      for (int i = lanes.length - 1; i >= 0; i--) {
+         final E e = lanes[i].poll();
+         if (e != null) {
+            REMOVED_UPDATER.lazySet(this, removed + 1);
+            return e;
+         }
+      }
+      return null;
+   }
+
+   void clear() {
+      for (Queue<E> lane : lanes) {
+         while (lane.poll() != null) {
+            REMOVED_UPDATER.lazySet(this, removed + 1);
+         }
+      }
+   }
+
+   int size() {
+      final long removed = this.removed;
+      // an element can be polled before the producer counted it
+      return (int) Math.max(0, added - removed);
+   }
+}
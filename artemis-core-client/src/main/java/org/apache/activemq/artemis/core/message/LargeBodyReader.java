@@ -16,6 +16,7 @@
  */
 package org.apache.activemq.artemis.core.message;
 
+import java.io.File;
 import java.nio.ByteBuffer;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
@@ -63,4 +64,14 @@ public interface LargeBodyReader extends AutoCloseable {
     * This method must not be called directly by ActiveMQ Artemis clients.
     */
    long getSize() throws ActiveMQException;
+
+   /**
+    * This method must not be called directly by ActiveMQ Artemis clients.
+    *
+    * The file holding the body from its first byte, once opened, to transfer it without reading it, or {@code null}
+    * if the body can only be read through this reader.
+    */
+   default File getFile() {
+      return null;
+   }
 }
@@ -18,7 +18,9 @@ package org.apache.activemq.artemis.core.protocol.core;
 
 import java.util.concurrent.locks.Lock;
 
+import io.netty.channel.FileRegion;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveContinuationMessage;
 
 /**
  * A channel is a way of interleaving data meant for different endpoints over the same {@link org.apache.activemq.artemis.core.protocol.core.CoreRemotingConnection}.
@@ -84,6 +86,20 @@ public interface Channel {
     */
    boolean sendBatched(Packet packet);
 
+   /**
+    * Sends a large message continuation on this channel, transferring its body straight from a file to the
+    * connection. It isn't possible with outgoing interceptors, as they would miss the body, nor with a resend
+    * cache, as the packet couldn't be resent, nor if the connection doesn't support it.
+    *
+    * @param packet the packet to send, without any body
+    * @param body   the file region to send as the body of the packet, released once sent
+    * @return false if the packet can't be sent this way: nothing has been sent and {@code body} has to be released by
+    * the caller
+    */
+   default boolean sendFileRegion(SessionReceiveContinuationMessage packet, FileRegion body) {
+      return false;
+   }
+
    /**
     * Similarly to {@code flushConnection} on {@link #send(Packet, boolean)}, it requests
     * any un-flushed previous sent packets to be flushed to the underlying connection.<br>
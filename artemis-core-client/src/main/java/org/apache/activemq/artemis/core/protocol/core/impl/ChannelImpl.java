@@ -26,6 +26,7 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import io.netty.channel.FileRegion;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
@@ -40,7 +41,9 @@ import org.apache.activemq.artemis.core.protocol.core.Packet;
 import org.apache.activemq.artemis.core.protocol.core.ResponseHandler;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ActiveMQExceptionMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.PacketsConfirmedMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveContinuationMessage;
 import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.spi.core.remoting.Connection;
 import org.apache.activemq.artemis.utils.ConcurrentUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -119,6 +122,8 @@ public final class ChannelImpl implements Channel {
 
    private final Condition failoverCondition = lock.newCondition();
 
+   // serializes the non-blocking senders lining up, adding to the resend cache and writing their packets, in order:
+   // only the encoding of the packets happens before taking it
    private final Object sendLock = new Object();
 
    private final Object sendBlockingLock = new Object();
@@ -253,68 +258,28 @@ public final class ChannelImpl implements Channel {
          return false;
       }
 
-      final ResponseCache responseAsyncCache = this.responseAsyncCache;
+      final ActiveMQBuffer buffer = encode(packet);
 
       synchronized (sendLock) {
-         packet.setChannelID(id);
-
-         if (responseAsyncCache != null && packet.isRequiresResponse() && packet.isResponseAsync()) {
-            packet.setCorrelationID(responseAsyncCache.nextCorrelationID());
-         }
-
-         if (logger.isTraceEnabled()) {
-            logger.trace("RemotingConnectionID={} Sending packet nonblocking {} on channelID={}",
-                         (connection == null ? "NULL" : connection.getID()), packet, id);
-         }
-
-         ActiveMQBuffer buffer = packet.encode(connection);
-
-         lock.lock();
-
          try {
-            if (failingOver) {
-               waitForFailOver("RemotingConnectionID=" + (connection == null ? "NULL" : connection.getID()) + " timed-out waiting for fail-over condition on non-blocking send");
-            }
-
-            // Sanity check
-            if (transferring) {
-               throw ActiveMQClientMessageBundle.BUNDLE.cannotSendPacketDuringFailover();
-            }
-
-            if (resendCache != null && packet.isRequiresConfirmations()) {
-               addResendPacket(packet);
-            }
-
-         } finally {
-            lock.unlock();
+            lineUp(packet, -1, "non-blocking send");
+         } catch (Throwable t) {
+            buffer.release();
+            throw t;
          }
 
+         addToResponseCache(packet);
+
          if (logger.isTraceEnabled()) {
             logger.trace("RemotingConnectionID={} Writing buffer for channelID={}", (connection == null ? "NULL" : connection.getID()), id);
          }
 
-         //We do this outside the lock as ResponseCache is threadsafe and allows responses to come in,
-         //As the send could block if the response cache cannot add, preventing responses to be handled.
-         if (responseAsyncCache != null && packet.isRequiresResponse() && packet.isResponseAsync()) {
-            while (!responseAsyncCache.add(packet)) {
-               try {
-                  Thread.sleep(1);
-               } catch (Exception e) {
-                  // Ignore
-               }
-            }
-         }
-
          // The actual send must be outside the lock, or with OIO transport, the write can block if the tcp
          // buffer is full, preventing any incoming buffers being handled and blocking failover
          try {
             connection.getTransportConnection().write(buffer, flushConnection);
          } catch (Throwable t) {
-            //If runtime exception, we must remove from the cache to avoid filling up the cache causing it to be full.
-            //The client would get still know about this as the exception bubbles up the call stack instead.
-            if (responseAsyncCache != null && packet.isRequiresResponse() && packet.isResponseAsync()) {
-               responseAsyncCache.remove(packet.getCorrelationID());
-            }
+            removeFromResponseCache(packet);
             throw t;
          }
          return true;
@@ -341,6 +306,38 @@ public final class ChannelImpl implements Channel {
       return send(packet, -1, false, true);
    }
 
+   @Override
+   public boolean sendFileRegion(final SessionReceiveContinuationMessage packet, final FileRegion body) {
+      final Connection transportConnection = connection.getTransportConnection();
+      if (resendCache != null || (interceptors != null && !interceptors.isEmpty()) || !transportConnection.isFileRegionSupported()) {
+         return false;
+      }
+
+      packet.setChannelID(id);
+
+      if (logger.isTraceEnabled()) {
+         logger.trace("RemotingConnectionID={} Sending packet nonblocking {} with a file region of {} bytes on channelID={}",
+                      connection.getID(), packet, body.count(), id);
+      }
+
+      final ActiveMQBuffer header = packet.encodeHeader(connection, (int) body.count());
+      final ActiveMQBuffer trailer = packet.encodeTrailer(connection);
+
+      synchronized (sendLock) {
+         try {
+            lineUp(packet, -1, "non-blocking send");
+         } catch (Throwable t) {
+            header.release();
+            body.release();
+            trailer.release();
+            throw t;
+         }
+
+         transportConnection.write(header, body, trailer);
+         return true;
+      }
+   }
+
    @Override
    public void setTransferring(boolean transferring) {
       this.transferring = transferring;
@@ -367,77 +364,106 @@ public final class ChannelImpl implements Channel {
       }
    }
 
-   // This must never called by more than one thread concurrently
    private boolean send(final Packet packet, final int reconnectID, final boolean flush, final boolean batch) {
       if (invokeInterceptors(packet, interceptors, connection) != null) {
          return false;
       }
 
-      synchronized (sendLock) {
-         packet.setChannelID(id);
+      final ActiveMQBuffer buffer = encode(packet);
 
-         if (responseAsyncCache != null && packet.isRequiresResponse() && packet.isResponseAsync()) {
-            packet.setCorrelationID(responseAsyncCache.nextCorrelationID());
+      synchronized (sendLock) {
+         try {
+            lineUp(packet, reconnectID, "non-blocking send");
+         } catch (Throwable t) {
+            buffer.release();
+            throw t;
          }
 
+         addToResponseCache(packet);
+
          if (logger.isTraceEnabled()) {
-            logger.trace("RemotingConnectionID={} Sending packet nonblocking {} on channelID={}",
-                         (connection == null ? "NULL" : connection.getID()), packet, id);
+            logger.trace("RemotingConnectionID={} Writing buffer for channelID={}", (connection == null ? "NULL" : connection.getID()), id);
          }
 
-         ActiveMQBuffer buffer = packet.encode(connection);
+         // The actual send must be outside the lock, or with OIO transport, the write can block if the tcp
+         // buffer is full, preventing any incoming buffers being handled and blocking failover
+         try {
+            connection.getTransportConnection().write(buffer, flush, batch);
+         } catch (Throwable t) {
+            removeFromResponseCache(packet);
+            throw t;
+         }
+         return true;
+      }
+   }
 
-         lock.lock();
+   /**
+    * Encodes a packet to send, out of any lock: the senders encode their packets concurrently, while lining them up,
+    * adding them to the resend cache and writing them is still serialized on {@code sendLock}, by each sender for its
+    * own packet.
+    */
+   private ActiveMQBuffer encode(final Packet packet) {
+      packet.setChannelID(id);
 
-         try {
-            if (failingOver) {
-               waitForFailOver("RemotingConnectionID=" + (connection == null ? "NULL" : connection.getID()) + " timed-out waiting for fail-over condition on non-blocking send");
-            }
+      if (responseAsyncCache != null && packet.isRequiresResponse() && packet.isResponseAsync()) {
+         packet.setCorrelationID(responseAsyncCache.nextCorrelationID());
+      }
 
-            // Sanity check
-            if (transferring) {
-               throw ActiveMQClientMessageBundle.BUNDLE.cannotSendPacketDuringFailover();
-            }
+      if (logger.isTraceEnabled()) {
+         logger.trace("RemotingConnectionID={} Sending packet nonblocking {} on channelID={}",
+                      (connection == null ? "NULL" : connection.getID()), packet, id);
+      }
 
-            if (resendCache != null && packet.isRequiresConfirmations()) {
-               addResendPacket(packet);
-            }
+      return packet.encode(connection);
+   }
 
-         } finally {
-            lock.unlock();
+   /**
+    * Waits for the fail-over in progress, if any, and adds the packet to the resend cache if it requires
+    * confirmations. It's done under {@link #lock}, so that the packet is either in the cache replayed by the fail-over
+    * or added once it completed.
+    */
+   private void lineUp(final Packet packet, final int reconnectID, final String operation) {
+      lock.lock();
+
+      try {
+         if (failingOver) {
+            waitForFailOver("RemotingConnectionID=" + (connection == null ? "NULL" : connection.getID()) + " timed-out waiting for fail-over condition on " + operation);
          }
 
-         if (logger.isTraceEnabled()) {
-            logger.trace("RemotingConnectionID={} Writing buffer for channelID={}", (connection == null ? "NULL" : connection.getID()), id);
+         // Sanity check
+         if (transferring) {
+            throw ActiveMQClientMessageBundle.BUNDLE.cannotSendPacketDuringFailover();
          }
 
          checkReconnectID(reconnectID);
 
-         //We do this outside the lock as ResponseCache is threadsafe and allows responses to come in,
-         //As the send could block if the response cache cannot add, preventing responses to be handled.
-         if (responseAsyncCache != null && packet.isRequiresResponse() && packet.isResponseAsync()) {
-            while (!responseAsyncCache.add(packet)) {
-               try {
-                  Thread.sleep(1);
-               } catch (Exception e) {
-                  // Ignore
-               }
-            }
+         if (resendCache != null && packet.isRequiresConfirmations()) {
+            addResendPacket(packet);
          }
+      } finally {
+         lock.unlock();
+      }
+   }
 
-         // The actual send must be outside the lock, or with OIO transport, the write can block if the tcp
-         // buffer is full, preventing any incoming buffers being handled and blocking failover
-         try {
-            connection.getTransportConnection().write(buffer, flush, batch);
-         } catch (Throwable t) {
-            //If runtime exception, we must remove from the cache to avoid filling up the cache causing it to be full.
-            //The client would get still know about this as the exception bubbles up the call stack instead.
-            if (responseAsyncCache != null && packet.isRequiresResponse() && packet.isResponseAsync()) {
-               responseAsyncCache.remove(packet.getCorrelationID());
+   private void addToResponseCache(final Packet packet) {
+      //We do this outside the lock as ResponseCache is threadsafe and allows responses to come in,
+      //As the send could block if the response cache cannot add, preventing responses to be handled.
+      if (responseAsyncCache != null && packet.isRequiresResponse() && packet.isResponseAsync()) {
+         while (!responseAsyncCache.add(packet)) {
+            try {
+               Thread.sleep(1);
+            } catch (Exception e) {
+               // Ignore
             }
-            throw t;
          }
-         return true;
+      }
+   }
+
+   private void removeFromResponseCache(final Packet packet) {
+      //If runtime exception, we must remove from the cache to avoid filling up the cache causing it to be full.
+      //The client would get still know about this as the exception bubbles up the call stack instead.
+      if (responseAsyncCache != null && packet.isRequiresResponse() && packet.isResponseAsync()) {
+         responseAsyncCache.remove(packet.getCorrelationID());
       }
    }
 
@@ -497,8 +523,15 @@ public final class ChannelImpl implements Channel {
          lock.lock();
 
          try {
-            if (failingOver) {
-               waitForFailOver("RemotingConnectionID=" + (connection == null ? "NULL" : connection.getID()) + " timed-out waiting for fail-over condition on blocking send");
+            try {
+               if (failingOver) {
+                  waitForFailOver("RemotingConnectionID=" + (connection == null ? "NULL" : connection.getID()) + " timed-out waiting for fail-over condition on blocking send");
+               }
+
+               checkReconnectID(reconnectID);
+            } catch (Throwable t) {
+               buffer.release();
+               throw t;
             }
 
             response = null;
@@ -507,8 +540,6 @@ public final class ChannelImpl implements Channel {
                addResendPacket(packet);
             }
 
-            checkReconnectID(reconnectID);
-
             if (logger.isTraceEnabled()) {
                logger.trace("RemotingConnectionID={} Sending blocking {}", (connection == null ? "NULL" : connection.getID()), packet);
             }
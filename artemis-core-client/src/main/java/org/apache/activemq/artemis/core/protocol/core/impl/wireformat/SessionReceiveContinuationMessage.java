@@ -17,6 +17,7 @@
 package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.core.protocol.core.CoreRemotingConnection;
 import org.apache.activemq.artemis.utils.DataConstants;
 
 public class SessionReceiveContinuationMessage extends SessionContinuationMessage {
@@ -73,6 +74,30 @@ public class SessionReceiveContinuationMessage extends SessionContinuationMessag
       buffer.writeLong(consumerID);
    }
 
+   /**
+    * Encodes the bytes of this packet before a body of {@code bodySize} bytes written apart, e.g. straight from a
+    * file: the bytes after the body are encoded by {@link #encodeTrailer(CoreRemotingConnection)}.
+    */
+   public ActiveMQBuffer encodeHeader(final CoreRemotingConnection connection, final int bodySize) {
+      final ActiveMQBuffer buffer = connection.createTransportBuffer(PACKET_HEADERS_SIZE + DataConstants.SIZE_INT);
+      encodeHeader(buffer);
+      buffer.writeInt(bodySize);
+      size = SESSION_RECEIVE_CONTINUATION_BASE_SIZE + bodySize;
+      // The length doesn't include the actual length byte
+      buffer.setInt(0, size - DataConstants.SIZE_INT);
+      return buffer;
+   }
+
+   /**
+    * Encodes the bytes of this packet after its body, see {@link #encodeHeader(CoreRemotingConnection, int)}.
+    */
+   public ActiveMQBuffer encodeTrailer(final CoreRemotingConnection connection) {
+      final ActiveMQBuffer buffer = connection.createTransportBuffer(DataConstants.SIZE_BOOLEAN + DataConstants.SIZE_LONG);
+      buffer.writeBoolean(continues);
+      buffer.writeLong(consumerID);
+      return buffer;
+   }
+
    @Override
    public int getPacketSize() {
       if (size == -1) {
@@ -26,7 +26,7 @@ import org.slf4j.LoggerFactory;
 import java.lang.invoke.MethodHandles;
 
 /**
- * This class will check for Epoll or KQueue is available, and return false in case of NoClassDefFoundError
+ * This class will check for Epoll, KQueue or io_uring is available, and return false in case of NoClassDefFoundError
  * it could be improved to check for other cases eventually.
  */
 public class CheckDependencies {
@@ -45,6 +45,18 @@ public class CheckDependencies {
       }
    }
 
+   public static final boolean isIoUringAvailable() {
+      try {
+         return Env.isLinuxOs() && IoUring.isAvailable();
+      } catch (ClassNotFoundException | NoClassDefFoundError noClass) {
+         ActiveMQClientLogger.LOGGER.unableToCheckIoUringAvailabilityNoClass();
+         return false;
+      } catch (Throwable e) {
+         ActiveMQClientLogger.LOGGER.unableToCheckIoUringAvailability(e);
+         return false;
+      }
+   }
+
    public static final boolean isKQueueAvailable() {
       try {
          return Env.isMacOs() && KQueue.isAvailable();
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.remoting.impl.netty;
+
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.SocketChannel;
+
+/**
+ * The Netty io_uring transport.
+ * <p>
+ * It is shipped by the {@code io.netty.incubator:netty-incubator-transport-native-io_uring} artifact, which isn't a
+ * dependency: its classes are loaded by name when it is on the classpath. {@link #isAvailable()} throws
+ * {@link ClassNotFoundException} otherwise, and the other methods are meant to be called once it returned
+ * {@code true}.
+ */
+public final class IoUring {
+
+   private static final String PACKAGE = "io.netty.incubator.channel.uring.";
+
+   private IoUring() {
+   }
+
+   private static Class<?> load(String simpleName) throws ClassNotFoundException {
+      return Class.forName(PACKAGE + simpleName, true, IoUring.class.getClassLoader());
+   }
+
+   public static boolean isAvailable() throws ReflectiveOperationException {
+      return (Boolean) load("IOUring").getMethod("isAvailable").invoke(null);
+   }
+
+   /**
+    * @param threadFactory {@code null} for the Netty default one
+    */
+   public static EventLoopGroup newEventLoopGroup(int threads, ThreadFactory threadFactory) {
+      try {
+         return (EventLoopGroup) load("IOUringEventLoopGroup").getConstructor(int.class, ThreadFactory.class).newInstance(threads, threadFactory);
+      } catch (ReflectiveOperationException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   public static Class<? extends SocketChannel> socketChannelClass() {
+      return channelClass("IOUringSocketChannel", SocketChannel.class);
+   }
+
+   public static Class<? extends ServerChannel> serverSocketChannelClass() {
+      return channelClass("IOUringServerSocketChannel", ServerChannel.class);
+   }
+
+   private static <T> Class<? extends T> channelClass(String simpleName, Class<T> type) {
+      try {
+         return load(simpleName).asSubclass(type);
+      } catch (ClassNotFoundException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+}
@@ -21,15 +21,21 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.locks.LockSupport;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.ChannelOutboundHandler;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoop;
+import io.netty.channel.FileRegion;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.FastThreadLocal;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
@@ -69,6 +75,26 @@ public class NettyConnection implements Connection {
 
    private final boolean batchingEnabled;
 
+   private final boolean adaptiveFlush;
+
+   private final boolean largeMessageZeroCopy;
+
+   // accessed only by the event loop
+   private boolean flushScheduled;
+
+   private final Runnable scheduledFlush = this::scheduledFlush;
+
+   private static final AtomicLongFieldUpdater<NettyConnection> FLUSHES_UPDATER = AtomicLongFieldUpdater.newUpdater(NettyConnection.class, "flushes");
+
+   private static final AtomicLongFieldUpdater<NettyConnection> WRITTEN_BYTES_UPDATER = AtomicLongFieldUpdater.newUpdater(NettyConnection.class, "writtenBytes");
+
+   private volatile long flushes;
+
+   private volatile long writtenBytes;
+
+   // computed on the first call of isFileRegionSupported
+   private volatile Boolean fileRegionSupported;
+
    private boolean closed;
    private RemotingConnection protocolConnection;
 
@@ -90,6 +116,50 @@ public class NettyConnection implements Connection {
       this.directDeliver = directDeliver;
 
       this.batchingEnabled = batchingEnabled;
+
+      this.adaptiveFlush = ConfigurationHelper.getBooleanProperty(TransportConstants.ADAPTIVE_FLUSH, TransportConstants.DEFAULT_ADAPTIVE_FLUSH, configuration);
+
+      this.largeMessageZeroCopy = ConfigurationHelper.getBooleanProperty(TransportConstants.LARGE_MESSAGE_ZERO_COPY, TransportConstants.DEFAULT_LARGE_MESSAGE_ZERO_COPY, configuration);
+   }
+
+   public final boolean isAdaptiveFlush() {
+      return adaptiveFlush;
+   }
+
+   /**
+    * Returns how many times the channel has been requested to flush its pending writes, with or without
+    * {@link #isAdaptiveFlush()}.
+    */
+   @Override
+   public final long getFlushCount() {
+      return flushes;
+   }
+
+   /**
+    * Returns how many bytes have been written to the channel.
+    */
+   @Override
+   public final long getWrittenBytes() {
+      return writtenBytes;
+   }
+
+   /**
+    * Returns the average number of bytes written per flush, {@code 0} if nothing has been flushed yet.
+    */
+   public final double getBytesPerFlush() {
+      final long flushes = this.flushes;
+      if (flushes == 0) {
+         return 0;
+      }
+      return (double) writtenBytes / flushes;
+   }
+
+   private void recordWrite(long bytes) {
+      WRITTEN_BYTES_UPDATER.getAndAdd(this, bytes);
+   }
+
+   private void recordFlush() {
+      FLUSHES_UPDATER.getAndIncrement(this);
    }
 
    @Override
@@ -269,6 +339,7 @@ public class NettyConnection implements Connection {
       if (batchingEnabled) {
          // perform the flush only if necessary
          if (batchBufferSize(channel) > 0) {
+            recordFlush();
             channel.flush();
          }
       }
@@ -283,7 +354,9 @@ public class NettyConnection implements Connection {
    public void write(ActiveMQBuffer buffer, boolean requestFlush) {
       final Channel channel = this.channel;
       final ByteBuf bytes = buffer.byteBuf();
+      recordWrite(bytes.readableBytes());
       if (requestFlush) {
+         recordFlush();
          channel.writeAndFlush(bytes, channel.voidPromise());
       } else {
          channel.write(bytes, channel.voidPromise());
@@ -293,6 +366,7 @@ public class NettyConnection implements Connection {
    @Override
    public void flush() {
       checkConnectionState();
+      recordFlush();
       this.channel.flush();
    }
 
@@ -368,10 +442,14 @@ public class NettyConnection implements Connection {
       final ChannelFuture future;
       final ByteBuf bytes = buffer.byteBuf();
       assert readableBytes >= 0;
+      recordWrite(readableBytes);
       final boolean batchingEnabled = this.batchingEnabled;
       if (batchingEnabled && batched && !flush && channel.isWritable()) {
          future = channel.write(bytes, promise);
+      } else if (adaptiveFlush && !flush) {
+         future = writeAdaptive(channel, bytes, promise);
       } else {
+         recordFlush();
          future = channel.writeAndFlush(bytes, promise);
       }
       if (futureListener != null) {
@@ -383,6 +461,101 @@ public class NettyConnection implements Connection {
       }
    }
 
+   /**
+    * Writes without flushing and lets the event loop flush once it has run the tasks already submitted to it: the writes
+    * submitted meanwhile, by any thread, are coalesced into the same flush. When the event loop is idle the flush runs
+    * right after the write, so it doesn't add latency.
+    */
+   private ChannelFuture writeAdaptive(final Channel channel, final ByteBuf bytes, final ChannelPromise promise) {
+      final EventLoop eventLoop = channel.eventLoop();
+      if (eventLoop.inEventLoop()) {
+         writeAdaptive(channel, eventLoop, bytes, promise);
+      } else {
+         // the write is a task anyway: this one saves waking up the event loop again for the flush
+         try {
+            eventLoop.execute(() -> writeAdaptive(channel, eventLoop, bytes, promise));
+         } catch (Throwable t) {
+            ReferenceCountUtil.safeRelease(bytes);
+            throw t;
+         }
+      }
+      return promise;
+   }
+
+   private void writeAdaptive(final Channel channel, final EventLoop eventLoop, final ByteBuf bytes, final ChannelPromise promise) {
+      channel.write(bytes, promise);
+      if (flushScheduled) {
+         return;
+      }
+      if (!channel.isWritable()) {
+         // over the high water mark: let the outbound buffer drain as soon as possible
+         recordFlush();
+         channel.flush();
+         return;
+      }
+      flushScheduled = true;
+      eventLoop.execute(scheduledFlush);
+   }
+
+   private void scheduledFlush() {
+      flushScheduled = false;
+      recordFlush();
+      channel.flush();
+   }
+
+   @Override
+   public final boolean isFileRegionSupported() {
+      Boolean fileRegionSupported = this.fileRegionSupported;
+      if (fileRegionSupported == null) {
+         // the pipeline is complete by the time something is sent through it
+         fileRegionSupported = largeMessageZeroCopy && checkFileRegionSupported(channel);
+         this.fileRegionSupported = fileRegionSupported;
+      }
+      return fileRegionSupported;
+   }
+
+   private static boolean checkFileRegionSupported(final Channel channel) {
+      if (!(channel instanceof SocketChannel)) {
+         return false;
+      }
+      // TLS, HTTP or WebSocket encoders would get a FileRegion they can't handle
+      for (Map.Entry<String, ChannelHandler> handler : channel.pipeline()) {
+         if (handler.getValue() instanceof ChannelOutboundHandler && !(handler.getValue() instanceof ActiveMQChannelHandler)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   @Override
+   public final void write(ActiveMQBuffer header, FileRegion region, ActiveMQBuffer trailer) {
+      final Channel channel = this.channel;
+      final EventLoop eventLoop = channel.eventLoop();
+      final ByteBuf headerBytes = header.byteBuf();
+      final ByteBuf trailerBytes = trailer.byteBuf();
+      recordWrite(headerBytes.readableBytes() + region.count() + trailerBytes.readableBytes());
+      recordFlush();
+      if (eventLoop.inEventLoop()) {
+         write(channel, headerBytes, region, trailerBytes);
+      } else {
+         // a single task, so the writes of other threads can't go in between: they are queued in order anyway
+         try {
+            eventLoop.execute(() -> write(channel, headerBytes, region, trailerBytes));
+         } catch (Throwable t) {
+            ReferenceCountUtil.safeRelease(headerBytes);
+            ReferenceCountUtil.safeRelease(region);
+            ReferenceCountUtil.safeRelease(trailerBytes);
+            throw t;
+         }
+      }
+   }
+
+   private static void write(Channel channel, ByteBuf header, FileRegion region, ByteBuf trailer) {
+      channel.write(header, channel.voidPromise());
+      channel.write(region, channel.voidPromise());
+      channel.writeAndFlush(trailer, channel.voidPromise());
+   }
+
    private static void flushAndWait(final Channel channel, final ChannelPromise promise) {
       if (!channel.eventLoop().inEventLoop()) {
          waitFor(promise, DEFAULT_WAIT_MILLIS);
@@ -68,6 +68,8 @@ public class TransportConstants {
 
    public static final String USE_KQUEUE_PROP_NAME = "useKQueue";
 
+   public static final String USE_IO_URING_PROP_NAME = "useIoUring";
+
    @Deprecated
    /**
     * @deprecated Use USE_GLOBAL_WORKER_POOL_PROP_NAME
@@ -174,6 +176,10 @@ public class TransportConstants {
 
    public static final String BATCH_DELAY = "batchDelay";
 
+   public static final String ADAPTIVE_FLUSH = "adaptiveFlush";
+
+   public static final String LARGE_MESSAGE_ZERO_COPY = "largeMessageZeroCopy";
+
    public static final String DIRECT_DELIVER = "directDeliver";
 
    public static final String CLUSTER_CONNECTION = "clusterConnection";
@@ -213,6 +219,8 @@ public class TransportConstants {
 
    public static final boolean DEFAULT_USE_KQUEUE = true;
 
+   public static final boolean DEFAULT_USE_IO_URING = false;
+
    public static final boolean DEFAULT_USE_INVM = false;
 
    public static final boolean DEFAULT_USE_SERVLET = false;
@@ -301,6 +309,10 @@ public class TransportConstants {
 
    public static final long DEFAULT_BATCH_DELAY = 0;
 
+   public static final boolean DEFAULT_ADAPTIVE_FLUSH = false;
+
+   public static final boolean DEFAULT_LARGE_MESSAGE_ZERO_COPY = false;
+
    public static final boolean DEFAULT_DIRECT_DELIVER = true;
 
    public static final Set<String> ALLOWABLE_CONNECTOR_KEYS;
@@ -409,6 +421,7 @@ public class TransportConstants {
       allowableAcceptorKeys.add(TransportConstants.USE_NIO_PROP_NAME);
       allowableAcceptorKeys.add(TransportConstants.USE_EPOLL_PROP_NAME);
       allowableAcceptorKeys.add(TransportConstants.USE_KQUEUE_PROP_NAME);
+      allowableAcceptorKeys.add(TransportConstants.USE_IO_URING_PROP_NAME);
       allowableAcceptorKeys.add(TransportConstants.USE_INVM_PROP_NAME);
       //noinspection deprecation
       allowableAcceptorKeys.add(TransportConstants.PROTOCOL_PROP_NAME);
@@ -439,6 +452,8 @@ public class TransportConstants {
       allowableAcceptorKeys.add(TransportConstants.NIO_REMOTING_THREADS_PROPNAME);
       allowableAcceptorKeys.add(TransportConstants.REMOTING_THREADS_PROPNAME);
       allowableAcceptorKeys.add(TransportConstants.BATCH_DELAY);
+      allowableAcceptorKeys.add(TransportConstants.ADAPTIVE_FLUSH);
+      allowableAcceptorKeys.add(TransportConstants.LARGE_MESSAGE_ZERO_COPY);
       allowableAcceptorKeys.add(TransportConstants.DIRECT_DELIVER);
       allowableAcceptorKeys.add(TransportConstants.CLUSTER_CONNECTION);
       allowableAcceptorKeys.add(TransportConstants.STOMP_CONSUMERS_CREDIT);
@@ -484,6 +499,7 @@ public class TransportConstants {
       allowableConnectorKeys.add(TransportConstants.USE_NIO_GLOBAL_WORKER_POOL_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.USE_EPOLL_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.USE_KQUEUE_PROP_NAME);
+      allowableConnectorKeys.add(TransportConstants.USE_IO_URING_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.USE_GLOBAL_WORKER_POOL_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.HOST_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.PORT_PROP_NAME);
@@ -512,6 +528,7 @@ public class TransportConstants {
       allowableConnectorKeys.add(TransportConstants.NIO_REMOTING_THREADS_PROPNAME);
       allowableConnectorKeys.add(TransportConstants.REMOTING_THREADS_PROPNAME);
       allowableConnectorKeys.add(TransportConstants.BATCH_DELAY);
+      allowableConnectorKeys.add(TransportConstants.ADAPTIVE_FLUSH);
       allowableConnectorKeys.add(TransportConstants.PROXY_ENABLED_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.PROXY_HOST_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.PROXY_PORT_PROP_NAME);
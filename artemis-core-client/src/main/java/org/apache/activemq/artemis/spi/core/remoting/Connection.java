@@ -16,10 +16,18 @@
  */
 package org.apache.activemq.artemis.spi.core.remoting;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.TimeUnit;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.EventLoop;
+import io.netty.channel.FileRegion;
+import io.netty.util.ReferenceCountUtil;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.TransportConfiguration;
 import org.apache.activemq.artemis.core.security.ActiveMQPrincipal;
@@ -94,6 +102,21 @@ public interface Connection {
 
    }
 
+   /**
+    * Returns how many times the writes of this connection have been flushed to the wire, {@code 0} if it doesn't count
+    * them.
+    */
+   default long getFlushCount() {
+      return 0;
+   }
+
+   /**
+    * Returns how many bytes have been written to this connection, {@code 0} if it doesn't count them.
+    */
+   default long getWrittenBytes() {
+      return 0;
+   }
+
    /**
     * writes the buffer to the connection and if flush is true returns only when the buffer has been physically written to the connection.
     *
@@ -119,6 +142,53 @@ public interface Connection {
     */
    void write(ActiveMQBuffer buffer);
 
+   /**
+    * Returns whether {@link #write(ActiveMQBuffer, FileRegion, ActiveMQBuffer)} is supported: it requires a plain
+    * socket, with no handler encoding the outgoing bytes, e.g. with TLS. Netty connections require the
+    * {@code largeMessageZeroCopy} acceptor parameter too.
+    */
+   default boolean isFileRegionSupported() {
+      return false;
+   }
+
+   /**
+    * writes {@code header}, the content of {@code region} and {@code trailer} to the connection, with nothing in
+    * between, requesting to flush them. If {@link #isFileRegionSupported()} the content of the file region is
+    * transferred to the wire without being copied, otherwise it's copied into a buffer with the header and the
+    * trailer, as done by default. The buffers and the region are released once written.
+    *
+    * @param header  the buffer to write before the file region
+    * @param region  the file region to transfer
+    * @param trailer the buffer to write after the file region
+    */
+   default void write(ActiveMQBuffer header, FileRegion region, ActiveMQBuffer trailer) {
+      final ByteBuf headerBytes = header.byteBuf();
+      final ByteBuf trailerBytes = trailer.byteBuf();
+      final ActiveMQBuffer buffer = createTransportBuffer(headerBytes.readableBytes() + (int) region.count() + trailerBytes.readableBytes());
+      try {
+         final ByteBuf bytes = buffer.byteBuf();
+         bytes.writeBytes(headerBytes);
+         final WritableByteChannel target = Channels.newChannel(new ByteBufOutputStream(bytes));
+         long position = 0;
+         while (position < region.count()) {
+            final long transferred = region.transferTo(target, position);
+            if (transferred <= 0) {
+               throw new EOFException("transferred " + position + " bytes out of " + region.count() + " from " + region);
+            }
+            position += transferred;
+         }
+         bytes.writeBytes(trailerBytes);
+      } catch (IOException e) {
+         buffer.release();
+         throw new IllegalStateException(e);
+      } finally {
+         ReferenceCountUtil.release(headerBytes);
+         ReferenceCountUtil.release(region);
+         ReferenceCountUtil.release(trailerBytes);
+      }
+      write(buffer, true);
+   }
+
    /**
     * This should close the internal channel without calling any listeners.
     * This is to avoid a situation where the broker is busy writing on an internal thread.
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.client.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+public class SpscPriorityQueueTest {
+
+   @Test
+   public void testPriorityOrder() {
+      final SpscPriorityQueue<String> queue = new SpscPriorityQueue<>(10);
+      assertNull(queue.poll());
+
+      queue.offer("4a", 4);
+      queue.offer("0a", 0);
+      queue.offer("9a", 9);
+      queue.offer("4b", 4);
+      queue.offer("9b", 9);
+      assertEquals(5, queue.size());
+
+      assertEquals("9a", queue.poll());
+      assertEquals("9b", queue.poll());
+      assertEquals("4a", queue.poll());
+      queue.offer("7a", 7);
+      assertEquals("7a", queue.poll());
+      assertEquals("4b", queue.poll());
+      assertEquals("0a", queue.poll());
+      assertNull(queue.poll());
+      assertEquals(0, queue.size());
+
+      queue.offer("1a", 1);
+      queue.offer("2a", 2);
+      queue.clear();
+      assertEquals(0, queue.size());
+      assertNull(queue.poll());
+   }
+
+   @Test
+   @Timeout(value = 30, unit = TimeUnit.SECONDS)
+   public void testProducerAndConsumerThreads() throws Exception {
+      final SpscPriorityQueue<Integer> queue = new SpscPriorityQueue<>(10);
+      final int elements = 1_000_000;
+
+      final Thread producer = new Thread(() -> {
+         for (int i = 0; i < elements; i++) {
+            queue.offer(i, 4);
+         }
+      });
+      producer.start();
+
+      int next = 0;
+      while (next < elements) {
+         final Integer e = queue.poll();
+         if (e == null) {
+            Thread.yield();
+            continue;
+         }
+         assertEquals(next++, e.intValue());
+         assertTrue(queue.size() >= 0);
+      }
+      producer.join();
+      assertNull(queue.poll());
+      assertEquals(0, queue.size());
+   }
+}
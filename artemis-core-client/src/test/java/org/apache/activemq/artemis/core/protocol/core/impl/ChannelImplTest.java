@@ -17,6 +17,7 @@
 package org.apache.activemq.artemis.core.protocol.core.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -36,11 +37,13 @@ public class ChannelImplTest {
 
    ChannelImpl channel;
 
+   Connection connection;
+
    @BeforeEach
    public void setUp() {
       CoreRemotingConnection coreRC = Mockito.mock(CoreRemotingConnection.class);
       Mockito.when(coreRC.createTransportBuffer(Packet.INITIAL_PACKET_SIZE)).thenReturn(new ChannelBufferWrapper(Unpooled.buffer(Packet.INITIAL_PACKET_SIZE)));
-      Connection connection = Mockito.mock(Connection.class);
+      connection = Mockito.mock(Connection.class);
       Mockito.when(coreRC.getTransportConnection()).thenReturn(connection);
       channel = new ChannelImpl(coreRC, 1, 4000, null);
    }
@@ -102,4 +105,18 @@ public class ChannelImplTest {
 
       assertEquals(0, channel.getCache().size());
    }
-}
\ No newline at end of file
+
+   @Test
+   public void testWriteFailureThrownToSender() {
+      Mockito.doThrow(new IllegalStateException("closed")).when(connection).write(Mockito.any(), Mockito.anyBoolean(), Mockito.anyBoolean());
+
+      Packet requestPacket = Mockito.mock(Packet.class);
+      Mockito.when(requestPacket.isResponseAsync()).thenReturn(true);
+      Mockito.when(requestPacket.isRequiresResponse()).thenReturn(true);
+      setResponseHandlerAsPerActiveMQSessionContext((packet, response) -> { });
+
+      assertThrows(IllegalStateException.class, () -> channel.send(requestPacket));
+
+      assertEquals(0, channel.getCache().size());
+   }
+}
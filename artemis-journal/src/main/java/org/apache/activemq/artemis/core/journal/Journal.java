@@ -361,6 +361,41 @@ public interface Journal extends ActiveMQComponent {
     */
    void scheduleCompactAndBlock(int timeout) throws Exception;
 
+   /**
+    * @return how many times the journal has been compacted
+    */
+   default int getCompactCount() {
+      return 0;
+   }
+
+   /**
+    * @return the percentage of the files read by the compacting in progress, {@code -1} if it isn't compacting
+    */
+   default int getCompactProgress() {
+      return -1;
+   }
+
+   /**
+    * @return the bytes of the files reclaimed by compacting
+    */
+   default long getCompactReclaimedBytes() {
+      return 0;
+   }
+
+   /**
+    * @return the milliseconds the appends have been blocked by the last compacting
+    */
+   default long getCompactLastPauseTime() {
+      return 0;
+   }
+
+   /**
+    * @return the longest milliseconds the appends have been blocked at once by any compacting
+    */
+   default long getCompactMaxPauseTime() {
+      return 0;
+   }
+
    /**
     * Stops any operation that may delete or modify old (stale) data.
     * <p>
@@ -56,7 +56,10 @@ public abstract class AbstractJournalUpdateTask implements JournalReaderCallback
 
    private ByteBuffer bufferWrite;
 
-   private final ConcurrentLongHashSet recordsSnapshot;
+   private final JournalRecordIndex recordsSnapshot;
+
+   // records added after taking recordsSnapshot
+   private final ConcurrentLongHashSet addedRecords = new ConcurrentLongHashSet();
 
    protected final List<JournalFile> newDataFiles = new ArrayList<>();
 
@@ -64,7 +67,7 @@ public abstract class AbstractJournalUpdateTask implements JournalReaderCallback
    protected AbstractJournalUpdateTask(final SequentialFileFactory fileFactory,
                                        final JournalImpl journal,
                                        final JournalFilesRepository filesRepository,
-                                       final ConcurrentLongHashSet recordsSnapshot,
+                                       final JournalRecordIndex recordsSnapshot,
                                        final long nextOrderingID) {
       super();
       this.journal = journal;
@@ -244,7 +247,8 @@ public abstract class AbstractJournalUpdateTask implements JournalReaderCallback
    }
 
    public boolean containsRecord(final long id) {
-      return recordsSnapshot.contains(id);
+      // addedRecords warns about invalid negative ids: they are never taken from the snapshot, so compacting drops them
+      return addedRecords.contains(id) || id >= 0 && recordsSnapshot.contains(id);
    }
 
 
@@ -283,7 +287,7 @@ public abstract class AbstractJournalUpdateTask implements JournalReaderCallback
    }
 
    protected void addToRecordsSnaptshot(final long id) {
-      recordsSnapshot.add(id);
+      addedRecords.add(id);
    }
 
    /**
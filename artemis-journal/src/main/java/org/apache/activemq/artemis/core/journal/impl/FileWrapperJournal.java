@@ -18,7 +18,6 @@ package org.apache.activemq.artemis.core.journal.impl;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
@@ -42,7 +41,7 @@ import org.apache.activemq.artemis.core.journal.impl.dataformat.JournalDeleteRec
 import org.apache.activemq.artemis.core.journal.impl.dataformat.JournalDeleteRecordTX;
 import org.apache.activemq.artemis.core.journal.impl.dataformat.JournalInternalRecord;
 import org.apache.activemq.artemis.core.journal.impl.dataformat.JournalRollbackRecordTX;
-import org.apache.activemq.artemis.utils.collections.ConcurrentLongHashMap;
+import org.apache.activemq.artemis.utils.collections.ConcurrentLongLongHashMap;
 import org.apache.activemq.artemis.utils.collections.SparseArrayLinkedList;
 
 /**
@@ -55,7 +54,7 @@ public final class FileWrapperJournal extends JournalBase {
 
    private final ReentrantLock lockAppend = new ReentrantLock();
 
-   private final ConcurrentLongHashMap<AtomicInteger> transactions = new ConcurrentLongHashMap<>();
+   private final ConcurrentLongLongHashMap transactions = new ConcurrentLongLongHashMap();
    private final JournalImpl journal;
    protected volatile JournalFile currentFile;
 
@@ -152,14 +151,14 @@ public final class FileWrapperJournal extends JournalBase {
          testSwitchFiles(encoder);
          if (txID >= 0) {
             if (tx) {
-               AtomicInteger value;
+               final long value;
                if (removeTX) {
                   value = transactions.remove(txID);
                } else {
                   value = transactions.get(txID);
                }
-               if (value != null) {
-                  encoder.setNumberOfRecords(value.get());
+               if (value != ConcurrentLongLongHashMap.ValueNotFound) {
+                  encoder.setNumberOfRecords((int) value);
                }
             } else {
                count(txID);
@@ -181,9 +180,8 @@ public final class FileWrapperJournal extends JournalBase {
       JournalFile oldFile = currentFile;
       currentFile = journal.switchFileIfNecessary(encoder.getEncodeSize());
       if (oldFile != currentFile) {
-         for (AtomicInteger value : transactions.values()) {
-            value.set(0);
-         }
+         // the records of the transactions on the new file are counted from 0
+         transactions.clear();
       }
    }
 
@@ -269,14 +267,7 @@ public final class FileWrapperJournal extends JournalBase {
    }
 
    private int count(long txID) throws ActiveMQException {
-      AtomicInteger defaultValue = new AtomicInteger(1);
-      AtomicInteger count = transactions.putIfAbsent(txID, defaultValue);
-      if (count != null) {
-         count.incrementAndGet();
-      } else {
-         count = defaultValue;
-      }
-      return count.intValue();
+      return (int) transactions.addAndGet(txID, 1);
    }
 
    @Override
@@ -37,7 +37,6 @@ import org.apache.activemq.artemis.core.journal.impl.dataformat.JournalRollbackR
 import org.apache.activemq.artemis.journal.ActiveMQJournalLogger;
 import org.apache.activemq.artemis.utils.RunnableEx;
 import org.apache.activemq.artemis.utils.collections.ConcurrentLongHashMap;
-import org.apache.activemq.artemis.utils.collections.ConcurrentLongHashSet;
 import org.slf4j.LoggerFactory;
 import java.lang.invoke.MethodHandles;
 import org.slf4j.Logger;
@@ -47,6 +46,8 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
    LongObjectHashMap<LinkedList<RunnableEx>> pendingWritesOnTX = new LongObjectHashMap<>();
+   // the same writes of pendingWritesOnTX, as non transactional records: used when compacting only the oldest files
+   LongObjectHashMap<LinkedList<RunnableEx>> committedWritesOnTX;
    IntObjectHashMap<LongObjectHashMap<RunnableEx>> pendingUpdates = new IntObjectHashMap<>();
 
    // We try to separate old record from new ones when doing the compacting
@@ -60,7 +61,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
    // Snapshot of transactions that were pending when the compactor started
    private final ConcurrentLongHashMap<PendingTransaction> pendingTransactions = new ConcurrentLongHashMap<>();
 
-   private final ConcurrentLongHashMap<JournalRecord> newRecords = new ConcurrentLongHashMap<>();
+   private final JournalRecordIndex newRecords = new JournalRecordIndex();
 
    private final ConcurrentLongHashMap<JournalTransaction> newTransactions = new ConcurrentLongHashMap<>();
 
@@ -71,11 +72,14 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
     */
    private final LinkedList<CompactCommand> pendingCommands = new LinkedList<>();
 
+   // the new files can't be ordered at or after this file ID, -1 if unbounded
+   private final long maxOrderingID;
+
    public List<JournalFile> getNewDataFiles() {
       return newDataFiles;
    }
 
-   public ConcurrentLongHashMap<JournalRecord> getNewRecords() {
+   public JournalRecordIndex getNewRecords() {
       return newRecords;
    }
 
@@ -86,9 +90,36 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
    public JournalCompactor(final SequentialFileFactory fileFactory,
                            final JournalImpl journal,
                            final JournalFilesRepository filesRepository,
-                           final ConcurrentLongHashSet recordsSnapshot,
+                           final JournalRecordIndex recordsSnapshot,
                            final long firstFileID) {
+      this(fileFactory, journal, filesRepository, recordsSnapshot, firstFileID, -1);
+   }
+
+   /**
+    * A compactor of the oldest data files of the journal only, with no records of pending transactions: their new
+    * files are ordered from {@code firstFileID} up to {@code maxOrderingID} (exclusive), as they replace them.
+    * <p>
+    * Transactions completed after these files have their records kept until {@link #completeTransaction} is called.
+    */
+   public JournalCompactor(final SequentialFileFactory fileFactory,
+                           final JournalImpl journal,
+                           final JournalFilesRepository filesRepository,
+                           final JournalRecordIndex recordsSnapshot,
+                           final long firstFileID,
+                           final long maxOrderingID) {
       super(fileFactory, journal, filesRepository, recordsSnapshot, firstFileID);
+      this.maxOrderingID = maxOrderingID;
+      if (maxOrderingID >= 0) {
+         committedWritesOnTX = new LongObjectHashMap<>();
+      }
+   }
+
+   @Override
+   protected void openFile() throws Exception {
+      if (maxOrderingID >= 0 && nextOrderingID >= maxOrderingID) {
+         throw new IllegalStateException("There is no room to order a new compacted file before the file " + maxOrderingID);
+      }
+      super.openFile();
    }
 
    /**
@@ -221,15 +252,19 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
       logger.trace("Read Record {}", info);
 
       if (containsRecord(info.id)) {
-         JournalInternalRecord addRecord = new JournalAddRecord(true, info.id, info.getUserRecordType(), EncoderPersister.getInstance(), new ByteArrayEncoding(info.data));
-         addRecord.setCompactCount((short) (info.compactCount + 1));
+         produceAddRecord(info);
+      }
+   }
 
-         checkSizeAndCompactSplit(addRecord.getEncodeSize(), info.compactCount);
+   private void produceAddRecord(final RecordInfo info) throws Exception {
+      JournalInternalRecord addRecord = new JournalAddRecord(true, info.id, info.getUserRecordType(), EncoderPersister.getInstance(), new ByteArrayEncoding(info.data));
+      addRecord.setCompactCount((short) (info.compactCount + 1));
 
-         writeEncoder(addRecord);
+      checkSizeAndCompactSplit(addRecord.getEncodeSize(), info.compactCount);
 
-         newRecords.put(info.id, new JournalRecord(currentFile, addRecord.getEncodeSize()));
-      }
+      writeEncoder(addRecord);
+
+      newRecords.add(info.id, currentFile, addRecord.getEncodeSize());
    }
 
    @Override
@@ -241,7 +276,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
       if (pendingTransactions.get(transactionID) != null) {
          produceAddRecordTX(transactionID, info);
       } else if (containsRecord(info.id)) {
-         addTX(transactionID, () -> produceAddRecordTX(transactionID, info));
+         addTX(transactionID, () -> produceAddRecordTX(transactionID, info), () -> produceAddRecord(info));
       }
    }
 
@@ -289,7 +324,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
          logger.trace("onReadDeleteRecord {}", recordID);
       }
 
-      if (newRecords.get(recordID) != null) {
+      if (newRecords.contains(recordID)) {
          // Sanity check, it should never happen
          ActiveMQJournalLogger.LOGGER.inconsistencyDuringCompactingDelete(recordID);
       }
@@ -325,17 +360,31 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
       // nothing to be done here
    }
 
-   private void addTX(long tx, RunnableEx runnable) {
-      LinkedList<RunnableEx> runnables = pendingWritesOnTX.get(tx);
+   private void addTX(long tx, RunnableEx runnable, RunnableEx committedRunnable) {
+      addTX(pendingWritesOnTX, tx, runnable);
+      if (committedWritesOnTX != null) {
+         addTX(committedWritesOnTX, tx, committedRunnable);
+      }
+   }
+
+   private static void addTX(LongObjectHashMap<LinkedList<RunnableEx>> writesOnTX, long tx, RunnableEx runnable) {
+      LinkedList<RunnableEx> runnables = writesOnTX.get(tx);
       if (runnables == null) {
          runnables = new LinkedList<>();
-         pendingWritesOnTX.put(tx, runnables);
+         writesOnTX.put(tx, runnables);
       }
       runnables.add(runnable);
    }
 
    private void flushTX(long tx) throws Exception {
-      LinkedList<RunnableEx> runnables = pendingWritesOnTX.remove(tx);
+      if (committedWritesOnTX != null) {
+         dropTX(committedWritesOnTX, tx);
+      }
+      flushTX(pendingWritesOnTX, tx);
+   }
+
+   private static void flushTX(LongObjectHashMap<LinkedList<RunnableEx>> writesOnTX, long tx) throws Exception {
+      LinkedList<RunnableEx> runnables = writesOnTX.remove(tx);
       if (runnables != null) {
          for (RunnableEx runnableEx : runnables) {
             runnableEx.run();
@@ -346,13 +395,48 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
    }
 
    private void dropTX(long tx) {
-      LinkedList objects = pendingWritesOnTX.remove(tx);
+      if (committedWritesOnTX != null) {
+         dropTX(committedWritesOnTX, tx);
+      }
+      dropTX(pendingWritesOnTX, tx);
+   }
+
+   private static void dropTX(LongObjectHashMap<LinkedList<RunnableEx>> writesOnTX, long tx) {
+      LinkedList objects = writesOnTX.remove(tx);
       if (objects != null) {
          // a little hand to GC
          objects.clear();
       }
    }
 
+   /**
+    * The transactions with records on the compacted files, but without their commit or rollback record: it can only
+    * happen while compacting the oldest files, when they completed on a later file.
+    */
+   public long[] getIncompleteTransactions() {
+      final long[] transactions = new long[pendingWritesOnTX.size()];
+      int i = 0;
+      for (long tx : pendingWritesOnTX.keySet()) {
+         transactions[i++] = tx;
+      }
+      return transactions;
+   }
+
+   /**
+    * Writes the records of an incomplete transaction, that has been committed on a later file, as non transactional
+    * records: they would be loaded before the commit, but nothing else can refer to them before it anyway.
+    * <p>
+    * The records of a rolled back transaction are just dropped.
+    */
+   public void completeTransaction(long tx, boolean committed) throws Exception {
+      dropTX(pendingWritesOnTX, tx);
+      if (committed) {
+         flushTX(committedWritesOnTX, tx);
+      } else {
+         dropTX(committedWritesOnTX, tx);
+      }
+   }
+
 
    @Override
    public void onReadPrepareRecord(final long transactionID,
@@ -439,12 +523,8 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
 
       checkSizeAndCompactSplit(updateRecord.getEncodeSize(), info.compactCount);
 
-      JournalRecord newRecord = newRecords.get(info.id);
-
-      if (newRecord == null) {
+      if (!newRecords.update(info.id, currentFile, updateRecord.getEncodeSize(), info.replaceableUpdate)) {
          ActiveMQJournalLogger.LOGGER.compactingWithNoAddRecord(info.id);
-      } else {
-         newRecord.addUpdateFile(currentFile, updateRecord.getEncodeSize(), info.replaceableUpdate);
       }
 
       writeEncoder(updateRecord);
@@ -457,7 +537,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
       if (pendingTransactions.get(transactionID) != null) {
          produceUpdateRecordTX(transactionID, info);
       } else if (containsRecord(info.id)) {
-         addTX(transactionID, () -> produceUpdateRecordTX(transactionID, info));
+         addTX(transactionID, () -> produceUpdateRecordTX(transactionID, info), () -> produceUpdateRecord(info));
       }
    }
 
@@ -512,11 +592,8 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
 
       @Override
       void execute() throws Exception {
-         JournalRecord deleteRecord = journal.getRecords().remove(id);
-         if (deleteRecord == null) {
+         if (!journal.getRecords().delete(id, usedFile)) {
             ActiveMQJournalLogger.LOGGER.noRecordDuringCompactReplay(id);
-         } else {
-            deleteRecord.delete(usedFile);
          }
       }
    }
@@ -550,11 +627,8 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
 
       @Override
       void execute() throws Exception {
-         JournalRecord updateRecord = journal.getRecords().get(id);
-         if (updateRecord == null) {
+         if (!journal.getRecords().update(id, usedFile, size, replaceableUpdate)) {
             ActiveMQJournalLogger.LOGGER.noRecordDuringCompactReplay(id);
-         } else {
-            updateRecord.addUpdateFile(usedFile, size, replaceableUpdate);
          }
       }
 
@@ -640,7 +714,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
    }
 
    @Override
-   public ConcurrentLongHashMap<JournalRecord> getRecords() {
+   public JournalRecordIndex getRecords() {
       return newRecords;
    }
 
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.journal.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.netty.util.collection.ByteObjectHashMap;
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.journal.RecordInfo;
+import org.apache.activemq.artemis.utils.ExecutorFactory;
+
+/**
+ * Reads and decodes the files of a journal ahead of its load, using up to {@code threads} executors.
+ * <p>
+ * The records of every file are kept in memory until {@link #replay(int, JournalReaderCallback)} hands
+ * them to the loading callback: the files are still replayed one after the other in their journal order,
+ * the same way {@link JournalImpl#readJournalFile} would have called the callback, so the load is not
+ * affected by the order the files are decoded. At most {@code threads} files are read ahead of the one
+ * being replayed.
+ */
+final class JournalFileReadAhead implements AutoCloseable {
+
+   @FunctionalInterface
+   private interface ReadEvent {
+
+      void replay(JournalReaderCallback reader) throws Exception;
+   }
+
+   private static final class RecordedFile implements JournalReaderCallback {
+
+      private final List<ReadEvent> events = new ArrayList<>();
+
+      private int lastDataPos;
+
+      @Override
+      public void onReadEventRecord(RecordInfo info) {
+         events.add(reader -> reader.onReadEventRecord(info));
+      }
+
+      @Override
+      public void done() {
+         events.add(JournalReaderCallback::done);
+      }
+
+      @Override
+      public void onReadAddRecord(RecordInfo info) {
+         events.add(reader -> reader.onReadAddRecord(info));
+      }
+
+      @Override
+      public void onReadUpdateRecord(RecordInfo recordInfo) {
+         events.add(reader -> reader.onReadUpdateRecord(recordInfo));
+      }
+
+      @Override
+      public void onReadDeleteRecord(long recordID) {
+         events.add(reader -> reader.onReadDeleteRecord(recordID));
+      }
+
+      @Override
+      public void onReadAddRecordTX(long transactionID, RecordInfo recordInfo) {
+         events.add(reader -> reader.onReadAddRecordTX(transactionID, recordInfo));
+      }
+
+      @Override
+      public void onReadUpdateRecordTX(long transactionID, RecordInfo recordInfo) {
+         events.add(reader -> reader.onReadUpdateRecordTX(transactionID, recordInfo));
+      }
+
+      @Override
+      public void onReadDeleteRecordTX(long transactionID, RecordInfo recordInfo) {
+         events.add(reader -> reader.onReadDeleteRecordTX(transactionID, recordInfo));
+      }
+
+      @Override
+      public void onReadPrepareRecord(long transactionID, byte[] extraData, int numberOfRecords) {
+         events.add(reader -> reader.onReadPrepareRecord(transactionID, extraData, numberOfRecords));
+      }
+
+      @Override
+      public void onReadCommitRecord(long transactionID, int numberOfRecords) {
+         events.add(reader -> reader.onReadCommitRecord(transactionID, numberOfRecords));
+      }
+
+      @Override
+      public void onReadRollbackRecord(long transactionID) {
+         events.add(reader -> reader.onReadRollbackRecord(transactionID));
+      }
+
+      @Override
+      public void markAsDataFile(JournalFile file) {
+         events.add(reader -> reader.markAsDataFile(file));
+      }
+
+      int replay(JournalReaderCallback reader) throws Exception {
+         for (ReadEvent event : events) {
+            event.replay(reader);
+         }
+         return lastDataPos;
+      }
+   }
+
+   private final SequentialFileFactory fileFactory;
+
+   private final List<JournalFile> files;
+
+   private final ByteObjectHashMap<Boolean> replaceableRecords;
+
+   // every executor is ordered and reads its files using its own buffer
+   private final Executor[] executors;
+
+   private final List<AtomicReference<ByteBuffer>> buffers;
+
+   private final List<CompletableFuture<RecordedFile>> reads;
+
+   private int nextRead;
+
+   private volatile boolean closed;
+
+   JournalFileReadAhead(final SequentialFileFactory fileFactory,
+                        final List<JournalFile> files,
+                        final ByteObjectHashMap<Boolean> replaceableRecords,
+                        final ExecutorFactory executorFactory,
+                        final int threads) {
+      this.fileFactory = fileFactory;
+      this.files = files;
+      this.replaceableRecords = replaceableRecords;
+      final int readers = Math.max(1, Math.min(threads, files.size()));
+      this.executors = new Executor[readers];
+      this.buffers = new ArrayList<>(readers);
+      for (int i = 0; i < readers; i++) {
+         executors[i] = executorFactory.getExecutor();
+         buffers.add(new AtomicReference<>());
+      }
+      this.reads = new ArrayList<>(files.size());
+      for (int i = 0; i < readers; i++) {
+         readAhead();
+      }
+   }
+
+   private void readAhead() {
+      if (nextRead >= files.size()) {
+         return;
+      }
+      final int index = nextRead++;
+      final JournalFile file = files.get(index);
+      final AtomicReference<ByteBuffer> buffer = buffers.get(index % buffers.size());
+      final CompletableFuture<RecordedFile> read = new CompletableFuture<>();
+      reads.add(read);
+      executors[index % executors.length].execute(() -> {
+         if (closed) {
+            read.cancel(false);
+            return;
+         }
+         try {
+            final RecordedFile recordedFile = new RecordedFile();
+            recordedFile.lastDataPos = JournalImpl.readJournalFile(fileFactory, file, recordedFile, buffer, false, replaceableRecords);
+            read.complete(recordedFile);
+         } catch (Throwable e) {
+            read.completeExceptionally(e);
+         }
+      });
+   }
+
+   /**
+    * Replays on {@code reader} the records of the file at {@code index} of the journal files, in the order
+    * they were read.
+    *
+    * @return the same as {@link JournalImpl#readJournalFile} would have returned for the file
+    */
+   int replay(final int index, final JournalReaderCallback reader) throws Exception {
+      final CompletableFuture<RecordedFile> read = reads.get(index);
+      // release the records of the file as soon as they are replayed
+      reads.set(index, null);
+      readAhead();
+      final RecordedFile recordedFile;
+      try {
+         recordedFile = read.get();
+      } catch (ExecutionException e) {
+         final Throwable cause = e.getCause();
+         if (cause instanceof Exception) {
+            throw (Exception) cause;
+         }
+         throw new Exception(cause.getMessage(), cause);
+      }
+      return recordedFile.replay(reader);
+   }
+
+   @Override
+   public void close() {
+      closed = true;
+      // the buffers can be released only after the pending reads are done
+      for (CompletableFuture<RecordedFile> read : reads) {
+         if (read != null) {
+            try {
+               read.get();
+            } catch (Throwable ignored) {
+            }
+         }
+      }
+      for (AtomicReference<ByteBuffer> buffer : buffers) {
+         final ByteBuffer wholeFileBuffer = buffer.getAndSet(null);
+         if (wholeFileBuffer != null) {
+            fileFactory.releaseDirectBuffer(wholeFileBuffer);
+         }
+      }
+   }
+}
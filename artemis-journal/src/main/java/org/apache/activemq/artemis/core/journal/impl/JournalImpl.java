@@ -31,6 +31,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -48,6 +49,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import io.netty.util.collection.ByteObjectHashMap;
@@ -210,6 +212,9 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
    private volatile boolean autoReclaim = true;
 
+   // files decoded in parallel while loading the journal, 1 to read them sequentially
+   private int loadThreads = Integer.getInteger("artemis.journal.load.threads", Math.min(4, Runtime.getRuntime().availableProcessors()));
+
    private final int userVersion;
 
    private final int minFiles;
@@ -218,6 +223,15 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
    private final int compactMinFiles;
 
+   // compacting only the oldest files, as soon as they are sparse enough
+   private volatile boolean compactIncremental = false;
+
+   // the oldest files compacted at once by an incremental compacting
+   private int compactIncrementalMaxFiles = Integer.getInteger("artemis.journal.compact.incremental.max.files", 16);
+
+   // bytes read and written by compacting per second, -1 if unbounded
+   private volatile long compactMaxBytesPerSecond = -1;
+
    private final SequentialFileFactory fileFactory;
 
    private final JournalFilesRepository filesRepository;
@@ -295,7 +309,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
 
    // Compacting may replace this structure
-   private final ConcurrentLongHashMap<JournalRecord> records = new ConcurrentLongHashMap<>();
+   private volatile JournalRecordIndex records = new JournalRecordIndex();
 
    // Compacting may replace this structure
    private final ConcurrentLongHashMap<JournalTransaction> transactions = new ConcurrentLongHashMap<>();
@@ -349,6 +363,19 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
    private volatile int compactCount = 0;
 
+   // percentage of the files read by the running compacting, -1 if not compacting
+   private volatile int compactProgress = -1;
+
+   private volatile long compactReclaimedBytes = 0;
+
+   // the time the journal was locked by the last compacting, and the longest it has been locked by any compacting
+   private volatile long compactLastPauseNanos = 0;
+
+   private volatile long compactMaxPauseNanos = 0;
+
+   // the time the journal has been locked by the running compacting
+   private long compactPauseNanos;
+
    public float getCompactPercentage() {
       return compactPercentage;
    }
@@ -502,7 +529,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    }
 
    @Override
-   public ConcurrentLongHashMap<JournalRecord> getRecords() {
+   public JournalRecordIndex getRecords() {
       return records;
    }
 
@@ -936,7 +963,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             journalLock.readLock().lock();
             try {
                JournalFile usedFile = appendRecord(addRecord, false, sync, null, callback);
-               records.put(id, new JournalRecord(usedFile, addRecordEncodeSize));
+               records.add(id, usedFile, addRecordEncodeSize);
 
                if (logger.isTraceEnabled()) {
                   logger.trace("appendAddRecord::id={}, userRecordType={}, record = {}, usedFile = {}",
@@ -1086,8 +1113,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                // compactor will never change while readLock is acquired.
                // but we are doing this since compactor is volatile, to avoid some extra work from JIT
                JournalCompactor compactor = JournalImpl.this.compactor;
-               JournalRecord jrnRecord = records.get(id);
-               if (jrnRecord == null) {
+               final boolean recordFound = records.contains(id);
+               if (!recordFound) {
                   if (compactor == null || (!compactor.containsRecord(id))) {
                      if (updateCallback != null) {
                         updateCallback.onUpdate(id, false);
@@ -1111,12 +1138,12 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
                // record==null here could only mean there is a compactor
                // computing the delete should be done after compacting is done
-               if (jrnRecord == null) {
+               if (!recordFound) {
                   if (compactor != null) {
                      compactor.addCommandUpdate(id, usedFile, updateRecord.getEncodeSize(), replaceableUpdate);
                   }
                } else {
-                  jrnRecord.addUpdateFile(usedFile, updateRecord.getEncodeSize(), replaceableUpdate);
+                  records.update(id, usedFile, updateRecord.getEncodeSize(), replaceableUpdate);
                }
 
                if (updateCallback != null) {
@@ -1195,10 +1222,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                // compactor will never change while readLock is acquired.
                // but we are doing this since compactor is volatile, to avoid some extra work from JIT
                JournalCompactor compactor = JournalImpl.this.compactor;
-               JournalRecord record = null;
                if (compactor == null) {
-                  record = records.remove(id);
-                  if (record == null) {
+                  if (!records.contains(id)) {
                      if (updateCallback != null) {
                         updateCallback.onUpdate(id, false);
                      }
@@ -1209,7 +1234,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                      return;
                   }
                } else {
-                  if (!records.containsKey(id) && !compactor.containsRecord(id)) {
+                  if (!records.contains(id) && !compactor.containsRecord(id)) {
                      if (updateCallback != null) {
                         updateCallback.onUpdate(id, false);
                      }
@@ -1227,13 +1252,12 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                   logger.trace("appendDeleteRecord::id={}, usedFile = {}", id, usedFile);
                }
 
-               // record==null here could only mean there is a compactor
                // computing the delete should be done after compacting is done
-               if (record == null) {
+               if (compactor != null) {
                   // JournalImplTestUni::testDoubleDelete was written to validate this condition:
                   compactor.addCommandDelete(id, usedFile);
                } else {
-                  record.delete(usedFile);
+                  records.delete(id, usedFile);
                }
                if (updateCallback != null) {
                   updateCallback.onUpdate(id, true);
@@ -1743,19 +1767,12 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
       // We can't use the executor for the compacting... or we would dead lock because of file open and creation
       // operations (that will use the executor)
-      compactorExecutor.execute(new Runnable() {
-         @Override
-         public void run() {
-
-            try {
-               JournalImpl.this.compact();
-            } catch (Throwable e) {
-               errors.incrementAndGet();
-               ActiveMQJournalLogger.LOGGER.errorCompacting(e);
-            } finally {
-               latch.countDown();
-            }
+      runCompaction(e -> {
+         if (e != null) {
+            errors.incrementAndGet();
+            ActiveMQJournalLogger.LOGGER.errorCompacting(e);
          }
+         latch.countDown();
       });
 
       try {
@@ -1785,14 +1802,15 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       }
 
       if (logger.isDebugEnabled()) {
-         ++compactCount;  // Member used only for logging state when debug enabled
-         logger.debug("JournalImpl::compact {} for its {} time", JournalImpl.this, compactCount);
+         logger.debug("JournalImpl::compact {} for its {} time", JournalImpl.this, compactCount + 1);
       }
 
       compactorLock.writeLock().lock();
       try {
          ArrayList<JournalFile> dataFilesToProcess;
 
+         compactPauseNanos = 0;
+
          boolean previousReclaimValue = isAutoReclaim();
 
          try {
@@ -1815,14 +1833,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             // this AtomicReference is not used for thread-safety, but just as a reference
             final AtomicReference<ByteBuffer> wholeFileBufferRef = dataFilesToProcess.isEmpty() ? null : new AtomicReference<>();
             try {
-               for (final JournalFile file : dataFilesToProcess) {
-                  try {
-                     JournalImpl.readJournalFile(fileFactory, file, compactor, wholeFileBufferRef, false, this.replaceableRecords);
-                  } catch (Throwable e) {
-                     ActiveMQJournalLogger.LOGGER.compactReadError(file);
-                     throw new Exception("Error on reading compacting for " + file, e);
-                  }
-               }
+               readFilesToCompact(dataFilesToProcess, wholeFileBufferRef);
             } finally {
                ByteBuffer wholeFileBuffer;
                if (wholeFileBufferRef != null && (wholeFileBuffer = wholeFileBufferRef.get()) != null) {
@@ -1844,6 +1855,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
             SequentialFile controlFile = createControlFile(dataFilesToProcess, compactor.getNewDataFiles(), null);
 
+            final long pauseStart = System.nanoTime();
             journalLock.writeLock().lock();
             try {
                // Need to clear the compactor here, or the replay commands will send commands back (infinite loop)
@@ -1853,10 +1865,10 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
                newDatafiles = localCompactor.getNewDataFiles();
 
-               // Restore newRecords created during compacting
-               localCompactor.getNewRecords().forEach((id, newRecord) -> {
-                  records.put(id, newRecord);
-               });
+               // Restore newRecords created during compacting, with the records added meanwhile
+               final JournalRecordIndex newRecords = localCompactor.getNewRecords();
+               newRecords.addAll(records);
+               records = newRecords;
 
                // Restore compacted dataFiles
                for (int i = newDatafiles.size() - 1; i >= 0; i--) {
@@ -1894,6 +1906,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                return;
             } finally {
                journalLock.writeLock().unlock();
+               onCompactPause(pauseStart);
             }
 
             // At this point the journal is unlocked. We keep renaming files while the journal is already operational
@@ -1904,12 +1917,15 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
             setAutoReclaim(previousReclaimValue);
 
+            updateCompactStatistics(dataFilesToProcess.size(), newDatafiles.size());
+
             logger.debug("Finished compacting on journal {}", this);
 
          } catch (Throwable e) {
             fileFactory.onIOError(e, e.getMessage());
          }
       } finally {
+         compactProgress = -1;
          compactorLock.writeLock().unlock();
          logger.debug("JournalImpl::compact finalized");
 
@@ -1924,6 +1940,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       ArrayList<JournalFile> dataFilesToProcess = new ArrayList<>(filesRepository.getDataFilesCount());
       // We need to guarantee that the journal is frozen for this short time
       // We don't freeze the journal as we compact, only for the short time where we replace records
+      final long pauseStart = System.nanoTime();
       journalLock.writeLock().lock();
       try {
          if (state != JournalState.LOADED) {
@@ -1948,7 +1965,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             return null;
          }
 
-         compactor = new JournalCompactor(fileFactory, this, filesRepository, records.keysLongHashSet(), dataFilesToProcess.get(0).getFileID());
+         // the current records are the snapshot of the compactor: it will rebuild them, as they will be after compacting
+         compactor = new JournalCompactor(fileFactory, this, filesRepository, records, dataFilesToProcess.get(0).getFileID());
 
          if (replaceableRecords != null) {
             replaceableRecords.forEach((k, v) -> compactor.replaceableRecord(k));
@@ -1961,15 +1979,372 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
          // We will calculate the new records during compacting, what will take the position the records will take
          // after compacting
-         records.clear();
+         records = new JournalRecordIndex();
       } finally {
          journalLock.writeLock().unlock();
+         onCompactPause(pauseStart);
       }
 
       processBackup();
       return dataFilesToProcess;
    }
 
+   private void readFilesToCompact(final List<JournalFile> files, final AtomicReference<ByteBuffer> wholeFileBufferRef) throws Exception {
+      final long start = System.nanoTime();
+      int filesRead = 0;
+      compactProgress = 0;
+      for (final JournalFile file : files) {
+         try {
+            JournalImpl.readJournalFile(fileFactory, file, compactor, wholeFileBufferRef, false, this.replaceableRecords);
+         } catch (Throwable e) {
+            ActiveMQJournalLogger.LOGGER.compactReadError(file);
+            throw new Exception("Error on reading compacting for " + file, e);
+         }
+         filesRead++;
+         compactProgress = filesRead * 100 / files.size();
+         throttleCompacting(start, (filesRead + compactor.getNewDataFiles().size()) * (long) fileSize);
+      }
+   }
+
+   /**
+    * Delays compacting as long as needed to not go over {@link #getCompactMaxBytesPerSecond()}, once {@code bytes}
+    * have been read and written since {@code startNanos}. It gives up as soon as the journal isn't loaded anymore.
+    */
+   private void throttleCompacting(final long startNanos, final long bytes) throws InterruptedException {
+      final long maxBytesPerSecond = compactMaxBytesPerSecond;
+      if (maxBytesPerSecond <= 0) {
+         return;
+      }
+      final long budgetNanos = (long) (bytes * 1_000_000_000d / maxBytesPerSecond);
+      long delayNanos;
+      while (state == JournalState.LOADED && (delayNanos = budgetNanos - (System.nanoTime() - startNanos)) > 0) {
+         TimeUnit.NANOSECONDS.sleep(Math.min(delayNanos, TimeUnit.MILLISECONDS.toNanos(100)));
+      }
+   }
+
+   private void onCompactPause(final long pauseStartNanos) {
+      final long pauseNanos = System.nanoTime() - pauseStartNanos;
+      compactPauseNanos += pauseNanos;
+      if (pauseNanos > compactMaxPauseNanos) {
+         compactMaxPauseNanos = pauseNanos;
+      }
+   }
+
+   private void updateCompactStatistics(final int compactedFiles, final int newFiles) {
+      compactCount++;
+      compactLastPauseNanos = compactPauseNanos;
+      if (newFiles < compactedFiles) {
+         compactReclaimedBytes += (compactedFiles - newFiles) * (long) fileSize;
+      }
+   }
+
+   /**
+    * Compacts the oldest data files only, as long as their live data is below the compact percentage and it fits on
+    * fewer files. Unlike {@link #compact()} the rest of the files are left untouched and the journal is locked only to
+    * pick the files and to replace their records, for a time proportional to the compacted records.
+    * <p>
+    * The files with records of pending transactions are never compacted this way: they will be once the transactions
+    * complete, or by {@link #compact()}.
+    * <p>
+    * Note: This method can't be called from the main executor, as it will invoke other methods depending on it.
+    *
+    * @return {@code true} if any file has been reclaimed
+    */
+   public synchronized boolean compactSparseFiles() {
+      if (compactor != null) {
+         throw new IllegalStateException("There is pending compacting operation");
+      }
+
+      compactorLock.writeLock().lock();
+      try {
+         compactPauseNanos = 0;
+
+         final boolean previousReclaimValue = isAutoReclaim();
+
+         final List<JournalFile> laterFiles = new ArrayList<>();
+
+         final ArrayList<JournalFile> filesToCompact = getSparseDataListToCompact(laterFiles);
+
+         if (filesToCompact == null) {
+            return false;
+         }
+
+         logger.debug("Compacting the {} oldest files of journal {}", filesToCompact.size(), this);
+
+         final List<JournalFile> newDataFiles;
+
+         try {
+            final AtomicReference<ByteBuffer> wholeFileBufferRef = new AtomicReference<>();
+            final boolean completed;
+            try {
+               readFilesToCompact(filesToCompact, wholeFileBufferRef);
+               compactor.flushUpdates();
+               completed = completeCompactingTransactions(filesToCompact, laterFiles, wholeFileBufferRef);
+            } finally {
+               final ByteBuffer wholeFileBuffer = wholeFileBufferRef.get();
+               if (wholeFileBuffer != null) {
+                  fileFactory.releaseDirectBuffer(wholeFileBuffer);
+               }
+            }
+
+            if (!completed) {
+               logger.debug("Giving up compacting the oldest files of journal {}: a transaction on them has just completed", this);
+               cancelSparseCompacting(filesToCompact);
+               setAutoReclaim(previousReclaimValue);
+               return false;
+            }
+
+            compactor.flush();
+
+            // pointcut for tests
+            onCompactDone();
+
+            newDataFiles = compactor.getNewDataFiles();
+         } catch (Throwable e) {
+            // nothing has been replaced yet: the journal can go on with its files as they were
+            logger.warn("Giving up compacting the oldest files of journal {}", this, e);
+            cancelSparseCompacting(filesToCompact);
+            setAutoReclaim(previousReclaimValue);
+            return false;
+         }
+
+         final SequentialFile controlFile = createControlFile(filesToCompact, newDataFiles, null);
+
+         final long pauseStart = System.nanoTime();
+         journalLock.writeLock().lock();
+         try {
+            final JournalCompactor localCompactor = compactor;
+
+            // Need to clear the compactor here, or the replay commands will send commands back (infinite loop)
+            compactor = null;
+
+            onCompactLockingTheJournal();
+
+            // the records on the compacted files move to the new files, with the updates on later files left as they were
+            records.replaceCompacted(localCompactor.getNewRecords(), new HashSet<>(filesToCompact));
+
+            for (int i = newDataFiles.size() - 1; i >= 0; i--) {
+               filesRepository.addDataFileOnTop(newDataFiles.get(i));
+            }
+
+            // the later files don't refer to the compacted files anymore
+            for (JournalFile file : filesToCompact) {
+               filesRepository.removeNegatives(file);
+            }
+
+            localCompactor.replayPendingCommands();
+         } catch (Throwable e) {
+            fileFactory.onIOError(e, e.getMessage());
+            return false;
+         } finally {
+            journalLock.writeLock().unlock();
+            onCompactPause(pauseStart);
+         }
+
+         renameFiles(filesToCompact, newDataFiles);
+         deleteControlFile(controlFile);
+
+         setAutoReclaim(previousReclaimValue);
+
+         updateCompactStatistics(filesToCompact.size(), newDataFiles.size());
+
+         logger.debug("Compacted the {} oldest files of journal {} into {} files", filesToCompact.size(), this, newDataFiles.size());
+
+         return newDataFiles.size() < filesToCompact.size();
+      } catch (Throwable e) {
+         fileFactory.onIOError(e, e.getMessage());
+         return false;
+      } finally {
+         compactProgress = -1;
+         compactorLock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Picks the oldest files to be compacted by {@link #compactSparseFiles()}, and removes them from the data files
+    * while they are compacted: the rest of them are collected into {@code laterFiles}.
+    */
+   private ArrayList<JournalFile> getSparseDataListToCompact(final List<JournalFile> laterFiles) throws Exception {
+      final ArrayList<JournalFile> filesToCompact;
+      final long pauseStart = System.nanoTime();
+      journalLock.writeLock().lock();
+      try {
+         if (state != JournalState.LOADED) {
+            return null;
+         }
+
+         final JournalFile[] dataFiles = getDataFiles();
+         Arrays.sort(dataFiles, JOURNAL_FILE_COMPARATOR);
+
+         final int sparseFiles = countSparseFiles(dataFiles, true);
+
+         if (sparseFiles == 0) {
+            return null;
+         }
+
+         onCompactLockingTheJournal();
+
+         setAutoReclaim(false);
+
+         filesToCompact = new ArrayList<>(sparseFiles);
+         for (int i = 0; i < dataFiles.length; i++) {
+            if (i < sparseFiles) {
+               filesToCompact.add(dataFiles[i]);
+               // the negatives on the later files are kept until the compacted files are replaced
+               filesRepository.getDataFiles().remove(dataFiles[i]);
+            } else {
+               laterFiles.add(dataFiles[i]);
+            }
+         }
+
+         // the new files must be ordered before the first file that isn't compacted
+         final long maxOrderingID = sparseFiles < dataFiles.length ? dataFiles[sparseFiles].getFileID() : currentFile.getFileID();
+
+         // the live records are the snapshot: the records deleted meanwhile are deleted again once compacted
+         compactor = new JournalCompactor(fileFactory, this, filesRepository, records, filesToCompact.get(0).getFileID(), maxOrderingID);
+
+         if (replaceableRecords != null) {
+            replaceableRecords.forEach((k, v) -> compactor.replaceableRecord(k));
+         }
+      } finally {
+         journalLock.writeLock().unlock();
+         onCompactPause(pauseStart);
+      }
+
+      processBackup();
+      return filesToCompact;
+   }
+
+   /**
+    * @return how many of the oldest {@code dataFiles} would be compacted by {@link #compactSparseFiles()}: as many as
+    * possible whose live data is below the compact percentage and would fit on fewer files, stopping at the first file
+    * with records of pending transactions if {@code checkTransactions}
+    */
+   private int countSparseFiles(final JournalFile[] dataFiles, final boolean checkTransactions) {
+      final int maxFiles = Math.min(dataFiles.length, compactIncrementalMaxFiles);
+      long liveSize = 0;
+      int sparseFiles = 0;
+      for (int i = 0; i < maxFiles; i++) {
+         final JournalFile file = dataFiles[i];
+         if (checkTransactions && hasPendingTransactionsOn(file)) {
+            break;
+         }
+         liveSize += file.getLiveSize();
+         final int files = i + 1;
+         // leaving room for the records not fitting at the end of the files, and for the split of old records
+         final long newFiles = (liveSize + liveSize / 10) / fileSize + 2;
+         if (liveSize < (long) (files * (long) fileSize * compactPercentage) && newFiles < files) {
+            sparseFiles = files;
+         }
+      }
+      return sparseFiles;
+   }
+
+   private boolean hasPendingTransactionsOn(final JournalFile file) {
+      for (JournalTransaction transaction : transactions.values()) {
+         if (transaction.hasRecordsOn(file)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Completes the transactions with records on the files being compacted, that have been committed or rolled back on
+    * any of the {@code laterFiles}.
+    * <p>
+    * A commit or rollback record counts a negative on its file for each file with records of its transaction, so only
+    * the later files with negatives on the files being compacted are read: the ones completing their transactions or
+    * deleting their records. The files that only add records or complete other transactions are skipped.
+    *
+    * @return {@code false} if any of them hasn't been found complete, as it completed on the current file
+    */
+   private boolean completeCompactingTransactions(final List<JournalFile> filesToCompact,
+                                                  final List<JournalFile> laterFiles,
+                                                  final AtomicReference<ByteBuffer> wholeFileBufferRef) throws Exception {
+      final JournalCompactor localCompactor = compactor;
+      final LongHashSet incompleteTransactions = new LongHashSet();
+      for (long tx : localCompactor.getIncompleteTransactions()) {
+         incompleteTransactions.add(tx);
+      }
+      final long start = System.nanoTime();
+      long bytesRead = 0;
+      for (JournalFile file : laterFiles) {
+         if (incompleteTransactions.isEmpty()) {
+            break;
+         }
+         if (!hasNegativesOn(file, filesToCompact)) {
+            continue;
+         }
+         onCompactReadCompletingFile(file);
+         JournalImpl.readJournalFile(fileFactory, file, new JournalReaderCallbackAbstract() {
+            @Override
+            public void onReadCommitRecord(final long transactionID, final int numberOfRecords) throws Exception {
+               if (incompleteTransactions.remove(transactionID)) {
+                  localCompactor.completeTransaction(transactionID, true);
+               }
+            }
+
+            @Override
+            public void onReadRollbackRecord(final long transactionID) throws Exception {
+               if (incompleteTransactions.remove(transactionID)) {
+                  localCompactor.completeTransaction(transactionID, false);
+               }
+            }
+         }, wholeFileBufferRef, false, null);
+         bytesRead += fileSize;
+         throttleCompacting(start, bytesRead);
+      }
+      return incompleteTransactions.isEmpty();
+   }
+
+   private static boolean hasNegativesOn(final JournalFile file, final List<JournalFile> files) {
+      for (JournalFile other : files) {
+         if (file.getNegCount(other) > 0) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Gives the files picked by {@link #getSparseDataListToCompact} back to the journal, as they were, and deletes the
+    * new files.
+    */
+   private void cancelSparseCompacting(final List<JournalFile> filesToCompact) {
+      final List<JournalFile> newDataFiles = compactor.getNewDataFiles();
+      try {
+         compactor.flush();
+      } catch (Throwable e) {
+         logger.debug("Error closing the files of a cancelled compacting on {}", this, e);
+      }
+
+      final long pauseStart = System.nanoTime();
+      journalLock.writeLock().lock();
+      try {
+         final JournalCompactor localCompactor = compactor;
+
+         compactor = null;
+
+         for (int i = filesToCompact.size() - 1; i >= 0; i--) {
+            filesRepository.addDataFileOnTop(filesToCompact.get(i));
+         }
+
+         localCompactor.replayPendingCommands();
+      } finally {
+         journalLock.writeLock().unlock();
+         onCompactPause(pauseStart);
+      }
+
+      for (JournalFile file : newDataFiles) {
+         try {
+            file.getFile().delete();
+         } catch (Exception e) {
+            logger.warn("Error deleting the file {} of a cancelled compacting on {}", file, this, e);
+         }
+      }
+   }
+
    /**
     * <p>Load data accordingly to the record layouts</p>
     * <p>Basic record layout:</p>
@@ -2040,17 +2415,94 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
       filesRepository.calculateNextfileID(orderedFiles);
 
-      int lastDataPos = JournalImpl.SIZE_HEADER;
-
       // AtomicLong is used only as a reference, not as an Atomic value
       final AtomicLong maxID = new AtomicLong(-1);
 
-      for (final JournalFile file : orderedFiles) {
+      final long loadStart = System.nanoTime();
+
+      final JournalFileReadAhead readAhead = loadThreads > 1 && orderedFiles.size() > 1 ? new JournalFileReadAhead(fileFactory, orderedFiles, this.replaceableRecords, ioExecutorFactory, loadThreads) : null;
+
+      final int lastDataPos;
+
+      try {
+         lastDataPos = loadFiles(loadManager, changeData, orderedFiles, loadTransactions, maxID, readAhead, wholeFileBufferRef);
+      } finally {
+         if (readAhead != null) {
+            readAhead.close();
+         }
+      }
+
+      if (logger.isDebugEnabled()) {
+         logger.debug("Read {} files of {} in {} ms using {} load threads", orderedFiles.size(), this, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStart), readAhead != null ? loadThreads : 1);
+      }
+
+      if (replicationSync == JournalState.SYNCING) {
+         assert filesRepository.getDataFiles().isEmpty();
+         setJournalState(JournalState.SYNCING);
+         return new JournalLoadInformation(0, -1);
+      }
+
+      setUpCurrentFile(lastDataPos);
+
+      setJournalState(JournalState.LOADED);
+
+      for (TransactionHolder transaction : loadTransactions.values()) {
+         if ((!transaction.prepared || transaction.invalid) && replicationSync != JournalState.SYNCING_UP_TO_DATE) {
+            ActiveMQJournalLogger.LOGGER.uncomittedTxFound(transaction.transactionID);
+
+            if (changeData) {
+               // I append a rollback record here, because otherwise compacting will be throwing messages because of unknown transactions
+               this.appendRollbackRecord(transaction.transactionID, false);
+            }
+
+            loadManager.failedTransaction(transaction.transactionID, transaction.recordInfos, transaction.recordsToDelete);
+         } else {
+            for (RecordInfo info : transaction.recordInfos) {
+               if (info.id > maxID.get()) {
+                  maxID.lazySet(info.id);
+               }
+            }
+
+            PreparedTransactionInfo info = new PreparedTransactionInfo(transaction.transactionID, transaction.extraData);
+
+            info.getRecords().addAll(transaction.recordInfos);
+
+            info.getRecordsToDelete().addAll(transaction.recordsToDelete);
+
+            loadManager.addPreparedTransaction(info);
+         }
+      }
+
+      if (changeData) {
+         checkReclaimStatus();
+      }
+
+      return new JournalLoadInformation(records.size(), maxID.longValue());
+   }
+
+   /**
+    * Loads the records of every file, in the journal order, either reading the files one by one or replaying
+    * them as decoded by {@code readAhead}.
+    *
+    * @return the position after the last record of the last file with data
+    */
+   private int loadFiles(final LoaderCallback loadManager,
+                         final boolean changeData,
+                         final List<JournalFile> orderedFiles,
+                         final Map<Long, TransactionHolder> loadTransactions,
+                         final AtomicLong maxID,
+                         final JournalFileReadAhead readAhead,
+                         final AtomicReference<ByteBuffer> wholeFileBufferRef) throws Exception {
+      int lastDataPos = JournalImpl.SIZE_HEADER;
+
+      for (int fileIndex = 0; fileIndex < orderedFiles.size(); fileIndex++) {
+         final JournalFile file = orderedFiles.get(fileIndex);
+
          logger.trace("Loading file {}", file.getFile().getFileName());
 
          final AtomicBoolean hasData = new AtomicBoolean(false);
 
-         int resultLastPost = JournalImpl.readJournalFile(fileFactory, file, new JournalReaderCallback() {
+         final JournalReaderCallback fileReader = new JournalReaderCallback() {
 
             private void checkID(final long id) {
                if (id > maxID.longValue()) {
@@ -2066,7 +2518,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
                loadManager.addRecord(info);
 
-               records.put(info.id, new JournalRecord(file, info.data.length + JournalImpl.SIZE_ADD_RECORD + 1));
+               records.add(info.id, file, info.data.length + JournalImpl.SIZE_ADD_RECORD + 1);
             }
 
             @Override
@@ -2077,16 +2529,11 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
                loadManager.updateRecord(info);
 
-               JournalRecord posFiles = records.get(info.id);
-
-               if (posFiles != null) {
-                  // It's legal for this to be null. The file(s) with the may
-                  // have been deleted
-                  // just leaving some updates in this file
-
-                  posFiles.addUpdateFile(file, info.data.length + JournalImpl.SIZE_ADD_RECORD + 1, info.replaceableUpdate); // +1 = compact
-                  // count
-               }
+               // It's legal for the record to be missing. The file(s) with the add record may
+               // have been deleted
+               // just leaving some updates in this file
+               records.update(info.id, file, info.data.length + JournalImpl.SIZE_ADD_RECORD + 1, info.replaceableUpdate); // +1 = compact
+               // count
             }
 
             @Override
@@ -2095,11 +2542,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
                loadManager.deleteRecord(recordID);
 
-               JournalRecord posFiles = records.remove(recordID);
-
-               if (posFiles != null) {
-                  posFiles.delete(file);
-               }
+               records.delete(recordID, file);
             }
 
             @Override
@@ -2272,7 +2715,15 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                hasData.lazySet(true);
             }
 
-         }, wholeFileBufferRef, false, this.replaceableRecords);
+         };
+
+         final int resultLastPost;
+
+         if (readAhead != null) {
+            resultLastPost = readAhead.replay(fileIndex, fileReader);
+         } else {
+            resultLastPost = JournalImpl.readJournalFile(fileFactory, file, fileReader, wholeFileBufferRef, false, this.replaceableRecords);
+         }
 
          if (hasData.get()) {
             lastDataPos = resultLastPost;
@@ -2285,48 +2736,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
          }
       }
 
-      if (replicationSync == JournalState.SYNCING) {
-         assert filesRepository.getDataFiles().isEmpty();
-         setJournalState(JournalState.SYNCING);
-         return new JournalLoadInformation(0, -1);
-      }
-
-      setUpCurrentFile(lastDataPos);
-
-      setJournalState(JournalState.LOADED);
-
-      for (TransactionHolder transaction : loadTransactions.values()) {
-         if ((!transaction.prepared || transaction.invalid) && replicationSync != JournalState.SYNCING_UP_TO_DATE) {
-            ActiveMQJournalLogger.LOGGER.uncomittedTxFound(transaction.transactionID);
-
-            if (changeData) {
-               // I append a rollback record here, because otherwise compacting will be throwing messages because of unknown transactions
-               this.appendRollbackRecord(transaction.transactionID, false);
-            }
-
-            loadManager.failedTransaction(transaction.transactionID, transaction.recordInfos, transaction.recordsToDelete);
-         } else {
-            for (RecordInfo info : transaction.recordInfos) {
-               if (info.id > maxID.get()) {
-                  maxID.lazySet(info.id);
-               }
-            }
-
-            PreparedTransactionInfo info = new PreparedTransactionInfo(transaction.transactionID, transaction.extraData);
-
-            info.getRecords().addAll(transaction.recordInfos);
-
-            info.getRecordsToDelete().addAll(transaction.recordsToDelete);
-
-            loadManager.addPreparedTransaction(info);
-         }
-      }
-
-      if (changeData) {
-         checkReclaimStatus();
-      }
-
-      return new JournalLoadInformation(records.size(), maxID.longValue());
+      return lastDataPos;
    }
 
    private synchronized JournalLoadInformation load(final LoaderCallback loadManager,
@@ -2631,11 +3041,49 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
          return;
       }
 
-      if (!compactorRunning.get() && needsCompact()) {
+      if (!compactorRunning.get() && (needsCompactSparseFiles() || needsCompact())) {
          scheduleCompact();
       }
    }
 
+   private boolean needsCompactSparseFiles() {
+      if (!compactIncremental) {
+         return false;
+      }
+      final JournalFile[] dataFiles = getDataFiles();
+      return dataFiles.length > compactMinFiles && countSparseFiles(dataFiles, false) > 0;
+   }
+
+   /**
+    * Compacts the oldest files as long as they are sparse enough if {@link #compactIncremental}, falling back to
+    * compact all of them otherwise. Each increment runs as its own task on the compactorExecutor, submitting the next
+    * one, so the other tasks on it (e.g. the flush on {@link #stop()} or a full {@link #compact()}) run in between
+    * instead of waiting for all the increments.
+    *
+    * @param done called once compacting is over, with the error that stopped it if any
+    */
+   private void runCompaction(final Consumer<Throwable> done) {
+      compactorExecutor.execute(() -> {
+         try {
+            if (compactIncremental) {
+               if (state == JournalState.LOADED && compactSparseFiles() && state == JournalState.LOADED) {
+                  runCompaction(done);
+                  return;
+               }
+               if (state == JournalState.LOADED && needsCompact()) {
+                  compact();
+               }
+            } else {
+               compact();
+            }
+         } catch (Throwable e) {
+            done.accept(e);
+            return;
+         }
+         done.accept(null);
+      });
+   }
+
    private void scheduleCompact() {
       if (!compactorRunning.compareAndSet(false, true)) {
          return;
@@ -2645,24 +3093,30 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
       // We can't use the executor for the compacting... or we would dead lock because of file open and creation
       // operations (that will use the executor)
-      compactorExecutor.execute(new Runnable() {
-         @Override
-         public void run() {
-            try {
-               JournalImpl.this.compact();
-            } catch (Throwable e) {
-               ActiveMQJournalLogger.LOGGER.errorCompacting(e);
-            } finally {
-               compactorRunning.set(false);
-               logger.debug("JournalImpl::scheduleCompact() done");
-            }
+      runCompaction(e -> {
+         if (e != null) {
+            ActiveMQJournalLogger.LOGGER.errorCompacting(e);
          }
+         compactorRunning.set(false);
+         logger.debug("JournalImpl::scheduleCompact() done");
       });
    }
 
    // TestableJournal implementation
    // --------------------------------------------------------------
 
+   /**
+    * Sets how many journal files can be read and decoded in parallel by {@link #load}, while their records
+    * are still loaded in the journal order. {@code 1} reads the files sequentially.
+    */
+   public void setLoadThreads(final int loadThreads) {
+      this.loadThreads = loadThreads;
+   }
+
+   public int getLoadThreads() {
+      return loadThreads;
+   }
+
    @Override
    public final void setAutoReclaim(final boolean autoReclaim) {
       this.autoReclaim = autoReclaim;
@@ -3062,6 +3516,13 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    protected void onCompactDone() {
    }
 
+   /**
+    * This is an interception point for testcases, when a later file is read to complete the transactions of the
+    * oldest files being compacted by {@link #compactSparseFiles()}
+    */
+   protected void onCompactReadCompletingFile(JournalFile file) {
+   }
+
    // Private
    // -----------------------------------------------------------------------------
 
@@ -3629,10 +4090,63 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       }
    }
 
-   /**
-    * For tests only
-    */
+   @Override
    public int getCompactCount() {
       return compactCount;
    }
+
+   @Override
+   public int getCompactProgress() {
+      return compactProgress;
+   }
+
+   @Override
+   public long getCompactReclaimedBytes() {
+      return compactReclaimedBytes;
+   }
+
+   @Override
+   public long getCompactLastPauseTime() {
+      return TimeUnit.NANOSECONDS.toMillis(compactLastPauseNanos);
+   }
+
+   @Override
+   public long getCompactMaxPauseTime() {
+      return TimeUnit.NANOSECONDS.toMillis(compactMaxPauseNanos);
+   }
+
+   /**
+    * Sets whether compacting is done by {@link #compactSparseFiles()} on the oldest files, as soon as they are sparse
+    * enough, instead of compacting all the files at once.
+    */
+   public void setCompactIncremental(final boolean compactIncremental) {
+      this.compactIncremental = compactIncremental;
+   }
+
+   public boolean isCompactIncremental() {
+      return compactIncremental;
+   }
+
+   /**
+    * Sets how many of the oldest files can be compacted at once by {@link #compactSparseFiles()}.
+    */
+   public void setCompactIncrementalMaxFiles(final int compactIncrementalMaxFiles) {
+      this.compactIncrementalMaxFiles = compactIncrementalMaxFiles;
+   }
+
+   public int getCompactIncrementalMaxFiles() {
+      return compactIncrementalMaxFiles;
+   }
+
+   /**
+    * Sets how many bytes compacting can read and write per second, so it doesn't compete for the disk with the
+    * appends. {@code -1} for unbounded.
+    */
+   public void setCompactMaxBytesPerSecond(final long compactMaxBytesPerSecond) {
+      this.compactMaxBytesPerSecond = compactMaxBytesPerSecond;
+   }
+
+   public long getCompactMaxBytesPerSecond() {
+      return compactMaxBytesPerSecond;
+   }
 }
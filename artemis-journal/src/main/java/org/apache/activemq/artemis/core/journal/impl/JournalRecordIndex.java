@@ -0,0 +1,625 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.journal.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongConsumer;
+
+import org.apache.activemq.artemis.utils.collections.ConcurrentLongHashSet;
+
+import static org.apache.activemq.artemis.utils.Preconditions.checkArgument;
+import static org.apache.activemq.artemis.utils.Preconditions.checkNotNull;
+
+/**
+ * The live records of a journal, with the relationship every record has with the journal files in regard to
+ * reference counting (used on reclaiming and compacting): the file of its add record and the files of its updates.
+ * <p>
+ * The records are kept by column on open hash sections with linear probing, as {@code ConcurrentLongHashMap} does,
+ * without an object per record: the updates of a record are stored on the same columns as long as they all belong
+ * to the same file, and only updates spanning several files allocate a list of files.
+ */
+public final class JournalRecordIndex {
+
+   // tombstone of a removed record on addFiles: empty buckets are null
+   private static final Object DELETED = new Object();
+
+   private static final float FILL_FACTOR = 0.66f;
+
+   private static final int DEFAULT_EXPECTED_RECORDS = 256;
+   private static final int DEFAULT_SECTIONS = 16;
+
+   // use a very small size to account for near empty cases
+   private static final int INITIAL_FILES_CAPACITY = 5;
+
+   private final Section[] sections;
+
+   public JournalRecordIndex() {
+      this(DEFAULT_EXPECTED_RECORDS, DEFAULT_SECTIONS);
+   }
+
+   public JournalRecordIndex(int expectedRecords, int sections) {
+      checkArgument(sections > 0 && Integer.bitCount(sections) == 1);
+      if (expectedRecords < sections) {
+         expectedRecords = sections;
+      }
+      final int sectionCapacity = (int) ((expectedRecords / sections) / FILL_FACTOR);
+      this.sections = new Section[sections];
+      for (int i = 0; i < sections; i++) {
+         this.sections[i] = new Section(sectionCapacity);
+      }
+   }
+
+   public int size() {
+      int size = 0;
+      for (Section s : sections) {
+         //read-acquire s.size that was write-released by s.unlockWrite
+         s.tryOptimisticRead();
+         //a stale value won't hurt: anyway it's subject to concurrent modifications
+         size += s.size;
+      }
+      return size;
+   }
+
+   public boolean isEmpty() {
+      return size() == 0;
+   }
+
+   public boolean contains(long id) {
+      final long h = hash(id);
+      return getSection(h).contains(id, (int) h);
+   }
+
+   /**
+    * Adds a record, accounting its size on the file of its add record.
+    * <p>
+    * A record already using {@code id} is replaced without any accounting.
+    */
+   public void add(long id, JournalFile addFile, int size) {
+      checkNotNull(addFile);
+      addFile.incPosCount();
+      addFile.addSize(size);
+      addFile.incAddRecord();
+      final long h = hash(id);
+      getSection(h).put(id, (int) h, addFile, size, null, 0, 0);
+   }
+
+   /**
+    * Accounts an update of {@code bytes} bytes of a record on {@code updateFile}.
+    *
+    * @return {@code false} if there is no record with {@code id}
+    */
+   public boolean update(long id, JournalFile updateFile, int bytes, boolean replaceableUpdate) {
+      final long h = hash(id);
+      return getSection(h).update(id, (int) h, updateFile, bytes, replaceableUpdate);
+   }
+
+   /**
+    * Removes a record, accounting its delete on {@code deleteFile}.
+    *
+    * @return {@code false} if there is no record with {@code id}
+    */
+   public boolean delete(long id, JournalFile deleteFile) {
+      final long h = hash(id);
+      return getSection(h).delete(id, (int) h, deleteFile);
+   }
+
+   /**
+    * Moves all the records of {@code index} (e.g. computed while compacting) into this, as they are accounted.
+    */
+   public void addAll(JournalRecordIndex index) {
+      for (Section s : index.sections) {
+         s.moveTo(this, null);
+      }
+   }
+
+   /**
+    * Moves the records of {@code compacted}, computed while compacting {@code compactedFiles} only, into this: the
+    * add record and the updates on {@code compactedFiles} of these records are replaced by the compacted ones, while
+    * their updates on any other file are kept.
+    */
+   public void replaceCompacted(JournalRecordIndex compacted, Collection<JournalFile> compactedFiles) {
+      checkNotNull(compactedFiles);
+      for (Section s : compacted.sections) {
+         s.moveTo(this, compactedFiles);
+      }
+   }
+
+   public void clear() {
+      for (Section s : sections) {
+         s.clear();
+      }
+   }
+
+   /**
+    * The ids are collected section by section, so {@code consumer} can modify this index.
+    */
+   public void forEach(LongConsumer consumer) {
+      for (Section s : sections) {
+         for (long id : s.liveIds()) {
+            consumer.accept(id);
+         }
+      }
+   }
+
+   public ConcurrentLongHashSet keysLongHashSet() {
+      ConcurrentLongHashSet concurrentLongHashSet = new ConcurrentLongHashSet(size());
+      forEach(concurrentLongHashSet::add);
+      return concurrentLongHashSet;
+   }
+
+   private Section getSection(long hash) {
+      // Use 32 msb out of long to get the section
+      final int sectionIdx = (int) (hash >>> 32) & (sections.length - 1);
+      return sections[sectionIdx];
+   }
+
+   // A section is a portion of the index that is covered by a single lock
+   @SuppressWarnings("serial")
+   private static final class Section extends StampedLock {
+
+      private static final AtomicIntegerFieldUpdater<Section> CAPACITY_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Section.class, "capacity");
+
+      private long[] ids;
+      // JournalFile, DELETED or null if empty
+      private Object[] addFiles;
+      private int[] sizes;
+      // null without updates, the JournalFile of every update or an ObjIntIntArrayList<JournalFile> of (file, bytes, updates)
+      private Object[] updateFiles;
+      private int[] updateBytes;
+      private int[] updateCounts;
+
+      private volatile int capacity;
+      private int size;
+      private int usedBuckets;
+      private int resizeThreshold;
+
+      Section(int capacity) {
+         this.capacity = alignToPowerOfTwo(capacity);
+         allocate(this.capacity);
+         this.size = 0;
+         this.usedBuckets = 0;
+         this.resizeThreshold = (int) (this.capacity * FILL_FACTOR);
+      }
+
+      private void allocate(int capacity) {
+         ids = new long[capacity];
+         addFiles = new Object[capacity];
+         sizes = new int[capacity];
+         updateFiles = new Object[capacity];
+         updateBytes = new int[capacity];
+         updateCounts = new int[capacity];
+      }
+
+      boolean contains(long id, int hash) {
+         int bucket = hash;
+
+         long stamp = tryOptimisticRead();
+         boolean acquiredLock = false;
+
+         try {
+            while (true) {
+               int capacity = this.capacity;
+               bucket = signSafeMod(bucket, capacity);
+
+               // First try optimistic locking
+               long storedId = ids[bucket];
+               Object storedFile = addFiles[bucket];
+
+               if (!acquiredLock && validate(stamp)) {
+                  // The values we have read are consistent
+                  if (storedId == id && storedFile != null) {
+                     return storedFile != DELETED;
+                  } else if (storedFile == null) {
+                     return false;
+                  }
+               } else {
+                  // Fallback to acquiring read lock
+                  if (!acquiredLock) {
+                     stamp = readLock();
+                     acquiredLock = true;
+                     storedId = ids[bucket];
+                     storedFile = addFiles[bucket];
+                  }
+
+                  if (capacity != this.capacity) {
+                     // There has been a rehashing. We need to restart the search
+                     bucket = hash;
+                     continue;
+                  }
+
+                  if (storedId == id && storedFile != null) {
+                     return storedFile != DELETED;
+                  } else if (storedFile == null) {
+                     return false;
+                  }
+               }
+
+               ++bucket;
+            }
+         } finally {
+            if (acquiredLock) {
+               unlockRead(stamp);
+            }
+         }
+      }
+
+      /**
+       * @return the bucket of the record, or {@code -1} if not found: to be called holding the lock
+       */
+      private int bucketOf(long id, int hash) {
+         final int capacity = this.capacity;
+         int bucket = hash;
+         while (true) {
+            bucket = signSafeMod(bucket, capacity);
+            final Object storedFile = addFiles[bucket];
+            if (storedFile == null) {
+               return -1;
+            }
+            if (ids[bucket] == id) {
+               return storedFile != DELETED ? bucket : -1;
+            }
+            ++bucket;
+         }
+      }
+
+      void put(long id, int hash, Object addFile, int recordSize, Object updateFile, int bytes, int updates) {
+         int bucket = hash;
+
+         long stamp = writeLock();
+         int capacity = this.capacity;
+
+         // Remember where we find the first available spot
+         int firstDeletedKey = -1;
+
+         try {
+            while (true) {
+               bucket = signSafeMod(bucket, capacity);
+
+               final long storedId = ids[bucket];
+               final Object storedFile = addFiles[bucket];
+
+               if (storedFile == null) {
+                  // Found an empty bucket. This means the record is not in the index. If we've already seen a deleted
+                  // record, we should write at that position
+                  if (firstDeletedKey != -1) {
+                     bucket = firstDeletedKey;
+                  } else {
+                     ++usedBuckets;
+                  }
+                  ++size;
+                  break;
+               } else if (storedId == id) {
+                  if (storedFile == DELETED) {
+                     ++size;
+                  }
+                  // otherwise over written an old record with the same id
+                  break;
+               } else if (storedFile == DELETED && firstDeletedKey == -1) {
+                  firstDeletedKey = bucket;
+               }
+
+               ++bucket;
+            }
+
+            ids[bucket] = id;
+            addFiles[bucket] = addFile;
+            sizes[bucket] = recordSize;
+            updateFiles[bucket] = updateFile;
+            updateBytes[bucket] = bytes;
+            updateCounts[bucket] = updates;
+         } finally {
+            if (usedBuckets > resizeThreshold) {
+               try {
+                  rehash();
+               } finally {
+                  unlockWrite(stamp);
+               }
+            } else {
+               unlockWrite(stamp);
+            }
+         }
+      }
+
+      @SuppressWarnings("unchecked")
+      boolean update(long id, int hash, JournalFile updateFile, int bytes, boolean replaceableUpdate) {
+         long stamp = writeLock();
+         try {
+            final int bucket = bucketOf(id, hash);
+            if (bucket == -1) {
+               return false;
+            }
+            if (bytes == 0) {
+               return true;
+            }
+            final Object files = updateFiles[bucket];
+            if (files == updateFile) {
+               // same file of the last update
+               updateBytes[bucket] += bytes;
+               updateCounts[bucket]++;
+               updateFile.incPosCount();
+               updateFile.addSize(bytes);
+               return true;
+            }
+            if (files == null) {
+               updateFiles[bucket] = updateFile;
+               updateBytes[bucket] = bytes;
+               updateCounts[bucket] = 1;
+            } else {
+               final ObjIntIntArrayList<JournalFile> fileUpdates;
+               if (files instanceof JournalFile) {
+                  fileUpdates = new ObjIntIntArrayList<>(INITIAL_FILES_CAPACITY);
+                  fileUpdates.add((JournalFile) files, updateBytes[bucket], updateCounts[bucket]);
+                  updateFiles[bucket] = fileUpdates;
+                  updateBytes[bucket] = 0;
+                  updateCounts[bucket] = 0;
+               } else {
+                  fileUpdates = (ObjIntIntArrayList<JournalFile>) files;
+                  if (fileUpdates.addToIntsIfMatch(fileUpdates.size() - 1, updateFile, bytes, 1)) {
+                     updateFile.incPosCount();
+                     updateFile.addSize(bytes);
+                     return true;
+                  }
+               }
+               fileUpdates.add(updateFile, bytes, 1);
+            }
+            updateFile.incPosCount();
+            updateFile.addSize(bytes);
+            if (replaceableUpdate) {
+               updateFile.incReplaceableCount();
+            }
+            return true;
+         } finally {
+            unlockWrite(stamp);
+         }
+      }
+
+      @SuppressWarnings("unchecked")
+      boolean delete(long id, int hash, JournalFile deleteFile) {
+         long stamp = writeLock();
+         try {
+            final int bucket = bucketOf(id, hash);
+            if (bucket == -1) {
+               return false;
+            }
+            final JournalFile addFile = (JournalFile) addFiles[bucket];
+            final Object files = updateFiles[bucket];
+            try {
+               deleteFile.incNegCount(addFile);
+               addFile.decSize(sizes[bucket]);
+               if (files instanceof JournalFile) {
+                  deleteFile.incNegCount((JournalFile) files, updateCounts[bucket]);
+                  ((JournalFile) files).decSize(updateBytes[bucket]);
+               } else if (files != null) {
+                  // not-capturing lambda to save allocation
+                  ((ObjIntIntArrayList<JournalFile>) files).forEach((updFile, bytes, posCount, f) -> {
+                     f.incNegCount(updFile, posCount);
+                     updFile.decSize(bytes);
+                  }, deleteFile);
+               }
+            } finally {
+               remove(bucket);
+            }
+            return true;
+         } finally {
+            unlockWrite(stamp);
+         }
+      }
+
+      private void remove(int bucket) {
+         --size;
+         if (addFiles[signSafeMod(bucket + 1, capacity)] == null) {
+            addFiles[bucket] = null;
+            --usedBuckets;
+         } else {
+            addFiles[bucket] = DELETED;
+         }
+         sizes[bucket] = 0;
+         updateFiles[bucket] = null;
+         updateBytes[bucket] = 0;
+         updateCounts[bucket] = 0;
+      }
+
+      void clear() {
+         long stamp = writeLock();
+
+         try {
+            Arrays.fill(ids, 0);
+            Arrays.fill(addFiles, null);
+            Arrays.fill(sizes, 0);
+            Arrays.fill(updateFiles, null);
+            Arrays.fill(updateBytes, 0);
+            Arrays.fill(updateCounts, 0);
+            this.size = 0;
+            this.usedBuckets = 0;
+         } finally {
+            unlockWrite(stamp);
+         }
+      }
+
+      long[] liveIds() {
+         long stamp = readLock();
+         try {
+            final long[] liveIds = new long[size];
+            int index = 0;
+            for (int bucket = 0; bucket < capacity; bucket++) {
+               final Object storedFile = addFiles[bucket];
+               if (storedFile != null && storedFile != DELETED) {
+                  liveIds[index++] = ids[bucket];
+               }
+            }
+            return liveIds;
+         } finally {
+            unlockRead(stamp);
+         }
+      }
+
+      void moveTo(JournalRecordIndex index, Collection<JournalFile> compactedFiles) {
+         long stamp = readLock();
+         try {
+            for (int bucket = 0; bucket < capacity; bucket++) {
+               final Object storedFile = addFiles[bucket];
+               if (storedFile != null && storedFile != DELETED) {
+                  final long id = ids[bucket];
+                  final long h = hash(id);
+                  final Section section = index.getSection(h);
+                  if (compactedFiles == null || !section.replaceCompacted(id, (int) h, storedFile, sizes[bucket], updateFiles[bucket], updateBytes[bucket], updateCounts[bucket], compactedFiles)) {
+                     section.put(id, (int) h, storedFile, sizes[bucket], updateFiles[bucket], updateBytes[bucket], updateCounts[bucket]);
+                  }
+               }
+            }
+         } finally {
+            unlockRead(stamp);
+         }
+      }
+
+      /**
+       * @return {@code false} if there is no record with {@code id}
+       */
+      @SuppressWarnings("unchecked")
+      private boolean replaceCompacted(long id, int hash, Object addFile, int recordSize, Object updateFile, int bytes, int updates,
+                                       Collection<JournalFile> compactedFiles) {
+         long stamp = writeLock();
+         try {
+            final int bucket = bucketOf(id, hash);
+            if (bucket == -1) {
+               return false;
+            }
+            final Updates merged = new Updates(updateFile, bytes, updates);
+            final Object files = updateFiles[bucket];
+            if (files instanceof JournalFile) {
+               if (!compactedFiles.contains(files)) {
+                  merged.add((JournalFile) files, updateBytes[bucket], updateCounts[bucket]);
+               }
+            } else if (files != null) {
+               ((ObjIntIntArrayList<JournalFile>) files).forEach((updFile, updBytes, updCount, m) -> {
+                  if (!compactedFiles.contains(updFile)) {
+                     m.add(updFile, updBytes, updCount);
+                  }
+               }, merged);
+            }
+            addFiles[bucket] = addFile;
+            sizes[bucket] = recordSize;
+            updateFiles[bucket] = merged.files;
+            updateBytes[bucket] = merged.bytes;
+            updateCounts[bucket] = merged.updates;
+            return true;
+         } finally {
+            unlockWrite(stamp);
+         }
+      }
+
+      private void rehash() {
+         // Expand the index
+         final int newCapacity = capacity * 2;
+         final long[] oldIds = ids;
+         final Object[] oldAddFiles = addFiles;
+         final int[] oldSizes = sizes;
+         final Object[] oldUpdateFiles = updateFiles;
+         final int[] oldUpdateBytes = updateBytes;
+         final int[] oldUpdateCounts = updateCounts;
+
+         allocate(newCapacity);
+
+         // Re-hash table
+         for (int i = 0; i < oldIds.length; i++) {
+            final Object storedFile = oldAddFiles[i];
+            if (storedFile != null && storedFile != DELETED) {
+               int bucket = (int) hash(oldIds[i]);
+               while (true) {
+                  bucket = signSafeMod(bucket, newCapacity);
+                  if (addFiles[bucket] == null) {
+                     ids[bucket] = oldIds[i];
+                     addFiles[bucket] = storedFile;
+                     sizes[bucket] = oldSizes[i];
+                     updateFiles[bucket] = oldUpdateFiles[i];
+                     updateBytes[bucket] = oldUpdateBytes[i];
+                     updateCounts[bucket] = oldUpdateCounts[i];
+                     break;
+                  }
+                  ++bucket;
+               }
+            }
+         }
+
+         usedBuckets = size;
+         CAPACITY_UPDATER.lazySet(this, newCapacity);
+         resizeThreshold = (int) (newCapacity * FILL_FACTOR);
+      }
+   }
+
+   // the updates of a record, as they are stored on the updateFiles, updateBytes and updateCounts columns
+   private static final class Updates {
+
+      Object files;
+      int bytes;
+      int updates;
+
+      @SuppressWarnings("unchecked")
+      Updates(Object files, int bytes, int updates) {
+         if (files instanceof ObjIntIntArrayList) {
+            // never share the list of the source record
+            ((ObjIntIntArrayList<JournalFile>) files).forEach((updFile, updBytes, updCount, u) -> u.add(updFile, updBytes, updCount), this);
+         } else {
+            this.files = files;
+            this.bytes = bytes;
+            this.updates = updates;
+         }
+      }
+
+      @SuppressWarnings("unchecked")
+      void add(JournalFile file, int bytes, int updates) {
+         if (files == null) {
+            this.files = file;
+            this.bytes = bytes;
+            this.updates = updates;
+         } else {
+            final ObjIntIntArrayList<JournalFile> fileUpdates;
+            if (files instanceof JournalFile) {
+               fileUpdates = new ObjIntIntArrayList<>(INITIAL_FILES_CAPACITY);
+               fileUpdates.add((JournalFile) files, this.bytes, this.updates);
+               this.files = fileUpdates;
+               this.bytes = 0;
+               this.updates = 0;
+            } else {
+               fileUpdates = (ObjIntIntArrayList<JournalFile>) files;
+            }
+            fileUpdates.add(file, bytes, updates);
+         }
+      }
+   }
+
+   private static final long HashMixer = 0xc6a4a7935bd1e995L;
+   private static final int R = 47;
+
+   static long hash(long key) {
+      long hash = key * HashMixer;
+      hash ^= hash >>> R;
+      hash *= HashMixer;
+      return hash;
+   }
+
+   static int signSafeMod(long n, int max) {
+      return (int) n & (max - 1);
+   }
+
+   static int alignToPowerOfTwo(int n) {
+      return (int) Math.pow(2, 32 - Integer.numberOfLeadingZeros(n - 1));
+   }
+}
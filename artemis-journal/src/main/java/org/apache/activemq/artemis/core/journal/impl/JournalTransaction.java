@@ -110,6 +110,13 @@ public class JournalTransaction implements IOCallback {
       }
    }
 
+   /**
+    * @return {@code true} if any record of this transaction is on {@code file}
+    */
+   boolean hasRecordsOn(final JournalFile file) {
+      return pendingFiles != null && pendingFiles.contains(file);
+   }
+
    public void setCompacting() {
       compacting = true;
 
@@ -236,19 +243,13 @@ public class JournalTransaction implements IOCallback {
 
          if (pos != null) {
             for (JournalUpdate trUpdate : pos) {
-               JournalRecord posFiles = journal.getRecords().get(trUpdate.id);
-
                if (compactor != null && compactor.containsRecord(trUpdate.id)) {
                   // This is a case where the transaction was opened after compacting was started,
                   // but the commit arrived while compacting was working
                   // We need to cache the counter update, so compacting will take the correct files when it is done
                   compactor.addCommandUpdate(trUpdate.id, trUpdate.file, trUpdate.size, trUpdate.replaceableUpdate);
-               } else if (posFiles == null) {
-                  posFiles = new JournalRecord(trUpdate.file, trUpdate.size);
-
-                  journal.getRecords().put(trUpdate.id, posFiles);
-               } else {
-                  posFiles.addUpdateFile(trUpdate.file, trUpdate.size, trUpdate.replaceableUpdate);
+               } else if (!journal.getRecords().update(trUpdate.id, trUpdate.file, trUpdate.size, trUpdate.replaceableUpdate)) {
+                  journal.getRecords().add(trUpdate.id, trUpdate.file, trUpdate.size);
                }
             }
          }
@@ -258,11 +259,7 @@ public class JournalTransaction implements IOCallback {
                if (compactor != null) {
                   compactor.addCommandDelete(trDelete.id, trDelete.file);
                } else {
-                  JournalRecord posFiles = journal.getRecords().remove(trDelete.id);
-
-                  if (posFiles != null) {
-                     posFiles.delete(trDelete.file);
-                  }
+                  journal.getRecords().delete(trDelete.id, trDelete.file);
                }
             }
          }
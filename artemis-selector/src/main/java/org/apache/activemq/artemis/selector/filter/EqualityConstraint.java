@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.selector.filter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+
+/**
+ * A necessary condition of a selector of the form {@code property = 'value'} or
+ * {@code property IN ('value1', 'value2', ...)}.
+ * <p>
+ * If a selector has a constraint then it can only match messages whose {@code property} is a
+ * {@link String} contained in {@link #getValues()}. The rest of the selector (the residual
+ * predicates) still has to be evaluated to know if the message actually matches; the constraint
+ * is only meant to be used to discard selectors cheaply, e.g. by indexing them by value.
+ */
+public final class EqualityConstraint {
+
+   private final SimpleString property;
+
+   private final Set<String> values;
+
+   private EqualityConstraint(SimpleString property, Set<String> values) {
+      this.property = property;
+      this.values = Collections.unmodifiableSet(values);
+   }
+
+   public SimpleString getProperty() {
+      return property;
+   }
+
+   public Set<String> getValues() {
+      return values;
+   }
+
+   /**
+    * Searches the top level conjunction of {@code expression} for the first term that is an
+    * equality or {@code IN} comparison between a property and string literals.
+    *
+    * @return the constraint found or {@code null} if {@code expression} doesn't have any
+    */
+   public static EqualityConstraint extract(BooleanExpression expression) {
+      if (expression instanceof LogicExpression && "AND".equals(((LogicExpression) expression).getExpressionSymbol())) {
+         for (BooleanExpression term : ((LogicExpression) expression).expressions) {
+            EqualityConstraint constraint = extract(term);
+            if (constraint != null) {
+               return constraint;
+            }
+         }
+         return null;
+      }
+      if (expression instanceof UnaryExpression.InExpression) {
+         UnaryExpression.InExpression in = (UnaryExpression.InExpression) expression;
+         if (in.isNot() || !(in.getRight() instanceof PropertyExpression)) {
+            return null;
+         }
+         return create((PropertyExpression) in.getRight(), in.getInList());
+      }
+      if (expression instanceof ComparisonExpression && "=".equals(((ComparisonExpression) expression).getExpressionSymbol())) {
+         ComparisonExpression equal = (ComparisonExpression) expression;
+         // with string conversion '1' = 1 would match too: the value of the property is not enough to discard it
+         if (equal.convertStringExpressions) {
+            return null;
+         }
+         if (equal.getLeft() instanceof PropertyExpression && equal.getRight() instanceof ConstantExpression) {
+            return create((PropertyExpression) equal.getLeft(), Collections.singleton(((ConstantExpression) equal.getRight()).getValue()));
+         }
+         if (equal.getRight() instanceof PropertyExpression && equal.getLeft() instanceof ConstantExpression) {
+            return create((PropertyExpression) equal.getRight(), Collections.singleton(((ConstantExpression) equal.getLeft()).getValue()));
+         }
+      }
+      return null;
+   }
+
+   private static EqualityConstraint create(PropertyExpression property, Collection<Object> literals) {
+      Set<String> values = new HashSet<>(literals.size());
+      for (Object literal : literals) {
+         if (!(literal instanceof String)) {
+            return null;
+         }
+         values.add((String) literal);
+      }
+      return new EqualityConstraint(SimpleString.of(property.getName()), values);
+   }
+
+   @Override
+   public String toString() {
+      return "EqualityConstraint{property=" + property + ", values=" + values + "}";
+   }
+}
@@ -0,0 +1,603 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.selector.filter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+
+/**
+ * Compiles a parsed selector into a tree of evaluators specialized for the operand types known
+ * when the selector is parsed.
+ * <p>
+ * The interpreted expressions evaluate every node to a boxed value and convert both operands of a
+ * comparison at each evaluation. A compiled selector instead reads each property once through its
+ * pre-resolved {@link SimpleString} key and compares it against the literal as a primitive, e.g.
+ * {@code price > 100} becomes a single {@code Long.compare} when the property is a {@code long}.
+ * <p>
+ * Every compiled node answers two questions, "is it TRUE?" and "is it FALSE?", both being
+ * {@code false} when the interpreter would evaluate the node to {@code null} (UNKNOWN): this keeps
+ * the three-valued logic of {@code NOT}, {@code AND} and {@code OR} of the interpreter.
+ * <p>
+ * The constructs without a specialized evaluator (arithmetic, comparisons between properties,
+ * {@code XPATH}, {@code convert_string_expressions}, ...) keep being evaluated by the interpreter,
+ * and a selector without anything to compile is returned as is.
+ */
+public final class SelectorCompiler {
+
+   private static final int INCOMPARABLE = 2;
+
+   private SelectorCompiler() {
+   }
+
+   /**
+    * @return an expression with the same semantics as {@code expression} whose
+    * {@link BooleanExpression#matches(Filterable)} uses the compiled evaluators, or
+    * {@code expression} itself if none of its nodes can be compiled
+    */
+   public static BooleanExpression compile(BooleanExpression expression) {
+      if (expression == null || expression instanceof CompiledExpression) {
+         return expression;
+      }
+      final Node node = compileNode(expression);
+      if (node instanceof InterpretedNode) {
+         return expression;
+      }
+      return new CompiledExpression(expression, node);
+   }
+
+   /**
+    * @return {@code true} if {@code expression} has been compiled by {@link #compile(BooleanExpression)}
+    */
+   public static boolean isCompiled(BooleanExpression expression) {
+      return expression instanceof CompiledExpression;
+   }
+
+   private static Node compileNode(BooleanExpression expression) {
+      if (expression instanceof LogicExpression) {
+         final List<BooleanExpression> expressions = ((LogicExpression) expression).expressions;
+         final Node[] nodes = new Node[expressions.size()];
+         boolean compiled = false;
+         for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = compileNode(expressions.get(i));
+            compiled |= !(nodes[i] instanceof InterpretedNode);
+         }
+         if (!compiled) {
+            return new InterpretedNode(expression);
+         }
+         if ("AND".equals(((LogicExpression) expression).getExpressionSymbol())) {
+            return new AndNode(nodes);
+         } else if ("OR".equals(((LogicExpression) expression).getExpressionSymbol())) {
+            return new OrNode(nodes);
+         }
+         return new InterpretedNode(expression);
+      }
+
+      if (expression instanceof ConstantExpression) {
+         return new ConstantNode(((ConstantExpression) expression).getValue());
+      }
+
+      if (expression instanceof UnaryExpression.InExpression) {
+         final UnaryExpression.InExpression in = (UnaryExpression.InExpression) expression;
+         if (in.getRight() instanceof PropertyExpression) {
+            return new InNode(key(in.getRight()), new HashSet<>(in.getInList()), in.isNot());
+         }
+         return new InterpretedNode(expression);
+      }
+
+      if (expression instanceof ComparisonExpression.LikeExpression) {
+         final ComparisonExpression.LikeExpression like = (ComparisonExpression.LikeExpression) expression;
+         if (like.getRight() instanceof PropertyExpression) {
+            return new LikeNode(key(like.getRight()), like.likePattern);
+         }
+         return new InterpretedNode(expression);
+      }
+
+      if (expression instanceof UnaryExpression.BooleanUnaryExpression) {
+         final UnaryExpression.BooleanUnaryExpression unary = (UnaryExpression.BooleanUnaryExpression) expression;
+         if ("NOT".equals(unary.getExpressionSymbol()) && unary.getRight() instanceof BooleanExpression) {
+            final Node node = compileNode((BooleanExpression) unary.getRight());
+            return node instanceof InterpretedNode ? new InterpretedNode(expression) : new NotNode(node);
+         }
+         if ("".equals(unary.getExpressionSymbol()) && unary.getRight() instanceof PropertyExpression) {
+            return new BooleanPropertyNode(key(unary.getRight()));
+         }
+         return new InterpretedNode(expression);
+      }
+
+      if (expression instanceof ComparisonExpression) {
+         return compileComparison((ComparisonExpression) expression);
+      }
+
+      return new InterpretedNode(expression);
+   }
+
+   private static Node compileComparison(ComparisonExpression comparison) {
+      // the string conversions would need the interpreter rules for every pair of types
+      if (comparison.convertStringExpressions || !(comparison.getLeft() instanceof PropertyExpression)) {
+         return new InterpretedNode(comparison);
+      }
+      final SimpleString key = key(comparison.getLeft());
+      final Object constant;
+      if (comparison.getRight() instanceof ConstantExpression) {
+         constant = ((ConstantExpression) comparison.getRight()).getValue();
+      } else if (comparison.getRight() instanceof UnaryExpression && "-".equals(((UnaryExpression) comparison.getRight()).getExpressionSymbol()) && ((UnaryExpression) comparison.getRight()).getRight() instanceof ConstantExpression) {
+         // a negative literal
+         constant = negativeLiteral(comparison.getRight());
+      } else {
+         return new InterpretedNode(comparison);
+      }
+
+      final Operator operator = Operator.of(comparison.getExpressionSymbol());
+      if (operator == null) {
+         return new InterpretedNode(comparison);
+      }
+      if (constant == null) {
+         return operator == Operator.EQUAL ? new IsNullNode(key) : new InterpretedNode(comparison);
+      }
+      if (constant instanceof Integer) {
+         return new IntCompareNode(key, operator, (Integer) constant);
+      }
+      if (constant instanceof Long) {
+         return new LongCompareNode(key, operator, (Long) constant);
+      }
+      if (constant instanceof Double) {
+         return new DoubleCompareNode(key, operator, (Double) constant);
+      }
+      if (operator == Operator.EQUAL && (constant instanceof String || constant instanceof Boolean)) {
+         return new EqualNode(key, constant);
+      }
+      return new InterpretedNode(comparison);
+   }
+
+   private static Object negativeLiteral(Expression negate) {
+      try {
+         return negate.evaluate(null);
+      } catch (FilterException e) {
+         // a constant never fails to evaluate
+         throw new IllegalStateException(e);
+      }
+   }
+
+   private static SimpleString key(Expression property) {
+      return SimpleString.of(((PropertyExpression) property).getName());
+   }
+
+   private enum Operator {
+      EQUAL, GREATER, GREATER_EQUAL, LESS, LESS_EQUAL;
+
+      static Operator of(String symbol) {
+         switch (symbol) {
+            case "=":
+               return EQUAL;
+            case ">":
+               return GREATER;
+            case ">=":
+               return GREATER_EQUAL;
+            case "<":
+               return LESS;
+            case "<=":
+               return LESS_EQUAL;
+            default:
+               return null;
+         }
+      }
+
+      boolean test(int comparison) {
+         switch (this) {
+            case EQUAL:
+               return comparison == 0;
+            case GREATER:
+               return comparison > 0;
+            case GREATER_EQUAL:
+               return comparison >= 0;
+            case LESS:
+               return comparison < 0;
+            default:
+               return comparison <= 0;
+         }
+      }
+   }
+
+   /*
+    * The comparisons below follow ComparisonExpression#compare(): the property value is promoted
+    * to the type of the literal (or the other way around) and compared with the same semantic of
+    * the boxed compareTo, any other type can't be compared and the comparison is FALSE.
+    */
+
+   static int compareToInt(Object value, int constant) {
+      final Class<?> type = value.getClass();
+      if (type == Integer.class || type == Short.class || type == Byte.class) {
+         return Integer.compare(((Number) value).intValue(), constant);
+      } else if (type == Long.class) {
+         return Long.compare((Long) value, constant);
+      } else if (type == Float.class) {
+         return Float.compare((Float) value, constant);
+      } else if (type == Double.class) {
+         return Double.compare((Double) value, constant);
+      }
+      return INCOMPARABLE;
+   }
+
+   static int compareToLong(Object value, long constant) {
+      final Class<?> type = value.getClass();
+      if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+         return Long.compare(((Number) value).longValue(), constant);
+      } else if (type == Float.class) {
+         return Float.compare((Float) value, constant);
+      } else if (type == Double.class) {
+         return Double.compare((Double) value, constant);
+      }
+      return INCOMPARABLE;
+   }
+
+   static int compareToDouble(Object value, double constant) {
+      final Class<?> type = value.getClass();
+      if (type == Double.class || type == Float.class || type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+         return Double.compare(((Number) value).doubleValue(), constant);
+      }
+      return INCOMPARABLE;
+   }
+
+   private static final class CompiledExpression implements BooleanExpression {
+
+      private final BooleanExpression expression;
+
+      private final Node node;
+
+      private CompiledExpression(BooleanExpression expression, Node node) {
+         this.expression = expression;
+         this.node = node;
+      }
+
+      @Override
+      public Object evaluate(Filterable message) throws FilterException {
+         return expression.evaluate(message);
+      }
+
+      @Override
+      public boolean matches(Filterable message) throws FilterException {
+         return node.isTrue(message);
+      }
+
+      @Override
+      public String toString() {
+         return expression.toString();
+      }
+   }
+
+   private abstract static class Node {
+
+      /**
+       * @return {@code true} if the node would be evaluated to TRUE
+       */
+      abstract boolean isTrue(Filterable message) throws FilterException;
+
+      /**
+       * @return {@code true} if the node would be evaluated to FALSE
+       */
+      abstract boolean isFalse(Filterable message) throws FilterException;
+   }
+
+   private static final class InterpretedNode extends Node {
+
+      private final BooleanExpression expression;
+
+      private InterpretedNode(BooleanExpression expression) {
+         this.expression = expression;
+      }
+
+      @Override
+      boolean isTrue(Filterable message) throws FilterException {
+         return expression.matches(message);
+      }
+
+      @Override
+      boolean isFalse(Filterable message) throws FilterException {
+         return Boolean.FALSE.equals(expression.evaluate(message));
+      }
+   }
+
+   private static final class ConstantNode extends Node {
+
+      private final Object value;
+
+      private ConstantNode(Object value) {
+         this.value = value;
+      }
+
+      @Override
+      boolean isTrue(Filterable message) {
+         return Boolean.TRUE.equals(value);
+      }
+
+      @Override
+      boolean isFalse(Filterable message) {
+         return Boolean.FALSE.equals(value);
+      }
+   }
+
+   private static final class AndNode extends Node {
+
+      private final Node[] nodes;
+
+      private AndNode(Node[] nodes) {
+         this.nodes = nodes;
+      }
+
+      @Override
+      boolean isTrue(Filterable message) throws FilterException {
+         for (Node node : nodes) {
+            if (!node.isTrue(message)) {
+               return false;
+            }
+         }
+         return true;
+      }
+
+      @Override
+      boolean isFalse(Filterable message) throws FilterException {
+         for (Node node : nodes) {
+            if (node.isFalse(message)) {
+               return true;
+            }
+         }
+         return false;
+      }
+   }
+
+   private static final class OrNode extends Node {
+
+      private final Node[] nodes;
+
+      private OrNode(Node[] nodes) {
+         this.nodes = nodes;
+      }
+
+      @Override
+      boolean isTrue(Filterable message) throws FilterException {
+         for (Node node : nodes) {
+            if (node.isTrue(message)) {
+               return true;
+            }
+         }
+         return false;
+      }
+
+      @Override
+      boolean isFalse(Filterable message) throws FilterException {
+         for (Node node : nodes) {
+            if (!node.isFalse(message)) {
+               return false;
+            }
+         }
+         return true;
+      }
+   }
+
+   private static final class NotNode extends Node {
+
+      private final Node node;
+
+      private NotNode(Node node) {
+         this.node = node;
+      }
+
+      @Override
+      boolean isTrue(Filterable message) throws FilterException {
+         return node.isFalse(message);
+      }
+
+      @Override
+      boolean isFalse(Filterable message) throws FilterException {
+         return node.isTrue(message);
+      }
+   }
+
+   private abstract static class PropertyNode extends Node {
+
+      final SimpleString key;
+
+      PropertyNode(SimpleString key) {
+         this.key = key;
+      }
+   }
+
+   private static final class IsNullNode extends PropertyNode {
+
+      private IsNullNode(SimpleString key) {
+         super(key);
+      }
+
+      @Override
+      boolean isTrue(Filterable message) throws FilterException {
+         return message.getProperty(key) == null;
+      }
+
+      @Override
+      boolean isFalse(Filterable message) throws FilterException {
+         return message.getProperty(key) != null;
+      }
+   }
+
+   private static final class EqualNode extends PropertyNode {
+
+      private final Object constant;
+
+      private EqualNode(SimpleString key, Object constant) {
+         super(key);
+         this.constant = constant;
+      }
+
+      @Override
+      boolean isTrue(Filterable message) throws FilterException {
+         return constant.equals(message.getProperty(key));
+      }
+
+      @Override
+      boolean isFalse(Filterable message) throws FilterException {
+         final Object value = message.getProperty(key);
+         return value != null && !constant.equals(value);
+      }
+   }
+
+   private abstract static class CompareNode extends PropertyNode {
+
+      final Operator operator;
+
+      CompareNode(SimpleString key, Operator operator) {
+         super(key);
+         this.operator = operator;
+      }
+
+      abstract int compare(Object value);
+
+      @Override
+      final boolean isTrue(Filterable message) throws FilterException {
+         final Object value = message.getProperty(key);
+         if (value == null) {
+            return false;
+         }
+         final int comparison = compare(value);
+         return comparison != INCOMPARABLE && operator.test(comparison);
+      }
+
+      @Override
+      final boolean isFalse(Filterable message) throws FilterException {
+         final Object value = message.getProperty(key);
+         if (value == null) {
+            return false;
+         }
+         final int comparison = compare(value);
+         return comparison == INCOMPARABLE || !operator.test(comparison);
+      }
+   }
+
+   private static final class IntCompareNode extends CompareNode {
+
+      private final int constant;
+
+      private IntCompareNode(SimpleString key, Operator operator, int constant) {
+         super(key, operator);
+         this.constant = constant;
+      }
+
+      @Override
+      int compare(Object value) {
+         return compareToInt(value, constant);
+      }
+   }
+
+   private static final class LongCompareNode extends CompareNode {
+
+      private final long constant;
+
+      private LongCompareNode(SimpleString key, Operator operator, long constant) {
+         super(key, operator);
+         this.constant = constant;
+      }
+
+      @Override
+      int compare(Object value) {
+         return compareToLong(value, constant);
+      }
+   }
+
+   private static final class DoubleCompareNode extends CompareNode {
+
+      private final double constant;
+
+      private DoubleCompareNode(SimpleString key, Operator operator, double constant) {
+         super(key, operator);
+         this.constant = constant;
+      }
+
+      @Override
+      int compare(Object value) {
+         return compareToDouble(value, constant);
+      }
+   }
+
+   private static final class InNode extends PropertyNode {
+
+      private final Set<Object> values;
+
+      private final boolean not;
+
+      private InNode(SimpleString key, Set<Object> values, boolean not) {
+         super(key);
+         this.values = values;
+         this.not = not;
+      }
+
+      @Override
+      boolean isTrue(Filterable message) throws FilterException {
+         final Object value = message.getProperty(key);
+         return value != null && value.getClass() == String.class && values.contains(value) != not;
+      }
+
+      @Override
+      boolean isFalse(Filterable message) throws FilterException {
+         final Object value = message.getProperty(key);
+         return value != null && value.getClass() == String.class && values.contains(value) == not;
+      }
+   }
+
+   private static final class LikeNode extends PropertyNode {
+
+      private final Pattern pattern;
+
+      private LikeNode(SimpleString key, Pattern pattern) {
+         super(key);
+         this.pattern = pattern;
+      }
+
+      @Override
+      boolean isTrue(Filterable message) throws FilterException {
+         final Object value = message.getProperty(key);
+         return value instanceof String && pattern.matcher((String) value).matches();
+      }
+
+      @Override
+      boolean isFalse(Filterable message) throws FilterException {
+         final Object value = message.getProperty(key);
+         return value != null && !(value instanceof String && pattern.matcher((String) value).matches());
+      }
+   }
+
+   private static final class BooleanPropertyNode extends PropertyNode {
+
+      private BooleanPropertyNode(SimpleString key) {
+         super(key);
+      }
+
+      @Override
+      boolean isTrue(Filterable message) throws FilterException {
+         final Object value = message.getProperty(key);
+         return value instanceof Boolean && (Boolean) value;
+      }
+
+      @Override
+      boolean isFalse(Filterable message) throws FilterException {
+         final Object value = message.getProperty(key);
+         return value != null && !(value instanceof Boolean && (Boolean) value);
+      }
+   }
+}
@@ -68,51 +68,71 @@ public abstract class UnaryExpression implements Expression {
          inList = new HashSet<>(elements);
       }
 
-      return new BooleanUnaryExpression(right) {
-         @Override
-         public Object evaluate(Filterable message) throws FilterException {
+      return new InExpression(right, inList, not);
+   }
 
-            Object rvalue = right.evaluate(message);
-            if (rvalue == null) {
-               return null;
-            }
-            if (rvalue.getClass() != String.class) {
-               return null;
-            }
+   static final class InExpression extends BooleanUnaryExpression {
 
-            return inList.contains(rvalue) ^ not;
-         }
+      private final Collection<Object> inList;
+      private final boolean not;
 
-         @Override
-         public String toString() {
-            StringBuffer answer = new StringBuffer();
-            answer.append(right);
-            answer.append(" ");
-            answer.append(getExpressionSymbol());
-            answer.append(" ( ");
-
-            int count = 0;
-            for (Object o : inList) {
-               if (count != 0) {
-                  answer.append(", ");
-               }
-               answer.append(o);
-               count++;
-            }
+      InExpression(PropertyExpression right, Collection<Object> inList, boolean not) {
+         super(right);
+         this.inList = inList;
+         this.not = not;
+      }
+
+      Collection<Object> getInList() {
+         return inList;
+      }
+
+      boolean isNot() {
+         return not;
+      }
 
-            answer.append(" )");
-            return answer.toString();
+      @Override
+      public Object evaluate(Filterable message) throws FilterException {
+
+         Object rvalue = right.evaluate(message);
+         if (rvalue == null) {
+            return null;
+         }
+         if (rvalue.getClass() != String.class) {
+            return null;
          }
 
-         @Override
-         public String getExpressionSymbol() {
-            if (not) {
-               return "NOT IN";
-            } else {
-               return "IN";
+         return inList.contains(rvalue) ^ not;
+      }
+
+      @Override
+      public String toString() {
+         StringBuffer answer = new StringBuffer();
+         answer.append(right);
+         answer.append(" ");
+         answer.append(getExpressionSymbol());
+         answer.append(" ( ");
+
+         int count = 0;
+         for (Object o : inList) {
+            if (count != 0) {
+               answer.append(", ");
             }
+            answer.append(o);
+            count++;
          }
-      };
+
+         answer.append(" )");
+         return answer.toString();
+      }
+
+      @Override
+      public String getExpressionSymbol() {
+         if (not) {
+            return "NOT IN";
+         } else {
+            return "IN";
+         }
+      }
    }
 
    abstract static class BooleanUnaryExpression extends UnaryExpression implements BooleanExpression {
@@ -22,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import org.apache.activemq.artemis.selector.filter.BooleanExpression;
 import org.apache.activemq.artemis.selector.filter.FilterException;
+import org.apache.activemq.artemis.selector.filter.SelectorCompiler;
 import org.apache.activemq.artemis.selector.impl.SelectorParser;
 import org.junit.jupiter.api.Test;
 
@@ -432,6 +433,7 @@ public class SelectorTest {
       assertTrue(selector != null, "Created a valid selector");
       boolean value = selector.matches(message);
       assertEquals(expected, value, "Selector for: " + text);
+      assertEquals(expected, SelectorCompiler.compile(selector).matches(message), "Compiled selector for: " + text);
    }
 
    protected MockMessage createMessage(String subject) {
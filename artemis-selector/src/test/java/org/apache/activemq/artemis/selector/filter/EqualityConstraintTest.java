@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.selector.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.selector.impl.SelectorParser;
+import org.junit.jupiter.api.Test;
+
+public class EqualityConstraintTest {
+
+   @Test
+   public void testEqual() throws Exception {
+      assertConstraint("region = 'X'", "region", "X");
+      assertConstraint("'X' = region", "region", "X");
+   }
+
+   @Test
+   public void testIn() throws Exception {
+      assertConstraint("region IN ('X', 'Y')", "region", "X", "Y");
+      assertConstraint("region IN ('A', 'B', 'C', 'D', 'E', 'F')", "region", "A", "B", "C", "D", "E", "F");
+   }
+
+   @Test
+   public void testConjunction() throws Exception {
+      assertConstraint("size > 10 AND region = 'X' AND color = 'red'", "region", "X");
+      assertConstraint("(size > 10 OR size < 2) AND region IN ('X', 'Y')", "region", "X", "Y");
+   }
+
+   @Test
+   public void testNoConstraint() throws Exception {
+      assertNull(extract("region = 'X' OR region = 'Y'"));
+      assertNull(extract("region <> 'X'"));
+      assertNull(extract("region NOT IN ('X', 'Y')"));
+      assertNull(extract("NOT (region = 'X')"));
+      assertNull(extract("region LIKE 'X%'"));
+      assertNull(extract("size = 10"));
+      assertNull(extract("region IS NULL"));
+      assertNull(extract("size > 10"));
+   }
+
+   @Test
+   public void testConvertStringExpressions() throws Exception {
+      assertNull(extract("convert_string_expressions:region = 'X'"));
+   }
+
+   private static void assertConstraint(String selector, String property, String... values) throws Exception {
+      EqualityConstraint constraint = extract(selector);
+      assertNotNull(constraint, selector);
+      assertEquals(SimpleString.of(property), constraint.getProperty());
+      assertEquals(Set.of(values), constraint.getValues());
+   }
+
+   private static EqualityConstraint extract(String selector) throws Exception {
+      return EqualityConstraint.extract(SelectorParser.parse(selector));
+   }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.selector.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.selector.MockMessage;
+import org.apache.activemq.artemis.selector.impl.SelectorParser;
+import org.junit.jupiter.api.Test;
+
+public class SelectorCompilerTest {
+
+   private static final String[] SELECTORS = {
+      "prop = 'red'",
+      "prop = TRUE",
+      "prop = FALSE",
+      "prop IS NULL",
+      "prop IS NOT NULL",
+      "prop <> 'red'",
+      "prop = 10",
+      "prop = 0",
+      "prop <> 10",
+      "prop > 10",
+      "prop >= 10",
+      "prop < 10",
+      "prop <= 10",
+      "prop > -10",
+      "prop = 3000000000",
+      "prop < 3000000000",
+      "prop > -3000000000",
+      "prop = 10.0",
+      "prop > 9.5",
+      "prop <= 10.5",
+      "prop < -0.5",
+      "prop BETWEEN 5 AND 15",
+      "prop NOT BETWEEN 5 AND 15",
+      "prop IN ('red', 'blue')",
+      "prop NOT IN ('red', 'blue')",
+      "prop IN ('a', 'b', 'c', 'd', 'e', 'red')",
+      "prop LIKE 're%'",
+      "prop NOT LIKE 're%'",
+      "prop",
+      "NOT prop",
+      "prop + 1 > 10",
+      "10 < prop",
+      "prop = other",
+      "prop = 'red' OR other > 5",
+      "prop = 'red' AND other > 5",
+      "NOT (prop = 'red' AND other > 5)",
+      "NOT (prop = 'red' OR other > 5)",
+      "(prop = 'red' OR prop = 10) AND (other IS NULL OR other < 100)",
+      "prop = 'red' AND (other + 1) > 5",
+      "NOT (prop = 'red' OR (other * 2) > 5)",
+      "prop = 'red' OR TRUE",
+      "prop = 'red' AND FALSE",
+   };
+
+   private static final Object[] VALUES = {
+      null, "red", "blue", "10", "re", Boolean.TRUE, Boolean.FALSE,
+      (byte) 10, (byte) -10, (short) 10, (short) 11, 10, 9, -10, 11, 0,
+      10L, 3000000000L, -3000000000L, 10.0f, 9.5f, 10.5f, -0.5f, Float.NaN,
+      10.0d, 9.5d, 10.5d, -0.5d, -0.0d, Double.NaN, new byte[] {1}
+   };
+
+   @Test
+   public void testCompiledMatchesInterpreted() throws Exception {
+      int checks = 0;
+      for (String text : SELECTORS) {
+         BooleanExpression interpreted = SelectorParser.parse(text);
+         BooleanExpression compiled = SelectorCompiler.compile(SelectorParser.parse(text));
+         BooleanExpression notInterpreted = UnaryExpression.createNOT(interpreted);
+         BooleanExpression notCompiled = SelectorCompiler.compile(UnaryExpression.createNOT(SelectorParser.parse(text)));
+         for (MockMessage message : messages()) {
+            String description = text + " with prop=" + message.getProperty(SimpleString.of("prop")) + ", other=" + message.getProperty(SimpleString.of("other"));
+            boolean expected;
+            try {
+               expected = interpreted.matches(message);
+            } catch (RuntimeException e) {
+               // e.g. arithmetic on a value that is not a number, the filter won't match
+               continue;
+            }
+            assertEquals(expected, compiled.matches(message), description);
+            assertEquals(notInterpreted.matches(message), notCompiled.matches(message), "NOT " + description);
+            checks++;
+         }
+      }
+      assertTrue(checks > SELECTORS.length * VALUES.length);
+   }
+
+   @Test
+   public void testEvaluateIsNotAffected() throws Exception {
+      BooleanExpression compiled = SelectorCompiler.compile(SelectorParser.parse("prop = 'red' AND other > 5"));
+      assertTrue(SelectorCompiler.isCompiled(compiled));
+
+      MockMessage message = new MockMessage();
+      message.setStringProperty("prop", "red");
+      assertEquals(null, compiled.evaluate(message));
+      message.setIntProperty("other", 6);
+      assertEquals(Boolean.TRUE, compiled.evaluate(message));
+      message.setIntProperty("other", 5);
+      assertEquals(Boolean.FALSE, compiled.evaluate(message));
+      assertEquals(SelectorParser.parse("prop = 'red' AND other > 5").toString(), compiled.toString());
+   }
+
+   @Test
+   public void testNothingToCompile() throws Exception {
+      BooleanExpression expression = SelectorParser.parse("prop + 1 > 10 OR 10 < other");
+      assertSame(expression, SelectorCompiler.compile(expression));
+      assertFalse(SelectorCompiler.isCompiled(expression));
+
+      BooleanExpression compiled = SelectorCompiler.compile(SelectorParser.parse("prop > 10"));
+      assertSame(compiled, SelectorCompiler.compile(compiled));
+   }
+
+   private static List<MockMessage> messages() {
+      List<MockMessage> messages = new ArrayList<>();
+      for (Object prop : VALUES) {
+         for (Object other : new Object[] {null, 4, 6L, 5.5d, "6"}) {
+            MockMessage message = new MockMessage();
+            message.setObjectProperty("prop", prop);
+            message.setObjectProperty("other", other);
+            messages.add(message);
+         }
+      }
+      return messages;
+   }
+}
@@ -789,6 +789,29 @@ public interface Configuration {
     */
    Configuration setJournalCompactMinFiles(int minFiles);
 
+   /**
+    * Returns whether the journal compacts only its oldest files, as soon as they are sparse enough, instead of all of
+    * its files at once. <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_COMPACT_INCREMENTAL}.
+    */
+   boolean isJournalCompactIncremental();
+
+   /**
+    * Sets whether the journal compacts only its oldest files, as soon as they are sparse enough.
+    */
+   Configuration setJournalCompactIncremental(boolean incremental);
+
+   /**
+    * Returns the bytes journal compacting can read and write per second, {@code -1} if unbounded. <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_COMPACT_MAX_BYTES_PER_SECOND}.
+    */
+   long getJournalCompactMaxBytesPerSecond();
+
+   /**
+    * Sets the bytes journal compacting can read and write per second, {@code -1} if unbounded.
+    */
+   Configuration setJournalCompactMaxBytesPerSecond(long maxBytesPerSecond);
+
    /**
     * Number of files that would be acceptable to keep on a pool. Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_POOL_FILES}.
     */
@@ -1288,6 +1311,33 @@ public interface Configuration {
 
    long getGlobalMaxMessages();
 
+   /**
+    * Returns the heap (in bytes) held by the messages of the read pages kept in memory for all the addresses once no
+    * subscription uses them, so the subscriptions reaching them later don't read them again. -1 means 5% of the max
+    * heap, 0 disables it.
+    * <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_PAGE_CACHE_MAX_SIZE}.
+    */
+   long getPageCacheMaxSize();
+
+   /**
+    * Sets the heap (in bytes) held by the messages of the read pages kept in memory once no subscription uses them.
+    */
+   Configuration setPageCacheMaxSize(long pageCacheMaxSize);
+
+   /**
+    * Returns the bytes per second of page files written and read by all the addresses, shared among the addresses
+    * paging according to their {@code page-io-weight}. -1 means no limit.
+    * <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_PAGE_IO_MAX_BYTES_PER_SECOND}.
+    */
+   long getPageIOMaxBytesPerSecond();
+
+   /**
+    * Sets the bytes per second of page files written and read by all the addresses.
+    */
+   Configuration setPageIOMaxBytesPerSecond(long pageIOMaxBytesPerSecond);
+
    int getMaxDiskUsage();
 
    Configuration setMaxDiskUsage(int maxDiskUsage);
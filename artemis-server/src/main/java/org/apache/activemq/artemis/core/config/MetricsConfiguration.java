@@ -32,6 +32,7 @@ public class MetricsConfiguration implements Serializable {
    private boolean uptime = ActiveMQDefaultConfiguration.getDefaultUptimeMetrics();
    private boolean logging = ActiveMQDefaultConfiguration.getDefaultLoggingMetrics();
    private boolean securityCaches = ActiveMQDefaultConfiguration.getDefaultSecurityCacheMetrics();
+   private boolean filterCache = ActiveMQDefaultConfiguration.getDefaultFilterCacheMetrics();
    private ActiveMQMetricsPlugin plugin;
 
    public boolean isJvmMemory() {
@@ -123,4 +124,13 @@ public class MetricsConfiguration implements Serializable {
       this.securityCaches = securityCaches;
       return this;
    }
+
+   public boolean isFilterCache() {
+      return filterCache;
+   }
+
+   public MetricsConfiguration setFilterCache(boolean filterCache) {
+      this.filterCache = filterCache;
+      return this;
+   }
 }
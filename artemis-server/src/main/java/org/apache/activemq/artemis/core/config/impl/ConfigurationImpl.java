@@ -267,6 +267,10 @@ public class ConfigurationImpl implements Configuration, Serializable {
 
    protected int journalCompactMinFiles = ActiveMQDefaultConfiguration.getDefaultJournalCompactMinFiles();
 
+   protected boolean journalCompactIncremental = ActiveMQDefaultConfiguration.isDefaultJournalCompactIncremental();
+
+   protected long journalCompactMaxBytesPerSecond = ActiveMQDefaultConfiguration.getDefaultJournalCompactMaxBytesPerSecond();
+
    protected int journalCompactPercentage = ActiveMQDefaultConfiguration.getDefaultJournalCompactPercentage();
 
    protected int journalFileOpenTimeout = ActiveMQDefaultConfiguration.getDefaultJournalFileOpenTimeout();
@@ -382,6 +386,10 @@ public class ConfigurationImpl implements Configuration, Serializable {
 
    private Long globalMaxMessages;
 
+   private long pageCacheMaxSize = ActiveMQDefaultConfiguration.getDefaultPageCacheMaxSize();
+
+   private long pageIOMaxBytesPerSecond = ActiveMQDefaultConfiguration.getDefaultPageIOMaxBytesPerSecond();
+
    private boolean amqpUseCoreSubscriptionNaming = ActiveMQDefaultConfiguration.getDefaultAmqpUseCoreSubscriptionNaming();
 
    private int maxDiskUsage = ActiveMQDefaultConfiguration.getDefaultMaxDiskUsage();
@@ -1063,6 +1071,28 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return globalMaxMessages;
    }
 
+   @Override
+   public long getPageCacheMaxSize() {
+      return pageCacheMaxSize;
+   }
+
+   @Override
+   public ConfigurationImpl setPageCacheMaxSize(long pageCacheMaxSize) {
+      this.pageCacheMaxSize = pageCacheMaxSize;
+      return this;
+   }
+
+   @Override
+   public long getPageIOMaxBytesPerSecond() {
+      return pageIOMaxBytesPerSecond;
+   }
+
+   @Override
+   public ConfigurationImpl setPageIOMaxBytesPerSecond(long pageIOMaxBytesPerSecond) {
+      this.pageIOMaxBytesPerSecond = pageIOMaxBytesPerSecond;
+      return this;
+   }
+
    @Override
    public ConfigurationImpl setPersistenceEnabled(final boolean enable) {
       persistenceEnabled = enable;
@@ -1994,6 +2024,28 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return this;
    }
 
+   @Override
+   public boolean isJournalCompactIncremental() {
+      return journalCompactIncremental;
+   }
+
+   @Override
+   public ConfigurationImpl setJournalCompactIncremental(final boolean incremental) {
+      journalCompactIncremental = incremental;
+      return this;
+   }
+
+   @Override
+   public long getJournalCompactMaxBytesPerSecond() {
+      return journalCompactMaxBytesPerSecond;
+   }
+
+   @Override
+   public ConfigurationImpl setJournalCompactMaxBytesPerSecond(final long maxBytesPerSecond) {
+      journalCompactMaxBytesPerSecond = maxBytesPerSecond;
+      return this;
+   }
+
    @Override
    public int getJournalFileOpenTimeout() {
       return journalFileOpenTimeout;
@@ -2684,8 +2736,12 @@ public class ConfigurationImpl implements Configuration, Serializable {
       result = prime * result + journalBufferTimeout_AIO;
       result = prime * result + journalBufferTimeout_NIO;
       result = prime * result + journalCompactMinFiles;
+      result = prime * result + (journalCompactIncremental ? 1231 : 1237);
+      result = prime * result + (int) (journalCompactMaxBytesPerSecond ^ (journalCompactMaxBytesPerSecond >>> 32));
       result = prime * result + journalCompactPercentage;
       result = prime * result + ((journalDirectory == null) ? 0 : journalDirectory.hashCode());
+      result = prime * result + (int) (pageCacheMaxSize ^ (pageCacheMaxSize >>> 32));
+      result = prime * result + (int) (pageIOMaxBytesPerSecond ^ (pageIOMaxBytesPerSecond >>> 32));
       result = prime * result + journalFileSize;
       result = prime * result + journalMaxIO_AIO;
       result = prime * result + journalMaxIO_NIO;
@@ -2842,6 +2898,10 @@ public class ConfigurationImpl implements Configuration, Serializable {
          return false;
       if (journalCompactMinFiles != other.journalCompactMinFiles)
          return false;
+      if (journalCompactIncremental != other.journalCompactIncremental)
+         return false;
+      if (journalCompactMaxBytesPerSecond != other.journalCompactMaxBytesPerSecond)
+         return false;
       if (journalCompactPercentage != other.journalCompactPercentage)
          return false;
       if (journalDirectory == null) {
@@ -2966,6 +3026,12 @@ public class ConfigurationImpl implements Configuration, Serializable {
       if (journalDatasync != other.journalDatasync) {
          return false;
       }
+      if (pageCacheMaxSize != other.pageCacheMaxSize) {
+         return false;
+      }
+      if (pageIOMaxBytesPerSecond != other.pageIOMaxBytesPerSecond) {
+         return false;
+      }
 
       if (globalMaxSize != null && !globalMaxSize.equals(other.globalMaxSize)) {
          return false;
@@ -260,6 +260,14 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
    private static final String PREFETCH_PAGE_MESSAGES_NODE_NAME = "prefetch-page-messages";
 
+   private static final String PAGE_READ_AHEAD_PAGES_NODE_NAME = "page-read-ahead-pages";
+
+   private static final String PAGE_READ_AHEAD_BYTES_NODE_NAME = "page-read-ahead-bytes";
+
+   private static final String PAGE_COMPRESSION_NODE_NAME = "page-compression";
+
+   private static final String PAGE_IO_WEIGHT_NODE_NAME = "page-io-weight";
+
    private static final String PAGE_SIZE_BYTES_NODE_NAME = "page-size-bytes";
 
    private static final String PAGE_MAX_CACHE_SIZE_NODE_NAME = "page-max-cache-size";
@@ -358,6 +366,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
    private static final String GLOBAL_MAX_MESSAGES = "global-max-messages";
 
+   private static final String PAGE_CACHE_MAX_SIZE = "page-cache-max-size";
+
+   private static final String PAGE_IO_MAX_BYTES_PER_SECOND = "page-io-max-bytes-per-second";
+
    public static final String MAX_DISK_USAGE = "max-disk-usage";
 
    public static final String MIN_DISK_FREE = "min-disk-free";
@@ -380,6 +392,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
    private static final String ID_CACHE_SIZE = "id-cache-size";
 
+   private static final String ID_CACHE_EXPIRY = "id-cache-expiry";
+
+   private static final String SELECTOR_INDEXED_DISPATCH = "selector-indexed-dispatch";
+
    private static final String MIRROR_ACK_MANAGER_QUEUE_ATTEMPTS = "mirror-ack-manager-queue-attempts";
 
    private static final String MIRROR_ACK_MANAGER_PAGE_ATTEMPTS = "mirror-ack-manager-page-attempts";
@@ -517,6 +533,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setGlobalMaxMessages(globalMaxMessages);
 
+      config.setPageCacheMaxSize(getTextBytesAsLongBytes(e, PAGE_CACHE_MAX_SIZE, config.getPageCacheMaxSize(), MINUS_ONE_OR_GE_ZERO));
+
+      config.setPageIOMaxBytesPerSecond(getTextBytesAsLongBytes(e, PAGE_IO_MAX_BYTES_PER_SECOND, config.getPageIOMaxBytesPerSecond(), MINUS_ONE_OR_GT_ZERO));
+
       config.setMinDiskFree(getTextBytesAsLongBytes(e, MIN_DISK_FREE, config.getMinDiskFree(), MINUS_ONE_OR_GT_ZERO));
 
       config.setMaxDiskUsage(getInteger(e, MAX_DISK_USAGE, config.getMaxDiskUsage(), PERCENTAGE_OR_MINUS_ONE));
@@ -801,6 +821,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setJournalCompactPercentage(getInteger(e, "journal-compact-percentage", config.getJournalCompactPercentage(), PERCENTAGE));
 
+      config.setJournalCompactIncremental(getBoolean(e, "journal-compact-incremental", config.isJournalCompactIncremental()));
+
+      config.setJournalCompactMaxBytesPerSecond(getLong(e, "journal-compact-max-bytes-per-second", config.getJournalCompactMaxBytesPerSecond(), MINUS_ONE_OR_GT_ZERO));
+
       config.setLogJournalWriteRate(getBoolean(e, "log-journal-write-rate", ActiveMQDefaultConfiguration.isDefaultJournalLogWriteRate()));
 
       config.setJournalLockAcquisitionTimeout(getLong(e, "journal-lock-acquisition-timeout", config.getJournalLockAcquisitionTimeout(), MINUS_ONE_OR_GT_ZERO));
@@ -1042,6 +1066,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
                metricsConfiguration.setLogging(XMLUtil.parseBoolean(child));
             } else if (child.getNodeName().equals("security-caches")) {
                metricsConfiguration.setSecurityCaches(XMLUtil.parseBoolean(child));
+            } else if (child.getNodeName().equals("filter-cache")) {
+               metricsConfiguration.setFilterCache(XMLUtil.parseBoolean(child));
             } else if (child.getNodeName().equals("plugin")) {
                metricsConfiguration.setPlugin(parseMetricsPlugin(child, config));
             }
@@ -1367,6 +1393,14 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
             addressSettings.setPrefetchPageMessages(MINUS_ONE_OR_POSITIVE_INT.validate(PREFETCH_PAGE_MESSAGES_NODE_NAME, Long.parseLong(getTrimmedTextContent(child))).intValue());
          }  else if (PREFETCH_PAGE_BYTES_NODE_NAME.equalsIgnoreCase(name)) {
             addressSettings.setPrefetchPageBytes(MINUS_ONE_OR_POSITIVE_INT.validate(PREFETCH_PAGE_BYTES_NODE_NAME, ByteUtil.convertTextBytes(getTrimmedTextContent(child))).intValue());
+         } else if (PAGE_READ_AHEAD_PAGES_NODE_NAME.equalsIgnoreCase(name)) {
+            addressSettings.setPageReadAheadPages(GE_ZERO.validate(PAGE_READ_AHEAD_PAGES_NODE_NAME, XMLUtil.parseInt(child)).intValue());
+         } else if (PAGE_READ_AHEAD_BYTES_NODE_NAME.equalsIgnoreCase(name)) {
+            addressSettings.setPageReadAheadBytes(MINUS_ONE_OR_POSITIVE_INT.validate(PAGE_READ_AHEAD_BYTES_NODE_NAME, ByteUtil.convertTextBytes(getTrimmedTextContent(child))).intValue());
+         } else if (PAGE_COMPRESSION_NODE_NAME.equalsIgnoreCase(name)) {
+            addressSettings.setPageCompression(XMLUtil.parseBoolean(child));
+         } else if (PAGE_IO_WEIGHT_NODE_NAME.equalsIgnoreCase(name)) {
+            addressSettings.setPageIOWeight(GT_ZERO.validate(PAGE_IO_WEIGHT_NODE_NAME, XMLUtil.parseInt(child)).intValue());
          } else if (PAGE_MAX_CACHE_SIZE_NODE_NAME.equalsIgnoreCase(name)) {
             if (!printPageMaxSizeUsed) {
                printPageMaxSizeUsed = true;
@@ -1487,6 +1521,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
             addressSettings.setEnableIngressTimestamp(XMLUtil.parseBoolean(child));
          } else if (ID_CACHE_SIZE.equalsIgnoreCase(name)) {
             addressSettings.setIDCacheSize(GE_ZERO.validate(ID_CACHE_SIZE, XMLUtil.parseInt(child)).intValue());
+         } else if (ID_CACHE_EXPIRY.equalsIgnoreCase(name)) {
+            addressSettings.setIDCacheExpiry(MINUS_ONE_OR_GT_ZERO.validate(ID_CACHE_EXPIRY, XMLUtil.parseLong(child)).longValue());
+         } else if (SELECTOR_INDEXED_DISPATCH.equalsIgnoreCase(name)) {
+            addressSettings.setSelectorIndexedDispatch(XMLUtil.parseBoolean(child));
          }
       }
       return setting;
@@ -19,6 +19,7 @@ package org.apache.activemq.artemis.core.filter;
 import java.util.Map;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.selector.filter.EqualityConstraint;
 import org.apache.activemq.artemis.selector.filter.Filterable;
 
 public interface Filter {
@@ -41,6 +42,14 @@ public interface Filter {
 
    SimpleString getFilterString();
 
+   /**
+    * @return a constraint every message matched by this filter satisfies, or {@code null} if this
+    * filter cannot be reduced to one
+    */
+   default EqualityConstraint getEqualityConstraint() {
+      return null;
+   }
+
    static SimpleString toFilterString(Filter filter) {
       return filter == null ? null : filter.getFilterString();
    }
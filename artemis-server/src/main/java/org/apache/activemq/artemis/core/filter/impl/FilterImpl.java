@@ -18,6 +18,8 @@ package org.apache.activemq.artemis.core.filter.impl;
 
 import java.util.Map;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.FilterConstants;
 import org.apache.activemq.artemis.api.core.Message;
@@ -27,8 +29,10 @@ import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.federation.address.FederatedAddress;
 import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.filter.EqualityConstraint;
 import org.apache.activemq.artemis.selector.filter.FilterException;
 import org.apache.activemq.artemis.selector.filter.Filterable;
+import org.apache.activemq.artemis.selector.filter.SelectorCompiler;
 import org.apache.activemq.artemis.selector.impl.SelectorParser;
 import org.apache.activemq.artemis.utils.ByteUtil;
 import org.slf4j.Logger;
@@ -59,10 +63,21 @@ public class FilterImpl implements Filter {
 
    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+   // opt-in: evaluate the selectors through the evaluators specialized by SelectorCompiler
+   private static final boolean COMPILE_SELECTORS = Boolean.parseBoolean(System.getProperty("artemis.selector.compile", "false"));
+
+   // a filter is immutable: the same instance is shared by every consumer, queue, divert, etc. using the same filter string
+   private static final Cache<SimpleString, FilterImpl> FILTER_CACHE = Caffeine.newBuilder()
+                                                                             .maximumSize(Long.parseLong(System.getProperty("artemis.selector.cache.size", "1000")))
+                                                                             .executor(Runnable::run)
+                                                                             .recordStats()
+                                                                             .build();
+
    private final SimpleString sfilterString;
 
    private final BooleanExpression booleanExpression;
 
+   private final EqualityConstraint equalityConstraint;
 
    /**
     * @return null if <code>filterStr</code> is null or an empty String and a valid filter else
@@ -81,6 +96,16 @@ public class FilterImpl implements Filter {
          return null;
       }
 
+      FilterImpl filter = FILTER_CACHE.getIfPresent(filterStr);
+      if (filter == null) {
+         // concurrent misses of the same filter string parse it in parallel rather than waiting on each other
+         filter = parse(filterStr);
+         FILTER_CACHE.put(filterStr, filter);
+      }
+      return filter;
+   }
+
+   private static FilterImpl parse(final SimpleString filterStr) throws ActiveMQException {
       BooleanExpression booleanExpression;
       try {
          booleanExpression = SelectorParser.parse(filterStr.toString());
@@ -94,7 +119,23 @@ public class FilterImpl implements Filter {
 
    private FilterImpl(final SimpleString str, final BooleanExpression expression) {
       sfilterString = str;
-      this.booleanExpression = expression;
+      this.equalityConstraint = EqualityConstraint.extract(expression);
+      this.booleanExpression = COMPILE_SELECTORS ? SelectorCompiler.compile(expression) : expression;
+   }
+
+   /**
+    * @return a {@link Filterable} view of {@code message} exposing the same properties a filter
+    * would evaluate against
+    */
+   public static Filterable filterableOf(final Message message) {
+      return new FilterableServerMessage(message);
+   }
+
+   /**
+    * @return the cache of the filters shared by the whole broker
+    */
+   public static Cache<SimpleString, FilterImpl> getFilterCache() {
+      return FILTER_CACHE;
    }
 
    // Filter implementation ---------------------------------------------------------------------
@@ -104,6 +145,11 @@ public class FilterImpl implements Filter {
       return sfilterString;
    }
 
+   @Override
+   public EqualityConstraint getEqualityConstraint() {
+      return equalityConstraint;
+   }
+
    @Override
    public boolean match(final Message message) {
       return match(new FilterableServerMessage(message));
@@ -115,8 +161,9 @@ public class FilterImpl implements Filter {
    }
 
 
+   // the expressions are immutable and can be evaluated concurrently
    @Override
-   public synchronized boolean match(final Filterable filterable) {
+   public boolean match(final Filterable filterable) {
       try {
          return booleanExpression.matches(filterable);
       } catch (Exception e) {
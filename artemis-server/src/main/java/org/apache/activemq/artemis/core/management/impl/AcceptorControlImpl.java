@@ -90,6 +90,32 @@ public class AcceptorControlImpl extends AbstractControl implements AcceptorCont
       }
    }
 
+   @Override
+   public long getFlushCount() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getFlushCount(this.acceptor);
+      }
+      clearIO();
+      try {
+         return acceptor.getFlushCount();
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public long getWrittenBytes() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getWrittenBytes(this.acceptor);
+      }
+      clearIO();
+      try {
+         return acceptor.getWrittenBytes();
+      } finally {
+         blockOnIO();
+      }
+   }
+
    @Override
    public void reload() {
       if (AuditLogger.isBaseLoggingEnabled()) {
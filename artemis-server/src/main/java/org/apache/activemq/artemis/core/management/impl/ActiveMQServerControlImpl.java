@@ -77,6 +77,7 @@ import org.apache.activemq.artemis.core.config.ConnectorServiceConfiguration;
 import org.apache.activemq.artemis.core.config.DivertConfiguration;
 import org.apache.activemq.artemis.core.config.TransformerConfiguration;
 import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.journal.Journal;
 import org.apache.activemq.artemis.core.management.impl.view.AddressView;
 import org.apache.activemq.artemis.core.management.impl.view.ConnectionView;
 import org.apache.activemq.artemis.core.management.impl.view.ConsumerField;
@@ -541,6 +542,86 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
       }
    }
 
+   @Override
+   public int getJournalCompactCount() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getJournalCompactCount(this.server);
+      }
+      checkStarted();
+
+      clearIO();
+      try {
+         final Journal journal = server.getStorageManager().getMessageJournal();
+         return journal == null ? 0 : journal.getCompactCount();
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public int getJournalCompactProgress() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getJournalCompactProgress(this.server);
+      }
+      checkStarted();
+
+      clearIO();
+      try {
+         final Journal journal = server.getStorageManager().getMessageJournal();
+         return journal == null ? -1 : journal.getCompactProgress();
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public long getJournalCompactReclaimedBytes() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getJournalCompactReclaimedBytes(this.server);
+      }
+      checkStarted();
+
+      clearIO();
+      try {
+         final Journal journal = server.getStorageManager().getMessageJournal();
+         return journal == null ? 0 : journal.getCompactReclaimedBytes();
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public long getJournalCompactLastPauseTime() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getJournalCompactLastPauseTime(this.server);
+      }
+      checkStarted();
+
+      clearIO();
+      try {
+         final Journal journal = server.getStorageManager().getMessageJournal();
+         return journal == null ? 0 : journal.getCompactLastPauseTime();
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public long getJournalCompactMaxPauseTime() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getJournalCompactMaxPauseTime(this.server);
+      }
+      checkStarted();
+
+      clearIO();
+      try {
+         final Journal journal = server.getStorageManager().getMessageJournal();
+         return journal == null ? 0 : journal.getCompactMaxPauseTime();
+      } finally {
+         blockOnIO();
+      }
+   }
+
    @Override
    public boolean isPersistenceEnabled() {
       if (AuditLogger.isBaseLoggingEnabled()) {
@@ -4666,6 +4747,23 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
       }
    }
 
+   @Override
+   public double getPageCounterRebuildProgress() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageCounterRebuildProgress(this.server);
+      }
+      checkStarted();
+      clearIO();
+      try {
+         if (server.getPagingManager() == null) {
+            return -1;
+         }
+         return server.getPagingManager().getPageCounterRebuildProgress();
+      } finally {
+         blockOnIO();
+      }
+   }
+
    private ServiceComponent getEmbeddedWebServerComponent() throws ActiveMQIllegalStateException {
       for (ActiveMQComponent component : server.getExternalComponents()) {
          if (component instanceof WebServerComponentMarker) {
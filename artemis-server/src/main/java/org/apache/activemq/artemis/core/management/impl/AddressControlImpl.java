@@ -417,6 +417,159 @@ public class AddressControlImpl extends AbstractControl implements AddressContro
       }
    }
 
+   @Override
+   public double getPageCacheHitRatio() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageCacheHitRatio(this.addressInfo);
+      }
+      clearIO();
+      try {
+         final PagingStore pageStore = getPagingStore();
+         return pageStore == null ? 0 : pageStore.getPageCacheHitRatio();
+      } catch (Exception e) {
+         logger.debug("Failed to get page cache hit ratio", e);
+         return -1;
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public long getPageCacheResidentBytes() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageCacheResidentBytes(this.addressInfo);
+      }
+      clearIO();
+      try {
+         final PagingStore pageStore = getPagingStore();
+         return pageStore == null ? 0 : pageStore.getPageCacheResidentBytes();
+      } catch (Exception e) {
+         logger.debug("Failed to get page cache resident bytes", e);
+         return -1;
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public double getPageCompressionRatio() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageCompressionRatio(this.addressInfo);
+      }
+      clearIO();
+      try {
+         final PagingStore pageStore = getPagingStore();
+         return pageStore == null ? 1 : pageStore.getPageCompressionRatio();
+      } catch (Exception e) {
+         logger.debug("Failed to get page compression ratio", e);
+         return -1;
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public long getPageCompressionTime() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageCompressionTime(this.addressInfo);
+      }
+      clearIO();
+      try {
+         final PagingStore pageStore = getPagingStore();
+         return pageStore == null ? 0 : pageStore.getPageCompressionTime();
+      } catch (Exception e) {
+         logger.debug("Failed to get page compression time", e);
+         return -1;
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public double getPageIOWriteRate() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageIOWriteRate(this.addressInfo);
+      }
+      clearIO();
+      try {
+         final PagingStore pageStore = getPagingStore();
+         return pageStore == null ? 0 : pageStore.getPageIOWriteRate();
+      } catch (Exception e) {
+         logger.debug("Failed to get page I/O write rate", e);
+         return -1;
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public double getPageIOReadRate() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageIOReadRate(this.addressInfo);
+      }
+      clearIO();
+      try {
+         final PagingStore pageStore = getPagingStore();
+         return pageStore == null ? 0 : pageStore.getPageIOReadRate();
+      } catch (Exception e) {
+         logger.debug("Failed to get page I/O read rate", e);
+         return -1;
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public double getPageIOQueueingDelay() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageIOQueueingDelay(this.addressInfo);
+      }
+      clearIO();
+      try {
+         final PagingStore pageStore = getPagingStore();
+         return pageStore == null ? 0 : pageStore.getPageIOQueueingDelay();
+      } catch (Exception e) {
+         logger.debug("Failed to get page I/O queueing delay", e);
+         return -1;
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public double getPageSyncLatencyP50() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageSyncLatencyP50(this.addressInfo);
+      }
+      clearIO();
+      try {
+         final PagingStore pageStore = getPagingStore();
+         return pageStore == null ? 0 : pageStore.getPageSyncLatency(50);
+      } catch (Exception e) {
+         logger.debug("Failed to get page sync latency", e);
+         return -1;
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public double getPageSyncLatencyP99() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getPageSyncLatencyP99(this.addressInfo);
+      }
+      clearIO();
+      try {
+         final PagingStore pageStore = getPagingStore();
+         return pageStore == null ? 0 : pageStore.getPageSyncLatency(99);
+      } catch (Exception e) {
+         logger.debug("Failed to get page sync latency", e);
+         return -1;
+      } finally {
+         blockOnIO();
+      }
+   }
+
    @Override
    public long getMessageCount() {
       // prevent parallel tasks running
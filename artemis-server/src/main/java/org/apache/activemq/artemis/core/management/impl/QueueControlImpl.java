@@ -466,6 +466,36 @@ public class QueueControlImpl extends AbstractControl implements QueueControl {
       }
    }
 
+   @Override
+   public long getConsumerFilterMismatches() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getConsumerFilterMismatches(queue);
+      }
+      checkStarted();
+
+      clearIO();
+      try {
+         return queue.getConsumerFilterMismatches();
+      } finally {
+         blockOnIO();
+      }
+   }
+
+   @Override
+   public long getConsumerFilterEvaluationsSkipped() {
+      if (AuditLogger.isBaseLoggingEnabled()) {
+         AuditLogger.getConsumerFilterEvaluationsSkipped(queue);
+      }
+      checkStarted();
+
+      clearIO();
+      try {
+         return queue.getConsumerFilterEvaluationsSkipped();
+      } finally {
+         blockOnIO();
+      }
+   }
+
    @Override
    public long getID() {
       if (AuditLogger.isBaseLoggingEnabled()) {
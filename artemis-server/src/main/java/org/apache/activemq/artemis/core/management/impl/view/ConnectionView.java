@@ -26,6 +26,7 @@ import org.apache.activemq.artemis.core.server.ActiveMQServer;
 import org.apache.activemq.artemis.core.server.ServerSession;
 import org.apache.activemq.artemis.json.JsonObjectBuilder;
 import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.spi.core.remoting.Connection;
 import org.apache.activemq.artemis.utils.JsonLoader;
 import org.apache.activemq.artemis.utils.StringUtil;
 
@@ -65,7 +66,9 @@ public class ConnectionView extends ActiveMQAbstractView<RemotingConnection> {
          .add(ConnectionField.PROTOCOL.getName(), toString(connection.getProtocolName()))
          .add(ConnectionField.CLIENT_ID.getName(), toString(connection.getClientID()))
          .add(ConnectionField.LOCAL_ADDRESS.getName(), toString(connection.getTransportLocalAddress()))
-         .add(ConnectionField.SESSION_COUNT.getName(), sessions.size());
+         .add(ConnectionField.SESSION_COUNT.getName(), sessions.size())
+         .add(ConnectionField.FLUSH_COUNT.getName(), getFlushCount(connection))
+         .add(ConnectionField.WRITTEN_BYTES.getName(), getWrittenBytes(connection));
    }
 
    @Override
@@ -97,11 +100,25 @@ public class ConnectionView extends ActiveMQAbstractView<RemotingConnection> {
             return connection.getTransportLocalAddress();
          case SESSION_COUNT:
             return server.getSessions(connection.getID().toString()).size();
+         case FLUSH_COUNT:
+            return getFlushCount(connection);
+         case WRITTEN_BYTES:
+            return getWrittenBytes(connection);
          default:
             throw new IllegalArgumentException("Unsupported field, " + fieldName);
       }
    }
 
+   private static long getFlushCount(RemotingConnection connection) {
+      final Connection transportConnection = connection.getTransportConnection();
+      return transportConnection == null ? 0 : transportConnection.getFlushCount();
+   }
+
+   private static long getWrittenBytes(RemotingConnection connection) {
+      final Connection transportConnection = connection.getTransportConnection();
+      return transportConnection == null ? 0 : transportConnection.getWrittenBytes();
+   }
+
    @Override
    public String getDefaultOrderColumn() {
       return defaultSortColumn;
@@ -62,6 +62,10 @@ public class ConnectionFilterPredicate extends ActiveMQFilterPredicate<RemotingC
             return matches(connection.getCreationTime());
          case IMPLEMENTATION:
             return matches(connection.getClass().getSimpleName());
+         case FLUSH_COUNT:
+            return matches(connection.getTransportConnection().getFlushCount());
+         case WRITTEN_BYTES:
+            return matches(connection.getTransportConnection().getWrittenBytes());
       }
       return true;
    }
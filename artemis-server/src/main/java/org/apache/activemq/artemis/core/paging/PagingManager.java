@@ -22,6 +22,8 @@ import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.paging.impl.PagingIOScheduler;
+import org.apache.activemq.artemis.core.paging.impl.SharedPageCache;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
 import org.apache.activemq.artemis.core.server.files.FileStoreMonitor;
 import org.apache.activemq.artemis.core.settings.HierarchicalRepositoryChangeListener;
@@ -139,6 +141,20 @@ public interface PagingManager extends ActiveMQComponent, HierarchicalRepository
       return 0;
    }
 
+   /**
+    * The cache of the pages released by all the stores, or {@code null} if they're not retained.
+    */
+   default SharedPageCache getSharedPageCache() {
+      return null;
+   }
+
+   /**
+    * The scheduler sharing the page I/O of the broker among the stores, or {@code null} if it's not accounted.
+    */
+   default PagingIOScheduler getPagingIOScheduler() {
+      return null;
+   }
+
    default long getGlobalMessages() {
       return 0;
    }
@@ -181,4 +197,12 @@ public interface PagingManager extends ActiveMQComponent, HierarchicalRepository
       return false;
    }
 
+   /**
+    * Returns the ratio, between 0 and 1, of the page files read by the last {@link #rebuildCounters(Set)}, {@code 1}
+    * if it had none to read.
+    */
+   default double getPageCounterRebuildProgress() {
+      return 1;
+   }
+
 }
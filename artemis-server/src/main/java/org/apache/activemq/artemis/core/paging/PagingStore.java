@@ -55,6 +55,65 @@ public interface PagingStore extends ActiveMQComponent, RefCountMessageListener
 
    long getNumberOfPages();
 
+   /**
+    * Returns the ratio of the uses of a page finding its messages already in memory.
+    */
+   default double getPageCacheHitRatio() {
+      return 0;
+   }
+
+   /**
+    * Returns the size of the pages of this store kept in memory, being used or retained by the shared page cache.
+    */
+   default long getPageCacheResidentBytes() {
+      return 0;
+   }
+
+   /**
+    * Returns how many times the messages written to the pages of this store are bigger than the data written for
+    * them, {@code 1} if they aren't compressed.
+    */
+   default double getPageCompressionRatio() {
+      return 1;
+   }
+
+   /**
+    * Returns the time spent on compressing the messages written to the pages of this store, in milliseconds.
+    */
+   default long getPageCompressionTime() {
+      return 0;
+   }
+
+   /**
+    * Returns the bytes per second written to the pages of this store on the last second.
+    */
+   default double getPageIOWriteRate() {
+      return 0;
+   }
+
+   /**
+    * Returns the bytes per second read from the pages of this store on the last second.
+    */
+   default double getPageIOReadRate() {
+      return 0;
+   }
+
+   /**
+    * Returns the average time, in milliseconds, the producers of this store released on the last second were held back
+    * for going over the page I/O share of the store.
+    */
+   default double getPageIOQueueingDelay() {
+      return 0;
+   }
+
+   /**
+    * Returns the time, in milliseconds, within which {@code percentile} percent of the last durable sends to this store
+    * got their page files synced.
+    */
+   default double getPageSyncLatency(double percentile) {
+      return 0;
+   }
+
    /**
     * Returns the page id of the current page in which the system is writing files.
     */
@@ -139,6 +198,13 @@ public interface PagingStore extends ActiveMQComponent, RefCountMessageListener
    Page usePage(long page, boolean create);
    Page usePage(long page, boolean createEntry, boolean createFile);
 
+   /**
+    * To be called once a subscription moved to {@code page}, to read the pages after it in the background, as
+    * configured by the address settings.
+    */
+   default void readAhead(long page) {
+   }
+
    Page newPageObject(long page) throws Exception;
 
    boolean checkPageFileExists(long page) throws Exception;
@@ -37,15 +37,51 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
 /** this class will copy current data from the Subscriptions, count messages while the server is already active
- * performing other activity */
+ * performing other activity.
+ * <p>
+ * The page files are read by the thread running the rebuild along with the given worker executors, each one taking
+ * the next page not read yet and counting its messages on its own deltas, merged on the copied subscriptions once all
+ * the pages are read. */
 public class PageCounterRebuildManager implements Runnable {
 
+   /**
+    * The page files read so far out of the page files to read, by all the rebuilds sharing it.
+    */
+   public static final class Progress {
+
+      private final AtomicLong pages = new AtomicLong();
+
+      private final AtomicLong pagesRead = new AtomicLong();
+
+      void addPages(long pages) {
+         this.pages.addAndGet(pages);
+      }
+
+      void pageRead() {
+         pagesRead.incrementAndGet();
+      }
+
+      /**
+       * @return the ratio, between 0 and 1, of the page files read, {@code 1} if there are none to read
+       */
+      public double getProgress() {
+         final long pages = this.pages.get();
+         return pages <= 0 ? 1 : Math.min(1, (double) pagesRead.get() / pages);
+      }
+   }
+
    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
    private final PagingStore pgStore;
@@ -57,9 +93,20 @@ public class PageCounterRebuildManager implements Runnable {
    private int limitMessageNr;
    private LongObjectHashMap<CopiedSubscription> copiedSubscriptionMap = new LongObjectHashMap<>();
    private final Set<Long> storedLargeMessages;
+   private final Executor[] workers;
+   private final Progress progress;
 
 
    public PageCounterRebuildManager(PagingManager pagingManager, PagingStore store, Map<Long, PageTransactionInfo> transactions, Set<Long> storedLargeMessages, AtomicLong minPageTXIDFound) {
+      this(pagingManager, store, transactions, storedLargeMessages, minPageTXIDFound, new Executor[0], new Progress());
+   }
+
+   /**
+    * @param workers the executors reading page files along with the thread running the rebuild
+    */
+   public PageCounterRebuildManager(PagingManager pagingManager, PagingStore store, Map<Long, PageTransactionInfo> transactions, Set<Long> storedLargeMessages, AtomicLong minPageTXIDFound, Executor[] workers, Progress progress) {
+      this.workers = workers;
+      this.progress = progress;
       // we make a copy of the data because we are allowing data to influx. We will consolidate the values at the end
       initialize(store);
       this.pagingManager = pagingManager;
@@ -92,6 +139,7 @@ public class PageCounterRebuildManager implements Runnable {
             if (logger.isTraceEnabled()) {
                logger.trace("PageCounterRebuild for {}, Current writing page {} and limit will be {} with lastMessage on last page={}", store.getStoreName(), store.getCurrentWritingPage(), limitPageId, limitMessageNr);
             }
+            progress.addPages(limitPageId - store.getFirstPage() + 1);
          } catch (Exception e) {
             logger.warn(e.getMessage(), e);
             limitPageId = store.getCurrentWritingPage();
@@ -199,7 +247,64 @@ public class PageCounterRebuildManager implements Runnable {
 
       logger.debug("Rebuilding page counter for address {}", pgStore.getAddress());
 
-      for (long pgid = pgStore.getFirstPage(); pgid <= limitPageId; pgid++) {
+      final AtomicLong nextPage = new AtomicLong(pgStore.getFirstPage());
+      final AtomicReference<Exception> failure = new AtomicReference<>();
+      // no point on more workers than pages to read, besides the one read by this thread
+      final int helpers = (int) Math.min(workers.length, Math.max(0, limitPageId - nextPage.get()));
+      final CountDownLatch helpersDone = new CountDownLatch(helpers);
+      final CounterDeltas[] deltas = new CounterDeltas[helpers + 1];
+      for (int i = 0; i <= helpers; i++) {
+         deltas[i] = new CounterDeltas();
+      }
+      final AtomicBoolean[] helperStarted = new AtomicBoolean[helpers + 1];
+      for (int i = 1; i <= helpers; i++) {
+         final CounterDeltas workerDeltas = deltas[i];
+         final AtomicBoolean started = helperStarted[i] = new AtomicBoolean();
+         workers[i - 1].execute(() -> {
+            if (started.compareAndSet(false, true)) {
+               try {
+                  countPages(nextPage, failure, workerDeltas);
+               } finally {
+                  helpersDone.countDown();
+               }
+            }
+         });
+      }
+      try {
+         countPages(nextPage, failure, deltas[0]);
+      } finally {
+         // no need to wait for the helpers not started yet, as there are no pages left for them
+         for (int i = 1; i <= helpers; i++) {
+            if (helperStarted[i].compareAndSet(false, true)) {
+               helpersDone.countDown();
+            }
+         }
+         helpersDone.await();
+      }
+      if (failure.get() != null) {
+         throw failure.get();
+      }
+
+      for (CounterDeltas workerDeltas : deltas) {
+         workerDeltas.merge();
+      }
+
+      logger.debug("Counter rebuilding done for address {}", pgStore.getAddress());
+
+      done();
+
+   }
+
+   private void countPages(AtomicLong nextPage, AtomicReference<Exception> failure, CounterDeltas deltas) {
+      try {
+         doCountPages(nextPage, failure, deltas);
+      } catch (Exception e) {
+         failure.compareAndSet(null, e);
+      }
+   }
+
+   private void doCountPages(AtomicLong nextPage, AtomicReference<Exception> failure, CounterDeltas deltas) throws Exception {
+      for (long pgid = nextPage.getAndIncrement(); pgid <= limitPageId && failure.get() == null; pgid = nextPage.getAndIncrement()) {
          if (logger.isDebugEnabled()) {
             logger.trace("Rebuilding counter on messages from page {} on rebuildCounters for address {}", pgid, pgStore.getAddress());
          }
@@ -210,6 +315,7 @@ public class PageCounterRebuildManager implements Runnable {
             if (logger.isDebugEnabled()) {
                logger.trace("Skipping page {} on store {}", pgid, pgStore.getAddress());
             }
+            progress.pageRead();
             continue;
          }
          page.open(false);
@@ -223,7 +329,7 @@ public class PageCounterRebuildManager implements Runnable {
                   if (logger.isDebugEnabled()) {
                      logger.trace("removing storedLargeMessage {}", msg.getMessage().getMessageID());
                   }
-                  storedLargeMessages.remove(msg.getMessage().getMessageID());
+                  deltas.largeMessages.add(msg.getMessage().getMessageID());
                }
                if (limitPageId == pgid) {
                   if (msg.getMessageNumber() >= limitMessageNr) {
@@ -264,7 +370,8 @@ public class PageCounterRebuildManager implements Runnable {
                   // notice that there is a check if the commit is done in afterCommit
                   if (preparedTX != null) {
                      PageSubscription subscription = pgStore.getCursorProvider().getSubscription(queueID);
-                     preparedTX.addOperation(new TransactionOperationAbstract() {
+                     // added once the counting is done, as any other change to the transactions
+                     deltas.preparedOperations.add(() -> preparedTX.addOperation(new TransactionOperationAbstract() {
                         @Override
                         public void afterCommit(Transaction tx) {
                            // We use the pagingManager executor here, in case the commit happened while the rebuild manager is working
@@ -277,7 +384,7 @@ public class PageCounterRebuildManager implements Runnable {
                               }
                            });
                         }
-                     });
+                     }));
 
                   } else {
                      boolean txIncluded = msg.getTransactionID() <= 0 || transactions == null || txInfo != null;
@@ -290,12 +397,7 @@ public class PageCounterRebuildManager implements Runnable {
                         if (logger.isTraceEnabled()) {
                            logger.trace("Message pageNumber={}/{} NOT acked on queue {}", msg.getPageNumber(), msg.getMessageNumber(), queueID);
                         }
-                        CopiedSubscription copiedSubscription = copiedSubscriptionMap.get(queueID);
-                        if (copiedSubscription != null) {
-                           copiedSubscription.empty = false;
-                           copiedSubscription.addUp++;
-                           copiedSubscription.sizeUp += msg.getPersistentSize();
-                        }
+                        deltas.add(queueID, msg.getPersistentSize());
                      } else {
                         if (logger.isTraceEnabled()) {
                            logger.trace("Message pageNumber={}/{} IS acked on queue {}", msg.getPageNumber(), msg.getMessageNumber(), queueID);
@@ -305,12 +407,45 @@ public class PageCounterRebuildManager implements Runnable {
                }
             }
          }
+         progress.pageRead();
       }
+   }
 
-      logger.debug("Counter rebuilding done for address {}", pgStore.getAddress());
+   /**
+    * What a thread counted on the pages it read, merged on the copied subscriptions once all the pages are read.
+    */
+   private final class CounterDeltas {
 
-      done();
+      final LongObjectHashMap<long[]> counts = new LongObjectHashMap<>();
+
+      final List<Long> largeMessages = new ArrayList<>();
+
+      final List<Runnable> preparedOperations = new ArrayList<>();
+
+      void add(long queueID, long persistentSize) {
+         long[] count = counts.get(queueID);
+         if (count == null) {
+            count = new long[2];
+            counts.put(queueID, count);
+         }
+         count[0]++;
+         count[1] += persistentSize;
+      }
 
+      void merge() {
+         counts.forEach((queueID, count) -> {
+            CopiedSubscription copiedSubscription = copiedSubscriptionMap.get(queueID);
+            if (copiedSubscription != null) {
+               copiedSubscription.empty = false;
+               copiedSubscription.addUp += (int) count[0];
+               copiedSubscription.sizeUp += count[1];
+            }
+         });
+         if (storedLargeMessages != null) {
+            largeMessages.forEach(storedLargeMessages::remove);
+         }
+         preparedOperations.forEach(Runnable::run);
+      }
    }
 
    private static class CopiedSubscription {
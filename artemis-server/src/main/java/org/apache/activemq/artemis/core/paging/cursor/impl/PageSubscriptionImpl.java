@@ -104,6 +104,9 @@ public final class PageSubscriptionImpl implements PageSubscription {
 
    private final PageSubscriptionCounter counter;
 
+   // the last page read by queryMessage without caching it, keeping its index for the next queries on the same page
+   private volatile Page queriedPage;
+
 
    PageSubscriptionImpl(final PageCursorProvider cursorProvider,
                         final PagingStore pageStore,
@@ -531,21 +534,20 @@ public final class PageSubscriptionImpl implements PageSubscription {
    @Override
    public PagedMessage queryMessage(PagePosition pos) {
       try {
-         Page page = pageStore.usePage(pos.getPageNr());
+         Page page = pageStore.usePage(pos.getPageNr(), false);
 
          if (page == null) {
-            return null;
+            // the page isn't cached: seek the single message instead of reading the whole page
+            page = queriedPage;
+            if (page == null || page.getPageId() != pos.getPageNr()) {
+               page = pageStore.newPageObject(pos.getPageNr());
+               queriedPage = page;
+            }
+            return page.readMessage(pos.getMessageNr());
          }
 
          try {
-            org.apache.activemq.artemis.utils.collections.LinkedList<PagedMessage> messages = page.getMessages();
-            PagedMessage retMessage;
-            if (pos.getMessageNr() < messages.size()) {
-               retMessage = messages.get(pos.getMessageNr());
-            } else {
-               retMessage = null;
-            }
-            return retMessage;
+            return page.readMessage(pos.getMessageNr());
          } finally {
             page.usageDown();
          }
@@ -1159,6 +1161,7 @@ public final class PageSubscriptionImpl implements PageSubscription {
                logger.trace("CursorIterator: getting page {} which will contain {}", page, currentPage.getNumberOfMessages());
             }
             currentPageIterator = currentPage.iterator();
+            pageStore.readAhead(page);
          } catch (Exception e) {
             store.criticalError(e);
             throw new IllegalStateException(e.getMessage(), e);
@@ -22,6 +22,7 @@ import java.nio.channels.ClosedChannelException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.io.IOCallback;
 import org.apache.activemq.artemis.core.io.SequentialFile;
@@ -46,6 +47,12 @@ public final class Page  {
 
    private static final AtomicInteger factory = new AtomicInteger(0);
 
+   // read the whole page files mapping them in memory, instead of copying them in chunks
+   private static final boolean MAPPED_READ = Boolean.parseBoolean(System.getProperty("ARTEMIS_PAGE_MAPPED_READ", "true"));
+
+   // the paged message, its node on the list of the page and its array of queue IDs, besides the message itself
+   private static final int PAGED_MESSAGE_MEMORY_OVERHEAD = 96;
+
    private final int seqInt = factory.incrementAndGet();
 
    private final ReferenceCounterUtil referenceCounter = new ReferenceCounterUtil();
@@ -62,6 +69,10 @@ public final class Page  {
       return referenceCounter.decrement();
    }
 
+   public int getUsage() {
+      return referenceCounter.getCount();
+   }
+
    /** to be called when the page is supposed to be released */
    public void releaseTask(Consumer<Page> releaseTask) {
       referenceCounter.setTask(() -> releaseTask.accept(this));
@@ -79,6 +90,9 @@ public final class Page  {
 
    private volatile LinkedList<PagedMessage> messages;
 
+   // the heap held by the messages in memory, estimated as they are added or read, under the lock of the page
+   private volatile long memoryEstimate;
+
    private volatile long size;
 
    private final StorageManager storageManager;
@@ -87,6 +101,18 @@ public final class Page  {
 
    private ByteBuffer readFileBuffer;
 
+   // the offsets of the records, kept while writing or reading the page to read single messages with readMessage
+   private PageIndex index;
+
+   // the index has records not stored yet on its file
+   private boolean indexChanged;
+
+   // compresses the records written, if not null
+   private PageCompressor compressor;
+
+   // accounts for the bytes written and read, if not null
+   private PagingIOScheduler.Budget ioBudget;
+
    public Page(final SimpleString storeName,
                final StorageManager storageManager,
                final SequentialFileFactory factory,
@@ -103,6 +129,20 @@ public final class Page  {
       return pageId;
    }
 
+   /**
+    * Sets the compressor of the records written from now on, or {@code null} to write them uncompressed.
+    */
+   public synchronized void setCompressor(PageCompressor compressor) {
+      this.compressor = compressor;
+   }
+
+   /**
+    * Sets the budget accounting for the bytes written and read from now on, or {@code null} to not account for them.
+    */
+   public synchronized void setIOBudget(PagingIOScheduler.Budget ioBudget) {
+      this.ioBudget = ioBudget;
+   }
+
    public LinkedListIterator<PagedMessage> iterator() throws Exception {
       LinkedList<PagedMessage> messages = getMessages();
       return messages.iterator();
@@ -117,7 +157,15 @@ public final class Page  {
             }
             file.open();
          }
-         messages = read(storageManager);
+         final LinkedList<PagedMessage> messages = read(storageManager);
+         long memoryEstimate = 0;
+         try (LinkedListIterator<PagedMessage> iter = messages.iterator()) {
+            while (iter.hasNext()) {
+               memoryEstimate += memoryEstimate(iter.next());
+            }
+         }
+         this.memoryEstimate = memoryEstimate;
+         this.messages = messages;
          if (!wasOpen) {
             file.close();
          }
@@ -133,6 +181,13 @@ public final class Page  {
       message.setMessageNumber(messages.size());
       message.setPageNumber(this.pageId);
       messages.addTail(message);
+      memoryEstimate += memoryEstimate(message);
+   }
+
+   private static long memoryEstimate(PagedMessage pagedMessage) {
+      final long[] queueIDs = pagedMessage.getQueueIDs();
+      final Message message = pagedMessage.getMessage();
+      return PAGED_MESSAGE_MEMORY_OVERHEAD + (queueIDs == null ? 0 : (long) queueIDs.length * Long.BYTES) + (message == null ? 0 : message.getMemoryEstimate());
    }
 
    public synchronized LinkedList<PagedMessage> read() throws Exception {
@@ -162,11 +217,98 @@ public final class Page  {
 
       final LinkedList<PagedMessage> messages = new LinkedListImpl<>();
 
-      numberOfMessages = PageReadWriter.readFromSequentialFile(storage, storeName, fileFactory, file, this.pageId, messages::addTail, onlyLargeMessages ? PageReadWriter.ONLY_LARGE : PageReadWriter.NO_SKIP, this::markFileAsSuspect, this::setSize);
+      final PageIndex index = new PageIndex();
+
+      final PageReadWriter.PageRecordFilter skipRecord = onlyLargeMessages ? PageReadWriter.ONLY_LARGE : PageReadWriter.NO_SKIP;
+
+      if (MAPPED_READ && fileFactory.getDirectory() != null) {
+         numberOfMessages = PageReadWriter.readFromMappedFile(storage, storeName, file, this.pageId, messages::addTail, skipRecord, this::markFileAsSuspect, this::setSize, index::add);
+      } else {
+         numberOfMessages = PageReadWriter.readFromSequentialFile(storage, storeName, fileFactory, file, this.pageId, messages::addTail, skipRecord, this::markFileAsSuspect, this::setSize, index::add);
+      }
+
+      this.index = index;
+
+      if (ioBudget != null) {
+         ioBudget.read(size);
+      }
 
       return messages;
    }
 
+   /**
+    * Reads a single message of the page, seeking its record through the {@link PageIndex} of the page instead of
+    * reading the whole page: the index is loaded from its file or, if it's missing or stale, rebuilt scanning the page
+    * records without decoding them.
+    *
+    * @return the message, or {@code null} if the page has no such message
+    */
+   public synchronized PagedMessage readMessage(int messageNumber) throws Exception {
+      final LinkedList<PagedMessage> messages = this.messages;
+      if (messages != null) {
+         return messageNumber < messages.size() ? messages.get(messageNumber) : null;
+      }
+      final boolean wasOpen = file.isOpen();
+      if (!wasOpen) {
+         if (!file.exists()) {
+            return null;
+         }
+         file.open();
+      }
+      final long position = file.position();
+      try {
+         if (index == null || messageNumber >= index.size()) {
+            index = PageIndex.load(fileFactory, file);
+            if (index == null || messageNumber >= index.size()) {
+               index = rebuildIndex();
+            }
+         }
+         if (messageNumber >= index.size()) {
+            return null;
+         }
+         PagedMessage message = PageReadWriter.readMessage(storageManager, storeName, fileFactory, file, pageId, messageNumber, index.offset(messageNumber));
+         if (message == null) {
+            logger.debug("Invalid index of page {} on address = {}: rebuilding it", pageId, storeName);
+            index = rebuildIndex();
+            if (messageNumber < index.size()) {
+               message = PageReadWriter.readMessage(storageManager, storeName, fileFactory, file, pageId, messageNumber, index.offset(messageNumber));
+            }
+         }
+         if (message != null && ioBudget != null) {
+            ioBudget.read(message.getEncodeSize());
+         }
+         return message;
+      } finally {
+         if (!wasOpen) {
+            file.close();
+         } else {
+            file.position(position);
+         }
+      }
+   }
+
+   private PageIndex rebuildIndex() throws Exception {
+      final PageIndex index = new PageIndex();
+      PageReadWriter.readFromSequentialFile(storageManager, storeName, fileFactory, file, pageId, null, PageReadWriter.SKIP_ALL, null, null, index::add);
+      // the index file is checked against the page size on load, so storing it is fine even if the page is still written
+      index.store(fileFactory, file, file.size());
+      return index;
+   }
+
+   /**
+    * @return whether the messages of the page are in memory
+    */
+   boolean isRead() {
+      return messages != null;
+   }
+
+   /**
+    * @return an estimate of the heap held by the messages of the page in memory, {@code 0} if they aren't
+    */
+   public long getMemoryEstimate() {
+      return memoryEstimate;
+   }
+
    public String debugMessages() throws Exception {
       StringBuffer buffer = new StringBuffer();
       LinkedListIterator<PagedMessage> iter = getMessages().iterator();
@@ -190,8 +332,21 @@ public final class Page  {
          throw ActiveMQMessageBundle.BUNDLE.cannotWriteToClosedFile(file);
       }
       addMessage(message);
-      this.size += PageReadWriter.writeMessage(message, fileFactory, file);
+      final long offset = file.position();
+      final int written = PageReadWriter.writeMessage(message, fileFactory, file, compressor);
+      this.size += written;
+      if (ioBudget != null) {
+         ioBudget.written(written);
+      }
       numberOfMessages++;
+      if (offset == 0) {
+         // a new page, or one deleted and written again
+         index = new PageIndex();
+      }
+      if (index != null) {
+         index.add((int) offset);
+         indexChanged = true;
+      }
    }
 
    public void sync() throws Exception {
@@ -248,10 +403,24 @@ public final class Page  {
       if (sendReplicaClose && storageManager != null) {
          storageManager.pageClosed(storeName, pageId);
       }
+      if (indexChanged && index != null && file.isOpen()) {
+         try {
+            index.store(fileFactory, file, size);
+         } catch (Exception e) {
+            // the index is rebuilt from the page when missing
+            logger.warn("Could not store the index of page {} on address = {}", pageId, storeName, e);
+         }
+      }
+      indexChanged = false;
       file.close(waitSync, waitSync);
    }
 
    public boolean delete(final LinkedList<PagedMessage> messages) throws Exception {
+      synchronized (this) {
+         index = null;
+         indexChanged = false;
+      }
+
       if (storageManager != null) {
          storageManager.pageDeleted(storeName, pageId);
       }
@@ -278,6 +447,7 @@ public final class Page  {
          @Override
          public void done() {
             try {
+               PageIndex.delete(fileFactory, file);
                if (suspiciousRecords) {
                   ActiveMQServerLogger.LOGGER.pageInvalid(file.getFileName(), file.getFileName());
                   file.renameTo(file.getFileName() + ".invalidPage");
@@ -309,6 +479,10 @@ public final class Page  {
       }
 
       try {
+         final PageIndex storedIndex = PageIndex.load(fileFactory, file);
+         if (storedIndex != null) {
+            return storedIndex.size();
+         }
          int numberOfMessages = PageReadWriter.readFromSequentialFile(this.storageManager,
                                                                       this.storeName,
                                                                       this.fileFactory,
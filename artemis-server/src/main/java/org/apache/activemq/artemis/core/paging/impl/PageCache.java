@@ -16,6 +16,7 @@
  */
 package org.apache.activemq.artemis.core.paging.impl;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import io.netty.util.collection.LongObjectHashMap;
@@ -25,15 +26,32 @@ import org.slf4j.LoggerFactory;
 import java.lang.invoke.MethodHandles;
 
 /**
- * This is a simple cache where we keep Page objects only while they are being used. */
+ * This is a simple cache where we keep Page objects while they are being used.
+ * <p>
+ * Once released, the pages read are retained on the {@link SharedPageCache} of the broker (if any), until they are
+ * used again or evicted from it.
+ */
 public class PageCache {
 
    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
    private final PagingStore owner;
 
+   private final SharedPageCache sharedCache;
+
+   private final AtomicLong hits = new AtomicLong();
+
+   private final AtomicLong misses = new AtomicLong();
+
+   private final AtomicLong retainedBytes = new AtomicLong();
+
    public PageCache(PagingStore owner) {
+      this(owner, null);
+   }
+
+   public PageCache(PagingStore owner, SharedPageCache sharedCache) {
       this.owner = owner;
+      this.sharedCache = sharedCache;
    }
 
    private final LongObjectHashMap<Page> usedPages = new LongObjectHashMap<>();
@@ -42,6 +60,64 @@ public class PageCache {
       return usedPages.get(pageID);
    }
 
+   /**
+    * @return the page being used or retained, used again, or {@code null} if the page has to be read
+    */
+   public synchronized Page use(long pageID) {
+      Page page = usedPages.get(pageID);
+      if (page == null && sharedCache != null) {
+         page = sharedCache.take(this, pageID);
+         if (page != null) {
+            injectPage(page);
+         }
+      }
+      if (page == null) {
+         misses.incrementAndGet();
+      } else {
+         hits.incrementAndGet();
+      }
+      return page;
+   }
+
+   /**
+    * To be called when the page is removed from the page store, so it isn't retained anymore.
+    */
+   public void forget(long pageID) {
+      if (sharedCache != null) {
+         sharedCache.remove(this, pageID);
+      }
+   }
+
+   public void forgetAll() {
+      if (sharedCache != null) {
+         sharedCache.removeAll(this);
+      }
+   }
+
+   /**
+    * @return the ratio of the uses of a page finding it already read, or {@code 0} if no page was used yet
+    */
+   public double getHitRatio() {
+      final long hits = this.hits.get();
+      final long lookups = hits + misses.get();
+      return lookups == 0 ? 0 : (double) hits / lookups;
+   }
+
+   /**
+    * @return the estimated heap held by the messages of the pages in memory, being used or retained
+    */
+   public synchronized long getResidentBytes() {
+      long residentBytes = retainedBytes.get();
+      for (Page page : usedPages.values()) {
+         residentBytes += page.getMemoryEstimate();
+      }
+      return residentBytes;
+   }
+
+   void retainedBytes(long delta) {
+      retainedBytes.addAndGet(delta);
+   }
+
    public synchronized void forEachUsedPage(Consumer<Page> consumerPage) {
       usedPages.values().forEach(consumerPage);
    }
@@ -64,6 +140,10 @@ public class PageCache {
          if (logger.isDebugEnabled()) {
             logger.debug("--- Releasing page {} on UsedPages for destination {}", page.getPageId(), owner.getAddress());
          }
+         // a page being deleted or not read has nothing to share
+         if (sharedCache != null && page.isRead() && page.getUsage() <= 0 && page.getFile().exists()) {
+            sharedCache.retain(this, page);
+         }
       }
    }
 
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.impl;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+import io.netty.buffer.Unpooled;
+import org.apache.activemq.artemis.core.buffers.impl.ChannelBufferWrapper;
+import org.apache.activemq.artemis.core.paging.PagedMessage;
+import org.apache.activemq.artemis.utils.DataConstants;
+
+/**
+ * Deflates the messages written to the pages of a store, accounting for the bytes it saves and the time it takes.
+ * <p>
+ * The compressed data of a message is the size of the encoded message followed by the encoded message deflated:
+ * {@link PageReadWriter} frames it on a record of its own kind, so any reader of the page inflates it back. A message
+ * not getting at least {@code 1/8} smaller is written as it is, and the messages after it are written as they are
+ * without trying to compress them, for a number of messages doubling on every further failed attempt: incompressible
+ * payloads cost a fraction of the time of deflating them.
+ */
+public final class PageCompressor {
+
+   // encoding buffers larger than this are not kept around between writes
+   private static final int MAX_RETAINED_ENCODE_BUFFER = 1024 * 1024;
+
+   private static final int MAX_SKIPPED_MESSAGES = 64;
+
+   private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+   private ByteBuffer encodeBuffer = ByteBuffer.allocate(0);
+
+   private long encodedBytes;
+
+   private long storedBytes;
+
+   private long compressionNanos;
+
+   // the messages to write without trying to compress them, after failing to compress the previous ones
+   private int skippedMessages;
+
+   private int skippedMessagesOnFailure;
+
+   /**
+    * Writes the data of {@code message} on {@code data}, from its position up to its limit, that must leave room
+    * for {@code encodedSize} bytes. On return the position of {@code data} is right after the data written.
+    *
+    * @return {@code true} if the data written is compressed, {@code false} if it's just the encoded message
+    */
+   synchronized boolean compress(PagedMessage message, int encodedSize, ByteBuffer data) {
+      final long start = System.nanoTime();
+      final ByteBuffer encoded = encode(message, encodedSize);
+      final int dataStart = data.position();
+      boolean compressed = false;
+      if (skippedMessages > 0) {
+         skippedMessages--;
+      } else {
+         compressed = deflate(encoded, encodedSize, data);
+         if (compressed) {
+            skippedMessagesOnFailure = 0;
+         } else {
+            skippedMessagesOnFailure = Math.min(MAX_SKIPPED_MESSAGES, Math.max(1, skippedMessagesOnFailure * 2));
+            skippedMessages = skippedMessagesOnFailure;
+         }
+      }
+      if (!compressed) {
+         encoded.rewind();
+         data.position(dataStart);
+         data.put(encoded);
+      }
+      encodedBytes += encodedSize;
+      storedBytes += data.position() - dataStart;
+      compressionNanos += System.nanoTime() - start;
+      return compressed;
+   }
+
+   private boolean deflate(ByteBuffer encoded, int encodedSize, ByteBuffer data) {
+      final int maxDataSize = encodedSize - (encodedSize >> 3);
+      if (maxDataSize <= DataConstants.SIZE_INT) {
+         return false;
+      }
+      final int dataLimit = data.limit();
+      deflater.reset();
+      deflater.setInput(encoded);
+      deflater.finish();
+      // it's worth only if it takes noticeably less room than the encoded message
+      data.limit(data.position() + maxDataSize);
+      data.putInt(encodedSize);
+      while (data.hasRemaining() && !deflater.finished()) {
+         deflater.deflate(data);
+      }
+      data.limit(dataLimit);
+      return deflater.finished();
+   }
+
+   private ByteBuffer encode(PagedMessage message, int encodedSize) {
+      ByteBuffer buffer = encodeBuffer;
+      if (buffer.capacity() < encodedSize) {
+         buffer = ByteBuffer.allocate(encodedSize);
+         if (encodedSize <= MAX_RETAINED_ENCODE_BUFFER) {
+            encodeBuffer = buffer;
+         }
+      }
+      buffer.clear().limit(encodedSize);
+      final ChannelBufferWrapper wrapper = new ChannelBufferWrapper(Unpooled.wrappedBuffer(buffer));
+      wrapper.clear();
+      message.encode(wrapper);
+      assert wrapper.readableBytes() == encodedSize : "messageEncodedSize is different from expected";
+      return buffer;
+   }
+
+   /**
+    * Returns how many times the messages compressed are bigger than the data written for them, compressed or not,
+    * or {@code 1} if nothing was compressed yet.
+    */
+   public synchronized double getCompressionRatio() {
+      return storedBytes == 0 ? 1 : (double) encodedBytes / storedBytes;
+   }
+
+   /**
+    * Returns the time spent on compressing messages, in milliseconds.
+    */
+   public synchronized long getCompressionTime() {
+      return compressionNanos / 1_000_000;
+   }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.activemq.artemis.core.io.SequentialFile;
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.utils.DataConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * The file offset of each record of a page, by message number, so a single message can be read without reading the
+ * whole page.
+ * <p>
+ * It is stored next to the page file, on a file with the same name plus {@link #EXTENSION}, made of the size of the
+ * page file it was taken from, the number of records and their offsets. An index file not matching the size of its
+ * page file is ignored (e.g. the broker crashed while writing the page), and the index is rebuilt from the page.
+ */
+final class PageIndex {
+
+   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+   static final String EXTENSION = ".idx";
+
+   private static final int HEADER_SIZE = DataConstants.SIZE_LONG + DataConstants.SIZE_INT;
+
+   private int[] offsets;
+
+   private int size;
+
+   PageIndex() {
+      this(16);
+   }
+
+   private PageIndex(int capacity) {
+      offsets = new int[capacity];
+   }
+
+   void add(int offset) {
+      if (size == offsets.length) {
+         offsets = Arrays.copyOf(offsets, size + (size >> 1));
+      }
+      offsets[size++] = offset;
+   }
+
+   int size() {
+      return size;
+   }
+
+   int offset(int messageNumber) {
+      return offsets[messageNumber];
+   }
+
+   /**
+    * @return the index stored for {@code pageFile}, or {@code null} if there's none or it doesn't match the page file
+    */
+   static PageIndex load(SequentialFileFactory fileFactory, SequentialFile pageFile) throws Exception {
+      if (fileFactory.getDirectory() == null) {
+         // not a file system store, e.g. a database
+         return null;
+      }
+      final SequentialFile indexFile = fileFactory.createSequentialFile(pageFile.getFileName() + EXTENSION);
+      if (!indexFile.exists()) {
+         return null;
+      }
+      final long pageSize = pageFile.size();
+      indexFile.open();
+      ByteBuffer buffer = null;
+      try {
+         final long indexFileSize = indexFile.size();
+         if (indexFileSize < HEADER_SIZE || indexFileSize > Integer.MAX_VALUE) {
+            return null;
+         }
+         buffer = fileFactory.newBuffer((int) indexFileSize);
+         buffer.clear().limit((int) indexFileSize);
+         indexFile.position(0);
+         indexFile.read(buffer);
+         buffer.position(0);
+         if (buffer.remaining() != indexFileSize || buffer.getLong() != pageSize) {
+            logger.debug("Ignoring stale index {} of a {} bytes page", indexFile.getFileName(), pageSize);
+            return null;
+         }
+         final int count = buffer.getInt();
+         if (count < 0 || buffer.remaining() != (long) count * DataConstants.SIZE_INT) {
+            return null;
+         }
+         final PageIndex index = new PageIndex(Math.max(16, count));
+         for (int i = 0; i < count; i++) {
+            index.add(buffer.getInt());
+         }
+         return index;
+      } finally {
+         if (buffer != null) {
+            fileFactory.releaseBuffer(buffer);
+         }
+         indexFile.close();
+      }
+   }
+
+   /**
+    * Stores this index for {@code pageFile}, whose records it covers up to {@code pageSize} bytes.
+    */
+   void store(SequentialFileFactory fileFactory, SequentialFile pageFile, long pageSize) throws Exception {
+      if (fileFactory.getDirectory() == null) {
+         return;
+      }
+      final SequentialFile indexFile = fileFactory.createSequentialFile(pageFile.getFileName() + EXTENSION);
+      if (indexFile.exists()) {
+         // it could cover more records than this one, e.g. if it was rebuilt from a page later found incomplete
+         indexFile.delete();
+      }
+      indexFile.open();
+      try {
+         final int indexFileSize = HEADER_SIZE + size * DataConstants.SIZE_INT;
+         final ByteBuffer buffer = fileFactory.newBuffer(indexFileSize);
+         buffer.clear();
+         buffer.putLong(pageSize);
+         buffer.putInt(size);
+         for (int i = 0; i < size; i++) {
+            buffer.putInt(offsets[i]);
+         }
+         buffer.flip();
+         indexFile.position(0);
+         indexFile.writeDirect(buffer, false);
+      } finally {
+         indexFile.close();
+      }
+   }
+
+   static void delete(SequentialFileFactory fileFactory, SequentialFile pageFile) throws Exception {
+      if (fileFactory.getDirectory() == null) {
+         return;
+      }
+      final SequentialFile indexFile = fileFactory.createSequentialFile(pageFile.getFileName() + EXTENSION);
+      if (indexFile.exists()) {
+         indexFile.delete();
+      }
+   }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Reads on its own executor the pages following the page a subscription moves to, so the subscription finds them
+ * already read when it reaches them, instead of reading them on the executor of its queue.
+ * <p>
+ * Only the subscription ahead of the others reads ahead: the ones behind it find the pages it already released on
+ * the {@link SharedPageCache}, if any. A page read ahead is used until a subscription moves to it or it's removed from
+ * the store. Reading ahead beyond the max number of pages or bytes releases the pages read ahead the earliest.
+ */
+final class PageReadAhead {
+
+   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+   private final PagingStoreImpl store;
+
+   private final Executor executor;
+
+   // in read order: the eldest is the first one to release
+   private final LinkedHashMap<Long, Page> pages = new LinkedHashMap<>();
+
+   private long bytes;
+
+   // the highest page a subscription moved to: there's no point on reading ahead up to it
+   private long highestPageId = -1;
+
+   PageReadAhead(PagingStoreImpl store, Executor executor) {
+      this.store = store;
+      this.executor = executor;
+   }
+
+   /**
+    * To be called once a subscription is using {@code pageId}, to read ahead the {@code maxPages} pages after it.
+    *
+    * @param maxBytes the max size of the pages read ahead, or {@code -1} for no limit
+    */
+   void moveTo(long pageId, int maxPages, long maxBytes) {
+      // the subscription is using it now
+      forget(pageId);
+      synchronized (this) {
+         if (pageId < highestPageId) {
+            return;
+         }
+         highestPageId = pageId;
+      }
+      if (maxPages > 0) {
+         executor.execute(() -> readAhead(pageId + 1, pageId + maxPages, maxPages, maxBytes));
+      }
+   }
+
+   private void readAhead(long firstPageId, long lastPageId, int maxPages, long maxBytes) {
+      for (long pageId = firstPageId; pageId <= lastPageId; pageId++) {
+         // the page being written is always in memory
+         if (!store.isStarted() || pageId >= store.getCurrentWritingPage()) {
+            return;
+         }
+         synchronized (this) {
+            if (pageId <= highestPageId) {
+               // a subscription got there first
+               continue;
+            }
+            if (pages.containsKey(pageId)) {
+               continue;
+            }
+         }
+         final Page page;
+         try {
+            page = store.readPage(pageId);
+         } catch (Throwable e) {
+            logger.debug("Failed to read ahead page {} on {}", pageId, store.getAddress(), e);
+            return;
+         }
+         if (page == null) {
+            continue;
+         }
+         if (logger.isDebugEnabled()) {
+            logger.debug("Read ahead page {} on {}", pageId, store.getAddress());
+         }
+         final List<Page> released = new ArrayList<>(1);
+         synchronized (this) {
+            if (pageId <= highestPageId) {
+               // a subscription got there while it was read
+               released.add(page);
+            } else {
+               add(pageId, page, maxPages, maxBytes, released);
+            }
+         }
+         released.forEach(Page::usageDown);
+         if (!page.getFile().exists()) {
+            // removed while being read
+            forget(pageId);
+         }
+      }
+   }
+
+   // the pages to release are added to released, to release them out of the lock
+   private void add(long pageId, Page page, int maxPages, long maxBytes, List<Page> released) {
+      final Page previous = pages.put(pageId, page);
+      if (previous != null) {
+         bytes -= previous.getSize();
+         released.add(previous);
+      }
+      bytes += page.getSize();
+      final Iterator<Page> eldest = pages.values().iterator();
+      while ((pages.size() > maxPages || maxBytes >= 0 && bytes > maxBytes) && eldest.hasNext()) {
+         final Page evicted = eldest.next();
+         eldest.remove();
+         bytes -= evicted.getSize();
+         released.add(evicted);
+      }
+   }
+
+   /**
+    * Stops using {@code pageId}, if it was read ahead.
+    */
+   void forget(long pageId) {
+      final Page page;
+      synchronized (this) {
+         page = pages.remove(pageId);
+         if (page == null) {
+            return;
+         }
+         bytes -= page.getSize();
+      }
+      page.usageDown();
+   }
+
+   void clear() {
+      final List<Page> released;
+      synchronized (this) {
+         released = new ArrayList<>(pages.values());
+         pages.clear();
+         bytes = 0;
+      }
+      released.forEach(Page::usageDown);
+   }
+
+   synchronized int size() {
+      return pages.size();
+   }
+}
@@ -16,11 +16,19 @@
  */
 package org.apache.activemq.artemis.core.paging.impl;
 
+import java.io.File;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.util.internal.PlatformDependent;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.buffers.impl.ChannelBufferWrapper;
@@ -46,6 +54,9 @@ public class PageReadWriter {
 
    private static final byte START_BYTE = (byte) '{';
 
+   // starts a record whose data is compressed by PageCompressor
+   private static final byte COMPRESSED_START_BYTE = (byte) '[';
+
    private static final byte END_BYTE = (byte) '}';
 
    //sizeOf(START_BYTE) + sizeOf(MESSAGE LENGTH) + sizeOf(END_BYTE)
@@ -54,6 +65,18 @@ public class PageReadWriter {
    private static final int HEADER_SIZE = HEADER_AND_TRAILER_SIZE - 1;
    private static final int MIN_CHUNK_SIZE = Env.osPageSize();
 
+   // inflated records larger than this are not kept around between reads
+   private static final int MAX_RETAINED_INFLATE_BUFFER = 1024 * 1024;
+
+   private static final class Inflation {
+
+      final Inflater inflater = new Inflater();
+
+      ByteBuffer buffer = ByteBuffer.allocate(0);
+   }
+
+   private static final ThreadLocal<Inflation> INFLATION = ThreadLocal.withInitial(Inflation::new);
+
    public interface SuspectFileCallback {
       void onSuspect(String fileName, int position, int msgNumber);
    }
@@ -97,6 +120,85 @@ public class PageReadWriter {
       return bufferSize;
    }
 
+   /**
+    * Same as {@link #writeMessage(PagedMessage, SequentialFileFactory, SequentialFile)}, but compressing the record
+    * through {@code compressor}, if not {@code null}.
+    *
+    * @return the size of the record written
+    */
+   public static int writeMessage(PagedMessage message, SequentialFileFactory fileFactory, SequentialFile file, PageCompressor compressor) throws Exception {
+      if (compressor == null) {
+         return writeMessage(message, fileFactory, file);
+      }
+      final int messageEncodedSize = message.getEncodeSize();
+      final ByteBuffer buffer = fileFactory.newBuffer(messageEncodedSize + SIZE_RECORD);
+      buffer.position(HEADER_SIZE);
+      final boolean compressed = compressor.compress(message, messageEncodedSize, buffer);
+      final int dataSize = buffer.position() - HEADER_SIZE;
+      buffer.put(END_BYTE);
+      buffer.put(0, compressed ? COMPRESSED_START_BYTE : START_BYTE);
+      buffer.putInt(1, dataSize);
+      buffer.flip();
+      final int recordSize = buffer.remaining();
+      if (fileFactory.supportsIndividualContext()) {
+         OperationContext context = OperationContextImpl.getContext();
+         if (context != null) {
+            context.storeLineUp();
+         }
+         file.writeDirect(buffer, false, context);
+      } else {
+         file.writeDirect(buffer, false);
+      }
+      return recordSize;
+   }
+
+   private static boolean isStartByte(byte startByte) {
+      return startByte == START_BYTE || startByte == COMPRESSED_START_BYTE;
+   }
+
+   /**
+    * @return the data of the compressed record between {@code position} and {@code endPosition} of {@code fileBuffer},
+    * inflated on a buffer reused by the next record inflated by the same thread, or {@code null} if it's not valid
+    */
+   private static ChannelBufferWrapper inflate(ByteBuffer fileBuffer, int position, int endPosition) {
+      if (endPosition - position < DataConstants.SIZE_INT) {
+         return null;
+      }
+      final int encodedSize = fileBuffer.getInt(position);
+      if (encodedSize < 0) {
+         return null;
+      }
+      final ByteBuffer deflated = fileBuffer.duplicate();
+      deflated.limit(endPosition).position(position + DataConstants.SIZE_INT);
+      final Inflation inflation = INFLATION.get();
+      ByteBuffer encoded = inflation.buffer;
+      if (encoded.capacity() < encodedSize) {
+         encoded = ByteBuffer.allocate(encodedSize);
+         if (encodedSize <= MAX_RETAINED_INFLATE_BUFFER) {
+            inflation.buffer = encoded;
+         }
+      }
+      encoded.clear().limit(encodedSize);
+      final Inflater inflater = inflation.inflater;
+      inflater.reset();
+      inflater.setInput(deflated);
+      try {
+         while (encoded.hasRemaining() && !inflater.finished()) {
+            if (inflater.inflate(encoded) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+               break;
+            }
+         }
+      } catch (DataFormatException e) {
+         logger.debug("Invalid compressed record", e);
+         return null;
+      }
+      if (!inflater.finished() || encoded.hasRemaining()) {
+         return null;
+      }
+      encoded.flip();
+      return new ChannelBufferWrapper(Unpooled.wrappedBuffer(encoded));
+   }
+
 
 
    private static ChannelBufferWrapper wrapWhole(ByteBuffer fileBuffer) {
@@ -127,6 +229,22 @@ public class PageReadWriter {
                                              PageRecordFilter skipRecord,
                                              SuspectFileCallback suspectFileCallback,
                                              ReadCallback readCallback) throws Exception {
+      return readFromSequentialFile(storage, storeName, fileFactory, file, pageId, messages, skipRecord, suspectFileCallback, readCallback, null);
+   }
+
+   /**
+    * @param recordOffsets if not {@code null}, it receives the file offset of every valid record, skipped or not
+    */
+   public static int readFromSequentialFile(StorageManager storage,
+                                             SimpleString storeName,
+                                             SequentialFileFactory fileFactory,
+                                             SequentialFile file,
+                                             long pageId,
+                                             Consumer<PagedMessage> messages,
+                                             PageRecordFilter skipRecord,
+                                             SuspectFileCallback suspectFileCallback,
+                                             ReadCallback readCallback,
+                                             IntConsumer recordOffsets) throws Exception {
       final int fileSize = (int) file.size();
       file.position(0);
       int processedBytes = 0;
@@ -157,7 +275,7 @@ public class PageReadWriter {
                }
 
                final byte startByte = fileBuffer.get();
-               if (startByte == START_BYTE) {
+               if (isStartByte(startByte)) {
 
                   final int encodedSize = fileBuffer.getInt();
                   final int nextPosition = processedBytes + HEADER_AND_TRAILER_SIZE + encodedSize;
@@ -174,26 +292,25 @@ public class PageReadWriter {
                      final int endPosition = fileBuffer.position() + encodedSize;
 
                      //this check must be performed upfront decoding
-                     if (fileBuffer.remaining() >= (encodedSize + 1) && fileBuffer.get(endPosition) == END_BYTE) {
-
+                     final ChannelBufferWrapper recordBuffer;
+                     if (fileBuffer.remaining() < (encodedSize + 1) || fileBuffer.get(endPosition) != END_BYTE) {
+                        recordBuffer = null;
+                     } else if (startByte == COMPRESSED_START_BYTE && skipRecord != SKIP_ALL) {
+                        recordBuffer = inflate(fileBuffer, fileBuffer.position(), endPosition);
+                     } else {
                         fileBufferWrapper.setIndex(fileBuffer.position(), endPosition);
+                        recordBuffer = fileBufferWrapper;
+                     }
+
+                     if (recordBuffer != null) {
 
-                        final boolean skipMessage = skipRecord.skip(fileBufferWrapper);
+                        final boolean skipMessage = skipRecord.skip(recordBuffer);
 
                         if (!skipMessage) {
-                           final PagedMessageImpl msg = new PagedMessageImpl(encodedSize, storage);
-                           msg.decode(fileBufferWrapper);
+                           final PagedMessageImpl msg = decodeMessage(storage, storeName, pageId, recordBuffer, recordBuffer.readableBytes());
 
                            assert fileBuffer.get(endPosition) == END_BYTE : "decoding cannot change end byte";
 
-                           msg.initMessage(storage);
-
-                           assert validateLargeMessageStorageManager(msg);
-
-                           if (logger.isTraceEnabled()) {
-                              logger.trace("Reading message {} on pageId={} for address={}", msg, pageId, storeName);
-                           }
-
                            if (messages != null) {
                               messages.accept(msg);
                            }
@@ -201,6 +318,10 @@ public class PageReadWriter {
                            msg.setPageNumber(pageId).setMessageNumber(totalMessageCount);
                         }
 
+                        if (recordOffsets != null) {
+                           recordOffsets.accept(processedBytes);
+                        }
+
                         totalMessageCount++;
                         fileBuffer.position(endPosition + 1);
                         processedBytes = nextPosition;
@@ -256,6 +377,165 @@ public class PageReadWriter {
       }
    }
 
+   /**
+    * Reads the single record at {@code position}, as indexed by {@link PageIndex}.
+    *
+    * @return the message, or {@code null} if there's no valid record at {@code position}
+    */
+   public static PagedMessage readMessage(StorageManager storage,
+                                          SimpleString storeName,
+                                          SequentialFileFactory fileFactory,
+                                          SequentialFile file,
+                                          long pageId,
+                                          int messageNumber,
+                                          int position) throws Exception {
+      final long fileSize = file.size();
+      if (position < 0 || fileSize - position < MINIMUM_MSG_PERSISTENT_SIZE) {
+         return null;
+      }
+      file.position(position);
+      ByteBuffer fileBuffer = fileFactory.newBuffer((int) Math.min(fileSize - position, MIN_CHUNK_SIZE));
+      try {
+         fileBuffer.limit(0);
+         fileBuffer = readIntoFileBufferIfNecessary(fileFactory, file, fileBuffer, MINIMUM_MSG_PERSISTENT_SIZE, false);
+         if (fileBuffer.remaining() < MINIMUM_MSG_PERSISTENT_SIZE) {
+            return null;
+         }
+         final byte startByte = fileBuffer.get();
+         if (!isStartByte(startByte)) {
+            return null;
+         }
+         final int encodedSize = fileBuffer.getInt();
+         if (encodedSize < 0 || position + HEADER_AND_TRAILER_SIZE + (long) encodedSize > fileSize) {
+            return null;
+         }
+         fileBuffer = readIntoFileBufferIfNecessary(fileFactory, file, fileBuffer, encodedSize + 1, false);
+         final int endPosition = fileBuffer.position() + encodedSize;
+         if (fileBuffer.remaining() < encodedSize + 1 || fileBuffer.get(endPosition) != END_BYTE) {
+            return null;
+         }
+         final ChannelBufferWrapper recordBuffer;
+         if (startByte == COMPRESSED_START_BYTE) {
+            recordBuffer = inflate(fileBuffer, fileBuffer.position(), endPosition);
+            if (recordBuffer == null) {
+               return null;
+            }
+         } else {
+            recordBuffer = wrapWhole(fileBuffer);
+            recordBuffer.setIndex(fileBuffer.position(), endPosition);
+         }
+         final PagedMessageImpl msg = decodeMessage(storage, storeName, pageId, recordBuffer, recordBuffer.readableBytes());
+         msg.setPageNumber(pageId).setMessageNumber(messageNumber);
+         return msg;
+      } finally {
+         fileFactory.releaseBuffer(fileBuffer);
+      }
+   }
+
+   private static PagedMessageImpl decodeMessage(StorageManager storage,
+                                                 SimpleString storeName,
+                                                 long pageId,
+                                                 ChannelBufferWrapper fileBufferWrapper,
+                                                 int encodedSize) {
+      final PagedMessageImpl msg = new PagedMessageImpl(encodedSize, storage);
+      msg.decode(fileBufferWrapper);
+
+      msg.initMessage(storage);
+
+      assert validateLargeMessageStorageManager(msg);
+
+      if (logger.isTraceEnabled()) {
+         logger.trace("Reading message {} on pageId={} for address={}", msg, pageId, storeName);
+      }
+      return msg;
+   }
+
+   /**
+    * Same as {@link #readFromSequentialFile}, but decoding the records straight from the page file mapped in memory,
+    * read only, instead of copying it in chunks: the decoded messages copy their data, so the file is unmapped right
+    * after.
+    */
+   public static int readFromMappedFile(StorageManager storage,
+                                        SimpleString storeName,
+                                        SequentialFile file,
+                                        long pageId,
+                                        Consumer<PagedMessage> messages,
+                                        PageRecordFilter skipRecord,
+                                        SuspectFileCallback suspectFileCallback,
+                                        ReadCallback readCallback,
+                                        IntConsumer recordOffsets) throws Exception {
+      final File javaFile = file.getJavaFile();
+      int processedBytes = 0;
+      int totalMessageCount = 0;
+      try (FileChannel channel = FileChannel.open(javaFile.toPath(), StandardOpenOption.READ)) {
+         final int fileSize = (int) Math.min(channel.size(), file.size());
+         if (fileSize < MINIMUM_MSG_PERSISTENT_SIZE) {
+            return 0;
+         }
+         final MappedByteBuffer fileBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+         try {
+            final ChannelBufferWrapper fileBufferWrapper = wrapWhole(fileBuffer);
+
+            while (fileSize - processedBytes >= MINIMUM_MSG_PERSISTENT_SIZE) {
+               final byte startByte = fileBuffer.get(processedBytes);
+               final int encodedSize = isStartByte(startByte) ? fileBuffer.getInt(processedBytes + 1) : -1;
+               final long endPosition = (long) processedBytes + HEADER_SIZE + encodedSize;
+
+               ChannelBufferWrapper recordBuffer = null;
+               if (encodedSize >= 0 && endPosition < fileSize && fileBuffer.get((int) endPosition) == END_BYTE) {
+                  if (startByte == COMPRESSED_START_BYTE && skipRecord != SKIP_ALL) {
+                     recordBuffer = inflate(fileBuffer, processedBytes + HEADER_SIZE, (int) endPosition);
+                  } else {
+                     fileBufferWrapper.setIndex(processedBytes + HEADER_SIZE, (int) endPosition);
+                     recordBuffer = fileBufferWrapper;
+                  }
+               }
+
+               if (recordBuffer == null) {
+                  if (suspectFileCallback != null) {
+                     suspectFileCallback.onSuspect(file.getFileName(), processedBytes, totalMessageCount + 1);
+                  }
+                  return totalMessageCount;
+               }
+
+               if (!skipRecord.skip(recordBuffer)) {
+                  final PagedMessageImpl msg = decodeMessage(storage, storeName, pageId, recordBuffer, recordBuffer.readableBytes());
+
+                  if (messages != null) {
+                     messages.accept(msg);
+                  }
+
+                  msg.setPageNumber(pageId).setMessageNumber(totalMessageCount);
+               }
+
+               if (recordOffsets != null) {
+                  recordOffsets.accept(processedBytes);
+               }
+
+               totalMessageCount++;
+               processedBytes = (int) endPosition + 1;
+            }
+
+            //ignore incomplete messages at the end of the file
+            if (logger.isTraceEnabled()) {
+               logger.trace("{} has {} bytes of unknown data at position = {}", file.getFileName(), fileSize - processedBytes, processedBytes);
+            }
+
+            return totalMessageCount;
+         } finally {
+            //unmap in a deterministic way: do not rely on GC to do it
+            PlatformDependent.freeDirectBuffer(fileBuffer);
+         }
+      } finally {
+         if (readCallback != null) {
+            readCallback.readComple(processedBytes);
+         }
+         if (file.isOpen() && file.position() != processedBytes) {
+            file.position(processedBytes);
+         }
+      }
+   }
+
    private static ByteBuffer readIntoFileBufferIfNecessary(SequentialFileFactory fileFactory, SequentialFile file, ByteBuffer fileBuffer, int requiredBytes, boolean direct) throws Exception {
 
       final int remaining = fileBuffer.remaining();
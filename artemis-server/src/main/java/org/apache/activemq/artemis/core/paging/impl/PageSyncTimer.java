@@ -16,90 +16,139 @@
  */
 package org.apache.activemq.artemis.core.paging.impl;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
-import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.persistence.OperationContext;
-import org.apache.activemq.artemis.core.server.ActiveMQScheduledComponent;
+import org.apache.activemq.artemis.utils.RunnableEx;
 
 /**
  * This will batch multiple calls waiting to perform a sync in a single call.
+ * <p>
+ * Like the timed buffer of the journal it adapts to the load: a sync requested after the timeout elapsed since the
+ * last one is done right away, so a durable send doesn't wait for the timeout when the store is idle, while the syncs
+ * requested sooner are batched on a single sync done once the timeout elapsed.
+ * <p>
+ * The time from requesting each of the last syncs to their completion is kept to report its percentiles.
  */
-final class PageSyncTimer extends ActiveMQScheduledComponent {
+public final class PageSyncTimer {
 
+   // the syncs whose latency is kept for the percentiles
+   private static final int LATENCY_SAMPLES = 1024;
 
-
-   private final PagingStore store;
+   private final RunnableEx sync;
 
    private final ScheduledExecutorService scheduledExecutor;
 
-   private boolean pendingSync;
+   private final Executor executor;
 
    private final long timeSync;
 
-   private final Runnable runnable = new Runnable() {
-      @Override
-      public void run() {
-         tick();
-      }
-   };
+   private boolean pendingSync;
+
+   // when the last sync started
+   private long lastSync;
 
-   private final List<OperationContext> syncOperations = new LinkedList<>();
+   private final Runnable runnable = this::tick;
 
+   private List<PendingSync> syncOperations = new ArrayList<>();
 
-   PageSyncTimer(PagingStore store, ScheduledExecutorService scheduledExecutor, Executor executor, long timeSync) {
-      super(scheduledExecutor, executor, timeSync, TimeUnit.NANOSECONDS, true);
-      this.store = store;
+   private final long[] latencies = new long[LATENCY_SAMPLES];
+
+   private long latencyCount;
+
+   /**
+    * @param sync     syncs the page files
+    * @param timeSync the minimum time, in nanoseconds, between syncs
+    */
+   public PageSyncTimer(RunnableEx sync, ScheduledExecutorService scheduledExecutor, Executor executor, long timeSync) {
+      this.sync = sync;
       this.scheduledExecutor = scheduledExecutor;
+      this.executor = executor;
       this.timeSync = timeSync;
+      this.lastSync = System.nanoTime() - timeSync;
    }
 
-
-   synchronized void addSync(OperationContext ctx) {
+   public synchronized void addSync(OperationContext ctx) {
       ctx.pageSyncLineUp();
+      final long now = System.nanoTime();
+      syncOperations.add(new PendingSync(ctx, now));
       if (!pendingSync) {
          pendingSync = true;
 
-         delay();
+         final long sinceLastSync = now - lastSync;
+         if (sinceLastSync >= timeSync) {
+            executor.execute(runnable);
+         } else {
+            scheduledExecutor.schedule(() -> executor.execute(runnable), timeSync - sinceLastSync, TimeUnit.NANOSECONDS);
+         }
       }
-      syncOperations.add(ctx);
    }
 
-   @Override
-   public void run() {
-      tick();
+   /**
+    * Returns the time, in milliseconds, within which {@code percentile} percent of the last syncs completed, or
+    * {@code 0} if none did yet.
+    */
+   public double getLatency(double percentile) {
+      final long[] sorted;
+      synchronized (latencies) {
+         sorted = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+      }
+      if (sorted.length == 0) {
+         return 0;
+      }
+      Arrays.sort(sorted);
+      final int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+      return (double) sorted[Math.max(0, Math.min(sorted.length - 1, index))] / TimeUnit.MILLISECONDS.toNanos(1);
    }
 
    private void tick() {
-      OperationContext[] pendingSyncsArray;
+      final List<PendingSync> pendingSyncs;
       synchronized (this) {
-
          pendingSync = false;
-         pendingSyncsArray = new OperationContext[syncOperations.size()];
-         pendingSyncsArray = syncOperations.toArray(pendingSyncsArray);
-         syncOperations.clear();
+         lastSync = System.nanoTime();
+         pendingSyncs = syncOperations;
+         syncOperations = new ArrayList<>();
       }
 
       try {
-         if (pendingSyncsArray.length != 0) {
-            store.ioSync();
+         if (!pendingSyncs.isEmpty()) {
+            sync.run();
          }
       } catch (Exception e) {
-         for (OperationContext ctx : pendingSyncsArray) {
-            ctx.onError(ActiveMQExceptionType.IO_ERROR.getCode(), e.getMessage());
+         for (PendingSync pending : pendingSyncs) {
+            pending.ctx.onError(ActiveMQExceptionType.IO_ERROR.getCode(), e.getMessage());
          }
       } finally {
          // In case of failure, The context should propagate an exception to the client
          // We send an exception to the client even on the case of a failure
          // to avoid possible locks and the client not getting the exception back
-         for (OperationContext ctx : pendingSyncsArray) {
-            ctx.pageSyncDone();
+         for (PendingSync pending : pendingSyncs) {
+            pending.ctx.pageSyncDone();
+         }
+         final long done = System.nanoTime();
+         synchronized (latencies) {
+            for (PendingSync pending : pendingSyncs) {
+               latencies[(int) (latencyCount++ % LATENCY_SAMPLES)] = done - pending.lineUpTime;
+            }
          }
       }
    }
+
+   private static final class PendingSync {
+
+      private final OperationContext ctx;
+
+      private final long lineUpTime;
+
+      private PendingSync(OperationContext ctx, long lineUpTime) {
+         this.ctx = ctx;
+         this.lineUpTime = lineUpTime;
+      }
+   }
 }
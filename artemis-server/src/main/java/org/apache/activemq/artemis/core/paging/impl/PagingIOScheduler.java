@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+
+/**
+ * Shares the bytes per second of page files written and read by the broker among the paging stores, in proportion to
+ * their weights.
+ * <p>
+ * On every interval the bytes of the next interval are split among the stores with weighted max-min fairness: a store
+ * that used less than its weighted share on the last interval gets what it used, and the rest is split among the
+ * others by their weights. A store going over its share is throttled until the next intervals pay back the bytes it
+ * used in excess: meanwhile its producers don't get credits, so they're held back by their flow control instead of
+ * waiting on the disk. Stores idle on the last interval get the share they would have if they were doing I/O, so they
+ * can start right away.
+ * <p>
+ * Reads count against the share of their store, but they're never delayed: only the producers of a paging store are.
+ * Without a limit it just measures the I/O of every store.
+ */
+public final class PagingIOScheduler {
+
+   // the interval between sharing the bytes of the broker when limited, or between measuring the rates if not
+   static final long LIMITED_INTERVAL_MILLIS = 100;
+
+   static final long UNLIMITED_INTERVAL_MILLIS = 1000;
+
+   // the rates and delays reported are the ones measured on a window of this length
+   private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+   // on longer pauses the bytes of the missed intervals are not made available at once
+   private static final long MAX_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+   private static final Comparator<Budget> BY_DEMAND_PER_WEIGHT = Comparator.comparingDouble(budget -> (double) budget.demand / budget.scheduledWeight);
+
+   private final long maxBytesPerSecond;
+
+   private final Set<Budget> budgets = ConcurrentHashMap.newKeySet();
+
+   private long lastSchedule = System.nanoTime();
+
+   /**
+    * @param maxBytesPerSecond the bytes per second of page files written and read by all the stores, or {@code -1} for
+    *                          no limit
+    */
+   public PagingIOScheduler(long maxBytesPerSecond) {
+      this.maxBytesPerSecond = maxBytesPerSecond;
+   }
+
+   public long getMaxBytesPerSecond() {
+      return maxBytesPerSecond;
+   }
+
+   public boolean isLimited() {
+      return maxBytesPerSecond > 0;
+   }
+
+   long getInterval() {
+      return isLimited() ? LIMITED_INTERVAL_MILLIS : UNLIMITED_INTERVAL_MILLIS;
+   }
+
+   synchronized void register(Budget budget) {
+      budget.limited = isLimited();
+      if (isLimited()) {
+         // the share of an idle store, until the next interval
+         long weights = 0;
+         for (Budget registered : budgets) {
+            weights += registered.weight;
+         }
+         budget.grant((long) ((double) maxBytesPerSecond * LIMITED_INTERVAL_MILLIS / 1000 * budget.weight / (weights + budget.weight)));
+      }
+      budgets.add(budget);
+   }
+
+   void unregister(Budget budget) {
+      if (budgets.remove(budget)) {
+         budget.limited = false;
+         budget.unthrottled();
+      }
+   }
+
+   /**
+    * Shares the bytes of the next interval among the stores, according to the bytes they used since the last call.
+    */
+   void schedule() {
+      schedule(System.nanoTime());
+   }
+
+   synchronized void schedule(long now) {
+      final long interval = Math.min(MAX_INTERVAL_NANOS, now - lastSchedule);
+      lastSchedule = now;
+      final List<Budget> active = new ArrayList<>(budgets.size());
+      final List<Budget> idle = new ArrayList<>();
+      long activeWeight = 0;
+      for (Budget budget : budgets) {
+         final long used = budget.roll(now);
+         if (!isLimited()) {
+            continue;
+         }
+         // the weight can change meanwhile
+         budget.scheduledWeight = budget.weight;
+         // the stores that used it all or more could have used more than that
+         budget.demand = budget.isThrottled() || used > 0 && used >= budget.allowance ? Long.MAX_VALUE : used;
+         if (budget.demand == 0) {
+            idle.add(budget);
+         } else {
+            active.add(budget);
+            activeWeight += budget.scheduledWeight;
+         }
+      }
+      if (!isLimited()) {
+         return;
+      }
+      final long capacity = maxBytesPerSecond * interval / TimeUnit.SECONDS.toNanos(1);
+      active.sort(BY_DEMAND_PER_WEIGHT);
+      long remaining = capacity;
+      long remainingWeight = activeWeight;
+      for (Budget budget : active) {
+         final long share = Math.min(budget.demand, (long) ((double) remaining * budget.scheduledWeight / remainingWeight));
+         remaining -= share;
+         remainingWeight -= budget.scheduledWeight;
+         budget.grant(share);
+      }
+      for (Budget budget : idle) {
+         budget.grant((long) ((double) capacity * budget.scheduledWeight / (activeWeight + budget.scheduledWeight)));
+      }
+   }
+
+   /**
+    * The page I/O of a store: what it's allowed to do and what it did.
+    */
+   public static final class Budget {
+
+      private final Runnable onUnthrottled;
+
+      private volatile int weight = AddressSettings.DEFAULT_PAGE_IO_WEIGHT;
+
+      private volatile boolean limited;
+
+      // the bytes it can still use on this interval: throttled below 0
+      private final AtomicLong available = new AtomicLong();
+
+      private final LongAdder written = new LongAdder();
+
+      private final LongAdder read = new LongAdder();
+
+      private final LongAdder delayedRequests = new LongAdder();
+
+      private final LongAdder delayNanos = new LongAdder();
+
+      // used by the scheduler only
+      private long allowance;
+
+      private long demand;
+
+      private int scheduledWeight;
+
+      private long usedBefore;
+
+      private long windowStart = System.nanoTime();
+
+      private long windowWritten;
+
+      private long windowRead;
+
+      private long windowDelayedRequests;
+
+      private long windowDelayNanos;
+
+      private volatile double writeRate;
+
+      private volatile double readRate;
+
+      private volatile double queueingDelay;
+
+      /**
+       * @param onUnthrottled called once it's no longer throttled, to release the producers held back
+       */
+      public Budget(Runnable onUnthrottled) {
+         this.onUnthrottled = onUnthrottled;
+      }
+
+      public void setWeight(int weight) {
+         this.weight = Math.max(1, weight);
+      }
+
+      public int getWeight() {
+         return weight;
+      }
+
+      public void written(long bytes) {
+         written.add(bytes);
+         available.addAndGet(-bytes);
+      }
+
+      public void read(long bytes) {
+         read.add(bytes);
+         available.addAndGet(-bytes);
+      }
+
+      /**
+       * Whether it went over its share, so its producers are to be held back.
+       */
+      public boolean isThrottled() {
+         return limited && available.get() < 0;
+      }
+
+      long getAvailable() {
+         return available.get();
+      }
+
+      /**
+       * Accounts for a request held back while throttled, for {@code nanos}.
+       */
+      public void delayed(long nanos) {
+         delayedRequests.increment();
+         delayNanos.add(nanos);
+      }
+
+      /**
+       * Returns the bytes per second written on the last second.
+       */
+      public double getWriteRate() {
+         return writeRate;
+      }
+
+      /**
+       * Returns the bytes per second read on the last second.
+       */
+      public double getReadRate() {
+         return readRate;
+      }
+
+      /**
+       * Returns the average time, in milliseconds, the requests released on the last second were held back.
+       */
+      public double getQueueingDelay() {
+         return queueingDelay;
+      }
+
+      private void grant(long share) {
+         final boolean throttled = isThrottled();
+         allowance = share;
+         // the bytes not used are not carried over, the ones used in excess are
+         final long now = available.accumulateAndGet(share, (current, granted) -> Math.min(current, 0) + granted);
+         if (throttled && now >= 0) {
+            unthrottled();
+         }
+      }
+
+      private void unthrottled() {
+         if (onUnthrottled != null) {
+            onUnthrottled.run();
+         }
+      }
+
+      /**
+       * @return the bytes used since the last call
+       */
+      private long roll(long now) {
+         final long totalWritten = written.sum();
+         final long totalRead = read.sum();
+         final long used = totalWritten + totalRead - usedBefore;
+         usedBefore = totalWritten + totalRead;
+         final long elapsed = now - windowStart;
+         if (elapsed >= RATE_WINDOW_NANOS) {
+            writeRate = (double) (totalWritten - windowWritten) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+            readRate = (double) (totalRead - windowRead) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+            final long totalDelayedRequests = delayedRequests.sum();
+            final long totalDelayNanos = delayNanos.sum();
+            final long requests = totalDelayedRequests - windowDelayedRequests;
+            queueingDelay = requests == 0 ? 0 : (double) (totalDelayNanos - windowDelayNanos) / requests / TimeUnit.MILLISECONDS.toNanos(1);
+            windowStart = now;
+            windowWritten = totalWritten;
+            windowRead = totalRead;
+            windowDelayedRequests = totalDelayedRequests;
+            windowDelayNanos = totalDelayNanos;
+         }
+         return used;
+      }
+   }
+}
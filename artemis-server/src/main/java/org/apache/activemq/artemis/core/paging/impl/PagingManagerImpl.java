@@ -65,6 +65,9 @@ public final class PagingManagerImpl implements PagingManager {
 
    private static final int ARTEMIS_PAGING_COUNTER_SNAPSHOT_INTERVAL = Integer.parseInt(System.getProperty("artemis.paging.counter.snapshot.interval", "60"));
 
+   // the threads reading the page files of an address to rebuild its page counters
+   private static final int ARTEMIS_PAGING_COUNTER_REBUILD_THREADS = Integer.parseInt(System.getProperty("artemis.paging.counter.rebuild.threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
    private volatile boolean started = false;
@@ -120,6 +123,12 @@ public final class PagingManagerImpl implements PagingManager {
 
    private final SimpleString managementAddress;
 
+   private final SharedPageCache sharedPageCache;
+
+   private final PagingIOScheduler ioScheduler;
+
+   private ActiveMQScheduledComponent ioSchedulerUpdater = null;
+
    // for tests.. not part of the API
    public void replacePageStoreFactory(PagingStoreFactory factory) {
       this.pagingStoreFactory = factory;
@@ -147,6 +156,23 @@ public final class PagingManagerImpl implements PagingManager {
       this.managerExecutor = pagingSPI.newExecutor();
       this.managementAddress = managementAddress;
       this.server = server;
+      long pageCacheMaxSize = server == null || server.getConfiguration() == null ? 0 : server.getConfiguration().getPageCacheMaxSize();
+      if (pageCacheMaxSize < 0) {
+         pageCacheMaxSize = Runtime.getRuntime().maxMemory() / 20;
+      }
+      this.sharedPageCache = pageCacheMaxSize > 0 ? new SharedPageCache(pageCacheMaxSize) : null;
+      final long pageIOMaxBytesPerSecond = server == null || server.getConfiguration() == null ? -1 : server.getConfiguration().getPageIOMaxBytesPerSecond();
+      this.ioScheduler = new PagingIOScheduler(pageIOMaxBytesPerSecond);
+   }
+
+   @Override
+   public SharedPageCache getSharedPageCache() {
+      return sharedPageCache;
+   }
+
+   @Override
+   public PagingIOScheduler getPagingIOScheduler() {
+      return ioScheduler;
    }
 
    SizeAwareMetric getSizeAwareMetric() {
@@ -488,6 +514,34 @@ public final class PagingManagerImpl implements PagingManager {
       return rebuildingPageCounters;
    }
 
+   private volatile PageCounterRebuildManager.Progress rebuildProgress;
+
+   private volatile int pageCounterRebuildThreads = ARTEMIS_PAGING_COUNTER_REBUILD_THREADS;
+
+   /**
+    * To be used in tests only called through PagingManagerTestAccessor
+    */
+   void setPageCounterRebuildThreads(int threads) {
+      this.pageCounterRebuildThreads = threads;
+   }
+
+   @Override
+   public double getPageCounterRebuildProgress() {
+      final PageCounterRebuildManager.Progress progress = rebuildProgress;
+      return progress == null ? 1 : progress.getProgress();
+   }
+
+   private Executor[] newRebuildWorkers() {
+      final Executor[] workers = new Executor[Math.max(0, pageCounterRebuildThreads - 1)];
+      for (int i = 0; i < workers.length; i++) {
+         workers[i] = pagingStoreFactory.newExecutor();
+         if (workers[i] == null) {
+            return new Executor[0];
+         }
+      }
+      return workers;
+   }
+
    @Override
    public void start() throws Exception {
       lock();
@@ -517,6 +571,17 @@ public final class PagingManagerImpl implements PagingManager {
 
          }
 
+         if (pagingStoreFactory.getScheduledExecutor() != null) {
+            this.ioSchedulerUpdater = new ActiveMQScheduledComponent(pagingStoreFactory.getScheduledExecutor(), pagingStoreFactory.newExecutor(), ioScheduler.getInterval(), TimeUnit.MILLISECONDS, false) {
+               @Override
+               public void run() {
+                  ioScheduler.schedule();
+               }
+            };
+
+            this.ioSchedulerUpdater.start();
+         }
+
          started = true;
 
       } finally {
@@ -543,6 +608,11 @@ public final class PagingManagerImpl implements PagingManager {
          this.snapshotUpdater = null;
       }
 
+      if (ioSchedulerUpdater != null) {
+         this.ioSchedulerUpdater.stop();
+         this.ioSchedulerUpdater = null;
+      }
+
       lock();
       try {
 
@@ -550,6 +620,10 @@ public final class PagingManagerImpl implements PagingManager {
             store.stop();
          }
 
+         if (sharedPageCache != null) {
+            sharedPageCache.clear();
+         }
+
          pagingStoreFactory.stop();
       } finally {
          unlock();
@@ -618,8 +692,13 @@ public final class PagingManagerImpl implements PagingManager {
          transactionsSet.forEach((a, b) -> logger.debug("{} = {}", a, b));
       }
 
+      // the same workers for all the addresses, as they're rebuilt one at a time
+      final Executor[] workers = newRebuildWorkers();
+      final PageCounterRebuildManager.Progress progress = new PageCounterRebuildManager.Progress();
+      rebuildProgress = progress;
+
       currentStoreMap.forEach((address, pgStore) -> {
-         PageCounterRebuildManager rebuildManager = new PageCounterRebuildManager(this, pgStore, transactionsSet, storedLargeMessages, minLargeMessageID);
+         PageCounterRebuildManager rebuildManager = new PageCounterRebuildManager(this, pgStore, transactionsSet, storedLargeMessages, minLargeMessageID, workers, progress);
          logger.debug("Setting destination {} to rebuild counters", address);
          managerExecutor.execute(rebuildManager);
       });
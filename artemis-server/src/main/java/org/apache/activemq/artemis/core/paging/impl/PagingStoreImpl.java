@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -82,7 +83,7 @@ public class PagingStoreImpl implements PagingStore {
 
    private final DecimalFormat format = new DecimalFormat("000000000");
 
-   private final PageCache usedPages = new PageCache(this);
+   private final PageCache usedPages;
 
    //it's being guarded by lock.writeLock().lock() and never read concurrently
    private long currentPageSize = 0;
@@ -107,6 +108,19 @@ public class PagingStoreImpl implements PagingStore {
 
    private int prefetchPageMessages = -1;
 
+   private volatile int pageReadAheadPages;
+
+   private volatile int pageReadAheadBytes;
+
+   private final PageReadAhead readAhead;
+
+   private volatile boolean pageCompression;
+
+   private final PageCompressor compressor = new PageCompressor();
+
+   // the producers are held back while it's throttled, and released once it's no longer
+   private final PagingIOScheduler.Budget ioBudget = new PagingIOScheduler.Budget(this::ioUnthrottled);
+
    private long maxMessages;
 
    private volatile boolean pageFull;
@@ -198,14 +212,19 @@ public class PagingStoreImpl implements PagingStore {
 
       this.pagingManager = pagingManager;
 
+      this.usedPages = new PageCache(this, pagingManager.getSharedPageCache());
+
       this.fileFactory = fileFactory;
 
       this.storeFactory = storeFactory;
 
+      final Executor readAheadExecutor = storeFactory.newExecutor();
+      this.readAhead = readAheadExecutor == null ? null : new PageReadAhead(this, readAheadExecutor);
+
       this.syncNonTransactional = syncNonTransactional;
 
       if (scheduledExecutor != null && syncTimeout > 0) {
-         this.syncTimer = new PageSyncTimer(this, scheduledExecutor, ioExecutor, syncTimeout);
+         this.syncTimer = new PageSyncTimer(this::ioSync, scheduledExecutor, ioExecutor, syncTimeout);
       } else {
          this.syncTimer = null;
       }
@@ -243,6 +262,19 @@ public class PagingStoreImpl implements PagingStore {
 
       prefetchPageBytes = addressSettings.getPrefetchPageBytes();
 
+      pageReadAheadPages = addressSettings.getPageReadAheadPages();
+
+      pageReadAheadBytes = addressSettings.getPageReadAheadBytes();
+
+      pageCompression = addressSettings.isPageCompression();
+
+      ioBudget.setWeight(addressSettings.getPageIOWeight());
+
+      final Page page = currentPage;
+      if (page != null) {
+         page.setCompressor(pageCompression ? compressor : null);
+      }
+
       maxMessages = addressSettings.getMaxSizeMessages();
 
       configureSizeMetric();
@@ -570,6 +602,16 @@ public class PagingStoreImpl implements PagingStore {
          page.close(true);
          currentPage = null;
       }
+
+      if (readAhead != null) {
+         readAhead.clear();
+      }
+      usedPages.forgetAll();
+
+      final PagingIOScheduler ioScheduler = pagingManager.getPagingIOScheduler();
+      if (ioScheduler != null) {
+         ioScheduler.unregister(ioBudget);
+      }
    }
 
    @Override
@@ -623,6 +665,11 @@ public class PagingStoreImpl implements PagingStore {
             running = true;
             firstPageId = Long.MAX_VALUE;
 
+            final PagingIOScheduler ioScheduler = pagingManager.getPagingIOScheduler();
+            if (ioScheduler != null) {
+               ioScheduler.register(ioBudget);
+            }
+
             // There are no files yet on this Storage. We will just return it empty
             final SequentialFileFactory fileFactory = this.fileFactory;
             if (fileFactory != null) {
@@ -808,6 +855,12 @@ public class PagingStoreImpl implements PagingStore {
 
       Page page = new Page(storeName, storageManager, factory, file, pageNumber);
 
+      if (pageCompression) {
+         page.setCompressor(compressor);
+      }
+
+      page.setIOBudget(ioBudget);
+
       return page;
    }
 
@@ -825,7 +878,7 @@ public class PagingStoreImpl implements PagingStore {
    public Page usePage(final long pageId, final boolean createEntry, final boolean createFile) {
       synchronized (usedPages) {
          try {
-            Page page = usedPages.get(pageId);
+            Page page = createEntry ? usedPages.use(pageId) : usedPages.get(pageId);
             if (createEntry && page == null) {
                page = newPageObject(pageId);
                if (page.getFile().exists()) {
@@ -910,6 +963,8 @@ public class PagingStoreImpl implements PagingStore {
                page = newPageObject(pageId);
             }
 
+            forgetPage(pageId);
+
             if (page != null && page.getFile().exists()) {
                page.usageDown();
                // we only decrement numberOfPages if the file existed
@@ -984,6 +1039,7 @@ public class PagingStoreImpl implements PagingStore {
                }
 
                returnPage = currentPage;
+               forgetPage(returnPage.getPageId());
                returnPage.close(true);
                resetCurrentPage(null);
 
@@ -1015,6 +1071,7 @@ public class PagingStoreImpl implements PagingStore {
                } else {
                   returnPage = usedPage;
                }
+               forgetPage(pageNR);
             }
 
             if (!returnPage.getFile().exists()) {
@@ -1069,6 +1126,25 @@ public class PagingStoreImpl implements PagingStore {
          return false;
       }
 
+      if (isIOThrottled()) {
+         if (runWhenBlocking != null) {
+            runWhenBlocking.run();
+         }
+         if (runWhenAvailable != null) {
+            final long throttledAt = System.nanoTime();
+            final AtomicRunnable runWhenUnthrottled = AtomicRunnable.checkAtomic(() -> {
+               ioBudget.delayed(System.nanoTime() - throttledAt);
+               runWhenAvailable.run();
+            });
+            addToBlockList(runWhenUnthrottled, blockedCallback);
+            // the budget could have been granted before adding it
+            if (!isIOThrottled()) {
+               ioUnthrottled();
+            }
+         }
+         return true;
+      }
+
       if (addressFullMessagePolicy == AddressFullMessagePolicy.FAIL && (maxSize != -1 || maxMessages != -1 || usingGlobalMaxSize || pagingManager.isDiskFull())) {
          if (isFull()) {
             if (runOnFailure && runWhenAvailable != null) {
@@ -1144,9 +1220,31 @@ public class PagingStoreImpl implements PagingStore {
       }
    }
 
+   /**
+    * Whether the page I/O of the store went over its share of the broker, so its producers are held back.
+    */
+   private boolean isIOThrottled() {
+      return paging && ioBudget.isThrottled();
+   }
+
+   /**
+    * Releases the producers held back by the I/O throttling, unless {@link #checkMemory} would still block them: the
+    * disk or, if they block instead of paging, the address or the broker are full. Paging stores are over their max
+    * size, that doesn't hold back their producers.
+    */
+   private void ioUnthrottled() {
+      if (blockedViaAddressControl || isIOThrottled() || pagingManager.isDiskFull()) {
+         return;
+      }
+      if (addressFullMessagePolicy != AddressFullMessagePolicy.PAGE && (full || pagingManager.isGlobalFull())) {
+         return;
+      }
+      executor.execute(this::memoryReleased);
+   }
+
    @Override
    public boolean checkReleasedMemory() {
-      if (!blockedViaAddressControl && !pagingManager.isGlobalFull() && !full) {
+      if (!blockedViaAddressControl && !pagingManager.isGlobalFull() && !full && !isIOThrottled()) {
          executor.execute(this::memoryReleased);
          if (blocking) {
             ActiveMQServerLogger.LOGGER.unblockingMessageProduction(address, getPageInfo());
@@ -1277,6 +1375,9 @@ public class PagingStoreImpl implements PagingStore {
 
          page.write(pagedMessage);
 
+         // compressed records take less than estimated
+         currentPageSize = page.getSize();
+
          if (tx == null && syncNonTransactional && message.isDurable()) {
             addSyncPoint(storageManager.getContext());
          }
@@ -1647,6 +1748,94 @@ public class PagingStoreImpl implements PagingStore {
       usedPages.injectPage(page);
    }
 
+   private void forgetPage(long pageId) {
+      if (readAhead != null) {
+         readAhead.forget(pageId);
+      }
+      usedPages.forget(pageId);
+   }
+
+   @Override
+   public void readAhead(long pageId) {
+      if (readAhead != null) {
+         readAhead.moveTo(pageId, pageReadAheadPages, pageReadAheadBytes);
+      }
+   }
+
+   /**
+    * Uses the page, as {@link #usePage(long)} does, but reading it without holding the used pages meanwhile.
+    *
+    * @return the page, or {@code null} if it doesn't exist
+    */
+   Page readPage(long pageId) throws Exception {
+      synchronized (usedPages) {
+         final Page page = usedPages.use(pageId);
+         if (page != null) {
+            page.usageUp();
+            return page;
+         }
+      }
+      final Page page = newPageObject(pageId);
+      if (!page.getFile().exists()) {
+         return null;
+      }
+      page.getMessages();
+      synchronized (usedPages) {
+         Page usedPage = usedPages.get(pageId);
+         if (usedPage == null) {
+            // not used by a subscription while it was read
+            injectPage(page);
+            usedPage = page;
+         }
+         usedPage.usageUp();
+         return usedPage;
+      }
+   }
+
+   protected int getReadAheadSize() {
+      return readAhead == null ? 0 : readAhead.size();
+   }
+
+   @Override
+   public double getPageCacheHitRatio() {
+      return usedPages.getHitRatio();
+   }
+
+   @Override
+   public long getPageCacheResidentBytes() {
+      return usedPages.getResidentBytes();
+   }
+
+   @Override
+   public double getPageCompressionRatio() {
+      return compressor.getCompressionRatio();
+   }
+
+   @Override
+   public long getPageCompressionTime() {
+      return compressor.getCompressionTime();
+   }
+
+   @Override
+   public double getPageIOWriteRate() {
+      return ioBudget.getWriteRate();
+   }
+
+   @Override
+   public double getPageIOReadRate() {
+      return ioBudget.getReadRate();
+   }
+
+   @Override
+   public double getPageIOQueueingDelay() {
+      return ioBudget.getQueueingDelay();
+   }
+
+   @Override
+   public double getPageSyncLatency(double percentile) {
+      return syncTimer == null ? 0 : syncTimer.getLatency(percentile);
+   }
+
    protected int getUsedPagesSize() {
       return usedPages.size();
    }
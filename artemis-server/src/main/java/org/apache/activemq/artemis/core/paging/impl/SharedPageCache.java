@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.impl;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * A broker wide cache of the read pages no longer used, bounded by the heap held by their decoded messages.
+ * <p>
+ * The pages being used are pinned on the {@link PageCache} of their address, shared by all the subscriptions of the
+ * address. Once the last subscription stops using a page, it's retained here instead of being discarded, so a
+ * subscription reaching it later gets the messages already decoded instead of reading the page again. The least
+ * recently released pages are evicted first.
+ * <p>
+ * Taking a page back doesn't lock: only retaining a page, which evicts the eldest ones, is serialized.
+ */
+public final class SharedPageCache {
+
+   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+   private static final class Key {
+
+      final PageCache owner;
+      final long pageId;
+
+      Key(PageCache owner, long pageId) {
+         this.owner = owner;
+         this.pageId = pageId;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o) {
+            return true;
+         }
+         if (!(o instanceof Key)) {
+            return false;
+         }
+         final Key other = (Key) o;
+         return owner == other.owner && pageId == other.pageId;
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hash(System.identityHashCode(owner), pageId);
+      }
+   }
+
+   private static final class Entry {
+
+      final Key key;
+      final long size;
+      // cleared once removed, so the entries left on the release order don't hold the messages
+      Page page;
+
+      Entry(Key key, Page page, long size) {
+         this.key = key;
+         this.page = page;
+         this.size = size;
+      }
+   }
+
+   private final long maxSize;
+
+   // whoever removes an entry from here accounts for its removal
+   private final ConcurrentHashMap<Key, Entry> retained = new ConcurrentHashMap<>();
+
+   // in release order, including the entries already taken back: the eldest is the first one to evict
+   private final ArrayDeque<Entry> releaseOrder = new ArrayDeque<>();
+
+   private final AtomicLong size = new AtomicLong();
+
+   public SharedPageCache(long maxSize) {
+      this.maxSize = maxSize;
+   }
+
+   public long getMaxSize() {
+      return maxSize;
+   }
+
+   /**
+    * @return the estimated heap held by the messages of the retained pages
+    */
+   public long getSize() {
+      return size.get();
+   }
+
+   public int getPageCount() {
+      return retained.size();
+   }
+
+   /**
+    * Retains a page released by all its users, evicting the eldest pages over the max size.
+    */
+   void retain(PageCache owner, Page page) {
+      final long pageSize = page.getMemoryEstimate();
+      if (pageSize > maxSize) {
+         return;
+      }
+      final Entry entry = new Entry(new Key(owner, page.getPageId()), page, pageSize);
+      size.addAndGet(pageSize);
+      owner.retainedBytes(pageSize);
+      final Entry previous = retained.put(entry.key, entry);
+      if (previous != null) {
+         removed(previous);
+      }
+      synchronized (releaseOrder) {
+         releaseOrder.addLast(entry);
+         while (size.get() > maxSize) {
+            final Entry evicted = releaseOrder.pollFirst();
+            if (evicted == null) {
+               break;
+            }
+            if (retained.remove(evicted.key, evicted)) {
+               removed(evicted);
+               if (logger.isDebugEnabled()) {
+                  logger.debug("Evicting page {} of {}", evicted.key.pageId, evicted.key.owner);
+               }
+            }
+         }
+         // drop the entries taken back meanwhile, so they don't pile up while the cache isn't full
+         if (releaseOrder.size() > 2 * retained.size() + 16) {
+            releaseOrder.removeIf(stale -> retained.get(stale.key) != stale);
+         }
+      }
+   }
+
+   /**
+    * @return the retained page, no longer retained, or {@code null} if it isn't
+    */
+   Page take(PageCache owner, long pageId) {
+      final Entry entry = retained.remove(new Key(owner, pageId));
+      if (entry == null) {
+         return null;
+      }
+      final Page page = entry.page;
+      removed(entry);
+      return page;
+   }
+
+   void remove(PageCache owner, long pageId) {
+      take(owner, pageId);
+   }
+
+   void removeAll(PageCache owner) {
+      for (Entry entry : retained.values()) {
+         if (entry.key.owner == owner && retained.remove(entry.key, entry)) {
+            removed(entry);
+         }
+      }
+   }
+
+   public void clear() {
+      synchronized (releaseOrder) {
+         releaseOrder.clear();
+      }
+      for (Entry entry : retained.values()) {
+         if (retained.remove(entry.key, entry)) {
+            removed(entry);
+         }
+      }
+   }
+
+   private void removed(Entry entry) {
+      entry.page = null;
+      size.addAndGet(-entry.size);
+      entry.key.owner.retainedBytes(-entry.size);
+   }
+}
@@ -986,8 +986,10 @@ public abstract class AbstractJournalStorageManager extends CriticalComponentImp
 
       Map<Long, Message> messages = new HashMap<>();
       try (ArtemisCloseable lock = closeableReadLock()) {
+         final long loadStart = System.nanoTime();
          messageJournal.setRemoveExtraFilesOnLoad(true);
          JournalLoadInformation info = messageJournal.load(records, preparedTransactions, new LargeMessageTXFailureCallback(this));
+         final long journalReadEnd = System.nanoTime();
 
          ArrayList<LargeServerMessage> largeMessages = new ArrayList<>();
 
@@ -1372,6 +1374,9 @@ public abstract class AbstractJournalStorageManager extends CriticalComponentImp
 
          checkInvalidPageTransactions(pagingManager, invalidPageTransactions);
 
+         final long loadEnd = System.nanoTime();
+         ActiveMQServerLogger.LOGGER.messageJournalLoaded(totalSize, TimeUnit.NANOSECONDS.toMillis(loadEnd - loadStart), TimeUnit.NANOSECONDS.toMillis(journalReadEnd - loadStart), TimeUnit.NANOSECONDS.toMillis(loadEnd - journalReadEnd));
+
          journalLoaded = true;
          return info;
       }
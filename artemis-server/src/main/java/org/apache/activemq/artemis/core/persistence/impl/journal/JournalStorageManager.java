@@ -174,6 +174,11 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
       int fileSize = fixJournalFileSize(config.getJournalFileSize(), journalFF.getAlignment());
       Journal localMessage = createMessageJournal(config, criticalErrorListener, fileSize);
 
+      if (localMessage instanceof JournalImpl) {
+         ((JournalImpl) localMessage).setCompactIncremental(config.isJournalCompactIncremental());
+         ((JournalImpl) localMessage).setCompactMaxBytesPerSecond(config.getJournalCompactMaxBytesPerSecond());
+      }
+
       messageJournal = localMessage;
       messageJournal.replaceableRecord(JournalRecordIds.UPDATE_DELIVERY_COUNT);
       messageJournal.replaceableRecord(JournalRecordIds.SET_SCHEDULED_DELIVERY_TIME);
@@ -17,6 +17,7 @@
 
 package org.apache.activemq.artemis.core.persistence.impl.journal;
 
+import java.io.File;
 import java.nio.ByteBuffer;
 
 import io.netty.buffer.ByteBuf;
@@ -452,5 +453,10 @@ public class LargeBody {
       public long getSize() throws ActiveMQException {
          return getBodySize();
       }
+
+      @Override
+      public File getFile() {
+         return cFile == null ? null : cFile.getJavaFile();
+      }
    }
 }
@@ -16,6 +16,8 @@
  */
 package org.apache.activemq.artemis.core.postoffice.impl;
 
+import java.util.concurrent.Executor;
+
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
 import org.apache.activemq.artemis.core.postoffice.DuplicateIDCache;
@@ -43,4 +45,22 @@ public final class DuplicateIDCaches {
          return new InMemoryDuplicateIDCache(address, size);
       }
    }
+
+   /**
+    * @return a cache keeping the ids for {@code expiryMillis} since added, whatever their number, and deleting the
+    * records of the expired ones on {@code executor}
+    */
+   public static DuplicateIDCache persistentExpiring(final SimpleString address,
+                                                     final long expiryMillis,
+                                                     final StorageManager storageManager,
+                                                     final Executor executor) {
+      return new ExpiringDuplicateIDCache(address, expiryMillis, storageManager, executor);
+   }
+
+   /**
+    * @return a cache keeping the ids for {@code expiryMillis} since added, whatever their number
+    */
+   public static DuplicateIDCache inMemoryExpiring(final SimpleString address, final long expiryMillis) {
+      return new ExpiringDuplicateIDCache(address, expiryMillis, null, null);
+   }
 }
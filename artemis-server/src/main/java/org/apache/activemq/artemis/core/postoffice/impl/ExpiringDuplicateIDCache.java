@@ -0,0 +1,494 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.activemq.artemis.api.core.ActiveMQDuplicateIdException;
+import org.apache.activemq.artemis.api.core.Pair;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.persistence.StorageManager;
+import org.apache.activemq.artemis.core.postoffice.DuplicateIDCache;
+import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.apache.activemq.artemis.core.transaction.Transaction;
+import org.apache.activemq.artemis.core.transaction.TransactionOperationAbstract;
+import org.apache.activemq.artemis.utils.ByteUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.activemq.artemis.api.core.ObjLongPair.NIL;
+
+/**
+ * A {@link DuplicateIDCache} evicting the ids by age instead of by count: an id is kept for at least
+ * {@code expiryMillis} and at most {@code expiryMillis + expiryMillis / BUCKETS_PER_EXPIRY} since added.
+ * <p>
+ * The ids are grouped in buckets by the time they have been added, each one with a bloom filter to skip looking up
+ * its ids when they can't be there: looking up an id not in the cache, which is the common case, rarely hits the
+ * maps of the ids. A bucket expires as a whole and, if {@link #storageManager} isn't {@code null}, the records of its
+ * ids are deleted from the journal with a single transaction, on {@link #executor} rather than by the sender finding
+ * the bucket expired.
+ * <p>
+ * The ids loaded from the journal on restart have no time they have been added: they are all put in a new bucket,
+ * hence kept for {@code expiryMillis} since the restart.
+ */
+final class ExpiringDuplicateIDCache implements DuplicateIDCache {
+
+   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+   static final int BUCKETS_PER_EXPIRY = 8;
+
+   private final SimpleString address;
+
+   private final long expiryMillis;
+
+   private final long bucketMillis;
+
+   private final StorageManager storageManager;
+
+   private final Executor executor;
+
+   private final LongSupplier clock;
+
+   // from the oldest to the most recent bucket
+   private final ArrayDeque<Bucket> buckets = new ArrayDeque<>();
+
+   private int size;
+
+   ExpiringDuplicateIDCache(final SimpleString address,
+                            final long expiryMillis,
+                            final StorageManager storageManager,
+                            final Executor executor) {
+      this(address, expiryMillis, storageManager, executor, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+   }
+
+   ExpiringDuplicateIDCache(final SimpleString address,
+                            final long expiryMillis,
+                            final StorageManager storageManager,
+                            final Executor executor,
+                            final LongSupplier clock) {
+      if (expiryMillis <= 0) {
+         throw new IllegalArgumentException("expiryMillis must be > 0");
+      }
+      if (storageManager != null) {
+         Objects.requireNonNull(executor, "executor must be not null on a persistent cache");
+      }
+      this.address = address;
+      this.expiryMillis = expiryMillis;
+      this.bucketMillis = Math.max(1, expiryMillis / BUCKETS_PER_EXPIRY);
+      this.storageManager = storageManager;
+      this.executor = executor;
+      this.clock = clock;
+   }
+
+   private boolean isPersistent() {
+      return storageManager != null;
+   }
+
+   @Override
+   public synchronized void load(final List<Pair<byte[], Long>> ids) throws Exception {
+      if (size > 0) {
+         throw new IllegalStateException("load is valid only on empty cache");
+      }
+      if (!isPersistent()) {
+         logger.debug("address = {} ignore loading ids: in memory cache won't load previously stored ids", address);
+         return;
+      }
+      final long now = clock.getAsLong();
+      for (Pair<byte[], Long> id : ids) {
+         if (id.getB() == null) {
+            if (logger.isTraceEnabled()) {
+               logger.trace("ignoring id = {} because without record ID", describeID(id.getA()));
+            }
+            continue;
+         }
+         if (logger.isTraceEnabled()) {
+            logger.trace("loading id = {}", describeID(id.getA(), id.getB()));
+         }
+         if (currentBucket(now).put(new ByteArray(id.getA()), id.getB())) {
+            size++;
+         }
+      }
+   }
+
+   @Override
+   public void load(final Transaction tx, final byte[] duplID) {
+      if (isPersistent()) {
+         tx.addOperation(new AddDuplicateIDOperation(new ByteArray(duplID), tx.getID(), true));
+      }
+   }
+
+   @Override
+   public void deleteFromCache(final byte[] duplicateID) throws Exception {
+      deleteFromCache(new ByteArray(duplicateID));
+   }
+
+   private synchronized void deleteFromCache(final ByteArray duplicateID) throws Exception {
+      if (logger.isTraceEnabled()) {
+         logger.trace("deleting id = {}", describeID(duplicateID.bytes));
+      }
+      final long recordID = remove(duplicateID);
+      if (recordID != NIL) {
+         if (logger.isTraceEnabled()) {
+            logger.trace("address = {} deleting id = {}", address, describeID(duplicateID.bytes, recordID));
+         }
+         storageManager.deleteDuplicateID(recordID);
+      }
+   }
+
+   /**
+    * @return the record ID of the removed id or {@link org.apache.activemq.artemis.api.core.ObjLongPair#NIL} if it
+    * wasn't in the cache or the cache isn't persistent
+    */
+   private long remove(final ByteArray id) {
+      final int hash = id.hashCode();
+      for (Bucket bucket : buckets) {
+         if (bucket.mightContain(hash)) {
+            final Long recordID = bucket.ids.remove(id);
+            if (recordID != null) {
+               size--;
+               return recordID;
+            }
+         }
+      }
+      return NIL;
+   }
+
+   private static String describeID(byte[] duplicateID) {
+      return ByteUtil.bytesToHex(duplicateID, 4) + ", simpleString=" + ByteUtil.toSimpleString(duplicateID);
+   }
+
+   private static String describeID(byte[] duplicateID, long id) {
+      return ByteUtil.bytesToHex(duplicateID, 4) + ", simpleString=" + ByteUtil.toSimpleString(duplicateID) + ", id=" + id;
+   }
+
+   @Override
+   public boolean contains(final byte[] duplID) {
+      return contains(new ByteArray(duplID));
+   }
+
+   private synchronized boolean contains(final ByteArray duplID) {
+      expire(clock.getAsLong());
+      final int hash = duplID.hashCode();
+      // most recent first: retried sends are likely to be recent ones
+      final Iterator<Bucket> iterator = buckets.descendingIterator();
+      while (iterator.hasNext()) {
+         final Bucket bucket = iterator.next();
+         if (bucket.mightContain(hash) && bucket.ids.containsKey(duplID)) {
+            if (logger.isTraceEnabled()) {
+               logger.trace("address = {} found a duplicate {}", address, describeID(duplID.bytes));
+            }
+            return true;
+         }
+      }
+      return false;
+   }
+
+   @Override
+   public void addToCache(final byte[] duplID) throws Exception {
+      addToCache(duplID, null, false);
+   }
+
+   @Override
+   public void addToCache(final byte[] duplID, final Transaction tx) throws Exception {
+      addToCache(duplID, tx, false);
+   }
+
+   @Override
+   public synchronized boolean atomicVerify(final byte[] duplID, final Transaction tx) throws Exception {
+      final ByteArray holder = new ByteArray(duplID);
+      if (contains(holder)) {
+         if (tx != null) {
+            tx.markAsRollbackOnly(new ActiveMQDuplicateIdException());
+         }
+         return false;
+      }
+      addToCache(holder, tx, true);
+      return true;
+   }
+
+   @Override
+   public synchronized void addToCache(final byte[] duplID, final Transaction tx, boolean instantAdd) throws Exception {
+      addToCache(new ByteArray(duplID), tx, instantAdd);
+   }
+
+   private synchronized void addToCache(final ByteArray holder,
+                                        final Transaction tx,
+                                        boolean instantAdd) throws Exception {
+      final long recordID;
+      if (isPersistent()) {
+         recordID = storageManager.generateID();
+         if (tx == null) {
+            storageManager.storeDuplicateID(address, holder.bytes, recordID);
+         } else {
+            storageManager.storeDuplicateIDTransactional(tx.getID(), address, holder.bytes, recordID);
+            tx.setContainsPersistent();
+         }
+      } else {
+         recordID = NIL;
+      }
+      if (tx == null) {
+         addToCacheInMemory(holder, recordID);
+      } else {
+         if (logger.isTraceEnabled()) {
+            logger.trace("address = {} adding duplicateID TX operation for {}, tx = {}", address,
+                         describeID(holder.bytes, recordID), tx);
+         }
+
+         if (instantAdd) {
+            addToCacheInMemory(holder, recordID);
+            tx.addOperation(new AddDuplicateIDOperation(holder, recordID, false));
+         } else {
+            // For a tx, it's important that the entry is not added to the cache until commit
+            // since if the client fails then resends them tx we don't want it to get rejected
+            tx.afterStore(new AddDuplicateIDOperation(holder, recordID, true));
+         }
+      }
+   }
+
+   private synchronized void addToCacheInMemory(final ByteArray holder, final long recordID) {
+      Objects.requireNonNull(holder, "holder must be not null");
+      if (logger.isTraceEnabled()) {
+         logger.trace("address = {} adding {}", address, describeID(holder.bytes, recordID));
+      }
+      final long now = clock.getAsLong();
+      expire(now);
+      // an id already in the cache is moved to the current bucket: its age is the one of its last add
+      final long replacedRecordID = remove(holder);
+      if (replacedRecordID != NIL && replacedRecordID != recordID) {
+         try {
+            storageManager.deleteDuplicateID(replacedRecordID);
+         } catch (Exception e) {
+            ActiveMQServerLogger.LOGGER.errorDeletingDuplicateCache(e);
+         }
+      }
+      currentBucket(now).put(holder, recordID);
+      size++;
+   }
+
+   private Bucket currentBucket(final long now) {
+      Bucket current = buckets.peekLast();
+      if (current == null || now >= current.end) {
+         current = new Bucket(now + bucketMillis);
+         buckets.addLast(current);
+      }
+      return current;
+   }
+
+   /**
+    * Removes the buckets whose ids are all older than {@link #expiryMillis}. This is called by the senders, so the
+    * records of their ids are deleted later on {@link #executor}.
+    */
+   private void expire(final long now) {
+      List<Bucket> expired = null;
+      Bucket oldest;
+      while ((oldest = buckets.peekFirst()) != null && now - oldest.end >= expiryMillis) {
+         buckets.pollFirst();
+         size -= oldest.ids.size();
+         if (logger.isDebugEnabled()) {
+            logger.debug("address = {} expiring {} duplicate IDs", address, oldest.ids.size());
+         }
+         if (isPersistent() && !oldest.ids.isEmpty()) {
+            if (expired == null) {
+               expired = new ArrayList<>(1);
+            }
+            expired.add(oldest);
+         }
+      }
+      if (expired != null) {
+         final List<Bucket> toDelete = expired;
+         executor.execute(() -> deleteRecords(toDelete));
+      }
+   }
+
+   /**
+    * Deletes the records of the ids of {@code expired} with a single journal transaction.
+    */
+   private void deleteRecords(final List<Bucket> expired) {
+      try {
+         final long txID = storageManager.generateID();
+         for (Bucket bucket : expired) {
+            for (Long recordID : bucket.ids.values()) {
+               storageManager.deleteDuplicateIDTransactional(txID, recordID);
+            }
+         }
+         storageManager.commit(txID);
+      } catch (Exception e) {
+         ActiveMQServerLogger.LOGGER.errorDeletingDuplicateCache(e);
+      }
+   }
+
+   @Override
+   public synchronized void clear() throws Exception {
+      logger.debug("address = {} removing duplicate ID data", address);
+      if (isPersistent() && size > 0) {
+         final long tx = storageManager.generateID();
+         for (Bucket bucket : buckets) {
+            for (Long recordID : bucket.ids.values()) {
+               storageManager.deleteDuplicateIDTransactional(tx, recordID);
+            }
+         }
+         storageManager.commit(tx);
+      }
+      buckets.clear();
+      size = 0;
+   }
+
+   @Override
+   public synchronized List<Pair<byte[], Long>> getMap() {
+      final List<Pair<byte[], Long>> copy = new ArrayList<>(size);
+      for (Bucket bucket : buckets) {
+         for (Map.Entry<ByteArray, Long> id : bucket.ids.entrySet()) {
+            copy.add(new Pair<>(id.getKey().bytes, isPersistent() ? id.getValue() : null));
+         }
+      }
+      return copy;
+   }
+
+   /**
+    * @return the number of ids in the cache, not yet expired
+    */
+   @Override
+   public synchronized int getSize() {
+      return size;
+   }
+
+   /**
+    * The ids added before {@link #end}, by record ID, and a bloom filter of their hash codes.
+    */
+   private static final class Bucket {
+
+      private static final int MIN_BITS = 1024;
+      private static final int BITS_PER_ID = 10;
+      private static final int HASHES = 4;
+
+      final long end;
+
+      final HashMap<ByteArray, Long> ids = new HashMap<>();
+
+      private long[] bits = new long[MIN_BITS / Long.SIZE];
+
+      Bucket(final long end) {
+         this.end = end;
+      }
+
+      /**
+       * @return {@code true} if {@code id} wasn't in this bucket
+       */
+      boolean put(final ByteArray id, final long recordID) {
+         if (ids.put(id, recordID) != null) {
+            return false;
+         }
+         if ((long) ids.size() * BITS_PER_ID > (long) bits.length * Long.SIZE) {
+            // keep the false positives rate ~1%: the removed ids are dropped from the filter too
+            bits = new long[bits.length * 2];
+            for (ByteArray added : ids.keySet()) {
+               add(added.hashCode());
+            }
+         } else {
+            add(id.hashCode());
+         }
+         return true;
+      }
+
+      private void add(final int hash) {
+         final long[] bits = this.bits;
+         final int mask = bits.length * Long.SIZE - 1;
+         final int step = step(hash);
+         int bit = hash;
+         for (int i = 0; i < HASHES; i++) {
+            final int index = bit & mask;
+            bits[index >>> 6] |= 1L << index;
+            bit += step;
+         }
+      }
+
+      boolean mightContain(final int hash) {
+         final long[] bits = this.bits;
+         final int mask = bits.length * Long.SIZE - 1;
+         final int step = step(hash);
+         int bit = hash;
+         for (int i = 0; i < HASHES; i++) {
+            final int index = bit & mask;
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+               return false;
+            }
+            bit += step;
+         }
+         return true;
+      }
+
+      // double hashing: an odd step visits distinct bits
+      private static int step(final int hash) {
+         return Integer.rotateLeft(hash * 0x9E3779B9, 16) | 1;
+      }
+   }
+
+   private final class AddDuplicateIDOperation extends TransactionOperationAbstract {
+
+      final ByteArray holder;
+
+      final long recordID;
+
+      volatile boolean done;
+
+      private final boolean afterCommit;
+
+      AddDuplicateIDOperation(final ByteArray holder, final long recordID, boolean afterCommit) {
+         this.holder = holder;
+         this.recordID = recordID;
+         this.afterCommit = afterCommit;
+      }
+
+      private void process() {
+         if (!done) {
+            addToCacheInMemory(holder, recordID);
+
+            done = true;
+         }
+      }
+
+      @Override
+      public void afterCommit(final Transaction tx) {
+         if (afterCommit) {
+            process();
+         }
+      }
+
+      @Override
+      public void beforeRollback(Transaction tx) throws Exception {
+         if (!afterCommit) {
+            deleteFromCache(holder);
+         }
+      }
+
+      @Override
+      public List<MessageReference> getRelatedMessageReferences() {
+         return null;
+      }
+   }
+}
@@ -1453,7 +1453,13 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       DuplicateIDCache cache = duplicateIDCaches.get(address);
 
       if (cache == null) {
-         if (persistIDCache) {
+         final long idCacheExpiry = addressSettingsRepository.getMatch(address.toString()).getIDCacheExpiry();
+         if (idCacheExpiry > 0) {
+            // evicting by age: the size of the cache doesn't need to be kept across restarts
+            cache = persistIDCache ?
+               DuplicateIDCaches.persistentExpiring(address, idCacheExpiry, storageManager, server.getExecutorFactory().getExecutor()) :
+               DuplicateIDCaches.inMemoryExpiring(address, idCacheExpiry);
+         } else if (persistIDCache) {
             if (allowRegistration) {
                registerCacheSize(address, cacheSizeToUse);
             }
@@ -16,6 +16,7 @@
  */
 package org.apache.activemq.artemis.core.protocol.core.impl;
 
+import io.netty.channel.FileRegion;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.persistence.CoreMessageObjectPools;
 import org.apache.activemq.artemis.core.protocol.core.Channel;
@@ -111,6 +112,17 @@ public final class CoreSessionCallback implements SessionCallback {
       return packet.getPacketSize();
    }
 
+   @Override
+   public int sendLargeMessageContinuation(ServerConsumer consumer, FileRegion body, boolean continues) {
+      SessionReceiveContinuationMessage packet = new SessionReceiveContinuationMessage(consumer.getID(), null, continues, false);
+
+      if (!channel.sendFileRegion(packet, body)) {
+         return -1;
+      }
+
+      return packet.getPacketSize();
+   }
+
    @Override
    public int sendMessage(MessageReference ref, ServerConsumer consumer, int deliveryCount)  {
 
@@ -38,6 +38,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBufAllocator;
@@ -111,6 +112,7 @@ public class NettyAcceptor extends AbstractAcceptor {
    public static final String NIO_ACCEPTOR_TYPE = "NIO";
    public static final String EPOLL_ACCEPTOR_TYPE = "EPOLL";
    public static final String KQUEUE_ACCEPTOR_TYPE = "KQUEUE";
+   public static final String IO_URING_ACCEPTOR_TYPE = "IO_URING";
 
    static {
       // Disable default Netty leak detection if the Netty leak detection level system properties are not in use
@@ -147,6 +149,8 @@ public class NettyAcceptor extends AbstractAcceptor {
 
    private final boolean useKQueue;
 
+   private final boolean useIoUring;
+
    private final ProtocolHandler protocolHandler;
 
    private final String host;
@@ -208,6 +212,11 @@ public class NettyAcceptor extends AbstractAcceptor {
 
    private final ConcurrentMap<Object, NettyServerConnection> connections = new ConcurrentHashMap<>();
 
+   // the flushes and the bytes written by the connections already closed
+   private final LongAdder closedConnectionsFlushCount = new LongAdder();
+
+   private final LongAdder closedConnectionsWrittenBytes = new LongAdder();
+
    private final Map<String, Object> configuration;
 
    private final ScheduledExecutorService scheduledThreadPool;
@@ -275,6 +284,7 @@ public class NettyAcceptor extends AbstractAcceptor {
 
       useEpoll = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_EPOLL_PROP_NAME, TransportConstants.DEFAULT_USE_EPOLL, configuration);
       useKQueue = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_KQUEUE_PROP_NAME, TransportConstants.DEFAULT_USE_KQUEUE, configuration);
+      useIoUring = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_IO_URING_PROP_NAME, TransportConstants.DEFAULT_USE_IO_URING, configuration);
 
       backlog = ConfigurationHelper.getIntProperty(TransportConstants.BACKLOG_PROP_NAME, -1, configuration);
       useInvm = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_INVM_PROP_NAME, TransportConstants.DEFAULT_USE_INVM, configuration);
@@ -429,7 +439,18 @@ public class NettyAcceptor extends AbstractAcceptor {
             remotingThreads = Runtime.getRuntime().availableProcessors() * 3;
          }
 
-         if (useEpoll && CheckDependencies.isEpollAvailable()) {
+         if (useIoUring && CheckDependencies.isIoUringAvailable()) {
+            channelClazz = IoUring.serverSocketChannelClass();
+            eventLoopGroup = IoUring.newEventLoopGroup(remotingThreads, AccessController.doPrivileged(new PrivilegedAction<ActiveMQThreadFactory>() {
+               @Override
+               public ActiveMQThreadFactory run() {
+                  return new ActiveMQThreadFactory("activemq-netty-threads", true, ClientSessionFactoryImpl.class.getClassLoader());
+               }
+            }));
+            acceptorType = IO_URING_ACCEPTOR_TYPE;
+
+            logger.debug("Acceptor using native io_uring");
+         } else if (useEpoll && CheckDependencies.isEpollAvailable()) {
             channelClazz = EpollServerSocketChannel.class;
             eventLoopGroup = new EpollEventLoopGroup(remotingThreads, AccessController.doPrivileged(new PrivilegedAction<ActiveMQThreadFactory>() {
                @Override
@@ -793,7 +814,11 @@ public class NettyAcceptor extends AbstractAcceptor {
 
       channelClazz = null;
 
-      for (Connection connection : connections.values()) {
+      for (NettyServerConnection connection : connections.values()) {
+         // counted once, whether the channel closing destroys it first or not
+         if (connections.remove(connection.getID(), connection)) {
+            addClosedConnectionCounts(connection);
+         }
          listener.connectionDestroyed(connection.getID(), true);
       }
 
@@ -970,7 +995,9 @@ public class NettyAcceptor extends AbstractAcceptor {
 
       @Override
       public void connectionDestroyed(final Object connectionID, boolean failed) {
-         if (connections.remove(connectionID) != null) {
+         final NettyServerConnection connection = connections.remove(connectionID);
+         if (connection != null) {
+            addClosedConnectionCounts(connection);
             listener.connectionDestroyed(connectionID, failed);
          }
       }
@@ -1054,4 +1081,27 @@ public class NettyAcceptor extends AbstractAcceptor {
    public int getActualPort() {
       return actualPort;
    }
+
+   @Override
+   public long getFlushCount() {
+      long flushCount = closedConnectionsFlushCount.sum();
+      for (NettyServerConnection connection : connections.values()) {
+         flushCount += connection.getFlushCount();
+      }
+      return flushCount;
+   }
+
+   @Override
+   public long getWrittenBytes() {
+      long writtenBytes = closedConnectionsWrittenBytes.sum();
+      for (NettyServerConnection connection : connections.values()) {
+         writtenBytes += connection.getWrittenBytes();
+      }
+      return writtenBytes;
+   }
+
+   private void addClosedConnectionCounts(NettyServerConnection connection) {
+      closedConnectionsFlushCount.add(connection.getFlushCount());
+      closedConnectionsWrittenBytes.add(connection.getWrittenBytes());
+   }
 }
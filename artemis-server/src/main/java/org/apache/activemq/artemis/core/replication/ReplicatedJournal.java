@@ -645,6 +645,31 @@ public class ReplicatedJournal implements Journal {
       localJournal.scheduleCompactAndBlock(timeout);
    }
 
+   @Override
+   public int getCompactCount() {
+      return localJournal.getCompactCount();
+   }
+
+   @Override
+   public int getCompactProgress() {
+      return localJournal.getCompactProgress();
+   }
+
+   @Override
+   public long getCompactReclaimedBytes() {
+      return localJournal.getCompactReclaimedBytes();
+   }
+
+   @Override
+   public long getCompactLastPauseTime() {
+      return localJournal.getCompactLastPauseTime();
+   }
+
+   @Override
+   public long getCompactMaxPauseTime() {
+      return localJournal.getCompactMaxPauseTime();
+   }
+
    @Override
    public void replicationSyncPreserveOldFiles() {
       throw new UnsupportedOperationException("should never get called");
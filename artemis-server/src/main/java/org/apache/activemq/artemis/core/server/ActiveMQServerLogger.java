@@ -334,6 +334,9 @@ public interface ActiveMQServerLogger {
    @LogMessage(id = 221086, value = "Cannot route {}", level = LogMessage.Level.INFO)
    void cannotRouteClientConnection(Connection connection);
 
+   @LogMessage(id = 221087, value = "Message journal loaded with {} records in {} milliseconds: {} milliseconds reading the journal files and {} milliseconds loading the records", level = LogMessage.Level.INFO)
+   void messageJournalLoaded(long records, long totalMillis, long journalMillis, long recordsMillis);
+
    @LogMessage(id = 222000, value = "ActiveMQServer is being finalized and has not been stopped. Please remember to stop the server before letting it go out of scope", level = LogMessage.Level.WARN)
    void serverFinalisedWIthoutBeingSTopped();
 
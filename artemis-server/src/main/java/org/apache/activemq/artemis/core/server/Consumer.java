@@ -49,6 +49,14 @@ public interface Consumer extends PriorityAware {
     */
    HandleStatus handle(MessageReference reference) throws Exception;
 
+   /**
+    * Same as {@link #handle(MessageReference)}, for a reference the caller already matched with {@link #getFilter()}:
+    * the filter doesn't need to be evaluated again.
+    */
+   default HandleStatus handleMatched(MessageReference reference) throws Exception {
+      return handle(reference);
+   }
+
    /** wakes up internal threads to deliver more messages */
    default void promptDelivery() {
    }
@@ -309,6 +309,22 @@ public interface Queue extends Bindable,CriticalComponent {
 
    long getMessagesKilled();
 
+   /**
+    * {@return the number of times the filter of a consumer was found not to match a pending message
+    * and the mismatch was recorded on the message}
+    */
+   default long getConsumerFilterMismatches() {
+      return 0;
+   }
+
+   /**
+    * {@return the number of consumer filter evaluations avoided because the filter was already known
+    * not to match the message}
+    */
+   default long getConsumerFilterEvaluationsSkipped() {
+      return 0;
+   }
+
    long getMessagesReplaced();
 
    MessageReference removeReferenceWithID(long id) throws Exception;
@@ -30,6 +30,9 @@ public abstract class AbstractProtocolReference extends LinkedListImpl.Node<Mess
    private HashMap<Class, Object> protocolDataMap;
    protected volatile long sequence = 0;
 
+   // owned by the ConsumerFilterGroups of the queue holding this reference
+   long filterMismatches;
+
    @Override
    public <T> T getProtocolData(Class<T> classType) {
       if (protocolDataMap == null) {
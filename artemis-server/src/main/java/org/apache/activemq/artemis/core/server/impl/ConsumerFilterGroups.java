@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.server.MessageReference;
+
+/**
+ * Groups the consumers of a queue by filter string and remembers, on each pending
+ * {@link MessageReference}, which groups have a filter that does not match it.
+ * <p>
+ * Every group owns a bit of {@link AbstractProtocolReference#filterMismatches}. Once a filter has
+ * been evaluated as a mismatch for a reference, the consumers of that group skip the reference
+ * without evaluating the filter again, no matter how many times their iterators are reset (e.g.
+ * after a rollback or a consumer close) or how many consumers share the filter.
+ * <p>
+ * The high 32 bits of {@code filterMismatches} hold the epoch the bits were recorded on: a bit
+ * freed by a group is only given to a different filter after increasing the epoch, which
+ * invalidates every bit previously recorded.
+ * <p>
+ * This class is not thread-safe: the queue must only use it while holding its lock.
+ */
+public final class ConsumerFilterGroups {
+
+   public static final int MAX_GROUPS = 32;
+
+   public static final int NO_GROUP = -1;
+
+   private static final long BITS_MASK = 0xFFFFFFFFL;
+
+   private static final AtomicLongFieldUpdater<ConsumerFilterGroups> mismatchesRecordedUpdater = AtomicLongFieldUpdater.newUpdater(ConsumerFilterGroups.class, "mismatchesRecorded");
+
+   private static final AtomicLongFieldUpdater<ConsumerFilterGroups> evaluationsSkippedUpdater = AtomicLongFieldUpdater.newUpdater(ConsumerFilterGroups.class, "evaluationsSkipped");
+
+   private final Map<SimpleString, Group> groups = new HashMap<>();
+
+   private final Group[] slots = new Group[MAX_GROUPS];
+
+   // slots released since the last epoch: their bits may still be set on some references
+   private int dirtySlots;
+
+   private int epoch;
+
+   // read by management: these are used by an AtomicFieldUpdater
+   private volatile long mismatchesRecorded;
+
+   private volatile long evaluationsSkipped;
+
+   private static final class Group {
+
+      private final SimpleString filterString;
+
+      private final int slot;
+
+      private int consumers;
+
+      private Group(SimpleString filterString, int slot) {
+         this.filterString = filterString;
+         this.slot = slot;
+      }
+   }
+
+   /**
+    * Adds a consumer with {@code filter} to its group, creating the group if needed.
+    *
+    * @return the group of the consumer or {@link #NO_GROUP} if it has no filter or there are
+    * already {@link #MAX_GROUPS} groups
+    */
+   public int acquire(Filter filter) {
+      if (filter == null) {
+         return NO_GROUP;
+      }
+      Group group = groups.get(filter.getFilterString());
+      if (group == null) {
+         final int slot = freeSlot();
+         if (slot == NO_GROUP) {
+            return NO_GROUP;
+         }
+         group = new Group(filter.getFilterString(), slot);
+         groups.put(group.filterString, group);
+         slots[slot] = group;
+      }
+      group.consumers++;
+      return group.slot;
+   }
+
+   public void release(int slot) {
+      if (slot == NO_GROUP) {
+         return;
+      }
+      final Group group = slots[slot];
+      if (group != null && --group.consumers == 0) {
+         groups.remove(group.filterString);
+         slots[slot] = null;
+         dirtySlots |= 1 << slot;
+      }
+   }
+
+   private int freeSlot() {
+      int dirty = NO_GROUP;
+      for (int i = 0; i < MAX_GROUPS; i++) {
+         if (slots[i] == null) {
+            if ((dirtySlots & (1 << i)) == 0) {
+               return i;
+            } else if (dirty == NO_GROUP) {
+               dirty = i;
+            }
+         }
+      }
+      if (dirty != NO_GROUP) {
+         // the bits of the groups still in use are lost too, they will be recorded again lazily
+         epoch++;
+         dirtySlots = 0;
+      }
+      return dirty;
+   }
+
+   public int size() {
+      return groups.size();
+   }
+
+   /**
+    * @return {@code true} if the filter of group {@code slot} is known not to match {@code ref}
+    */
+   public boolean isMismatch(MessageReference ref, int slot) {
+      if (ref instanceof AbstractProtocolReference) {
+         final long mismatches = ((AbstractProtocolReference) ref).filterMismatches;
+         if ((int) (mismatches >>> 32) == epoch && (mismatches & (1L << slot)) != 0) {
+            evaluationsSkippedUpdater.incrementAndGet(this);
+            return true;
+         }
+      }
+      return false;
+   }
+
+   public void recordMismatch(MessageReference ref, int slot) {
+      if (ref instanceof AbstractProtocolReference) {
+         final AbstractProtocolReference reference = (AbstractProtocolReference) ref;
+         long mismatches = reference.filterMismatches;
+         if ((int) (mismatches >>> 32) != epoch) {
+            mismatches = ((long) epoch) << 32;
+         }
+         reference.filterMismatches = mismatches | ((1L << slot) & BITS_MASK);
+         mismatchesRecordedUpdater.incrementAndGet(this);
+      }
+   }
+
+   /**
+    * @return number of times a filter was found not to match a reference and it was recorded on it
+    */
+   public long getMismatchesRecorded() {
+      return mismatchesRecorded;
+   }
+
+   /**
+    * @return number of filter evaluations avoided because of a recorded mismatch
+    */
+   public long getEvaluationsSkipped() {
+      return evaluationsSkipped;
+   }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
+import io.netty.util.AbstractReferenceCounted;
+import io.netty.util.ReferenceCounted;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * The file of a large message body, opened to transfer its chunks straight to the network as {@link FileRegion}s.
+ * <p>
+ * The file is closed once released by its owner and by all the regions created on it, i.e. once they have been
+ * written: its consumer can be done with the message before the connection is done with the regions.
+ */
+final class LargeBodyFileChannel extends AbstractReferenceCounted {
+
+   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+   private final FileChannel channel;
+
+   private LargeBodyFileChannel(FileChannel channel) {
+      this.channel = channel;
+   }
+
+   static LargeBodyFileChannel open(File file) throws IOException {
+      return new LargeBodyFileChannel(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+   }
+
+   /**
+    * Returns a region of {@code count} bytes of the file at {@code position}, holding a reference to the file until
+    * it's released.
+    */
+   FileRegion region(long position, long count) {
+      retain();
+      return new DefaultFileRegion(channel, position, count) {
+         @Override
+         protected void deallocate() {
+            // the file is shared with the other regions
+            LargeBodyFileChannel.this.release();
+         }
+      };
+   }
+
+   @Override
+   protected void deallocate() {
+      try {
+         channel.close();
+      } catch (IOException e) {
+         logger.debug("Error closing the large message file", e);
+      }
+   }
+
+   @Override
+   public ReferenceCounted touch(Object hint) {
+      return this;
+   }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.selector.filter.EqualityConstraint;
+import org.apache.activemq.artemis.selector.filter.Filterable;
+
+/**
+ * Indexes the consumers of a queue by the {@link EqualityConstraint} of their filters, so that the
+ * consumers that could accept a message can be found without evaluating every filter.
+ * <p>
+ * Consumers without a filter, or whose filter has no constraint, are always candidates.
+ * <p>
+ * This class is not thread-safe: the queue must only use it while holding its lock.
+ */
+public final class QueueConsumerIndex<T> {
+
+   // property -> property value -> consumers
+   private final Map<SimpleString, Map<String, List<T>>> indexed = new HashMap<>();
+
+   private final Map<T, EqualityConstraint> constraints = new HashMap<>();
+
+   private final List<T> unindexed = new ArrayList<>();
+
+   public void add(T consumer, Filter filter) {
+      final EqualityConstraint constraint = filter == null ? null : filter.getEqualityConstraint();
+      if (constraint == null) {
+         unindexed.add(consumer);
+         return;
+      }
+      constraints.put(consumer, constraint);
+      final Map<String, List<T>> byValue = indexed.computeIfAbsent(constraint.getProperty(), p -> new HashMap<>());
+      for (String value : constraint.getValues()) {
+         byValue.computeIfAbsent(value, v -> new ArrayList<>(1)).add(consumer);
+      }
+   }
+
+   public void remove(T consumer) {
+      final EqualityConstraint constraint = constraints.remove(consumer);
+      if (constraint == null) {
+         unindexed.remove(consumer);
+         return;
+      }
+      final Map<String, List<T>> byValue = indexed.get(constraint.getProperty());
+      if (byValue == null) {
+         return;
+      }
+      for (String value : constraint.getValues()) {
+         final List<T> consumers = byValue.get(value);
+         if (consumers != null) {
+            consumers.remove(consumer);
+            if (consumers.isEmpty()) {
+               byValue.remove(value);
+            }
+         }
+      }
+      if (byValue.isEmpty()) {
+         indexed.remove(constraint.getProperty());
+      }
+   }
+
+   public int indexedCount() {
+      return constraints.size();
+   }
+
+   /**
+    * Adds to {@code candidates} every consumer whose filter could match {@code message}: the
+    * indexed ones whose constraint is satisfied first, followed by the unindexed ones.
+    */
+   public void candidates(Message message, List<T> candidates) {
+      if (!indexed.isEmpty()) {
+         final Filterable filterable = FilterImpl.filterableOf(message);
+         for (Map.Entry<SimpleString, Map<String, List<T>>> entry : indexed.entrySet()) {
+            final Object value = filterable.getProperty(entry.getKey());
+            if (value instanceof String) {
+               final List<T> consumers = entry.getValue().get(value);
+               if (consumers != null) {
+                  candidates.addAll(consumers);
+               }
+            }
+         }
+      }
+      candidates.addAll(unindexed);
+   }
+}
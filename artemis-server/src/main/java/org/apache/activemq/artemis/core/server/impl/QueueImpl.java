@@ -21,8 +21,10 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -291,6 +293,22 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    private final QueueConsumers<ConsumerHolder<? extends Consumer>> consumers = new QueueConsumersImpl<>();
 
+   private final QueueConsumerIndex<ConsumerHolder<? extends Consumer>> consumerIndex = new QueueConsumerIndex<>();
+
+   private volatile boolean selectorIndexedDispatch;
+
+   // true if all the consumers have the same priority, as the indexed dispatch does not honour priorities
+   private boolean singleConsumerPriority = true;
+
+   // a single iterator shared by all the consumers when dispatching through the consumerIndex
+   private LinkedListIterator<MessageReference> indexedDispatchIterator;
+
+   private final List<ConsumerHolder<? extends Consumer>> indexedDispatchCandidates = new ArrayList<>();
+
+   private int indexedDispatchRotation;
+
+   private final ConsumerFilterGroups filterGroups = new ConsumerFilterGroups();
+
    private volatile boolean groupRebalance;
 
    private volatile boolean groupRebalancePauseDispatch;
@@ -735,6 +753,8 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
          this.addressSettings = new AddressSettings();
       }
 
+      this.selectorIndexedDispatch = addressSettings.isSelectorIndexedDispatch();
+
       if (pageSubscription != null) {
          pageSubscription.setQueue(this);
          this.pageIterator = pageSubscription.iterator();
@@ -1493,6 +1513,11 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
             ConsumerHolder<Consumer> newConsumerHolder = new ConsumerHolder<>(consumer, this);
             if (consumers.add(newConsumerHolder)) {
+               consumerIndex.add(newConsumerHolder, consumer.getFilter());
+               newConsumerHolder.filterGroup = filterGroups.acquire(consumer.getFilter());
+               singleConsumerPriority = consumers.getPriorites().size() <= 1;
+               // the new consumer may match messages the shared iterator has already moved past
+               resetIndexedDispatchIterator();
                if (delayBeforeDispatch >= 0) {
                   dispatchStartTimeUpdater.compareAndSet(this,-1, delayBeforeDispatch + System.currentTimeMillis());
                }
@@ -1527,6 +1552,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                      holder.iter = null;
                   }
                   consumers.remove(holder);
+                  consumerIndex.remove(holder);
+                  filterGroups.release(holder.filterGroup);
+                  singleConsumerPriority = consumers.getPriorites().size() <= 1;
                   consumerRemoved = true;
                   break;
                }
@@ -2224,6 +2252,16 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       return messagesKilled.get();
    }
 
+   @Override
+   public long getConsumerFilterMismatches() {
+      return filterGroups.getMismatchesRecorded();
+   }
+
+   @Override
+   public long getConsumerFilterEvaluationsSkipped() {
+      return filterGroups.getEvaluationsSkipped();
+   }
+
    @Override
    public long getMessagesReplaced() {
       return messagesReplaced.get();
@@ -2897,6 +2935,15 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       for (ConsumerHolder holder : this.consumers) {
          holder.resetIterator();
       }
+      resetIndexedDispatchIterator();
+   }
+
+   // called with 'this' locked
+   private void resetIndexedDispatchIterator() {
+      if (indexedDispatchIterator != null) {
+         indexedDispatchIterator.close();
+         indexedDispatchIterator = null;
+      }
    }
 
    @Override
@@ -3134,6 +3181,19 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       doInternalPoll();
 
+      final boolean indexedDispatch;
+      synchronized (this) {
+         indexedDispatch = isIndexedDispatch();
+         if (!indexedDispatch) {
+            // it is not going to see the changes happening while the round-robin delivery is in use
+            resetIndexedDispatchIterator();
+         }
+      }
+
+      if (indexedDispatch) {
+         return deliverIndexed();
+      }
+
       // Either the iterator is empty or the consumer is busy
       int noDelivery = 0;
 
@@ -3236,7 +3296,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                }
 
                numAttempts++;
-               HandleStatus status = handle(ref, consumer);
+               HandleStatus status = groupConsumer == null ? handle(ref, holder) : handle(ref, consumer);
 
                if (status == HandleStatus.HANDLED) {
 
@@ -3318,6 +3378,173 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       return true;
    }
 
+   /**
+    * The indexed dispatch is only used when opted-in through
+    * {@link AddressSettings#isSelectorIndexedDispatch()}, at least one consumer has a filter that
+    * can be indexed and the queue has none of the features that depend on the round-robin of
+    * {@link #consumers} (exclusivity, non-destructive or last-value semantics, consumer priorities
+    * and redistribution).
+    */
+   // called with 'this' locked
+   private boolean isIndexedDispatch() {
+      return selectorIndexedDispatch && consumerIndex.indexedCount() > 0 && singleConsumerPriority && !exclusive && !nonDestructive && !isLastValue() && redistributor == null;
+   }
+
+   /**
+    * Variant of {@link #deliver()} that iterates the messages once, with an iterator shared by
+    * all the consumers, and offers each message only to the consumers returned by
+    * {@link #consumerIndex}: the cost of dispatching a message no longer grows with the number of
+    * consumers with non-matching selectors.
+    * <p>
+    * A message that could not be delivered because its candidate consumers were busy will be
+    * visited again on the next delivery, which will start over from the head of the queue.
+    */
+   private boolean deliverIndexed() {
+      final long timeout = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DELIVERY_TIMEOUT);
+      final List<ConsumerHolder<? extends Consumer>> candidates = indexedDispatchCandidates;
+      IdentityHashMap<Consumer, Boolean> busyConsumers = null;
+      boolean skippedBusy = false;
+      int handled = 0;
+
+      while (true) {
+         if (handled == MAX_DELIVERIES_IN_LOOP || System.nanoTime() - timeout > 0) {
+            // Schedule another one - we do this to prevent a single thread getting caught up in this loop for too long
+            deliverAsync(true);
+            return false;
+         }
+
+         MessageReference ref;
+         Consumer handledConsumer = null;
+
+         synchronized (QueueImpl.this) {
+
+            if (queueDestroyed) {
+               if (messageReferences.size() == 0) {
+                  return false;
+               }
+               try {
+                  removeMessagesWhileDelivering();
+               } catch (Exception e) {
+                  logger.warn(e.getMessage(), e);
+               }
+               return false;
+            }
+
+            // Need to do these checks inside the synchronized
+            if (isPaused() || !canDispatch()) {
+               return false;
+            }
+
+            if (!isIndexedDispatch()) {
+               // the consumers have changed: let the round-robin delivery take over
+               resetIndexedDispatchIterator();
+               deliverAsync(true);
+               return false;
+            }
+
+            if (messageReferences.size() == 0) {
+               break;
+            }
+
+            if (indexedDispatchIterator == null) {
+               indexedDispatchIterator = messageReferences.iterator();
+            }
+
+            if (!indexedDispatchIterator.hasNext()) {
+               break;
+            }
+
+            ref = indexedDispatchIterator.next();
+
+            if (checkExpired(ref)) {
+               logger.trace("Reference {} being expired", ref);
+
+               indexedDispatchIterator.remove();
+               refRemoved(ref);
+               handled++;
+               continue;
+            }
+
+            logger.trace("Queue {} is delivering reference {} through the consumer index", name, ref);
+
+            final SimpleString groupID = extractGroupID(ref);
+            final Consumer groupConsumer = getGroupConsumer(groupID);
+            boolean busy = false;
+
+            if (groupConsumer != null) {
+               HandleStatus status = handle(ref, groupConsumer);
+               if (status == HandleStatus.HANDLED) {
+                  handledConsumer = groupConsumer;
+               } else if (status == HandleStatus.BUSY) {
+                  busy = true;
+               }
+            } else {
+               try {
+                  consumerIndex.candidates(ref.getMessage(), candidates);
+                  final int size = candidates.size();
+                  final int start = size == 0 ? 0 : (indexedDispatchRotation & Integer.MAX_VALUE) % size;
+                  for (int i = 0; i < size; i++) {
+                     final ConsumerHolder<? extends Consumer> holder = candidates.get((start + i) % size);
+                     final Consumer consumer = holder.consumer;
+                     if (busyConsumers != null && busyConsumers.containsKey(consumer)) {
+                        busy = true;
+                        continue;
+                     }
+                     HandleStatus status = handle(ref, holder);
+                     if (status == HandleStatus.HANDLED) {
+                        handledConsumer = consumer;
+                        break;
+                     } else if (status == HandleStatus.BUSY) {
+                        busy = true;
+                        if (busyConsumers == null) {
+                           busyConsumers = new IdentityHashMap<>();
+                        }
+                        busyConsumers.put(consumer, Boolean.TRUE);
+                     }
+                  }
+               } finally {
+                  candidates.clear();
+               }
+            }
+
+            if (handledConsumer != null) {
+               indexedDispatchRotation++;
+
+               ref = handleMessageGroup(ref, handledConsumer, groupConsumer, groupID);
+
+               deliveriesInTransit.countUp();
+
+               indexedDispatchIterator.remove();
+               refRemoved(ref);
+               ref.setInDelivery(true);
+               handled++;
+               consumers.reset();
+            } else if (busy) {
+               skippedBusy = true;
+               if (busyConsumers != null && busyConsumers.size() >= consumers.size()) {
+                  logger.debug("{}::All the consumers were busy, giving up now", this);
+                  break;
+               }
+            } else if (redistributor == null) {
+               // no consumer could match it, redistribution is then an option
+               hasUnMatchedPending = true;
+            }
+         }
+
+         if (handledConsumer != null) {
+            proceedDeliver(handledConsumer, ref);
+         }
+      }
+
+      if (skippedBusy) {
+         synchronized (QueueImpl.this) {
+            resetIndexedDispatchIterator();
+         }
+      }
+
+      return true;
+   }
+
    // called with 'this' locked
    protected void pruneLastValues() {
       // interception point for LVQ
@@ -3997,6 +4224,10 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
             return true;
          }
 
+         if (isIndexedDispatch()) {
+            return deliverDirectIndexed(ref);
+         }
+
          consumers.reset();
 
          while (consumers.hasNext()) {
@@ -4036,6 +4267,51 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       }
    }
 
+   // called with 'this' locked
+   private boolean deliverDirectIndexed(final MessageReference ref) {
+      final SimpleString groupID = extractGroupID(ref);
+      final Consumer groupConsumer = getGroupConsumer(groupID);
+      Consumer handledConsumer = null;
+
+      if (groupConsumer != null) {
+         if (handle(ref, groupConsumer) == HandleStatus.HANDLED) {
+            handledConsumer = groupConsumer;
+         }
+      } else {
+         final List<ConsumerHolder<? extends Consumer>> candidates = indexedDispatchCandidates;
+         try {
+            consumerIndex.candidates(ref.getMessage(), candidates);
+            final int size = candidates.size();
+            final int start = size == 0 ? 0 : (indexedDispatchRotation & Integer.MAX_VALUE) % size;
+            for (int i = 0; i < size && handledConsumer == null; i++) {
+               final Consumer consumer = candidates.get((start + i) % size).consumer;
+               if (handle(ref, consumer) == HandleStatus.HANDLED) {
+                  handledConsumer = consumer;
+               }
+            }
+         } finally {
+            candidates.clear();
+         }
+      }
+
+      if (handledConsumer == null) {
+         logger.trace("Queue {} is out of direct delivery as no consumers handled a delivery", name);
+         return false;
+      }
+
+      indexedDispatchRotation++;
+      final MessageReference reference = handleMessageGroup(ref, handledConsumer, groupConsumer, groupID);
+
+      incrementMesssagesAdded();
+
+      deliveriesInTransit.countUp();
+      reference.setInDelivery(true);
+      proceedDeliver(handledConsumer, reference);
+      consumers.reset();
+      reference.setSequence(queueSequence.incrementAndGet());
+      return true;
+   }
+
    private Consumer getGroupConsumer(SimpleString groupID) {
       Consumer groupConsumer = null;
       if (exclusive) {
@@ -4115,10 +4391,37 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       }
    }
 
-   private synchronized HandleStatus handle(final MessageReference reference, final Consumer consumer) {
+   /**
+    * Same as {@link #handle(MessageReference, Consumer)} for the consumer of {@code holder}, but if
+    * the consumer belongs to one of the {@link #filterGroups} its filter is evaluated here instead: a
+    * mismatch is recorded on the reference and the consumers sharing the filter will skip it from
+    * then on without evaluating the filter again, e.g. when their iterators are reset.
+    */
+   // called with 'this' locked
+   private HandleStatus handle(final MessageReference reference, final ConsumerHolder<? extends Consumer> holder) {
+      final int filterGroup = holder.filterGroup;
+      if (filterGroup != ConsumerFilterGroups.NO_GROUP) {
+         if (filterGroups.isMismatch(reference, filterGroup)) {
+            return HandleStatus.NO_MATCH;
+         }
+         final Filter filter = holder.consumer.getFilter();
+         if (filter != null && !filter.match(reference.getMessage())) {
+            filterGroups.recordMismatch(reference, filterGroup);
+            return HandleStatus.NO_MATCH;
+         }
+         return handle(reference, holder.consumer, true);
+      }
+      return handle(reference, holder.consumer, false);
+   }
+
+   private HandleStatus handle(final MessageReference reference, final Consumer consumer) {
+      return handle(reference, consumer, false);
+   }
+
+   private synchronized HandleStatus handle(final MessageReference reference, final Consumer consumer, final boolean matched) {
       HandleStatus status;
       try {
-         status = consumer.handle(reference);
+         status = matched ? consumer.handleMatched(reference) : consumer.handle(reference);
       } catch (Throwable t) {
          ActiveMQServerLogger.LOGGER.removingBadConsumer(consumer, reference, t);
 
@@ -4373,6 +4676,8 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       LinkedListIterator<MessageReference> iter;
 
+      int filterGroup = ConsumerFilterGroups.NO_GROUP;
+
       private void resetIterator() {
          if (iter != null) {
             iter.close();
@@ -4761,6 +5066,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       @Override
       public void onChange() {
          addressSettings = addressSettingsRepository.getMatch(getAddressSettingsMatch());
+         selectorIndexedDispatch = addressSettings.isSelectorIndexedDispatch();
          checkDeadLetterAddressAndExpiryAddress();
          configureSlowConsumerReaper();
       }
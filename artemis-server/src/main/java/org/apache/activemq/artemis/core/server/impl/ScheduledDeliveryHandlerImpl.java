@@ -19,12 +19,9 @@ package org.apache.activemq.artemis.core.server.impl;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
@@ -40,6 +37,9 @@ import java.lang.invoke.MethodHandles;
 
 /**
  * Handles scheduling deliveries to a queue at the correct time.
+ * <p>
+ * The references are kept on a {@link ScheduledDeliveryWheel}, and the ones due are moved to the head of their queue
+ * in batch by a single pending {@link ScheduledDeliveryRunnable}.
  */
 public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
 
@@ -47,12 +47,13 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
 
    private final ScheduledExecutorService scheduledExecutor;
 
-   private final Map<Long, Runnable> runnables = new ConcurrentHashMap<>();
+   // The scheduled references by delivery time: it is also the lock guarding the scheduling state.
+   // Do not forget to call notifyScheduledReferencesUpdated() when updating it.
+   private final ScheduledDeliveryWheel scheduledReferences = new ScheduledDeliveryWheel();
 
-   // This contains RefSchedules which are delegates to the real references
-   // just adding some information to keep it in order accordingly to the initial operations
-   // Do not forget to call notifyScheduledReferencesUpdated() when updating the set.
-   private final TreeSet<RefScheduled> scheduledReferences = new TreeSet<>(new MessageReferenceComparator());
+   // The earliest time a ScheduledDeliveryRunnable is going to run at, Long.MAX_VALUE if none:
+   // a single timer is pending per queue, whatever the number of distinct delivery times
+   private long nextDeliveryTime = Long.MAX_VALUE;
 
    private final QueueMessageMetrics metrics;
 
@@ -85,7 +86,7 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
 
    public void addInPlace(final long deliveryTime, final MessageReference ref, final boolean tail) {
       synchronized (scheduledReferences) {
-         scheduledReferences.add(new RefScheduled(ref, tail));
+         scheduledReferences.add(ref, tail);
          notifyScheduledReferencesUpdated();
       }
       metrics.incrementMetrics(ref);
@@ -133,13 +134,13 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
 
    @Override
    public List<MessageReference> getScheduledReferences() {
-      List<MessageReference> refs = new LinkedList<>();
+      List<MessageReference> refs = new ArrayList<>();
 
       synchronized (scheduledReferences) {
-         for (RefScheduled ref : scheduledReferences) {
-            refs.add(ref.getRef());
-         }
+         scheduledReferences.forEach(refs::add);
       }
+      // stable: the references due at the same time are kept in delivery order
+      refs.sort(Comparator.comparingLong(MessageReference::getScheduledDeliveryTime));
       return refs;
    }
 
@@ -148,17 +149,11 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
       List<MessageReference> refs = new ArrayList<>();
 
       synchronized (scheduledReferences) {
-         Iterator<RefScheduled> iter = scheduledReferences.iterator();
-
-         while (iter.hasNext()) {
-            MessageReference ref = iter.next().getRef();
-            if (predicate.test(ref)) {
-               iter.remove();
-               notifyScheduledReferencesUpdated();
-               refs.add(ref);
-               metrics.decrementMetrics(ref);
-            }
-         }
+         scheduledReferences.removeIf(predicate, false, ref -> {
+            notifyScheduledReferencesUpdated();
+            refs.add(ref);
+            metrics.decrementMetrics(ref);
+         });
       }
       return refs;
    }
@@ -170,49 +165,40 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
 
    @Override
    public MessageReference removeReferenceWithID(final long id, Transaction tx) throws Exception {
+      final MessageReference[] removed = new MessageReference[1];
       synchronized (scheduledReferences) {
-         Iterator<RefScheduled> iter = scheduledReferences.iterator();
-         while (iter.hasNext()) {
-            MessageReference ref = iter.next().getRef();
-            if (ref.getMessage().getMessageID() == id) {
-               ref.acknowledge(tx, AckReason.NORMAL, null, false);
-               iter.remove();
-               notifyScheduledReferencesUpdated();
-               metrics.decrementMetrics(ref);
-               return ref;
-            }
+         scheduledReferences.removeIf(ref -> ref.getMessage().getMessageID() == id, true, ref -> removed[0] = ref);
+         if (removed[0] != null) {
+            removed[0].acknowledge(tx, AckReason.NORMAL, null, false);
+            notifyScheduledReferencesUpdated();
+            metrics.decrementMetrics(removed[0]);
          }
       }
 
-      return null;
+      return removed[0];
    }
 
    private void scheduleDelivery(final long deliveryTime) {
-      final long now = System.currentTimeMillis();
-
-      final long delay = deliveryTime - now;
-
-      if (delay < 0) {
-         if (logger.isTraceEnabled()) {
-            logger.trace("calling another scheduler now as deliverTime {} < now={}", deliveryTime, now);
+      synchronized (scheduledReferences) {
+         if (deliveryTime >= nextDeliveryTime) {
+            if (logger.isTraceEnabled()) {
+               logger.trace("Couldn't make another scheduler for {} as one is already set for {}", deliveryTime, nextDeliveryTime);
+            }
+            return;
          }
-         // if delay == 0 we will avoid races between adding the scheduler and finishing it
-         ScheduledDeliveryRunnable runnable = new ScheduledDeliveryRunnable(deliveryTime);
-         scheduledExecutor.schedule(runnable, 0, TimeUnit.MILLISECONDS);
-      } else if (!runnables.containsKey(deliveryTime)) {
-         ScheduledDeliveryRunnable runnable = new ScheduledDeliveryRunnable(deliveryTime);
+         nextDeliveryTime = deliveryTime;
+      }
 
-         if (logger.isTraceEnabled()) {
-            logger.trace("Setting up scheduler for {} with a delay of {} as now={}", deliveryTime, delay, now);
-         }
+      final long now = System.currentTimeMillis();
 
-         runnables.put(deliveryTime, runnable);
-         scheduledExecutor.schedule(runnable, delay, TimeUnit.MILLISECONDS);
-      } else {
-         if (logger.isTraceEnabled()) {
-            logger.trace("Couldn't make another scheduler as {} is already set, now is {}", deliveryTime, now);
-         }
+      // if delay == 0 we will avoid races between adding the scheduler and finishing it
+      final long delay = Math.max(0, deliveryTime - now);
+
+      if (logger.isTraceEnabled()) {
+         logger.trace("Setting up scheduler for {} with a delay of {} as now={}", deliveryTime, delay, now);
       }
+
+      scheduledExecutor.schedule(new ScheduledDeliveryRunnable(deliveryTime), delay, TimeUnit.MILLISECONDS);
    }
 
    protected void notifyScheduledReferencesUpdated() {
@@ -222,24 +208,17 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
    @Override
    public MessageReference peekFirstScheduledMessage() {
       synchronized (scheduledReferences) {
-         if (scheduledReferences.isEmpty()) {
+         if (scheduledReferences.size() == 0) {
             return null;
          }
-         if (oldestMessage != null) {
-            return oldestMessage;
-         }
-         MessageReference result = null;
-         long oldestTimestamp = Long.MAX_VALUE;
-         for (RefScheduled scheduledReference : scheduledReferences) {
-            MessageReference ref = scheduledReference.getRef();
-            long refTimestamp = ref.getMessage().getTimestamp();
-            if (refTimestamp < oldestTimestamp) {
-               oldestTimestamp = refTimestamp;
-               result = ref;
-            }
+         if (oldestMessage == null) {
+            scheduledReferences.forEach(ref -> {
+               if (oldestMessage == null || ref.getMessage().getTimestamp() < oldestMessage.getMessage().getTimestamp()) {
+                  oldestMessage = ref;
+               }
+            });
          }
-         oldestMessage = result;
-         return result;
+         return oldestMessage;
       }
    }
 
@@ -255,61 +234,47 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
       public void run() {
          HashMap<Queue, LinkedList<MessageReference>> refs = new HashMap<>();
 
-         runnables.remove(deliveryTime);
-
          final long now = System.currentTimeMillis();
 
-         if (now < deliveryTime) {
-            // Ohhhh... blame it on the OS
-            // on some OSes (so far Windows only) the precision of the scheduled executor could eventually give
-            // an executor call earlier than it was supposed...
-            // for that reason we will schedule it again so no messages are lost!
-            // we can't just assume deliveryTime here as we could deliver earlier than what we are supposed to
-            // this is basically a hack to work around an OS or JDK bug!
-            if (logger.isTraceEnabled()) {
-               logger.trace("Scheduler is working around OS imprecisions on timing and re-scheduling an executor. now={} and deliveryTime={}", now, deliveryTime);
-            }
-            ScheduledDeliveryHandlerImpl.this.scheduleDelivery(deliveryTime);
-         }
-
          if (logger.isTraceEnabled()) {
-            logger.trace("It is {} now and we are running deliveryTime = {}", System.currentTimeMillis(), deliveryTime);
+            logger.trace("It is {} now and we are running deliveryTime = {}", now, deliveryTime);
          }
 
-         synchronized (scheduledReferences) {
+         final long nextTick;
 
-            Iterator<RefScheduled> iter = scheduledReferences.iterator();
-            while (iter.hasNext()) {
-               MessageReference reference = iter.next().getRef();
-               if (reference.getScheduledDeliveryTime() > now) {
-                  // We will delivery as long as there are messages to be delivered
-                  break;
-               }
+         synchronized (scheduledReferences) {
+            if (nextDeliveryTime == deliveryTime) {
+               nextDeliveryTime = Long.MAX_VALUE;
+            }
 
-               iter.remove();
+            // on some OSes (so far Windows only) the precision of the scheduled executor could eventually give
+            // an executor call earlier than it was supposed: nothing is delivered before its time as this is
+            // driven by now, and the next tick below schedules it again so no messages are lost!
+            scheduledReferences.advance(now, reference -> {
                notifyScheduledReferencesUpdated();
                metrics.decrementMetrics(reference);
 
                reference.setScheduledDeliveryTime(0);
 
-               LinkedList<MessageReference> references = refs.get(reference.getQueue());
-
-               if (references == null) {
-                  references = new LinkedList<>();
-                  refs.put(reference.getQueue(), references);
-               }
-
                if (logger.isTraceEnabled()) {
                   logger.trace("sending message {} to delivery, deliveryTime = {}", reference, deliveryTime);
                }
 
-               references.addFirst(reference);
-            }
+               refs.computeIfAbsent(reference.getQueue(), queue -> new LinkedList<>()).addFirst(reference);
+            });
+
+            nextTick = scheduledReferences.nextTick();
+
             if (logger.isTraceEnabled()) {
-               logger.trace("Finished loop on deliveryTime = {}", deliveryTime);
+               logger.trace("Finished loop on deliveryTime = {}, next tick at {}", deliveryTime, nextTick);
             }
          }
 
+         if (nextTick != Long.MAX_VALUE) {
+            // the references of the upper levels of the wheel are moved down (or delivered) on their tick
+            ScheduledDeliveryHandlerImpl.this.scheduleDelivery(nextTick);
+         }
+
          for (Map.Entry<Queue, LinkedList<MessageReference>> entry : refs.entrySet()) {
 
             Queue queue = entry.getKey();
@@ -325,58 +290,4 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
       }
    }
 
-   // We need a treeset ordered, but we need to order tail operations as well.
-   // So, this will serve as a delegate to the object
-   class RefScheduled {
-
-      private final MessageReference ref;
-      private final boolean tail;
-
-      RefScheduled(MessageReference ref, boolean tail) {
-         this.ref = ref;
-         this.tail = tail;
-      }
-
-      public MessageReference getRef() {
-         return ref;
-      }
-
-      public boolean isTail() {
-         return tail;
-      }
-
-   }
-
-   static class MessageReferenceComparator implements Comparator<RefScheduled> {
-
-      @Override
-      public int compare(RefScheduled ref1, RefScheduled ref2) {
-         long diff = ref1.getRef().getScheduledDeliveryTime() - ref2.getRef().getScheduledDeliveryTime();
-
-         if (diff < 0L) {
-            return -1;
-         }
-         if (diff > 0L) {
-            return 1;
-         }
-
-         // Even if ref1 and ref2 have the same delivery time, we only want to return 0 if they are identical
-         if (ref1 == ref2) {
-            return 0;
-         } else {
-
-            if (ref1.isTail() && !ref2.isTail()) {
-               return 1;
-            } else if (!ref1.isTail() && ref2.isTail()) {
-               return -1;
-            }
-            if (!ref1.isTail() && !ref2.isTail()) {
-               return -1;
-            } else {
-               return 1;
-            }
-         }
-      }
-   }
-
 }
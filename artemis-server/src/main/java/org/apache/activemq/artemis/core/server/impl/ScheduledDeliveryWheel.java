@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.apache.activemq.artemis.core.server.MessageReference;
+
+/**
+ * A hierarchical timing wheel of scheduled references, with ticks of 1 ms.
+ * <p>
+ * There are {@link #LEVELS} levels of {@link #SLOTS} slots, each level covering {@link #SLOTS} times the ticks of the
+ * previous one: together they cover any scheduled delivery time. A reference is on the level of the most significant
+ * group of {@link #LEVEL_BITS} bits its delivery time differs from {@link #current}, hence level 0 holds the
+ * references due within the current 256 ms, one slot per tick. When {@link #current} reaches the ticks of a slot of an
+ * upper level, its references are moved to the lower levels: each reference is moved at most {@link #LEVELS} times,
+ * and scheduling one is O(1).
+ * <p>
+ * The references due at the same time are in the same slot, in the order of a {@code TreeSet} of scheduled
+ * references: the ones added to the head in the reverse order they have been added, then the ones added to the
+ * tail in the order they have been added. The wheel isn't thread-safe.
+ */
+public final class ScheduledDeliveryWheel {
+
+   static final int LEVEL_BITS = 8;
+   static final int SLOTS = 1 << LEVEL_BITS;
+   static final int LEVELS = Long.SIZE / LEVEL_BITS;
+   private static final int SLOT_MASK = SLOTS - 1;
+
+   // lazily allocated per level: most queues only schedule on a few levels
+   private final Node[][] heads = new Node[LEVELS][];
+   private final Node[][] tails = new Node[LEVELS][];
+   private final long[][] occupied = new long[LEVELS][];
+
+   // the first tick not expired yet
+   private long current;
+
+   private int size;
+
+   private static final class Node {
+
+      final MessageReference ref;
+      Node next;
+
+      Node(MessageReference ref) {
+         this.ref = ref;
+      }
+   }
+
+   public int size() {
+      return size;
+   }
+
+   public void add(final MessageReference ref, final boolean tail) {
+      final Node node = new Node(ref);
+      if (tail) {
+         addLast(node);
+      } else {
+         addFirst(node);
+      }
+      size++;
+   }
+
+   private static int slot(final long tick, final int level) {
+      return (int) (tick >>> (level * LEVEL_BITS)) & SLOT_MASK;
+   }
+
+   private int levelOf(final long deliveryTime) {
+      if (deliveryTime <= current) {
+         // already due: on the slot of the current tick
+         return 0;
+      }
+      return (Long.SIZE - 1 - Long.numberOfLeadingZeros(deliveryTime ^ current)) / LEVEL_BITS;
+   }
+
+   private int slotOf(final long deliveryTime, final int level) {
+      return slot(Math.max(current, deliveryTime), level);
+   }
+
+   private void addFirst(final Node node) {
+      final long deliveryTime = node.ref.getScheduledDeliveryTime();
+      final int level = levelOf(deliveryTime);
+      final int slot = slotOf(deliveryTime, level);
+      final Node[] heads = heads(level);
+      final Node head = heads[slot];
+      node.next = head;
+      heads[slot] = node;
+      if (head == null) {
+         tails[level][slot] = node;
+         occupied[level][slot >>> 6] |= 1L << slot;
+      }
+   }
+
+   private void addLast(final Node node) {
+      final long deliveryTime = node.ref.getScheduledDeliveryTime();
+      final int level = levelOf(deliveryTime);
+      final int slot = slotOf(deliveryTime, level);
+      final Node[] heads = heads(level);
+      final Node tail = tails[level][slot];
+      node.next = null;
+      if (tail == null) {
+         heads[slot] = node;
+         occupied[level][slot >>> 6] |= 1L << slot;
+      } else {
+         tail.next = node;
+      }
+      tails[level][slot] = node;
+   }
+
+   private Node[] heads(final int level) {
+      Node[] heads = this.heads[level];
+      if (heads == null) {
+         heads = new Node[SLOTS];
+         this.heads[level] = heads;
+         tails[level] = new Node[SLOTS];
+         occupied[level] = new long[SLOTS / Long.SIZE];
+      }
+      return heads;
+   }
+
+   private Node detach(final int level, final int slot) {
+      final Node head = heads[level][slot];
+      heads[level][slot] = null;
+      tails[level][slot] = null;
+      occupied[level][slot >>> 6] &= ~(1L << slot);
+      return head;
+   }
+
+   private boolean isOccupied(final int level, final int slot) {
+      final long[] occupied = this.occupied[level];
+      return occupied != null && (occupied[slot >>> 6] & (1L << slot)) != 0;
+   }
+
+   private static int nextOccupied(final long[] occupied, final int fromSlot) {
+      int word = fromSlot >>> 6;
+      long bits = occupied[word] & (-1L << fromSlot);
+      while (true) {
+         if (bits != 0) {
+            return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+         }
+         if (++word == occupied.length) {
+            return -1;
+         }
+         bits = occupied[word];
+      }
+   }
+
+   /**
+    * @return the first tick with references to expire or to move to a lower level, {@link Long#MAX_VALUE} if empty
+    */
+   public long nextTick() {
+      if (size == 0) {
+         return Long.MAX_VALUE;
+      }
+      // the slots of a level are all before the ones of the upper levels
+      for (int level = 0; level < LEVELS; level++) {
+         final long[] occupied = this.occupied[level];
+         if (occupied == null) {
+            continue;
+         }
+         final int slot = nextOccupied(occupied, slot(current, level));
+         if (slot >= 0) {
+            final int upperBits = (level + 1) * LEVEL_BITS;
+            final long upperMask = upperBits == Long.SIZE ? 0 : -1L << upperBits;
+            return (current & upperMask) | ((long) slot << (level * LEVEL_BITS));
+         }
+      }
+      throw new IllegalStateException("no slot occupied with size = " + size);
+   }
+
+   /**
+    * Removes the references due at {@code now}, passing them to {@code due} in order.
+    */
+   public void advance(final long now, final Consumer<MessageReference> due) {
+      long tick;
+      while ((tick = nextTick()) <= now) {
+         moveTo(tick);
+         final int slot = slot(tick, 0);
+         if (isOccupied(0, slot)) {
+            Node node = detach(0, slot);
+            while (node != null) {
+               size--;
+               due.accept(node.ref);
+               node = node.next;
+            }
+         }
+         if (tick == Long.MAX_VALUE) {
+            break;
+         }
+         // it could cross into the slot of an upper level: the references added from now on would be on the lower
+         // levels, hence before the ones there in the next ticks, if they weren't moved down right away
+         moveTo(tick + 1);
+      }
+   }
+
+   private void moveTo(final long tick) {
+      current = tick;
+      // from the upper levels, whose references could be moved to a lower level slot of this tick too
+      for (int level = LEVELS - 1; level > 0; level--) {
+         final int slot = slot(tick, level);
+         if (isOccupied(level, slot)) {
+            Node node = detach(level, slot);
+            while (node != null) {
+               final Node next = node.next;
+               // they are already in order: keep it
+               addLast(node);
+               node = next;
+            }
+         }
+      }
+   }
+
+   /**
+    * Passes the references to {@code consumer} by slot, not by delivery time.
+    */
+   public void forEach(final Consumer<MessageReference> consumer) {
+      for (int level = 0; level < LEVELS; level++) {
+         final Node[] heads = this.heads[level];
+         if (heads == null) {
+            continue;
+         }
+         for (Node node : heads) {
+            while (node != null) {
+               consumer.accept(node.ref);
+               node = node.next;
+            }
+         }
+      }
+   }
+
+   /**
+    * Removes the references matching {@code predicate}, passing them to {@code removed}.
+    *
+    * @param first whether to remove just the first matching reference found
+    */
+   public void removeIf(final Predicate<MessageReference> predicate, final boolean first, final Consumer<MessageReference> removed) {
+      for (int level = 0; level < LEVELS; level++) {
+         final Node[] heads = this.heads[level];
+         if (heads == null) {
+            continue;
+         }
+         for (int slot = 0; slot < SLOTS; slot++) {
+            Node previous = null;
+            Node node = heads[slot];
+            while (node != null) {
+               final Node next = node.next;
+               if (predicate.test(node.ref)) {
+                  if (previous == null) {
+                     heads[slot] = next;
+                  } else {
+                     previous.next = next;
+                  }
+                  if (next == null) {
+                     tails[level][slot] = previous;
+                  }
+                  if (heads[slot] == null) {
+                     occupied[level][slot >>> 6] &= ~(1L << slot);
+                  }
+                  size--;
+                  removed.accept(node.ref);
+                  if (first) {
+                     return;
+                  }
+               } else {
+                  previous = node;
+               }
+               node = next;
+            }
+         }
+      }
+   }
+}
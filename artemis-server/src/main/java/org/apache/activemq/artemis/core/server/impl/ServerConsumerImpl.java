@@ -16,6 +16,8 @@
  */
 package org.apache.activemq.artemis.core.server.impl;
 
+import java.io.File;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
@@ -31,6 +33,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.Function;
 
+import io.netty.channel.FileRegion;
 import org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQIllegalStateException;
@@ -68,7 +71,9 @@ import org.apache.activemq.artemis.core.transaction.TransactionOperationAbstract
 import org.apache.activemq.artemis.core.transaction.TransactionPropertyIndexes;
 import org.apache.activemq.artemis.core.transaction.impl.TransactionImpl;
 import org.apache.activemq.artemis.logs.AuditLogger;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 import org.apache.activemq.artemis.spi.core.protocol.SessionCallback;
+import org.apache.activemq.artemis.spi.core.remoting.Connection;
 import org.apache.activemq.artemis.spi.core.remoting.ReadyListener;
 import org.apache.activemq.artemis.utils.FutureLatch;
 import org.apache.activemq.artemis.utils.ReusableLatch;
@@ -171,6 +176,15 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
    ServerConsumerMetrics metrics = new ServerConsumerMetrics();
 
+   /**
+    * Returns whether the chunks of the large messages can be sent straight from their files, i.e. the connection is
+    * accepted with {@code largeMessageZeroCopy} and has nothing encoding the outgoing bytes.
+    */
+   private boolean isFileRegionSupported() {
+      final RemotingConnection remotingConnection = session == null ? null : session.getRemotingConnection();
+      final Connection transportConnection = remotingConnection == null ? null : remotingConnection.getTransportConnection();
+      return transportConnection != null && transportConnection.isFileRegionSupported();
+   }
 
    public ServerConsumerImpl(final long id,
                              final ServerSession session,
@@ -414,6 +428,15 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
    @Override
    public HandleStatus handle(final MessageReference ref) throws Exception {
+      return handle(ref, false);
+   }
+
+   @Override
+   public HandleStatus handleMatched(final MessageReference ref) throws Exception {
+      return handle(ref, true);
+   }
+
+   private HandleStatus handle(final MessageReference ref, final boolean matched) throws Exception {
       // available credits can be set back to null with a flow control option.
       AtomicInteger checkInteger = availableCredits;
       if (callback != null && !callback.hasCredits(this, ref) || checkInteger != null && checkInteger.get() <= 0) {
@@ -453,7 +476,7 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
             return HandleStatus.NO_MATCH;
          }
 
-         if (filter != null && !filter.match(message)) {
+         if (!matched && filter != null && !filter.match(message)) {
             logger.trace("Reference {} is a noMatch on consumer {}", ref, this);
 
             return HandleStatus.NO_MATCH;
@@ -1295,6 +1318,10 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
       private ByteBuffer chunkBytes;
 
+      private boolean zeroCopy = isFileRegionSupported();
+
+      private LargeBodyFileChannel bodyFile;
+
       private CoreLargeMessageDeliverer(final MessageReference ref) {
          this.ref = ref;
 
@@ -1323,6 +1350,49 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
          this.chunkBytes = null;
       }
 
+      /**
+       * Sends the next chunk of the message straight from its file to the connection, when it's possible.
+       *
+       * @return the size of the packet sent, or {@code -1} if the chunk has to be read and sent as usual
+       */
+      private int sendFileRegion(final int chunkLen, final boolean continues) throws ActiveMQException {
+         if (!zeroCopy) {
+            return -1;
+         }
+         if (bodyFile == null) {
+            final File file = context.getFile();
+            if (file == null) {
+               zeroCopy = false;
+               return -1;
+            }
+            try {
+               bodyFile = LargeBodyFileChannel.open(file);
+            } catch (IOException e) {
+               logger.debug("{} can't open {} to send it straight from the file", this, file, e);
+               zeroCopy = false;
+               return -1;
+            }
+         }
+         final FileRegion region = bodyFile.region(positionPendingLargeMessage, chunkLen);
+         final int packetSize = callback.sendLargeMessageContinuation(ServerConsumerImpl.this, region, continues);
+         if (packetSize < 0) {
+            region.release();
+            // e.g. a TLS connection: it won't change for the rest of the message
+            zeroCopy = false;
+            releaseBodyFile();
+            // the reader didn't move while the previous chunks were sent from the file
+            context.position(positionPendingLargeMessage);
+         }
+         return packetSize;
+      }
+
+      private void releaseBodyFile() {
+         if (bodyFile != null) {
+            bodyFile.release();
+            bodyFile = null;
+         }
+      }
+
       public boolean deliver() throws Exception {
          pendingDelivery.countUp();
          try {
@@ -1381,26 +1451,32 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
                final int localChunkLen = (int) Math.min(sizePendingLargeMessage - positionPendingLargeMessage, minLargeMessageSize);
 
-               final ByteBuffer bodyBuffer = acquireHeapBodyBuffer(localChunkLen);
+               final boolean continues = positionPendingLargeMessage + localChunkLen < sizePendingLargeMessage;
 
-               assert bodyBuffer.remaining() == localChunkLen;
+               int packetSize = sendFileRegion(localChunkLen, continues);
 
-               final int readBytes = context.readInto(bodyBuffer);
+               if (packetSize < 0) {
+                  final ByteBuffer bodyBuffer = acquireHeapBodyBuffer(localChunkLen);
 
-               assert readBytes == localChunkLen : "readBytes = " + readBytes + ", localChunkLen=" + localChunkLen + " on large message " + largeMessage.getMessageID() + ", hash = " + System.identityHashCode(largeMessage);
+                  assert bodyBuffer.remaining() == localChunkLen;
 
+                  final int readBytes = context.readInto(bodyBuffer);
 
-               final byte[] body = bodyBuffer.array();
+                  assert readBytes == localChunkLen : "readBytes = " + readBytes + ", localChunkLen=" + localChunkLen + " on large message " + largeMessage.getMessageID() + ", hash = " + System.identityHashCode(largeMessage);
 
-               assert body.length == readBytes;
 
-               //It is possible to recycle the same heap body buffer because it won't be cached by sendLargeMessageContinuation
-               //given that requiresResponse is false: ChannelImpl::send will use the resend cache only if
-               //resendCache != null && packet.isRequiresConfirmations()
+                  final byte[] body = bodyBuffer.array();
 
-               int packetSize = callback.sendLargeMessageContinuation(ServerConsumerImpl.this, body, positionPendingLargeMessage + localChunkLen < sizePendingLargeMessage, false);
+                  assert body.length == readBytes;
 
-               int chunkLen = body.length;
+                  //It is possible to recycle the same heap body buffer because it won't be cached by sendLargeMessageContinuation
+                  //given that requiresResponse is false: ChannelImpl::send will use the resend cache only if
+                  //resendCache != null && packet.isRequiresConfirmations()
+
+                  packetSize = callback.sendLargeMessageContinuation(ServerConsumerImpl.this, body, continues, false);
+               }
+
+               int chunkLen = localChunkLen;
 
                if (availableCredits != null) {
                   final int credits = availableCredits.addAndGet(-packetSize);
@@ -1437,6 +1513,8 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
          synchronized (lock) {
             releaseHeapBodyBuffer();
 
+            releaseBodyFile();
+
             if (largeMessage == null) {
                // handleClose could be calling close while handle is also calling finish.
                // As a result one of them could get here after the largeMessage is already gone.
@@ -102,6 +102,7 @@ import org.apache.activemq.artemis.core.server.management.HawtioSecurityControl;
 import org.apache.activemq.artemis.core.server.management.ManagementService;
 import org.apache.activemq.artemis.core.server.management.Notification;
 import org.apache.activemq.artemis.core.server.management.NotificationListener;
+import org.apache.activemq.artemis.core.server.metrics.AcceptorMetricNames;
 import org.apache.activemq.artemis.core.server.metrics.AddressMetricNames;
 import org.apache.activemq.artemis.core.server.metrics.BrokerMetricNames;
 import org.apache.activemq.artemis.core.server.metrics.MetricsManager;
@@ -288,6 +289,15 @@ public class ManagementServiceImpl implements ManagementService {
                builder.build(AddressMetricNames.UNROUTED_MESSAGE_COUNT, addressInfo, metrics -> (double) addressInfo.getUnRoutedMessageCount(), AddressControl.UNROUTED_MESSAGE_COUNT_DESCRIPTION, Collections.emptyList());
                builder.build(AddressMetricNames.ADDRESS_SIZE, addressInfo, metrics -> (double) addressControl.getAddressSize(), AddressControl.ADDRESS_SIZE_DESCRIPTION, Collections.emptyList());
                builder.build(AddressMetricNames.PAGES_COUNT, addressInfo, metrics -> (double) addressControl.getNumberOfPages(), AddressControl.NUMBER_OF_PAGES_DESCRIPTION, Collections.emptyList());
+               builder.build(AddressMetricNames.PAGE_CACHE_HIT_RATIO, addressInfo, metrics -> addressControl.getPageCacheHitRatio(), AddressControl.PAGE_CACHE_HIT_RATIO_DESCRIPTION, Collections.emptyList());
+               builder.build(AddressMetricNames.PAGE_CACHE_RESIDENT_BYTES, addressInfo, metrics -> (double) addressControl.getPageCacheResidentBytes(), AddressControl.PAGE_CACHE_RESIDENT_BYTES_DESCRIPTION, Collections.emptyList());
+               builder.build(AddressMetricNames.PAGE_COMPRESSION_RATIO, addressInfo, metrics -> addressControl.getPageCompressionRatio(), AddressControl.PAGE_COMPRESSION_RATIO_DESCRIPTION, Collections.emptyList());
+               builder.build(AddressMetricNames.PAGE_COMPRESSION_TIME, addressInfo, metrics -> (double) addressControl.getPageCompressionTime(), AddressControl.PAGE_COMPRESSION_TIME_DESCRIPTION, Collections.emptyList());
+               builder.build(AddressMetricNames.PAGE_IO_WRITE_RATE, addressInfo, metrics -> addressControl.getPageIOWriteRate(), AddressControl.PAGE_IO_WRITE_RATE_DESCRIPTION, Collections.emptyList());
+               builder.build(AddressMetricNames.PAGE_IO_READ_RATE, addressInfo, metrics -> addressControl.getPageIOReadRate(), AddressControl.PAGE_IO_READ_RATE_DESCRIPTION, Collections.emptyList());
+               builder.build(AddressMetricNames.PAGE_IO_QUEUEING_DELAY, addressInfo, metrics -> addressControl.getPageIOQueueingDelay(), AddressControl.PAGE_IO_QUEUEING_DELAY_DESCRIPTION, Collections.emptyList());
+               builder.build(AddressMetricNames.PAGE_SYNC_LATENCY_P50, addressInfo, metrics -> addressControl.getPageSyncLatencyP50(), AddressControl.PAGE_SYNC_LATENCY_P50_DESCRIPTION, Collections.emptyList());
+               builder.build(AddressMetricNames.PAGE_SYNC_LATENCY_P99, addressInfo, metrics -> addressControl.getPageSyncLatencyP99(), AddressControl.PAGE_SYNC_LATENCY_P99_DESCRIPTION, Collections.emptyList());
             });
          }
       }
@@ -401,6 +411,19 @@ public class ManagementServiceImpl implements ManagementService {
       AcceptorControl control = new AcceptorControlImpl(acceptor, storageManager, configuration);
       registerInJMX(objectName, control);
       registerInRegistry(ResourceNames.ACCEPTOR + configuration.getName(), control);
+      registerAcceptorMeters(acceptor, configuration.getName());
+   }
+
+   private void registerAcceptorMeters(Acceptor acceptor, String name) {
+      if (messagingServer != null) { // it could be null on tests, but never on a real server
+         MetricsManager metricsManager = messagingServer.getMetricsManager();
+         if (metricsManager != null) {
+            metricsManager.registerAcceptorGauge(name, builder -> {
+               builder.build(AcceptorMetricNames.FLUSH_COUNT, acceptor, metrics -> (double) acceptor.getFlushCount(), AcceptorControl.FLUSH_COUNT_DESCRIPTION, Collections.emptyList());
+               builder.build(AcceptorMetricNames.WRITTEN_BYTES, acceptor, metrics -> (double) acceptor.getWrittenBytes(), AcceptorControl.WRITTEN_BYTES_DESCRIPTION, Collections.emptyList());
+            });
+         }
+      }
    }
 
    @Override
@@ -428,6 +451,7 @@ public class ManagementServiceImpl implements ManagementService {
       ObjectName objectName = objectNameBuilder.getAcceptorObjectName(name);
       unregisterFromJMX(objectName);
       unregisterFromRegistry(ResourceNames.ACCEPTOR + name);
+      unregisterMeters(ResourceNames.ACCEPTOR + name);
    }
 
    @Override
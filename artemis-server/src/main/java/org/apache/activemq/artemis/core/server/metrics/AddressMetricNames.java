@@ -22,5 +22,14 @@ public class AddressMetricNames {
    public static final String UNROUTED_MESSAGE_COUNT = "unrouted.message.count";
    public static final String ADDRESS_SIZE = "address.size";
    public static final String PAGES_COUNT = "number.of.pages";
+   public static final String PAGE_CACHE_HIT_RATIO = "page.cache.hit.ratio";
+   public static final String PAGE_CACHE_RESIDENT_BYTES = "page.cache.resident.bytes";
+   public static final String PAGE_COMPRESSION_RATIO = "page.compression.ratio";
+   public static final String PAGE_COMPRESSION_TIME = "page.compression.time";
+   public static final String PAGE_IO_WRITE_RATE = "page.io.write.rate";
+   public static final String PAGE_IO_READ_RATE = "page.io.read.rate";
+   public static final String PAGE_IO_QUEUEING_DELAY = "page.io.queueing.delay";
+   public static final String PAGE_SYNC_LATENCY_P50 = "page.sync.latency.p50";
+   public static final String PAGE_SYNC_LATENCY_P99 = "page.sync.latency.p99";
 
 }
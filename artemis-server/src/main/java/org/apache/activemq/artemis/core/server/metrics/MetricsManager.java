@@ -42,6 +42,7 @@ import io.micrometer.core.instrument.binder.system.UptimeMetrics;
 import io.netty.buffer.PooledByteBufAllocator;
 import org.apache.activemq.artemis.api.core.management.ResourceNames;
 import org.apache.activemq.artemis.core.config.MetricsConfiguration;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
 import org.apache.activemq.artemis.core.security.SecurityStore;
 import org.apache.activemq.artemis.core.security.impl.SecurityStoreImpl;
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
@@ -100,6 +101,9 @@ public class MetricsManager {
             CaffeineCacheMetrics.monitor(meterRegistry, ((SecurityStoreImpl)securityStore).getAuthenticationCache(), "authentication");
             CaffeineCacheMetrics.monitor(meterRegistry, ((SecurityStoreImpl)securityStore).getAuthorizationCache(), "authorization");
          }
+         if (metricsConfiguration.isFilterCache()) {
+            CaffeineCacheMetrics.monitor(meterRegistry, FilterImpl.getFilterCache(), "filter");
+         }
       }
    }
 
@@ -146,6 +150,22 @@ public class MetricsManager {
       registerMeters(gaugeBuilders, ResourceNames.ADDRESS + address);
    }
 
+   public void registerAcceptorGauge(String acceptor, Consumer<MetricGaugeBuilder> builder) {
+      if (this.meterRegistry == null) {
+         return;
+      }
+      final List<Builder<Object>> gaugeBuilders = new ArrayList<>();
+      builder.accept((metricName, state, f, description, tags) -> {
+         Builder<Object> meter = Gauge
+            .builder("artemis." + metricName, state, f)
+            .tag("acceptor", acceptor)
+            .tags(tags)
+            .description(description);
+         gaugeBuilders.add(meter);
+      });
+      registerMeters(gaugeBuilders, ResourceNames.ACCEPTOR + acceptor);
+   }
+
    public void registerBrokerGauge(Consumer<MetricGaugeBuilder> builder) {
       if (this.meterRegistry == null) {
          return;
@@ -55,6 +55,16 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    public static final int DEFAULT_PAGE_MAX_CACHE = 5;
 
+   public static final int DEFAULT_PAGE_READ_AHEAD_PAGES = 1;
+
+   public static final int DEFAULT_PAGE_READ_AHEAD_BYTES = -1;
+
+   public static final boolean DEFAULT_PAGE_COMPRESSION = false;
+
+   public static final int DEFAULT_PAGE_IO_WEIGHT = 1;
+
+   public static final long DEFAULT_ID_CACHE_EXPIRY = -1;
+
    public static final int DEFAULT_MESSAGE_COUNTER_HISTORY_DAY_LIMIT = 0;
 
    public static final long DEFAULT_REDELIVER_DELAY = 0L;
@@ -146,6 +156,8 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    public static final boolean DEFAULT_ENABLE_INGRESS_TIMESTAMP = false;
 
+   public static final boolean DEFAULT_SELECTOR_INDEXED_DISPATCH = false;
+
    static {
       metaBean.add(AddressFullMessagePolicy.class, "addressFullMessagePolicy", (t, p) -> t.addressFullMessagePolicy = p, t -> t.addressFullMessagePolicy);
    }
@@ -176,6 +188,26 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
    }
    private Integer prefetchPageMessages = null;
 
+   static {
+      metaBean.add(Integer.class, "pageReadAheadPages", (t, p) -> t.pageReadAheadPages = p, t -> t.pageReadAheadPages);
+   }
+   private Integer pageReadAheadPages = null;
+
+   static {
+      metaBean.add(Integer.class, "pageReadAheadBytes", (t, p) -> t.pageReadAheadBytes = p, t -> t.pageReadAheadBytes);
+   }
+   private Integer pageReadAheadBytes = null;
+
+   static {
+      metaBean.add(Boolean.class, "pageCompression", (t, p) -> t.pageCompression = p, t -> t.pageCompression);
+   }
+   private Boolean pageCompression = null;
+
+   static {
+      metaBean.add(Integer.class, "pageIOWeight", (t, p) -> t.pageIOWeight = p, t -> t.pageIOWeight);
+   }
+   private Integer pageIOWeight = null;
+
    static {
       metaBean.add(Long.class, "pageLimitBytes", (t, p) -> t.pageLimitBytes = p, t -> t.pageLimitBytes);
    }
@@ -530,6 +562,16 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
    }
    private Integer idCacheSize = null;
 
+   static {
+      metaBean.add(Long.class, "idCacheExpiry", (t, p) -> t.idCacheExpiry = p, t -> t.idCacheExpiry);
+   }
+   private Long idCacheExpiry = null;
+
+   static {
+      metaBean.add(Boolean.class, "selectorIndexedDispatch", (t, p) -> t.selectorIndexedDispatch = p, t -> t.selectorIndexedDispatch);
+   }
+   private Boolean selectorIndexedDispatch = null;
+
    static {
       metaBean.add(Integer.class, "queuePrefetch", (t, p) -> t.queuePrefetch = p, t -> t.queuePrefetch);
    }
@@ -916,6 +958,42 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       return this;
    }
 
+   public int getPageReadAheadPages() {
+      return pageReadAheadPages != null ? pageReadAheadPages : AddressSettings.DEFAULT_PAGE_READ_AHEAD_PAGES;
+   }
+
+   public AddressSettings setPageReadAheadPages(final int pageReadAheadPages) {
+      this.pageReadAheadPages = pageReadAheadPages;
+      return this;
+   }
+
+   public int getPageReadAheadBytes() {
+      return pageReadAheadBytes != null ? pageReadAheadBytes : AddressSettings.DEFAULT_PAGE_READ_AHEAD_BYTES;
+   }
+
+   public AddressSettings setPageReadAheadBytes(final int pageReadAheadBytes) {
+      this.pageReadAheadBytes = pageReadAheadBytes;
+      return this;
+   }
+
+   public boolean isPageCompression() {
+      return pageCompression != null ? pageCompression : AddressSettings.DEFAULT_PAGE_COMPRESSION;
+   }
+
+   public AddressSettings setPageCompression(final boolean pageCompression) {
+      this.pageCompression = pageCompression;
+      return this;
+   }
+
+   public int getPageIOWeight() {
+      return pageIOWeight != null ? pageIOWeight : AddressSettings.DEFAULT_PAGE_IO_WEIGHT;
+   }
+
+   public AddressSettings setPageIOWeight(final int pageIOWeight) {
+      this.pageIOWeight = pageIOWeight;
+      return this;
+   }
+
    public int getMaxDeliveryAttempts() {
       return maxDeliveryAttempts != null ? maxDeliveryAttempts : AddressSettings.DEFAULT_MAX_DELIVERY_ATTEMPTS;
    }
@@ -1283,6 +1361,24 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       return this;
    }
 
+   public long getIDCacheExpiry() {
+      return idCacheExpiry != null ? idCacheExpiry : AddressSettings.DEFAULT_ID_CACHE_EXPIRY;
+   }
+
+   public AddressSettings setIDCacheExpiry(final long idCacheExpiry) {
+      this.idCacheExpiry = idCacheExpiry;
+      return this;
+   }
+
+   public boolean isSelectorIndexedDispatch() {
+      return selectorIndexedDispatch != null ? selectorIndexedDispatch : AddressSettings.DEFAULT_SELECTOR_INDEXED_DISPATCH;
+   }
+
+   public AddressSettings setSelectorIndexedDispatch(final boolean selectorIndexedDispatch) {
+      this.selectorIndexedDispatch = selectorIndexedDispatch;
+      return this;
+   }
+
    /**
     * Merge two AddressSettings instances in one instance
     *
@@ -1783,6 +1879,18 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
          return false;
       if (!Objects.equals(idCacheSize, that.idCacheSize))
          return false;
+      if (!Objects.equals(selectorIndexedDispatch, that.selectorIndexedDispatch))
+         return false;
+      if (!Objects.equals(pageReadAheadPages, that.pageReadAheadPages))
+         return false;
+      if (!Objects.equals(pageReadAheadBytes, that.pageReadAheadBytes))
+         return false;
+      if (!Objects.equals(pageCompression, that.pageCompression))
+         return false;
+      if (!Objects.equals(pageIOWeight, that.pageIOWeight))
+         return false;
+      if (!Objects.equals(idCacheExpiry, that.idCacheExpiry))
+         return false;
       return Objects.equals(queuePrefetch, that.queuePrefetch);
    }
 
@@ -1864,12 +1972,18 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       result = 31 * result + (managementMessageAttributeSizeLimit != null ? managementMessageAttributeSizeLimit.hashCode() : 0);
       result = 31 * result + (enableIngressTimestamp != null ? enableIngressTimestamp.hashCode() : 0);
       result = 31 * result + (idCacheSize != null ? idCacheSize.hashCode() : 0);
+      result = 31 * result + (selectorIndexedDispatch != null ? selectorIndexedDispatch.hashCode() : 0);
+      result = 31 * result + (pageReadAheadPages != null ? pageReadAheadPages.hashCode() : 0);
+      result = 31 * result + (pageReadAheadBytes != null ? pageReadAheadBytes.hashCode() : 0);
+      result = 31 * result + (pageCompression != null ? pageCompression.hashCode() : 0);
+      result = 31 * result + (pageIOWeight != null ? pageIOWeight.hashCode() : 0);
+      result = 31 * result + (idCacheExpiry != null ? idCacheExpiry.hashCode() : 0);
       result = 31 * result + (queuePrefetch != null ? queuePrefetch.hashCode() : 0);
       return result;
    }
 
    @Override
    public String toString() {
-      return "AddressSettings{" + "addressFullMessagePolicy=" + addressFullMessagePolicy + ", maxSizeBytes=" + maxSizeBytes + ", maxReadPageBytes=" + maxReadPageBytes + ", maxReadPageMessages=" + maxReadPageMessages + ", prefetchPageBytes=" + prefetchPageBytes + ", prefetchPageMessages=" + prefetchPageMessages + ", pageLimitBytes=" + pageLimitBytes + ", pageLimitMessages=" + pageLimitMessages + ", pageFullMessagePolicy=" + pageFullMessagePolicy + ", maxSizeMessages=" + maxSizeMessages + ", pageSizeBytes=" + pageSizeBytes + ", pageMaxCache=" + pageCacheMaxSize + ", dropMessagesWhenFull=" + dropMessagesWhenFull + ", maxDeliveryAttempts=" + maxDeliveryAttempts + ", messageCounterHistoryDayLimit=" + messageCounterHistoryDayLimit + ", redeliveryDelay=" + redeliveryDelay + ", redeliveryMultiplier=" + redeliveryMultiplier + ", redeliveryCollisionAvoidanceFactor=" + redeliveryCollisionAvoidanceFactor + ", maxRedeliveryDelay=" + maxRedeliveryDelay + ", deadLetterAddress=" + deadLetterAddress + ", expiryAddress=" + expiryAddress + ", expiryDelay=" + expiryDelay + ", minExpiryDelay=" + minExpiryDelay + ", maxExpiryDelay=" + maxExpiryDelay + ", defaultLastValueQueue=" + defaultLastValueQueue + ", defaultLastValueKey=" + defaultLastValueKey + ", defaultNonDestructive=" + defaultNonDestructive + ", defaultExclusiveQueue=" + defaultExclusiveQueue + ", defaultGroupRebalance=" + defaultGroupRebalance + ", defaultGroupRebalancePauseDispatch=" + defaultGroupRebalancePauseDispatch + ", defaultGroupBuckets=" + defaultGroupBuckets + ", defaultGroupFirstKey=" + defaultGroupFirstKey + ", redistributionDelay=" + redistributionDelay + ", sendToDLAOnNoRoute=" + sendToDLAOnNoRoute + ", slowConsumerThreshold=" + slowConsumerThreshold + ", slowConsumerThresholdMeasurementUnit=" + slowConsumerThresholdMeasurementUnit + ", slowConsumerCheckPeriod=" + slowConsumerCheckPeriod + ", slowConsumerPolicy=" + slowConsumerPolicy + ", autoCreateJmsQueues=" + autoCreateJmsQueues + ", autoDeleteJmsQueues=" + autoDeleteJmsQueues + ", autoCreateJmsTopics=" + autoCreateJmsTopics + ", autoDeleteJmsTopics=" + autoDeleteJmsTopics + ", autoCreateQueues=" + autoCreateQueues + ", autoDeleteQueues=" + autoDeleteQueues + ", autoDeleteCreatedQueues=" + autoDeleteCreatedQueues + ", autoDeleteQueuesDelay=" + autoDeleteQueuesDelay + ", autoDeleteQueuesSkipUsageCheck=" + autoDeleteQueuesSkipUsageCheck + ", autoDeleteQueuesMessageCount=" + autoDeleteQueuesMessageCount + ", defaultRingSize=" + defaultRingSize + ", retroactiveMessageCount=" + retroactiveMessageCount + ", configDeleteQueues=" + configDeleteQueues + ", autoCreateAddresses=" + autoCreateAddresses + ", autoDeleteAddresses=" + autoDeleteAddresses + ", autoDeleteAddressesDelay=" + autoDeleteAddressesDelay + ", autoDeleteAddressesSkipUsageCheck=" + autoDeleteAddressesSkipUsageCheck + ", configDeleteAddresses=" + configDeleteAddresses + ", configDeleteDiverts=" + configDeleteDiverts + ", managementBrowsePageSize=" + managementBrowsePageSize + ", maxSizeBytesRejectThreshold=" + maxSizeBytesRejectThreshold + ", defaultMaxConsumers=" + defaultMaxConsumers + ", defaultPurgeOnNoConsumers=" + defaultPurgeOnNoConsumers + ", defaultConsumersBeforeDispatch=" + defaultConsumersBeforeDispatch + ", defaultDelayBeforeDispatch=" + defaultDelayBeforeDispatch + ", defaultQueueRoutingType=" + defaultQueueRoutingType + ", defaultAddressRoutingType=" + defaultAddressRoutingType + ", defaultConsumerWindowSize=" + defaultConsumerWindowSize + ", autoCreateDeadLetterResources=" + autoCreateDeadLetterResources + ", deadLetterQueuePrefix=" + deadLetterQueuePrefix + ", deadLetterQueueSuffix=" + deadLetterQueueSuffix + ", autoCreateExpiryResources=" + autoCreateExpiryResources + ", expiryQueuePrefix=" + expiryQueuePrefix + ", expiryQueueSuffix=" + expiryQueueSuffix + ", enableMetrics=" + enableMetrics + ", managementMessageAttributeSizeLimit=" + managementMessageAttributeSizeLimit + ", enableIngressTimestamp=" + enableIngressTimestamp + ", idCacheSize=" + idCacheSize + ", queuePrefetch=" + queuePrefetch + '}';
+      return "AddressSettings{" + "addressFullMessagePolicy=" + addressFullMessagePolicy + ", maxSizeBytes=" + maxSizeBytes + ", maxReadPageBytes=" + maxReadPageBytes + ", maxReadPageMessages=" + maxReadPageMessages + ", prefetchPageBytes=" + prefetchPageBytes + ", prefetchPageMessages=" + prefetchPageMessages + ", pageLimitBytes=" + pageLimitBytes + ", pageLimitMessages=" + pageLimitMessages + ", pageFullMessagePolicy=" + pageFullMessagePolicy + ", maxSizeMessages=" + maxSizeMessages + ", pageSizeBytes=" + pageSizeBytes + ", pageMaxCache=" + pageCacheMaxSize + ", dropMessagesWhenFull=" + dropMessagesWhenFull + ", maxDeliveryAttempts=" + maxDeliveryAttempts + ", messageCounterHistoryDayLimit=" + messageCounterHistoryDayLimit + ", redeliveryDelay=" + redeliveryDelay + ", redeliveryMultiplier=" + redeliveryMultiplier + ", redeliveryCollisionAvoidanceFactor=" + redeliveryCollisionAvoidanceFactor + ", maxRedeliveryDelay=" + maxRedeliveryDelay + ", deadLetterAddress=" + deadLetterAddress + ", expiryAddress=" + expiryAddress + ", expiryDelay=" + expiryDelay + ", minExpiryDelay=" + minExpiryDelay + ", maxExpiryDelay=" + maxExpiryDelay + ", defaultLastValueQueue=" + defaultLastValueQueue + ", defaultLastValueKey=" + defaultLastValueKey + ", defaultNonDestructive=" + defaultNonDestructive + ", defaultExclusiveQueue=" + defaultExclusiveQueue + ", defaultGroupRebalance=" + defaultGroupRebalance + ", defaultGroupRebalancePauseDispatch=" + defaultGroupRebalancePauseDispatch + ", defaultGroupBuckets=" + defaultGroupBuckets + ", defaultGroupFirstKey=" + defaultGroupFirstKey + ", redistributionDelay=" + redistributionDelay + ", sendToDLAOnNoRoute=" + sendToDLAOnNoRoute + ", slowConsumerThreshold=" + slowConsumerThreshold + ", slowConsumerThresholdMeasurementUnit=" + slowConsumerThresholdMeasurementUnit + ", slowConsumerCheckPeriod=" + slowConsumerCheckPeriod + ", slowConsumerPolicy=" + slowConsumerPolicy + ", autoCreateJmsQueues=" + autoCreateJmsQueues + ", autoDeleteJmsQueues=" + autoDeleteJmsQueues + ", autoCreateJmsTopics=" + autoCreateJmsTopics + ", autoDeleteJmsTopics=" + autoDeleteJmsTopics + ", autoCreateQueues=" + autoCreateQueues + ", autoDeleteQueues=" + autoDeleteQueues + ", autoDeleteCreatedQueues=" + autoDeleteCreatedQueues + ", autoDeleteQueuesDelay=" + autoDeleteQueuesDelay + ", autoDeleteQueuesSkipUsageCheck=" + autoDeleteQueuesSkipUsageCheck + ", autoDeleteQueuesMessageCount=" + autoDeleteQueuesMessageCount + ", defaultRingSize=" + defaultRingSize + ", retroactiveMessageCount=" + retroactiveMessageCount + ", configDeleteQueues=" + configDeleteQueues + ", autoCreateAddresses=" + autoCreateAddresses + ", autoDeleteAddresses=" + autoDeleteAddresses + ", autoDeleteAddressesDelay=" + autoDeleteAddressesDelay + ", autoDeleteAddressesSkipUsageCheck=" + autoDeleteAddressesSkipUsageCheck + ", configDeleteAddresses=" + configDeleteAddresses + ", configDeleteDiverts=" + configDeleteDiverts + ", managementBrowsePageSize=" + managementBrowsePageSize + ", maxSizeBytesRejectThreshold=" + maxSizeBytesRejectThreshold + ", defaultMaxConsumers=" + defaultMaxConsumers + ", defaultPurgeOnNoConsumers=" + defaultPurgeOnNoConsumers + ", defaultConsumersBeforeDispatch=" + defaultConsumersBeforeDispatch + ", defaultDelayBeforeDispatch=" + defaultDelayBeforeDispatch + ", defaultQueueRoutingType=" + defaultQueueRoutingType + ", defaultAddressRoutingType=" + defaultAddressRoutingType + ", defaultConsumerWindowSize=" + defaultConsumerWindowSize + ", autoCreateDeadLetterResources=" + autoCreateDeadLetterResources + ", deadLetterQueuePrefix=" + deadLetterQueuePrefix + ", deadLetterQueueSuffix=" + deadLetterQueueSuffix + ", autoCreateExpiryResources=" + autoCreateExpiryResources + ", expiryQueuePrefix=" + expiryQueuePrefix + ", expiryQueueSuffix=" + expiryQueueSuffix + ", enableMetrics=" + enableMetrics + ", managementMessageAttributeSizeLimit=" + managementMessageAttributeSizeLimit + ", enableIngressTimestamp=" + enableIngressTimestamp + ", idCacheSize=" + idCacheSize + ", idCacheExpiry=" + idCacheExpiry + ", selectorIndexedDispatch=" + selectorIndexedDispatch + ", pageReadAheadPages=" + pageReadAheadPages + ", pageReadAheadBytes=" + pageReadAheadBytes + ", pageCompression=" + pageCompression + ", pageIOWeight=" + pageIOWeight + ", queuePrefetch=" + queuePrefetch + '}';
    }
 }
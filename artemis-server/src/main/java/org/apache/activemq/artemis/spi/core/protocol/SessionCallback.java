@@ -16,6 +16,7 @@
  */
 package org.apache.activemq.artemis.spi.core.protocol;
 
+import io.netty.channel.FileRegion;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.server.MessageReference;
 import org.apache.activemq.artemis.core.server.ServerConsumer;
@@ -80,6 +81,18 @@ public interface SessionCallback {
                                     boolean continues,
                                     boolean requiresResponse);
 
+   /**
+    * Sends a large message continuation whose body is transferred straight from a file to the connection, without
+    * reading it, if the protocol and the connection allow it.
+    *
+    * @param body the file region to send as the body, released once sent
+    * @return the size of the packet sent, or {@code -1} if it can't be sent this way: nothing has been sent, and
+    * {@code body} has to be released by the caller
+    */
+   default int sendLargeMessageContinuation(ServerConsumer consumerID, FileRegion body, boolean continues) {
+      return -1;
+   }
+
    void closed();
 
    void disconnect(ServerConsumer consumerId, String errorMessage);
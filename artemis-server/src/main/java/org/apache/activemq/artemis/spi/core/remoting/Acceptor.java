@@ -94,4 +94,19 @@ public interface Acceptor extends ActiveMQComponent {
    default int getActualPort() {
       return -1;
    }
+
+   /**
+    * Returns how many times the connections of this acceptor, including the closed ones, have flushed their writes, if
+    * counted.
+    */
+   default long getFlushCount() {
+      return 0;
+   }
+
+   /**
+    * Returns how many bytes the connections of this acceptor, including the closed ones, have written, if counted.
+    */
+   default long getWrittenBytes() {
+      return 0;
+   }
 }
@@ -104,6 +104,14 @@ public class DefaultsFileConfigurationTest extends AbstractConfigurationTestBase
 
       assertEquals(ActiveMQDefaultConfiguration.getDefaultJournalCompactMinFiles(), conf.getJournalCompactMinFiles());
 
+      assertEquals(ActiveMQDefaultConfiguration.isDefaultJournalCompactIncremental(), conf.isJournalCompactIncremental());
+
+      assertEquals(ActiveMQDefaultConfiguration.getDefaultJournalCompactMaxBytesPerSecond(), conf.getJournalCompactMaxBytesPerSecond());
+
+      assertEquals(ActiveMQDefaultConfiguration.getDefaultPageCacheMaxSize(), conf.getPageCacheMaxSize());
+
+      assertEquals(ActiveMQDefaultConfiguration.getDefaultPageIOMaxBytesPerSecond(), conf.getPageIOMaxBytesPerSecond());
+
       assertEquals(ActiveMQDefaultConfiguration.getDefaultJournalCompactPercentage(), conf.getJournalCompactPercentage());
 
       assertEquals(ActiveMQDefaultConfiguration.getDefaultJournalLockAcquisitionTimeout(), conf.getJournalLockAcquisitionTimeout());
@@ -161,5 +169,6 @@ public class DefaultsFileConfigurationTest extends AbstractConfigurationTestBase
       assertEquals(ActiveMQDefaultConfiguration.getDefaultLoggingMetrics(), conf.getMetricsConfiguration().isLogging());
 
       assertEquals(ActiveMQDefaultConfiguration.getDefaultSecurityCacheMetrics(), conf.getMetricsConfiguration().isSecurityCaches());
+      assertEquals(ActiveMQDefaultConfiguration.getDefaultFilterCacheMetrics(), conf.getMetricsConfiguration().isFilterCache());
    }
 }
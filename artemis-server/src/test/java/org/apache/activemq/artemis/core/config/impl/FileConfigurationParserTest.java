@@ -430,7 +430,7 @@ public class FileConfigurationParserTest extends ServerTestBase {
 
    @Test
    public void testParsePageLimitSettings() throws Exception {
-      String configStr = "<configuration><address-settings>" + "\n" + "<address-setting match=\"foo\">" + "\n" + "<max-read-page-bytes>1k</max-read-page-bytes><prefetch-page-bytes>100M</prefetch-page-bytes><prefetch-page-messages>777</prefetch-page-messages><page-limit-bytes>10G</page-limit-bytes><page-limit-messages>3221225472</page-limit-messages><page-full-policy>FAIL</page-full-policy><max-read-page-messages>33</max-read-page-messages>.\n" + "</address-setting>" + "\n" + "</address-settings></configuration>" + "\n";
+      String configStr = "<configuration><address-settings>" + "\n" + "<address-setting match=\"foo\">" + "\n" + "<max-read-page-bytes>1k</max-read-page-bytes><prefetch-page-bytes>100M</prefetch-page-bytes><prefetch-page-messages>777</prefetch-page-messages><page-limit-bytes>10G</page-limit-bytes><page-limit-messages>3221225472</page-limit-messages><page-full-policy>FAIL</page-full-policy><max-read-page-messages>33</max-read-page-messages><page-read-ahead-pages>3</page-read-ahead-pages><page-read-ahead-bytes>50M</page-read-ahead-bytes><page-compression>true</page-compression><page-io-weight>4</page-io-weight>.\n" + "</address-setting>" + "\n" + "</address-settings></configuration>" + "\n";
 
       FileConfigurationParser parser = new FileConfigurationParser();
       ByteArrayInputStream input = new ByteArrayInputStream(configStr.getBytes(StandardCharsets.UTF_8));
@@ -439,6 +439,10 @@ public class FileConfigurationParserTest extends ServerTestBase {
       AddressSettings settings = configuration.getAddressSettings().get("foo");
       assertEquals(1024, settings.getMaxReadPageBytes());
       assertEquals(33, settings.getMaxReadPageMessages());
+      assertEquals(3, settings.getPageReadAheadPages());
+      assertEquals(50 * 1024 * 1024, settings.getPageReadAheadBytes());
+      assertTrue(settings.isPageCompression());
+      assertEquals(4, settings.getPageIOWeight());
       assertEquals(10L * 1024 * 1024 * 1024, settings.getPageLimitBytes().longValue());
       assertEquals(100 * 1024 * 1024, settings.getPrefetchPageBytes());
       assertEquals(777, settings.getPrefetchPageMessages());
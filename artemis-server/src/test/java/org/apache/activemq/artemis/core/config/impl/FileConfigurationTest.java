@@ -232,6 +232,8 @@ public class FileConfigurationTest extends AbstractConfigurationTestBase {
       assertEquals(12345678, conf.getJournalFileSize());
       assertEquals(100, conf.getJournalMinFiles());
       assertEquals(123, conf.getJournalCompactMinFiles());
+      assertTrue(conf.isJournalCompactIncremental());
+      assertEquals(10485760, conf.getJournalCompactMaxBytesPerSecond());
       assertEquals(33, conf.getJournalCompactPercentage());
       assertEquals(7654, conf.getJournalLockAcquisitionTimeout());
       assertTrue(conf.isGracefulShutdownEnabled());
@@ -527,6 +529,7 @@ public class FileConfigurationTest extends AbstractConfigurationTestBase {
       assertTrue(conf.getAddressSettings().get("a1").isEnableMetrics());
       assertTrue(conf.getAddressSettings().get("a1").isEnableIngressTimestamp());
       assertNull(conf.getAddressSettings().get("a1").getIDCacheSize());
+      assertEquals(AddressSettings.DEFAULT_ID_CACHE_EXPIRY, conf.getAddressSettings().get("a1").getIDCacheExpiry());
 
       assertEquals("a2.1", conf.getAddressSettings().get("a2").getDeadLetterAddress().toString());
       assertTrue(conf.getAddressSettings().get("a2").isAutoCreateDeadLetterResources());
@@ -568,6 +571,7 @@ public class FileConfigurationTest extends AbstractConfigurationTestBase {
       assertFalse(conf.getAddressSettings().get("a2").isEnableMetrics());
       assertFalse(conf.getAddressSettings().get("a2").isEnableIngressTimestamp());
       assertEquals(Integer.valueOf(500), conf.getAddressSettings().get("a2").getIDCacheSize());
+      assertEquals(3600000L, conf.getAddressSettings().get("a2").getIDCacheExpiry());
 
       assertEquals(111, conf.getMirrorAckManagerQueueAttempts());
       assertEquals(222, conf.getMirrorAckManagerPageAttempts());
@@ -631,6 +635,8 @@ public class FileConfigurationTest extends AbstractConfigurationTestBase {
       assertEquals(CriticalAnalyzerPolicy.HALT, conf.getCriticalAnalyzerPolicy());
 
       assertFalse(conf.isJournalDatasync());
+      assertEquals(10 * 1024 * 1024, conf.getPageCacheMaxSize());
+      assertEquals(50 * 1024 * 1024, conf.getPageIOMaxBytesPerSecond());
 
       // keep test for backwards compatibility
       ActiveMQMetricsPlugin metricsPlugin = conf.getMetricsPlugin();
@@ -655,6 +661,7 @@ public class FileConfigurationTest extends AbstractConfigurationTestBase {
       assertTrue(metricsConfiguration.isUptime());
       assertTrue(metricsConfiguration.isLogging());
       assertTrue(metricsConfiguration.isSecurityCaches());
+      assertTrue(metricsConfiguration.isFilterCache());
    }
 
    private void verifyAddresses() {
@@ -16,8 +16,10 @@
  */
 package org.apache.activemq.artemis.core.filter.impl;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -67,6 +69,20 @@ public class FilterTest extends SilentTestCase {
       assertFalse(filter.match(message));
    }
 
+   @Test
+   public void testFilterCache() throws Exception {
+      final SimpleString filterString = SimpleString.of("color = 'RED' AND prop_" + RandomUtil.randomString().replace('-', '_') + " IS NULL");
+      final long hits = FilterImpl.getFilterCache().stats().hitCount();
+
+      filter = FilterImpl.createFilter(filterString);
+      assertSame(filter, FilterImpl.createFilter(filterString));
+      assertSame(filter, FilterImpl.createFilter(filterString.toString()));
+      assertEquals(hits + 2, FilterImpl.getFilterCache().stats().hitCount());
+
+      message.putStringProperty(SimpleString.of("color"), SimpleString.of("RED"));
+      assertTrue(filter.match(message));
+   }
+
    @Test
    public void testInvalidString() throws Exception {
       testInvalidFilter("color = 'red");
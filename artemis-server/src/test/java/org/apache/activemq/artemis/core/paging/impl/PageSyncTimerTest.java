@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.core.io.IOCallback;
+import org.apache.activemq.artemis.core.persistence.impl.journal.OperationContextImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PageSyncTimerTest {
+
+   private ScheduledExecutorService scheduledExecutor;
+
+   private ExecutorService executor;
+
+   private final AtomicInteger syncs = new AtomicInteger();
+
+   @BeforeEach
+   public void setUp() {
+      scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+      executor = Executors.newSingleThreadExecutor();
+   }
+
+   @AfterEach
+   public void tearDown() {
+      scheduledExecutor.shutdownNow();
+      executor.shutdownNow();
+   }
+
+   @Test
+   public void testIdleSyncIsImmediate() throws Exception {
+      final PageSyncTimer timer = new PageSyncTimer(syncs::incrementAndGet, scheduledExecutor, executor, TimeUnit.MINUTES.toNanos(1));
+
+      final CountDownLatch synced = new CountDownLatch(1);
+      addSync(timer, synced);
+
+      assertTrue(synced.await(10, TimeUnit.SECONDS));
+      assertEquals(1, syncs.get());
+   }
+
+   @Test
+   public void testSyncsBatchedUnderLoad() throws Exception {
+      final long timeSync = TimeUnit.MILLISECONDS.toNanos(200);
+      final PageSyncTimer timer = new PageSyncTimer(syncs::incrementAndGet, scheduledExecutor, executor, timeSync);
+
+      final CountDownLatch first = new CountDownLatch(1);
+      addSync(timer, first);
+      assertTrue(first.await(10, TimeUnit.SECONDS));
+
+      // requested before the timeout elapsed since the first sync
+      final long start = System.nanoTime();
+      final CountDownLatch batched = new CountDownLatch(10);
+      for (int i = 0; i < 10; i++) {
+         addSync(timer, batched);
+      }
+      assertTrue(batched.await(10, TimeUnit.SECONDS));
+
+      assertEquals(2, syncs.get());
+      assertTrue(System.nanoTime() - start >= timeSync / 2);
+      final double p50 = timer.getLatency(50);
+      assertTrue(p50 > 0);
+      assertTrue(timer.getLatency(99) >= p50);
+   }
+
+   private void addSync(PageSyncTimer timer, CountDownLatch synced) {
+      final OperationContextImpl ctx = new OperationContextImpl(executor);
+      timer.addSync(ctx);
+      ctx.executeOnCompletion(new IOCallback() {
+         @Override
+         public void done() {
+            synced.countDown();
+         }
+
+         @Override
+         public void onError(int errorCode, String errorMessage) {
+         }
+      });
+   }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class PagingIOSchedulerTest {
+
+   private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+   @Test
+   public void testSharesByWeight() {
+      final PagingIOScheduler scheduler = new PagingIOScheduler(1000);
+      final long start = System.nanoTime();
+      final PagingIOScheduler.Budget light = new PagingIOScheduler.Budget(null);
+      final PagingIOScheduler.Budget heavy = new PagingIOScheduler.Budget(null);
+      heavy.setWeight(3);
+      scheduler.register(light);
+      scheduler.register(heavy);
+
+      light.written(10_000);
+      heavy.written(10_000);
+      assertTrue(light.isThrottled());
+      assertTrue(heavy.isThrottled());
+
+      final long lightBefore = light.getAvailable();
+      final long heavyBefore = heavy.getAvailable();
+      scheduler.schedule(start + SECOND);
+
+      assertEquals(250, light.getAvailable() - lightBefore);
+      assertEquals(750, heavy.getAvailable() - heavyBefore);
+   }
+
+   @Test
+   public void testUnusedShareGoesToTheOthers() {
+      final PagingIOScheduler scheduler = new PagingIOScheduler(1000);
+      final long start = System.nanoTime();
+      final PagingIOScheduler.Budget quiet = new PagingIOScheduler.Budget(null);
+      final PagingIOScheduler.Budget busy = new PagingIOScheduler.Budget(null);
+      scheduler.register(quiet);
+      scheduler.register(busy);
+
+      busy.written(10_000);
+      scheduler.schedule(start + SECOND);
+      // as if it was doing I/O along with the busy one
+      assertEquals(500, quiet.getAvailable());
+
+      quiet.written(100);
+      assertFalse(quiet.isThrottled());
+      final long busyBefore = busy.getAvailable();
+      scheduler.schedule(start + 2 * SECOND);
+
+      assertEquals(100, quiet.getAvailable());
+      assertEquals(900, busy.getAvailable() - busyBefore);
+   }
+
+   @Test
+   public void testUnthrottled() {
+      final PagingIOScheduler scheduler = new PagingIOScheduler(1000);
+      final long start = System.nanoTime();
+      final AtomicInteger unthrottled = new AtomicInteger();
+      final PagingIOScheduler.Budget budget = new PagingIOScheduler.Budget(unthrottled::incrementAndGet);
+      scheduler.register(budget);
+
+      budget.read(1500);
+      assertTrue(budget.isThrottled());
+
+      scheduler.schedule(start + SECOND);
+      assertTrue(budget.isThrottled());
+      assertEquals(0, unthrottled.get());
+
+      scheduler.schedule(start + 2 * SECOND);
+      assertFalse(budget.isThrottled());
+      assertEquals(1, unthrottled.get());
+   }
+
+   @Test
+   public void testUnlimitedOnlyMeasures() {
+      final PagingIOScheduler scheduler = new PagingIOScheduler(-1);
+      final long start = System.nanoTime();
+      final PagingIOScheduler.Budget budget = new PagingIOScheduler.Budget(null);
+      scheduler.register(budget);
+
+      budget.written(4000);
+      budget.read(2000);
+      budget.delayed(TimeUnit.MILLISECONDS.toNanos(30));
+      budget.delayed(TimeUnit.MILLISECONDS.toNanos(10));
+      assertFalse(budget.isThrottled());
+
+      scheduler.schedule(start + 2 * SECOND);
+
+      assertEquals(2000, budget.getWriteRate(), 10);
+      assertEquals(1000, budget.getReadRate(), 5);
+      assertEquals(20, budget.getQueueingDelay(), 0.1);
+   }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.activemq.artemis.api.core.Pair;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.persistence.impl.nullpm.NullStorageManager;
+import org.junit.jupiter.api.Test;
+
+public class ExpiringDuplicateIDCacheTest {
+
+   private static final SimpleString ADDRESS = SimpleString.of("address");
+
+   private static final long EXPIRY = 8_000;
+
+   private final AtomicLong clock = new AtomicLong();
+
+   private final RecordingStorageManager storageManager = new RecordingStorageManager();
+
+   private final List<Runnable> tasks = new ArrayList<>();
+
+   private static byte[] id(int i) {
+      return ("id-" + i).getBytes(StandardCharsets.UTF_8);
+   }
+
+   @Test
+   public void testExpiresByAge() throws Exception {
+      final ExpiringDuplicateIDCache cache = new ExpiringDuplicateIDCache(ADDRESS, EXPIRY, storageManager, tasks::add, clock::get);
+
+      for (int i = 0; i < 10; i++) {
+         cache.addToCache(id(i));
+      }
+      assertEquals(10, storageManager.records.size());
+
+      clock.set(EXPIRY);
+      assertTrue(cache.atomicVerify(id(10), null));
+      for (int i = 0; i <= 10; i++) {
+         assertTrue(cache.contains(id(i)));
+         assertFalse(cache.atomicVerify(id(i), null));
+      }
+      assertEquals(11, cache.getSize());
+
+      // the first bucket ended at EXPIRY / BUCKETS_PER_EXPIRY
+      clock.set(EXPIRY + EXPIRY / ExpiringDuplicateIDCache.BUCKETS_PER_EXPIRY);
+      for (int i = 0; i < 10; i++) {
+         assertFalse(cache.contains(id(i)));
+      }
+      assertTrue(cache.contains(id(10)));
+      assertEquals(1, cache.getSize());
+      // the sender finding them expired doesn't delete their records
+      assertEquals(11, storageManager.records.size());
+      assertEquals(0, storageManager.commits);
+
+      assertEquals(1, tasks.size());
+      tasks.forEach(Runnable::run);
+      assertEquals(1, storageManager.records.size());
+      // all the expired records are deleted together
+      assertEquals(1, storageManager.commits);
+   }
+
+   @Test
+   public void testManyIds() throws Exception {
+      final ExpiringDuplicateIDCache cache = new ExpiringDuplicateIDCache(ADDRESS, EXPIRY, null, null, clock::get);
+
+      final int ids = 100_000;
+      for (int i = 0; i < ids; i++) {
+         cache.addToCache(id(i));
+      }
+      assertEquals(ids, cache.getSize());
+      for (int i = 0; i < ids; i++) {
+         assertTrue(cache.contains(id(i)));
+      }
+      for (int i = ids; i < 2 * ids; i++) {
+         assertFalse(cache.contains(id(i)));
+      }
+   }
+
+   @Test
+   public void testReAddMovesToTheCurrentBucket() throws Exception {
+      final ExpiringDuplicateIDCache cache = new ExpiringDuplicateIDCache(ADDRESS, EXPIRY, storageManager, tasks::add, clock::get);
+
+      cache.addToCache(id(0));
+      clock.set(EXPIRY);
+      cache.addToCache(id(0));
+      assertEquals(1, cache.getSize());
+      assertEquals(1, storageManager.records.size());
+
+      clock.set(2 * EXPIRY - 1);
+      assertTrue(cache.contains(id(0)));
+   }
+
+   @Test
+   public void testDeleteAndReload() throws Exception {
+      final ExpiringDuplicateIDCache cache = new ExpiringDuplicateIDCache(ADDRESS, EXPIRY, storageManager, tasks::add, clock::get);
+
+      for (int i = 0; i < 10; i++) {
+         cache.addToCache(id(i));
+      }
+      cache.deleteFromCache(id(0));
+      assertFalse(cache.contains(id(0)));
+      assertEquals(9, storageManager.records.size());
+
+      final List<Pair<byte[], Long>> ids = cache.getMap();
+      assertEquals(9, ids.size());
+      ids.forEach(id -> assertNotNull(id.getB()));
+
+      clock.set(10 * EXPIRY);
+      final ExpiringDuplicateIDCache reloaded = new ExpiringDuplicateIDCache(ADDRESS, EXPIRY, storageManager, tasks::add, clock::get);
+      reloaded.load(ids);
+      for (int i = 1; i < 10; i++) {
+         assertTrue(reloaded.contains(id(i)));
+      }
+
+      reloaded.clear();
+      assertEquals(0, reloaded.getSize());
+      assertTrue(storageManager.records.isEmpty());
+   }
+
+   private static final class RecordingStorageManager extends NullStorageManager {
+
+      final Set<Long> records = new HashSet<>();
+
+      int commits;
+
+      @Override
+      public void storeDuplicateID(SimpleString address, byte[] duplID, long recordID) {
+         records.add(recordID);
+      }
+
+      @Override
+      public void deleteDuplicateID(long recordID) {
+         records.remove(recordID);
+      }
+
+      @Override
+      public void deleteDuplicateIDTransactional(long txID, long recordID) {
+         records.remove(recordID);
+      }
+
+      @Override
+      public void commit(long txID) {
+         commits++;
+      }
+   }
+}
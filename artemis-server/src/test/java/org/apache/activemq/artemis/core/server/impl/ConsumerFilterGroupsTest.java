@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConsumerFilterGroupsTest {
+
+   private ConsumerFilterGroups groups;
+
+   @BeforeEach
+   public void setUp() {
+      groups = new ConsumerFilterGroups();
+   }
+
+   @Test
+   public void testSameFilterSameGroup() throws Exception {
+      int red = groups.acquire(FilterImpl.createFilter("color = 'red'"));
+      int blue = groups.acquire(FilterImpl.createFilter("color = 'blue'"));
+      assertNotEquals(red, blue);
+      assertEquals(red, groups.acquire(FilterImpl.createFilter("color = 'red'")));
+      assertEquals(2, groups.size());
+      assertEquals(ConsumerFilterGroups.NO_GROUP, groups.acquire(null));
+
+      groups.release(red);
+      assertEquals(2, groups.size());
+      groups.release(red);
+      assertEquals(1, groups.size());
+   }
+
+   @Test
+   public void testRecordMismatch() throws Exception {
+      int red = groups.acquire(FilterImpl.createFilter("color = 'red'"));
+      int blue = groups.acquire(FilterImpl.createFilter("color = 'blue'"));
+      MessageReference ref = reference();
+
+      assertFalse(groups.isMismatch(ref, red));
+      groups.recordMismatch(ref, red);
+      assertTrue(groups.isMismatch(ref, red));
+      assertFalse(groups.isMismatch(ref, blue));
+      groups.recordMismatch(ref, blue);
+      assertTrue(groups.isMismatch(ref, red));
+      assertTrue(groups.isMismatch(ref, blue));
+
+      assertEquals(2, groups.getMismatchesRecorded());
+      assertEquals(3, groups.getEvaluationsSkipped());
+   }
+
+   @Test
+   public void testReusedGroupForgetsMismatches() throws Exception {
+      int[] slots = new int[ConsumerFilterGroups.MAX_GROUPS];
+      for (int i = 0; i < slots.length; i++) {
+         slots[i] = groups.acquire(FilterImpl.createFilter("id = '" + i + "'"));
+      }
+      assertEquals(ConsumerFilterGroups.NO_GROUP, groups.acquire(FilterImpl.createFilter("id = 'other'")));
+
+      MessageReference ref = reference();
+      groups.recordMismatch(ref, slots[0]);
+      groups.recordMismatch(ref, slots[1]);
+
+      groups.release(slots[0]);
+      int other = groups.acquire(FilterImpl.createFilter("id = 'other'"));
+      assertEquals(slots[0], other);
+      assertFalse(groups.isMismatch(ref, other));
+      // every mismatch recorded before the group was reused is forgotten
+      assertFalse(groups.isMismatch(ref, slots[1]));
+
+      groups.recordMismatch(ref, slots[1]);
+      assertTrue(groups.isMismatch(ref, slots[1]));
+      assertFalse(groups.isMismatch(ref, other));
+   }
+
+   @Test
+   public void testUnusedGroupIsPreferred() throws Exception {
+      int red = groups.acquire(FilterImpl.createFilter("color = 'red'"));
+      MessageReference ref = reference();
+      groups.recordMismatch(ref, red);
+
+      groups.release(red);
+      int blue = groups.acquire(FilterImpl.createFilter("color = 'blue'"));
+      assertNotEquals(red, blue);
+      assertFalse(groups.isMismatch(ref, blue));
+   }
+
+   private static MessageReference reference() {
+      return new MessageReferenceImpl(new CoreMessage(1, 50), null);
+   }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class QueueConsumerIndexTest {
+
+   private QueueConsumerIndex<String> index;
+
+   @BeforeEach
+   public void setUp() {
+      index = new QueueConsumerIndex<>();
+   }
+
+   @Test
+   public void candidatesTest() throws Exception {
+      index.add("red", FilterImpl.createFilter("color = 'red'"));
+      index.add("warm", FilterImpl.createFilter("color IN ('red', 'orange') AND size > 10"));
+      index.add("square", FilterImpl.createFilter("shape = 'square'"));
+      index.add("any", null);
+      index.add("big", FilterImpl.createFilter("size > 10"));
+
+      assertEquals(3, index.indexedCount());
+
+      assertEquals(List.of("red", "warm", "any", "big"), candidates(message("red", "circle")));
+      assertEquals(List.of("warm", "any", "big"), candidates(message("orange", "circle")));
+      assertEquals(List.of("any", "big"), candidates(message("blue", "circle")));
+      assertEquals(List.of("any", "big"), candidates(message(null, null)));
+      // the order of the indexed candidates of different properties is not defined
+      assertEquals(Set.of("red", "warm", "square", "any", "big"), new HashSet<>(candidates(message("red", "square"))));
+   }
+
+   @Test
+   public void removeTest() throws Exception {
+      index.add("red", FilterImpl.createFilter("color = 'red'"));
+      index.add("warm", FilterImpl.createFilter("color IN ('red', 'orange')"));
+      index.add("any", null);
+
+      index.remove("warm");
+      assertEquals(1, index.indexedCount());
+      assertEquals(List.of("red", "any"), candidates(message("red", null)));
+      assertEquals(List.of("any"), candidates(message("orange", null)));
+
+      index.remove("red");
+      index.remove("any");
+      assertEquals(0, index.indexedCount());
+      assertEquals(List.of(), candidates(message("red", null)));
+   }
+
+   @Test
+   public void nonStringPropertyTest() throws Exception {
+      index.add("one", FilterImpl.createFilter("code = '1'"));
+
+      Message message = new CoreMessage(1, 50);
+      message.putIntProperty("code", 1);
+      assertEquals(List.of(), candidates(message));
+   }
+
+   private List<String> candidates(Message message) {
+      List<String> candidates = new ArrayList<>();
+      index.candidates(message, candidates);
+      return candidates;
+   }
+
+   private static Message message(String color, String shape) {
+      Message message = new CoreMessage(1, 50);
+      if (color != null) {
+         message.putStringProperty("color", color);
+      }
+      if (shape != null) {
+         message.putStringProperty("shape", shape);
+      }
+      return message;
+   }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.junit.jupiter.api.Test;
+
+public class ScheduledDeliveryWheelTest {
+
+   private static MessageReference ref(long id, long deliveryTime) {
+      final CoreMessage message = new CoreMessage();
+      message.setMessageID(id);
+      final MessageReference ref = new MessageReferenceImpl(message, null);
+      ref.setScheduledDeliveryTime(deliveryTime);
+      return ref;
+   }
+
+   private static List<Long> ids(List<MessageReference> refs) {
+      final List<Long> ids = new ArrayList<>(refs.size());
+      refs.forEach(ref -> ids.add(ref.getMessage().getMessageID()));
+      return ids;
+   }
+
+   @Test
+   public void testAdvanceAcrossLevels() {
+      final ScheduledDeliveryWheel wheel = new ScheduledDeliveryWheel();
+      final Random random = new Random(1);
+      final long start = 1_700_000_000_000L;
+      final List<MessageReference> added = new ArrayList<>();
+
+      wheel.advance(start, ref -> {
+         throw new AssertionError("nothing scheduled");
+      });
+      for (int i = 0; i < 100_000; i++) {
+         // from a few ms to about a year ahead, to go through many levels
+         final long deliveryTime = start + (random.nextLong() >>> (24 + random.nextInt(40)));
+         final MessageReference ref = ref(i, deliveryTime);
+         wheel.add(ref, true);
+         added.add(ref);
+      }
+      assertEquals(added.size(), wheel.size());
+      added.sort(Comparator.comparingLong(MessageReference::getScheduledDeliveryTime));
+
+      final List<MessageReference> delivered = new ArrayList<>();
+      long now = start;
+      while (wheel.size() > 0) {
+         now += 1 + (random.nextLong() >>> (26 + random.nextInt(38)));
+         final long due = now;
+         wheel.advance(now, ref -> {
+            assertTrue(ref.getScheduledDeliveryTime() <= due);
+            delivered.add(ref);
+         });
+         assertTrue(wheel.nextTick() > now);
+         assertEquals(added.size() - delivered.size(), wheel.size());
+      }
+      assertEquals(ids(added), ids(delivered));
+   }
+
+   @Test
+   public void testSameTimeHeadsAndTails() {
+      final ScheduledDeliveryWheel wheel = new ScheduledDeliveryWheel();
+      final long time = 10_000_000;
+
+      wheel.add(ref(2, time), true);
+      wheel.add(ref(1, time), false);
+      wheel.add(ref(3, time), true);
+      wheel.add(ref(0, time), false);
+      wheel.add(ref(4, time), true);
+
+      final List<MessageReference> delivered = new ArrayList<>();
+      wheel.advance(time - 1, delivered::add);
+      assertTrue(delivered.isEmpty());
+      // moved down the levels first: still in order
+      wheel.advance(time, delivered::add);
+      assertEquals(List.of(0L, 1L, 2L, 3L, 4L), ids(delivered));
+   }
+
+   @Test
+   public void testAddAfterCrossingUpperSlot() {
+      final ScheduledDeliveryWheel wheel = new ScheduledDeliveryWheel();
+      final List<MessageReference> delivered = new ArrayList<>();
+      // on level 2 until the wheel gets to 65536
+      wheel.add(ref(0, 65600), true);
+      wheel.add(ref(1, 65535), true);
+      wheel.advance(65535, delivered::add);
+      assertEquals(List.of(1L), ids(delivered));
+
+      // the wheel is at 65536 now: these are scheduled on the lower levels, after the one on level 2
+      wheel.add(ref(2, 65636), true);
+      wheel.add(ref(3, 125536), true);
+      assertEquals(65600, wheel.nextTick());
+
+      wheel.advance(65600, delivered::add);
+      assertEquals(List.of(1L, 0L), ids(delivered));
+      wheel.advance(65636, delivered::add);
+      assertEquals(List.of(1L, 0L, 2L), ids(delivered));
+      wheel.advance(125535, delivered::add);
+      assertEquals(List.of(1L, 0L, 2L), ids(delivered));
+      wheel.advance(125536, delivered::add);
+      assertEquals(List.of(1L, 0L, 2L, 3L), ids(delivered));
+      assertEquals(0, wheel.size());
+   }
+
+   @Test
+   public void testPastDue() {
+      final ScheduledDeliveryWheel wheel = new ScheduledDeliveryWheel();
+      wheel.add(ref(0, 1000), true);
+      wheel.advance(5000, ref -> { });
+      assertEquals(0, wheel.size());
+
+      wheel.add(ref(1, 10), true);
+      assertTrue(wheel.nextTick() <= 5001);
+      final List<MessageReference> delivered = new ArrayList<>();
+      wheel.advance(5001, delivered::add);
+      assertEquals(List.of(1L), ids(delivered));
+   }
+
+   @Test
+   public void testRemoveIf() {
+      final ScheduledDeliveryWheel wheel = new ScheduledDeliveryWheel();
+      for (int i = 0; i < 1000; i++) {
+         wheel.add(ref(i, 1L << (i % 60)), true);
+      }
+
+      final List<MessageReference> removed = new ArrayList<>();
+      wheel.removeIf(ref -> ref.getMessage().getMessageID() % 2 == 0, true, removed::add);
+      assertEquals(1, removed.size());
+      wheel.removeIf(ref -> ref.getMessage().getMessageID() % 2 == 0, false, removed::add);
+      assertEquals(500, removed.size());
+      assertEquals(500, wheel.size());
+
+      final List<MessageReference> left = new ArrayList<>();
+      wheel.forEach(left::add);
+      assertEquals(500, left.size());
+      left.forEach(ref -> assertEquals(1, ref.getMessage().getMessageID() % 2));
+
+      final List<MessageReference> delivered = new ArrayList<>();
+      wheel.advance(Long.MAX_VALUE, delivered::add);
+      assertEquals(500, delivered.size());
+      assertEquals(0, wheel.size());
+   }
+}
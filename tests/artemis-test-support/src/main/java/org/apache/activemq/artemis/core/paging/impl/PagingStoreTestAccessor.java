@@ -30,6 +30,10 @@ public class PagingStoreTestAccessor {
       return ((PagingStoreImpl)store).getUsedPagesSize();
    }
 
+   public static int getReadAheadSize(PagingStore store) {
+      return ((PagingStoreImpl)store).getReadAheadSize();
+   }
+
    public static void forEachUsedPage(PagingStore store, Consumer<Page> consumer) {
       PagingStoreImpl impl = (PagingStoreImpl) store;
       impl.forEachUsedPage(consumer);
@@ -30,6 +30,10 @@ public class PagingManagerTestAccessor {
       return ((PagingManagerImpl)pagingManager).getSizeAwareMetric();
    }
 
+   public static void setPageCounterRebuildThreads(PagingManager pagingManager, int threads) {
+      ((PagingManagerImpl)pagingManager).setPageCounterRebuildThreads(threads);
+   }
+
    public static String debugMessages(Page page) throws Exception {
       return page.debugMessages();
    }
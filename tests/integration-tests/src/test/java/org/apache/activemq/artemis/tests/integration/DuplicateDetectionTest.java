@@ -52,6 +52,7 @@ import org.apache.activemq.artemis.tests.extensions.parameterized.Parameter;
 import org.apache.activemq.artemis.tests.extensions.parameterized.ParameterizedTestExtension;
 import org.apache.activemq.artemis.tests.extensions.parameterized.Parameters;
 import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
 import org.apache.activemq.artemis.utils.UUIDGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.TestTemplate;
@@ -383,6 +384,49 @@ public class DuplicateDetectionTest extends ActiveMQTestBase {
 
    }
 
+   @TestTemplate
+   public void testExpiringCache() throws Exception {
+      final SimpleString queueName = SimpleString.of("DuplicateDetectionTestQueue");
+      server.getAddressSettingsRepository().addMatch(queueName.toString(), new AddressSettings().setIDCacheExpiry(60_000));
+
+      // many more than the id-cache-size, ignored by the address
+      final int TEST_SIZE = cacheSize * 5;
+
+      ClientSession session = sf.createSession(false, true, true);
+      session.createQueue(new QueueConfiguration(queueName));
+      ClientProducer producer = session.createProducer(queueName);
+      for (int i = 0; i < TEST_SIZE; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, SimpleString.of("DUPL-" + i));
+         producer.send(message);
+      }
+      session.close();
+
+      if (persistCache) {
+         sf.close();
+         server.stop();
+         server.start();
+         server.getAddressSettingsRepository().addMatch(queueName.toString(), new AddressSettings().setIDCacheExpiry(60_000));
+         sf = createSessionFactory(locator);
+      }
+
+      session = sf.createSession(false, false, false);
+      producer = session.createProducer(queueName);
+      for (int i = 0; i < TEST_SIZE; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, SimpleString.of("DUPL-" + i));
+         producer.send(message);
+         try {
+            session.commit();
+            fail("Exception expected");
+         } catch (ActiveMQException expected) {
+         }
+      }
+
+      assertEquals(TEST_SIZE, server.getPostOffice().getDuplicateIDCache(queueName).getSize());
+      Wait.assertEquals((long) TEST_SIZE, () -> server.locateQueue(queueName).getMessageCount());
+   }
+
    @TestTemplate
    public void testSimpleDuplicateDetectionWithString() throws Exception {
       ClientSession session = sf.createSession(false, true, true);
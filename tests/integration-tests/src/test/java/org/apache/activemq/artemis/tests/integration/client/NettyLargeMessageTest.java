@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.StoreConfiguration;
+import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.tests.extensions.parameterized.ParameterizedTestExtension;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The large message tests over a plain TCP connection accepted with {@code largeMessageZeroCopy}, so the chunks of the
+ * large messages are sent straight from their files.
+ */
+//Parameters set in superclass
+@ExtendWith(ParameterizedTestExtension.class)
+public class NettyLargeMessageTest extends LargeMessageTest {
+
+   public NettyLargeMessageTest(StoreConfiguration.StoreType storeType) {
+      super(storeType);
+   }
+
+   @Override
+   protected boolean isNetty() {
+      return true;
+   }
+
+   @Override
+   protected Configuration createDefaultConfig(final int serverID, final boolean netty) throws Exception {
+      final Configuration configuration = super.createDefaultConfig(serverID, netty);
+      for (TransportConfiguration acceptor : configuration.getAcceptorConfigurations()) {
+         if (NETTY_ACCEPTOR_FACTORY.equals(acceptor.getFactoryClassName())) {
+            acceptor.getParams().put(TransportConstants.LARGE_MESSAGE_ZERO_COPY, true);
+         }
+      }
+      return configuration;
+   }
+
+   @TestTemplate
+   public void testReceiveChunksFromFile() throws Exception {
+      final int messageSize = 10 * ActiveMQClient.DEFAULT_MIN_LARGE_MESSAGE_SIZE + 123;
+      final int messages = 5;
+
+      ActiveMQServer server = createServer(true, isNetty(), storeType);
+      server.start();
+
+      // a small window, so the consumer gets the chunks of a message across many deliveries
+      locator.setConsumerWindowSize(ActiveMQClient.DEFAULT_MIN_LARGE_MESSAGE_SIZE);
+
+      ClientSessionFactory sf = addSessionFactory(createSessionFactory(locator));
+
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+
+      session.createQueue(new QueueConfiguration(ADDRESS));
+
+      ClientProducer producer = session.createProducer(ADDRESS);
+
+      for (int i = 0; i < messages; i++) {
+         Message clientFile = createLargeClientMessageStreaming(session, messageSize, true);
+         producer.send(clientFile);
+      }
+
+      for (RemotingConnection connection : server.getRemotingService().getConnections()) {
+         assertTrue(connection.getTransportConnection().isFileRegionSupported());
+      }
+
+      ClientConsumer consumer = session.createConsumer(ADDRESS);
+      session.start();
+
+      for (int m = 0; m < messages; m++) {
+         ClientMessage message = consumer.receive(10_000);
+         assertNotNull(message);
+         for (int i = 0; i < messageSize; i++) {
+            assertEquals(getSamplebyte(i), message.getBodyBuffer().readByte(), "position = " + i);
+         }
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+
+      session.close();
+
+      validateNoFilesOnLargeDir();
+   }
+}
@@ -70,6 +70,7 @@ public class CrashOnCompactTest extends SpawnedTestBase {
 
          }
       });
+      journal.stop();
 
       assertEquals(900, info.size());
    }
@@ -37,6 +37,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
 
 import org.apache.activemq.artemis.api.core.Pair;
 import org.apache.activemq.artemis.core.config.Configuration;
@@ -62,6 +63,7 @@ import org.apache.activemq.artemis.tests.unit.core.journal.impl.fakes.SimpleEnco
 import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
 import org.apache.activemq.artemis.utils.ActiveMQThreadFactory;
 import org.apache.activemq.artemis.utils.IDGenerator;
+import org.apache.activemq.artemis.utils.ReusableLatch;
 import org.apache.activemq.artemis.utils.TokenBucketLimiter;
 import org.apache.activemq.artemis.utils.TokenBucketLimiterImpl;
 import org.apache.activemq.artemis.utils.actors.OrderedExecutorFactory;
@@ -81,6 +83,12 @@ public class NIOJournalCompactTest extends JournalImplTestBase {
 
    IDGenerator idGenerator = new SimpleIDGenerator(100000);
 
+   private final ReusableLatch sparseCompactDone = new ReusableLatch(0);
+
+   private final ReusableLatch sparseCompactWait = new ReusableLatch(0);
+
+   private final List<JournalFile> sparseCompactReadFiles = new ArrayList<>();
+
    // General tests
    // =============
 
@@ -2170,6 +2178,246 @@ public class NIOJournalCompactTest extends JournalImplTestBase {
    }
 
 
+   @Test
+   public void testCompactSparseFiles() throws Exception {
+      setup(2, 60 * 1024, false);
+
+      final JournalImpl sparseJournal = createSparseCompactingJournal();
+      startJournal();
+      load();
+
+      final int recordsPerFile = 40;
+      final List<Long> ids = new ArrayList<>();
+
+      // a transaction committed and another one rolled back on a later file than their records
+      final long committedTx = idGenerator.generateID();
+      final long rolledBackTx = idGenerator.generateID();
+      final long pendingTx = idGenerator.generateID();
+
+      for (int file = 0; file < 10; file++) {
+         for (int i = 0; i < recordsPerFile; i++) {
+            long id = idGenerator.generateID();
+            ids.add(id);
+            add(id);
+         }
+         if (file == 1) {
+            addTx(pendingTx, idGenerator.generateID());
+         }
+         if (file == 3) {
+            addTx(committedTx, idGenerator.generateID(), idGenerator.generateID());
+            updateTx(committedTx, ids.get(0));
+         }
+         if (file == 4) {
+            addTx(rolledBackTx, idGenerator.generateID(), idGenerator.generateID());
+         }
+         journal.forceMoveNextFile();
+      }
+
+      // the oldest files keep a tenth of their records
+      for (int i = 0; i < ids.size(); i++) {
+         if (i % 10 != 0) {
+            delete(ids.get(i));
+         }
+      }
+      update(ids.get(10));
+      commit(committedTx);
+      rollback(rolledBackTx);
+      journal.forceMoveNextFile();
+
+      final int dataFiles = journal.getDataFilesCount();
+
+      // the pending transaction pins its file
+      assertFalse(sparseJournal.compactSparseFiles());
+      assertEquals(dataFiles, journal.getDataFilesCount());
+
+      commit(pendingTx);
+      journal.forceMoveNextFile();
+
+      assertTrue(sparseJournal.compactSparseFiles());
+      assertTrue(journal.getDataFilesCount() < dataFiles, "data files = " + journal.getDataFilesCount());
+      assertEquals(1, sparseJournal.getCompactCount());
+      assertTrue(sparseJournal.getCompactReclaimedBytes() >= fileSize);
+      assertEquals(-1, sparseJournal.getCompactProgress());
+
+      // the compacted records are still live
+      update(ids.get(20));
+      delete(ids.get(30));
+      add(idGenerator.generateID());
+      journal.forceMoveNextFile();
+
+      stopJournal();
+      createJournal();
+      startJournal();
+      loadAndCheck();
+   }
+
+   @Test
+   public void testCompactSparseFilesWithConcurrentDeletes() throws Exception {
+      setup(2, 60 * 1024, false);
+
+      final JournalImpl sparseJournal = createSparseCompactingJournal();
+      startJournal();
+      load();
+
+      final List<Long> ids = new ArrayList<>();
+      for (int file = 0; file < 10; file++) {
+         for (int i = 0; i < 40; i++) {
+            long id = idGenerator.generateID();
+            ids.add(id);
+            add(id);
+         }
+         journal.forceMoveNextFile();
+      }
+      for (int i = 0; i < ids.size(); i++) {
+         if (i % 10 != 0) {
+            delete(ids.get(i));
+         }
+      }
+      journal.forceMoveNextFile();
+
+      final AtomicBoolean reclaimed = new AtomicBoolean();
+      sparseCompactDone.setCount(1);
+      sparseCompactWait.setCount(1);
+      final Thread compactThread = new Thread(() -> reclaimed.set(sparseJournal.compactSparseFiles()));
+      compactThread.start();
+      assertTrue(sparseCompactDone.await(10, TimeUnit.SECONDS));
+
+      // appends don't wait on the compacting
+      for (int i = 0; i < ids.size(); i += 20) {
+         delete(ids.get(i));
+      }
+      update(ids.get(10));
+      add(idGenerator.generateID());
+
+      sparseCompactWait.countDown();
+      compactThread.join();
+
+      assertTrue(reclaimed.get());
+      assertEquals(1, sparseJournal.getCompactCount());
+
+      stopJournal();
+      createJournal();
+      startJournal();
+      loadAndCheck();
+   }
+
+   @Test
+   public void testCompactSparseFilesReadsOnlyCompletingFiles() throws Exception {
+      setup(2, 60 * 1024, false);
+
+      final JournalImpl sparseJournal = createSparseCompactingJournal();
+      sparseJournal.setCompactIncrementalMaxFiles(10);
+      startJournal();
+      load();
+
+      final List<Long> ids = new ArrayList<>();
+      // committed on a later file than its records
+      final long committedTx = idGenerator.generateID();
+      for (int file = 0; file < 10; file++) {
+         for (int i = 0; i < 40; i++) {
+            long id = idGenerator.generateID();
+            ids.add(id);
+            add(id);
+         }
+         if (file == 3) {
+            addTx(committedTx, idGenerator.generateID());
+         }
+         journal.forceMoveNextFile();
+      }
+
+      // nothing on these files refers to the oldest ones
+      for (int file = 0; file < 5; file++) {
+         for (int i = 0; i < 40; i++) {
+            add(idGenerator.generateID());
+         }
+         journal.forceMoveNextFile();
+      }
+
+      for (int i = 0; i < ids.size(); i++) {
+         if (i % 10 != 0) {
+            delete(ids.get(i));
+         }
+      }
+      commit(committedTx);
+      journal.forceMoveNextFile();
+
+      assertTrue(sparseJournal.compactSparseFiles());
+      assertEquals(1, sparseJournal.getCompactCount());
+      // only the file with the commit and the deletes is read to complete the transaction
+      assertEquals(1, sparseCompactReadFiles.size());
+
+      stopJournal();
+      createJournal();
+      startJournal();
+      // the committed record is on the compacted files now: it's loaded before the records added meanwhile
+      final List<RecordInfo> loaded = new ArrayList<>();
+      journal.load(loaded, new ArrayList<>(), null);
+      assertEquals(records.stream().map(r -> r.id).collect(Collectors.toSet()), loaded.stream().map(r -> r.id).collect(Collectors.toSet()));
+      assertEquals(records.size(), loaded.size());
+   }
+
+   @Test
+   public void testScheduledCompactSparseFilesRunsEveryIncrement() throws Exception {
+      setup(2, 60 * 1024, false);
+
+      final JournalImpl sparseJournal = createSparseCompactingJournal();
+      sparseJournal.setCompactIncrementalMaxFiles(4);
+      startJournal();
+      load();
+
+      final List<Long> ids = new ArrayList<>();
+      for (int file = 0; file < 12; file++) {
+         for (int i = 0; i < 40; i++) {
+            long id = idGenerator.generateID();
+            ids.add(id);
+            add(id);
+         }
+         journal.forceMoveNextFile();
+      }
+      for (int i = 0; i < ids.size(); i++) {
+         if (i % 10 != 0) {
+            delete(ids.get(i));
+         }
+      }
+      journal.forceMoveNextFile();
+
+      final int dataFiles = journal.getDataFilesCount();
+
+      // each increment is a task of its own, until the oldest files aren't sparse anymore
+      sparseJournal.scheduleCompactAndBlock(60);
+      assertTrue(sparseJournal.getCompactCount() > 1, "compact count = " + sparseJournal.getCompactCount());
+      assertTrue(journal.getDataFilesCount() < dataFiles, "data files = " + journal.getDataFilesCount());
+
+      stopJournal();
+      createJournal();
+      startJournal();
+      loadAndCheck();
+   }
+
+   private JournalImpl createSparseCompactingJournal() {
+      final JournalImpl sparseJournal = new JournalImpl(fileSize, minFiles, poolSize, 2, 50, fileFactory, filePrefix, fileExtension, maxAIO) {
+         @Override
+         protected void onCompactReadCompletingFile(JournalFile file) {
+            sparseCompactReadFiles.add(file);
+         }
+
+         @Override
+         public void onCompactDone() {
+            sparseCompactDone.countDown();
+            try {
+               sparseCompactWait.await();
+            } catch (InterruptedException e) {
+               e.printStackTrace();
+            }
+         }
+      };
+      sparseJournal.setCompactIncremental(true);
+      sparseJournal.setAutoReclaim(false);
+      journal = sparseJournal;
+      addActiveMQComponent(journal);
+      return sparseJournal;
+   }
+
    @Override
    @AfterEach
    public void tearDown() throws Exception {
@@ -39,8 +39,10 @@ import org.apache.activemq.artemis.core.remoting.impl.netty.NettyAcceptorFactory
 import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
 import org.apache.activemq.artemis.core.server.management.Notification;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 import org.apache.activemq.artemis.tests.integration.SimpleNotificationService;
 import org.apache.activemq.artemis.utils.RandomUtil;
+import org.apache.activemq.artemis.utils.Wait;
 import org.junit.jupiter.api.Test;
 
 public class AcceptorControlTest extends ManagementTestBase {
@@ -119,6 +121,48 @@ public class AcceptorControlTest extends ManagementTestBase {
 
    }
 
+   @Test
+   public void testFlushCount() throws Exception {
+      testFlushCount(true);
+   }
+
+   @Test
+   public void testFlushCountWithoutAdaptiveFlush() throws Exception {
+      testFlushCount(false);
+   }
+
+   private void testFlushCount(boolean adaptiveFlush) throws Exception {
+      HashMap<String, Object> params = new HashMap<>();
+      params.put(TransportConstants.ADAPTIVE_FLUSH, adaptiveFlush);
+      TransportConfiguration acceptorConfig = new TransportConfiguration(InVMAcceptorFactory.class.getName(), new HashMap<String, Object>(), RandomUtil.randomString());
+      TransportConfiguration acceptorConfig2 = new TransportConfiguration(NettyAcceptorFactory.class.getName(), params, RandomUtil.randomString());
+      Configuration config = createBasicConfig().addAcceptorConfiguration(acceptorConfig).addAcceptorConfiguration(acceptorConfig2);
+      ActiveMQServer service = createServer(false, config);
+      service.setMBeanServer(mbeanServer);
+      service.start();
+
+      AcceptorControl acceptorControl = createManagementControl(acceptorConfig2.getName());
+      assertEquals(0, acceptorControl.getFlushCount());
+      assertEquals(0, acceptorControl.getWrittenBytes());
+
+      ServerLocator locator = createNettyNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = sf.createSession(false, true, true);
+      long flushCount = acceptorControl.getFlushCount();
+      assertTrue(flushCount > 0);
+      assertTrue(acceptorControl.getWrittenBytes() > 0);
+      for (RemotingConnection connection : service.getRemotingService().getConnections()) {
+         assertTrue(connection.getTransportConnection().getFlushCount() > 0);
+         assertTrue(connection.getTransportConnection().getWrittenBytes() > 0);
+      }
+
+      // still counted once the connection is gone
+      session.close();
+      sf.close();
+      Wait.assertEquals(0, service::getConnectionCount);
+      assertTrue(acceptorControl.getFlushCount() >= flushCount);
+   }
+
    @Test
    public void testNotifications() throws Exception {
       TransportConfiguration acceptorConfig = new TransportConfiguration(InVMAcceptorFactory.class.getName(), new HashMap<String, Object>(), RandomUtil.randomString());
@@ -49,6 +49,16 @@ public class AcceptorControlUsingCoreTest extends AcceptorControlTest {
             return (Map<String, Object>) proxy.retrieveAttributeValue("parameters");
          }
 
+         @Override
+         public long getFlushCount() {
+            return (Long) proxy.retrieveAttributeValue("flushCount", Long.class);
+         }
+
+         @Override
+         public long getWrittenBytes() {
+            return (Long) proxy.retrieveAttributeValue("writtenBytes", Long.class);
+         }
+
          @Override
          public void reload() {
             try {
@@ -4494,6 +4494,9 @@ public class ActiveMQServerControlTest extends ManagementTestBase {
          assertEquals("", jsonConnection.getString("clientID"), "clientID");
          assertNotEquals("", jsonConnection.getString("localAddress"), "localAddress");
          assertEquals(2, jsonConnection.getInt("sessionCount"), "sessionCount");
+         // in-vm connections don't count their writes
+         assertEquals(0, jsonConnection.getJsonNumber("flushCount").longValue(), "flushCount");
+         assertEquals(0, jsonConnection.getJsonNumber("writtenBytes").longValue(), "writtenBytes");
 
          //check default order
          assertEquals(csf.getConnection().getID(), array.getJsonObject(0).getString("connectionID"), "connection1 default Order");
@@ -847,6 +847,31 @@ public class ActiveMQServerControlUsingCoreTest extends ActiveMQServerControlTes
             return (Integer) proxy.retrieveAttributeValue("JournalCompactPercentage", Integer.class);
          }
 
+         @Override
+         public int getJournalCompactCount() {
+            return (Integer) proxy.retrieveAttributeValue("JournalCompactCount", Integer.class);
+         }
+
+         @Override
+         public int getJournalCompactProgress() {
+            return (Integer) proxy.retrieveAttributeValue("JournalCompactProgress", Integer.class);
+         }
+
+         @Override
+         public long getJournalCompactReclaimedBytes() {
+            return (Long) proxy.retrieveAttributeValue("JournalCompactReclaimedBytes", Long.class);
+         }
+
+         @Override
+         public long getJournalCompactLastPauseTime() {
+            return (Long) proxy.retrieveAttributeValue("JournalCompactLastPauseTime", Long.class);
+         }
+
+         @Override
+         public long getJournalCompactMaxPauseTime() {
+            return (Long) proxy.retrieveAttributeValue("JournalCompactMaxPauseTime", Long.class);
+         }
+
          @Override
          public boolean isPersistenceEnabled() {
             return (Boolean) proxy.retrieveAttributeValue("PersistenceEnabled");
@@ -912,6 +937,16 @@ public class ActiveMQServerControlUsingCoreTest extends ActiveMQServerControlTes
             return 0;
          }
 
+         @Override
+         public double getPageCounterRebuildProgress() {
+            try {
+               return (Double) proxy.invokeOperation("getPageCounterRebuildProgress");
+            } catch (Exception e) {
+               e.printStackTrace();
+            }
+            return 0;
+         }
+
          @Override
          public String getHAPolicy() {
             return null;
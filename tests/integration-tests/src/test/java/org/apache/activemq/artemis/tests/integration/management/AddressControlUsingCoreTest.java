@@ -86,6 +86,51 @@ public class AddressControlUsingCoreTest extends AddressControlTest {
             return (int) proxy.retrieveAttributeValue("numberOfPages", Integer.class);
          }
 
+         @Override
+         public double getPageCacheHitRatio() {
+            return (double) proxy.retrieveAttributeValue("pageCacheHitRatio", Double.class);
+         }
+
+         @Override
+         public long getPageCacheResidentBytes() {
+            return (long) proxy.retrieveAttributeValue("pageCacheResidentBytes", Long.class);
+         }
+
+         @Override
+         public double getPageCompressionRatio() {
+            return (double) proxy.retrieveAttributeValue("pageCompressionRatio", Double.class);
+         }
+
+         @Override
+         public long getPageCompressionTime() {
+            return (long) proxy.retrieveAttributeValue("pageCompressionTime", Long.class);
+         }
+
+         @Override
+         public double getPageIOWriteRate() {
+            return (double) proxy.retrieveAttributeValue("pageIOWriteRate", Double.class);
+         }
+
+         @Override
+         public double getPageIOReadRate() {
+            return (double) proxy.retrieveAttributeValue("pageIOReadRate", Double.class);
+         }
+
+         @Override
+         public double getPageIOQueueingDelay() {
+            return (double) proxy.retrieveAttributeValue("pageIOQueueingDelay", Double.class);
+         }
+
+         @Override
+         public double getPageSyncLatencyP50() {
+            return (double) proxy.retrieveAttributeValue("pageSyncLatencyP50", Double.class);
+         }
+
+         @Override
+         public double getPageSyncLatencyP99() {
+            return (double) proxy.retrieveAttributeValue("pageSyncLatencyP99", Double.class);
+         }
+
          @Override
          public boolean isPaging() throws Exception {
             return (boolean) proxy.retrieveAttributeValue("paging");
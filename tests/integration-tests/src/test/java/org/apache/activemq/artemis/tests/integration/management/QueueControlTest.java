@@ -4066,6 +4066,39 @@ public class QueueControlTest extends ManagementTestBase {
       session.deleteQueue(queue);
    }
 
+   @TestTemplate
+   public void testGetConsumerFilterMismatches() throws Exception {
+      SimpleString address = RandomUtil.randomSimpleString();
+      SimpleString queue = RandomUtil.randomSimpleString();
+
+      session.createQueue(new QueueConfiguration(queue).setAddress(address).setDurable(durable));
+
+      QueueControl queueControl = createManagementControl(address, queue);
+      assertEquals(0, queueControl.getConsumerFilterMismatches());
+      assertEquals(0, queueControl.getConsumerFilterEvaluationsSkipped());
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < 10; i++) {
+         ClientMessage message = session.createMessage(durable);
+         message.putStringProperty("color", "blue");
+         producer.send(message);
+      }
+      Wait.assertEquals(10L, queueControl::getMessageCount);
+
+      ClientConsumer consumer1 = session.createConsumer(queue, SimpleString.of("color = 'red'"));
+      ClientConsumer consumer2 = session.createConsumer(queue, SimpleString.of("color = 'red'"));
+      assertNull(consumer1.receiveImmediate());
+      assertNull(consumer2.receiveImmediate());
+
+      // only one of the consumers had to evaluate the filter on each message
+      Wait.assertEquals(10L, queueControl::getConsumerFilterMismatches);
+      Wait.assertEquals(10L, queueControl::getConsumerFilterEvaluationsSkipped);
+
+      consumer1.close();
+      consumer2.close();
+      session.deleteQueue(queue);
+   }
+
    //make sure notifications are always received no matter whether
    //a Queue is created via QueueControl or by JMSServerManager directly.
    @TestTemplate
@@ -328,6 +328,16 @@ public class QueueControlUsingCoreTest extends QueueControlTest {
             return ((Number) proxy.retrieveAttributeValue("messagesKilled")).longValue();
          }
 
+         @Override
+         public long getConsumerFilterMismatches() {
+            return ((Number) proxy.retrieveAttributeValue("consumerFilterMismatches")).longValue();
+         }
+
+         @Override
+         public long getConsumerFilterEvaluationsSkipped() {
+            return ((Number) proxy.retrieveAttributeValue("consumerFilterEvaluationsSkipped")).longValue();
+         }
+
          @Override
          public void resetMessagesAdded() throws Exception {
             proxy.invokeOperation("resetMessagesAdded");
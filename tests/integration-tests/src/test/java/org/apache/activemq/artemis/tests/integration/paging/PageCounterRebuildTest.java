@@ -39,8 +39,10 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.activemq.artemis.api.core.QueueConfiguration;
 import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.core.paging.cursor.PageSubscriptionCounter;
 import org.apache.activemq.artemis.core.paging.cursor.impl.PageSubscriptionCounterImpl;
 import org.apache.activemq.artemis.core.paging.cursor.impl.PageSubscriptionCounterImplAccessor;
+import org.apache.activemq.artemis.core.paging.impl.PagingManagerTestAccessor;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
 import org.apache.activemq.artemis.core.server.Queue;
@@ -329,4 +331,57 @@ public class PageCounterRebuildTest extends ActiveMQTestBase {
       Wait.assertEquals(0L, serverQueue::getMessageCount, 1000, 100);
       Wait.assertEquals(0L, serverNonConsumedQueue::getMessageCount, 1000, 100);
    }
+
+   @Test
+   public void testRebuildCounterParallel() throws Exception {
+      ActiveMQServer server = createServer(true, true);
+      server.getAddressSettingsRepository().addMatch("#", new AddressSettings().setPageSizeBytes(10 * 1024));
+      server.start();
+
+      String queueName = getName();
+      server.addAddressInfo(new AddressInfo(queueName).addRoutingType(RoutingType.ANYCAST));
+      server.createQueue(new QueueConfiguration(queueName).setRoutingType(RoutingType.ANYCAST));
+
+      Queue serverQueue = server.locateQueue(queueName);
+      serverQueue.getPagingStore().startPaging();
+
+      final int SEND = 2000;
+      final int CONSUME_MESSAGES = 500;
+
+      ConnectionFactory factory = CFUtil.createConnectionFactory("core", "tcp://localhost:61616");
+      try (Connection connection = factory.createConnection();
+           Session session = connection.createSession(true, Session.SESSION_TRANSACTED)) {
+         MessageProducer producer = session.createProducer(session.createQueue(queueName));
+         for (int i = 0; i < SEND; i++) {
+            producer.send(session.createTextMessage("hello" + i));
+            if (i % 100 == 0) {
+               session.commit();
+            }
+         }
+         session.commit();
+      }
+
+      try (Connection connection = factory.createConnection();
+           Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)) {
+         MessageConsumer consumer = session.createConsumer(session.createQueue(queueName));
+         connection.start();
+         for (int i = 0; i < CONSUME_MESSAGES; i++) {
+            assertNotNull(consumer.receive(5000));
+         }
+      }
+
+      Wait.assertEquals(SEND - CONSUME_MESSAGES, serverQueue::getMessageCount);
+      assertTrue(serverQueue.getPagingStore().getNumberOfPages() > 10);
+
+      PageSubscriptionCounter counter = serverQueue.getPageSubscription().getCounter();
+      counter.markRebuilding();
+      counter.finishRebuild();
+      assertEquals(0, serverQueue.getMessageCount()); // we artificially made it 0 by faking a rebuild
+
+      PagingManagerTestAccessor.setPageCounterRebuildThreads(server.getPagingManager(), 4);
+      server.getPagingManager().rebuildCounters(null).get(1, TimeUnit.MINUTES);
+
+      Wait.assertEquals(SEND - CONSUME_MESSAGES, serverQueue::getMessageCount);
+      assertEquals(1, server.getPagingManager().getPageCounterRebuildProgress());
+   }
 }
@@ -38,6 +38,7 @@ import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
 import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
 import org.apache.activemq.artemis.core.server.MessageReference;
 import org.apache.activemq.artemis.core.server.Queue;
@@ -211,6 +212,91 @@ public class PagingSendTest extends ActiveMQTestBase {
       assertEquals(0, errors.get());
    }
 
+   @Test
+   public void testCompressedPagesAfterRestart() throws Exception {
+      server.getAddressSettingsRepository().addMatch(PagingSendTest.ADDRESS.toString(), new AddressSettings().setPageSizeBytes(10 * 1024).setMaxSizeBytes(20 * 1024).setPageCompression(true));
+
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = sf.createSession(null, null, false, true, true, false, 0);
+      session.createQueue(new QueueConfiguration(PagingSendTest.ADDRESS));
+      ClientProducer producer = session.createProducer(PagingSendTest.ADDRESS);
+
+      final int numberOfMessages = 500;
+      for (int i = 0; i < numberOfMessages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.getBodyBuffer().writeString(("{\"count\":" + i + "}").repeat(100));
+         message.putIntProperty("count", i);
+         producer.send(message);
+      }
+      session.close();
+      sf.close();
+
+      final PagingStore store = server.getPagingManager().getPageStore(PagingSendTest.ADDRESS);
+      assertTrue(store.isPaging());
+      assertTrue(store.getPageCompressionRatio() > 2, "compression ratio " + store.getPageCompressionRatio());
+
+      server.stop();
+      server.start();
+      waitForServerToStart(server);
+
+      sf = createSessionFactory(locator);
+      session = sf.createSession(null, null, false, true, true, false, 0);
+      ClientConsumer consumer = session.createConsumer(PagingSendTest.ADDRESS);
+      session.start();
+      for (int i = 0; i < numberOfMessages; i++) {
+         ClientMessage message = consumer.receive(10000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("count").intValue());
+         assertEquals(("{\"count\":" + i + "}").repeat(100), message.getBodyBuffer().readString());
+         message.acknowledge();
+      }
+      session.close();
+   }
+
+   @Test
+   public void testPageIOLimitHoldsBackProducers() throws Exception {
+      final long maxBytesPerSecond = 200 * 1024;
+      server.stop();
+      server.getConfiguration().setPageIOMaxBytesPerSecond(maxBytesPerSecond);
+      server.start();
+      waitForServerToStart(server);
+
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = sf.createSession(null, null, false, true, true, false, 0);
+      session.createQueue(new QueueConfiguration(PagingSendTest.ADDRESS));
+      ClientProducer producer = session.createProducer(PagingSendTest.ADDRESS);
+
+      final PagingStore store = server.getPagingManager().getPageStore(PagingSendTest.ADDRESS);
+      final int numberOfMessages = 150;
+      final int messageSize = 4 * 1024;
+      double maxWriteRate = 0;
+      final long start = System.nanoTime();
+      for (int i = 0; i < numberOfMessages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.getBodyBuffer().writeBytes(new byte[messageSize]);
+         producer.send(message);
+         maxWriteRate = Math.max(maxWriteRate, store.getPageIOWriteRate());
+      }
+      final long elapsed = System.nanoTime() - start;
+      session.close();
+
+      assertTrue(store.isPaging());
+      // the bytes over the first pages and credits can't be paged faster than allowed
+      assertTrue(elapsed >= TimeUnit.SECONDS.toNanos(1), "sent in " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+      assertTrue(maxWriteRate > 0);
+      assertTrue(maxWriteRate < 2 * maxBytesPerSecond, "write rate " + maxWriteRate);
+
+      session = sf.createSession(null, null, false, true, true, false, 0);
+      ClientConsumer consumer = session.createConsumer(PagingSendTest.ADDRESS);
+      session.start();
+      for (int i = 0; i < numberOfMessages; i++) {
+         ClientMessage message = consumer.receive(10000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+      session.close();
+   }
+
    @Test
    public void testPagingDoesNotDuplicateBatchMessages() throws Exception {
       int batchSize = 20;
@@ -69,4 +69,30 @@ public class CacheMetricsTest extends ActiveMQTestBase {
       }
       assertEquals(enabled, MetricsPluginTest.getMetrics(server).keySet().containsAll(metersToMatch));
    }
+
+   @Test
+   public void testFilterCacheMetricsEnabled() throws Exception {
+      testFilterCacheMetrics(true);
+   }
+
+   @Test
+   public void testFilterCacheMetricsDisabled() throws Exception {
+      testFilterCacheMetrics(false);
+   }
+
+   private void testFilterCacheMetrics(boolean enabled) throws Exception {
+      ActiveMQServer server = createServer(false, createDefaultInVMConfig()
+         .setMetricsConfiguration(new MetricsConfiguration()
+                                     .setPlugin(new SimpleMetricsPlugin().init(null))
+                                     .setFilterCache(enabled)));
+      server.start();
+      Tags defaultTags = Tags.of(Tag.of("broker", "localhost"), Tag.of("cache", "filter"));
+      List<Meter.Id> metersToMatch = new ArrayList<>();
+      metersToMatch.add(new Meter.Id("cache.size", defaultTags, null, null, null));
+      metersToMatch.add(new Meter.Id("cache.puts", defaultTags, null, null, null));
+      metersToMatch.add(new Meter.Id("cache.gets", defaultTags.and(Tag.of("result", "miss")), null, null, null));
+      metersToMatch.add(new Meter.Id("cache.gets", defaultTags.and(Tag.of("result", "hit")), null, null, null));
+      metersToMatch.add(new Meter.Id("cache.evictions", defaultTags, null, null, null));
+      assertEquals(enabled, MetricsPluginTest.getMetrics(server).keySet().containsAll(metersToMatch));
+   }
 }
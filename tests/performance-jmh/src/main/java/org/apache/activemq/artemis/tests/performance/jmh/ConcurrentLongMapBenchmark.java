@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.activemq.artemis.utils.collections.ConcurrentLongHashMap;
+import org.apache.activemq.artemis.utils.collections.ConcurrentLongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Put, get and remove on a {@link ConcurrentLongHashMap} of boxed values and on a {@link ConcurrentLongLongHashMap}
+ * holding {@code entries} entries.
+ * <p>
+ * The heap used by the map is printed on setup: run it with {@code -p entries=100000000} and a large enough heap
+ * (i.e. {@code -jvmArgsAppend -Xmx16g}) to check the footprint of huge maps.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+public class ConcurrentLongMapBenchmark {
+
+   @Param({"boxed", "primitive"})
+   String type;
+
+   @Param({"1000000", "10000000"})
+   int entries;
+
+   private LongMap map;
+
+   private interface LongMap {
+
+      long get(long key);
+
+      long put(long key, long value);
+
+      long remove(long key);
+   }
+
+   private static final class BoxedLongMap implements LongMap {
+
+      private final ConcurrentLongHashMap<Long> map;
+
+      private BoxedLongMap(int expectedItems) {
+         map = new ConcurrentLongHashMap<>(expectedItems);
+      }
+
+      @Override
+      public long get(long key) {
+         final Long value = map.get(key);
+         return value == null ? -1 : value;
+      }
+
+      @Override
+      public long put(long key, long value) {
+         final Long previous = map.put(key, value);
+         return previous == null ? -1 : previous;
+      }
+
+      @Override
+      public long remove(long key) {
+         final Long value = map.remove(key);
+         return value == null ? -1 : value;
+      }
+   }
+
+   private static final class PrimitiveLongMap implements LongMap {
+
+      private final ConcurrentLongLongHashMap map;
+
+      private PrimitiveLongMap(int expectedItems) {
+         map = new ConcurrentLongLongHashMap(expectedItems);
+      }
+
+      @Override
+      public long get(long key) {
+         return map.get(key);
+      }
+
+      @Override
+      public long put(long key, long value) {
+         return map.put(key, value);
+      }
+
+      @Override
+      public long remove(long key) {
+         return map.remove(key);
+      }
+   }
+
+   @Setup
+   public void init() {
+      final long usedBefore = usedHeap();
+      switch (type) {
+         case "boxed":
+            map = new BoxedLongMap(entries);
+            break;
+         case "primitive":
+            map = new PrimitiveLongMap(entries);
+            break;
+         default:
+            throw new IllegalArgumentException("unknown type " + type);
+      }
+      for (int i = 0; i < entries; i++) {
+         // out of the Long cache, as the message and transaction IDs of a broker up for a while
+         map.put(i, 1024L + i);
+      }
+      final long used = usedHeap() - usedBefore;
+      System.out.printf("%n%d entries using %d MB: %d bytes per entry%n", entries, used >> 20, used / entries);
+   }
+
+   private static long usedHeap() {
+      for (int i = 0; i < 3; i++) {
+         System.gc();
+      }
+      final Runtime runtime = Runtime.getRuntime();
+      return runtime.totalMemory() - runtime.freeMemory();
+   }
+
+   @TearDown
+   public void clear() {
+      map = null;
+   }
+
+   @Benchmark
+   public long get() {
+      return map.get(ThreadLocalRandom.current().nextInt(entries));
+   }
+
+   @Benchmark
+   public long put() {
+      final long key = ThreadLocalRandom.current().nextInt(entries);
+      return map.put(key, 1024L + key);
+   }
+
+   @Benchmark
+   public long removeAndPut() {
+      final long key = ThreadLocalRandom.current().nextInt(entries);
+      final long value = map.remove(key);
+      map.put(key, 1024L + key);
+      return value;
+   }
+}
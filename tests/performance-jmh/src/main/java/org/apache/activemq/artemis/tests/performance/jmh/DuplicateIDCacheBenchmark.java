@@ -33,6 +33,10 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
 
+/**
+ * Lookups of duplicate IDs on a cache of {@code size} ids, evicting them by count or, with a positive {@code expiry},
+ * by age.
+ */
 @State(Scope.Benchmark)
 @Fork(2)
 @Warmup(iterations = 5, time = 1)
@@ -43,6 +47,9 @@ public class DuplicateIDCacheBenchmark {
    private int size;
    @Param({"false", "true"})
    private boolean persist;
+   // in ms: -1 to evict by count
+   @Param({"-1", "3600000"})
+   private long expiry;
 
    private DuplicateIDCache cache;
 
@@ -54,9 +61,16 @@ public class DuplicateIDCacheBenchmark {
 
    @Setup
    public void init() throws Exception {
-      cache = persist ?
-         DuplicateIDCaches.persistent(SimpleString.toSimpleString("benchmark"), size, new NullStorageManager()) :
-         DuplicateIDCaches.inMemory(SimpleString.toSimpleString("benchmark"), size);
+      final SimpleString address = SimpleString.of("benchmark");
+      if (expiry > 0) {
+         cache = persist ?
+            DuplicateIDCaches.persistentExpiring(address, expiry, new NullStorageManager(), Runnable::run) :
+            DuplicateIDCaches.inMemoryExpiring(address, expiry);
+      } else {
+         cache = persist ?
+            DuplicateIDCaches.persistent(address, size, new NullStorageManager()) :
+            DuplicateIDCaches.inMemory(address, size);
+      }
       final int idSize = findNextHigherPowerOf2(size);
       idsMask = idSize - 1;
       nextId = 0;
@@ -67,6 +81,10 @@ public class DuplicateIDCacheBenchmark {
          ids[i] = id;
          cache.addToCache(id, null, true);
       }
+      if (expiry > 0) {
+         initExpiring(idSize);
+         return;
+      }
       // evict the first (idSize - size) elements on the ids array.
       // Given that being a FIFO cache isn't a stable contract it's going to validate it too.
       final int evicted = idSize - size;
@@ -95,6 +113,27 @@ public class DuplicateIDCacheBenchmark {
       }
    }
 
+   /**
+    * Nothing is evicted before {@link #expiry}: the cache holds all the ids and the missing ones have never been added.
+    */
+   private void initExpiring(int idSize) throws Exception {
+      for (int i = size; i < idSize; i++) {
+         final byte[] id = RandomUtil.randomBytes();
+         ids[i] = id;
+         cache.addToCache(id, null, true);
+      }
+      final int missingIdsLength = findNextPowerOf2(Math.max(1024, idSize - size));
+      missingIdsMask = missingIdsLength - 1;
+      randomEvictedIds = new byte[missingIdsLength][];
+      for (int i = 0; i < missingIdsLength; i++) {
+         final byte[] id = RandomUtil.randomBytes();
+         randomEvictedIds[i] = id;
+         if (cache.contains(id)) {
+            throw new AssertionError("This cache contains an id never added");
+         }
+      }
+   }
+
    // it isn't checking what's the max power of 2 number nor if size > 0
    private static int findNextHigherPowerOf2(int size) {
       final int nextPow2 = findNextPowerOf2(size);
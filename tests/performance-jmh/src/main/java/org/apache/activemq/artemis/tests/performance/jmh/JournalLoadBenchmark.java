@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
+import org.apache.activemq.artemis.core.journal.JournalLoadInformation;
+import org.apache.activemq.artemis.core.journal.LoaderCallback;
+import org.apache.activemq.artemis.core.journal.PreparedTransactionInfo;
+import org.apache.activemq.artemis.core.journal.RecordInfo;
+import org.apache.activemq.artemis.core.journal.impl.JournalImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loads a synthetic journal of {@code records} records (half of them updated once), reading its files
+ * sequentially or in parallel with {@code loadThreads} threads.
+ */
+@State(Scope.Benchmark)
+@Fork(2)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JournalLoadBenchmark {
+
+   private static final String STORE_DIR = System.getProperty("user.dir") + File.separator + "JournalLoadBenchmark";
+   private static final String FILE_PREFIX = "perf";
+   private static final String FILE_EXTENSION = "amq";
+   private static final byte RECORD_TYPE = 0;
+
+   @Param({"1", "4"})
+   private int loadThreads;
+   @Param({"500000"})
+   private int records;
+   @Param({"512"})
+   private int recordSize;
+   @Param({"10485760"})
+   private int fileSize;
+
+   private SequentialFileFactory factory;
+
+   @Setup
+   public void init() throws Exception {
+      factory = new NIOSequentialFileFactory(new File(STORE_DIR), true, 1).setDatasync(false);
+      factory.start();
+      factory.createDirs();
+      JournalImpl journal = createJournal();
+      journal.start();
+      journal.loadInternalOnly();
+      final byte[] recordData = new byte[recordSize];
+      Arrays.fill(recordData, (byte) 1);
+      for (int i = 0; i < records; i++) {
+         journal.appendAddRecord(i, RECORD_TYPE, recordData, false);
+         if (i % 2 == 0) {
+            journal.appendUpdateRecord(i, RECORD_TYPE, recordData, false);
+         }
+      }
+      journal.flush();
+      journal.stop();
+   }
+
+   private JournalImpl createJournal() {
+      final JournalImpl journal = new JournalImpl(fileSize, 2, 2, 0, 0, factory, FILE_PREFIX, FILE_EXTENSION, factory.getMaxIO());
+      journal.setLoadThreads(loadThreads);
+      return journal;
+   }
+
+   @Benchmark
+   public long load() throws Exception {
+      final JournalImpl journal = createJournal();
+      journal.start();
+      try {
+         final JournalLoadInformation info = journal.load(new LoaderCallback() {
+            @Override
+            public void addPreparedTransaction(PreparedTransactionInfo preparedTransaction) {
+            }
+
+            @Override
+            public void addRecord(RecordInfo info) {
+            }
+
+            @Override
+            public void deleteRecord(long id) {
+            }
+
+            @Override
+            public void updateRecord(RecordInfo info) {
+            }
+
+            @Override
+            public void failedTransaction(long transactionID, List<RecordInfo> records, List<RecordInfo> recordsToDelete) {
+            }
+         });
+         return info.getMaxID();
+      } finally {
+         journal.stop();
+      }
+   }
+
+   @TearDown
+   public void stop() {
+      factory.stop();
+      Stream.of(factory.getDirectory().listFiles()).forEach(File::delete);
+      factory.getDirectory().delete();
+   }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.io.File;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
+import org.apache.activemq.artemis.core.journal.impl.JournalFile;
+import org.apache.activemq.artemis.core.journal.impl.JournalFileImpl;
+import org.apache.activemq.artemis.core.journal.impl.JournalRecordIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups and updates on a journal record index of {@code records} records, each one with an update, as a message
+ * journal holding {@code records} messages would have.
+ * <p>
+ * The heap used by the index is printed on setup: run it with {@code -p records=50000000} and a large enough heap to
+ * check the footprint of huge journals.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JournalRecordIndexBenchmark {
+
+   private static final int FILES = 100;
+
+   @Param({"10000000"})
+   int records;
+
+   private JournalRecordIndex index;
+   private JournalFile[] files;
+   private int recordsPerFile;
+
+   @Setup
+   public void init() {
+      final NIOSequentialFileFactory factory = new NIOSequentialFileFactory(new File(System.getProperty("java.io.tmpdir")), 1);
+      files = new JournalFile[FILES];
+      for (int i = 0; i < FILES; i++) {
+         files[i] = new JournalFileImpl(factory.createSequentialFile("index-" + i), i, 2);
+      }
+      final long usedBefore = usedHeap();
+      index = new JournalRecordIndex();
+      recordsPerFile = Math.max(1, records / FILES);
+      for (int i = 0; i < records; i++) {
+         final JournalFile file = fileOf(i);
+         index.add(i, file, 100);
+         index.update(i, file, 20, false);
+      }
+      final long used = usedHeap() - usedBefore;
+      System.out.printf("%n%d records using %d MB: %d bytes per record%n", records, used >> 20, used / records);
+   }
+
+   private JournalFile fileOf(long id) {
+      return files[(int) Math.min(FILES - 1, id / recordsPerFile)];
+   }
+
+   private static long usedHeap() {
+      for (int i = 0; i < 3; i++) {
+         System.gc();
+      }
+      final Runtime runtime = Runtime.getRuntime();
+      return runtime.totalMemory() - runtime.freeMemory();
+   }
+
+   @TearDown
+   public void clear() {
+      index.clear();
+   }
+
+   @Benchmark
+   public boolean contains() {
+      return index.contains(ThreadLocalRandom.current().nextInt(records));
+   }
+
+   @Benchmark
+   public boolean update() {
+      final long id = ThreadLocalRandom.current().nextInt(records);
+      return index.update(id, fileOf(id), 20, false);
+   }
+
+   @Benchmark
+   public boolean deleteAndAdd() {
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      final long id = random.nextInt(records);
+      final boolean deleted = index.delete(id, files[random.nextInt(FILES)]);
+      index.add(id, fileOf(id), 100);
+      return deleted;
+   }
+}
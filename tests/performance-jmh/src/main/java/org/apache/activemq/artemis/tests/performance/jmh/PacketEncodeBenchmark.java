@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.protocol.core.Channel;
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.RemotingConnectionImpl;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessage;
+import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encodes the packets sending a core message and delivering it to a consumer into the buffers of a pooled Netty
+ * allocator, alone or sending them through a channel of the connection. Run it with {@code -prof gc} to get the
+ * allocation rate.
+ * <p>
+ * Encoding alone allocates just the wrapper of the encoded buffer: the packet doesn't escape. Sent through a channel,
+ * the packet escapes and is allocated too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PacketEncodeBenchmark {
+
+   @Param({"send", "receive"})
+   String type;
+
+   @Param({"1024"})
+   int bodySize;
+
+   private EmbeddedChannel channel;
+
+   private RemotingConnectionImpl connection;
+
+   private CoreMessage message;
+
+   private Channel channelImpl;
+
+   @Setup
+   public void init() {
+      channel = new EmbeddedChannel();
+      channel.config().setAllocator(PooledByteBufAllocator.DEFAULT);
+      connection = new RemotingConnectionImpl(null, new NettyConnection(Collections.emptyMap(), channel, null, false, false), -1, -1, null, null, null);
+      channelImpl = connection.getChannel(10, -1);
+      message = new CoreMessage(1, bodySize + 256);
+      message.setAddress(SimpleString.of("benchmark-address"));
+      message.putStringProperty("property", "value");
+      message.getBodyBuffer().writeBytes(new byte[bodySize]);
+      // as it gets to the channel: already encoded
+      message.getEncodeSize();
+   }
+
+   @TearDown
+   public void close() {
+      channel.finishAndReleaseAll();
+   }
+
+   private Packet packet() {
+      switch (type) {
+         case "send":
+            return new SessionSendMessage(message, false, null);
+         case "receive":
+            return new SessionReceiveMessage(1, message, 1);
+         default:
+            throw new IllegalArgumentException("unknown type " + type);
+      }
+   }
+
+   @Benchmark
+   public boolean send() {
+      final boolean sent = channelImpl.send(packet());
+      channel.outboundMessages().forEach(written -> ((ByteBuf) written).release());
+      channel.outboundMessages().clear();
+      return sent;
+   }
+
+   @Benchmark
+   public int encode() {
+      final ActiveMQBuffer buffer = packet().encode(connection);
+      final int size = buffer.readableBytes();
+      buffer.byteBuf().release();
+      return size;
+   }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.activemq.artemis.api.core.ICoreMessage;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.message.impl.CoreMessagePersister;
+import org.apache.activemq.artemis.core.paging.PagedMessage;
+import org.apache.activemq.artemis.core.paging.impl.Page;
+import org.apache.activemq.artemis.core.paging.impl.PageCompressor;
+import org.apache.activemq.artemis.core.paging.impl.PagedMessageImpl;
+import org.apache.activemq.artemis.core.persistence.StorageManager;
+import org.apache.activemq.artemis.core.persistence.impl.nullpm.NullStorageManager;
+import org.apache.activemq.artemis.spi.core.protocol.MessagePersister;
+import org.apache.activemq.artemis.utils.collections.LinkedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes messages to a page file and reads back a whole page file, with and without compression, for JSON like
+ * payloads that compress well and for random ones that don't compress at all.
+ * <p>
+ * The size of the page file read and the compression ratio are printed at the end of each run.
+ */
+@State(Scope.Benchmark)
+@Fork(2)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PageCompressionBenchmark {
+
+   private static final String STORE_DIR = System.getProperty("user.dir") + File.separator + "PageCompressionBenchmark";
+   private static final SimpleString STORE_NAME = SimpleString.of("PageCompressionBenchmark");
+   private static final int PAGE_SIZE = 10 * 1024 * 1024;
+
+   @Param({"false", "true"})
+   private boolean compression;
+   @Param({"true", "false"})
+   private boolean compressible;
+   @Param({"4096"})
+   private int messageSize;
+
+   private SequentialFileFactory factory;
+   private StorageManager storageManager;
+   private PageCompressor compressor;
+   private PagedMessage message;
+   private Page writtenPage;
+   private Page pageToRead;
+   private long pageId;
+
+   @Setup
+   public void init() throws Exception {
+      MessagePersister.registerPersister(CoreMessagePersister.getInstance());
+      factory = new NIOSequentialFileFactory(new File(STORE_DIR), 1).setDatasync(false);
+      factory.start();
+      factory.createDirs();
+      storageManager = new NullStorageManager();
+      compressor = new PageCompressor();
+      final ICoreMessage coreMessage = new CoreMessage().initBuffer(messageSize + 100);
+      coreMessage.setMessageID(1);
+      coreMessage.setAddress(STORE_NAME);
+      coreMessage.getBodyBuffer().writeBytes(compressible ? jsonPayload(messageSize) : randomPayload(messageSize));
+      message = new PagedMessageImpl(coreMessage, new long[0]);
+      // the page read back, with the same messages whether compressed or not
+      final Page page = newPage();
+      page.open(true);
+      for (int i = PAGE_SIZE / messageSize; i > 0; i--) {
+         page.writeDirect(message);
+      }
+      page.close(false, false);
+      pageToRead = newPage(page.getPageId());
+   }
+
+   private static byte[] jsonPayload(int size) {
+      final SplittableRandom random = new SplittableRandom(1);
+      final StringBuilder json = new StringBuilder("[");
+      while (json.length() < size) {
+         json.append("{\"id\":").append(random.nextInt(1_000_000))
+            .append(",\"type\":\"order\",\"status\":\"").append(random.nextBoolean() ? "NEW" : "FILLED")
+            .append("\",\"price\":").append(random.nextInt(10_000)).append(".").append(random.nextInt(100))
+            .append(",\"currency\":\"EUR\"},");
+      }
+      final byte[] payload = new byte[size];
+      System.arraycopy(json.toString().getBytes(StandardCharsets.UTF_8), 0, payload, 0, size);
+      return payload;
+   }
+
+   private static byte[] randomPayload(int size) {
+      final byte[] payload = new byte[size];
+      new SplittableRandom(1).nextBytes(payload);
+      return payload;
+   }
+
+   private Page newPage() throws Exception {
+      return newPage(pageId++);
+   }
+
+   private Page newPage(long id) throws Exception {
+      final Page page = new Page(STORE_NAME, storageManager, factory, factory.createSequentialFile(id + ".page"), id);
+      if (compression) {
+         page.setCompressor(compressor);
+      }
+      return page;
+   }
+
+   @Setup(Level.Iteration)
+   public void openPage() throws Exception {
+      writtenPage = newPage();
+      writtenPage.open(true);
+   }
+
+   @Benchmark
+   public long write() throws Exception {
+      if (writtenPage.getSize() >= PAGE_SIZE) {
+         writtenPage.delete(null);
+         writtenPage = newPage();
+         writtenPage.open(true);
+      }
+      writtenPage.writeDirect(message);
+      return writtenPage.getSize();
+   }
+
+   @Benchmark
+   public LinkedList<PagedMessage> readPage() throws Exception {
+      pageToRead.getFile().open();
+      try {
+         return pageToRead.read();
+      } finally {
+         pageToRead.getFile().close();
+      }
+   }
+
+   @TearDown(Level.Iteration)
+   public void deletePage() throws Exception {
+      writtenPage.delete(null);
+   }
+
+   @TearDown
+   public void stop() throws Exception {
+      System.out.printf("%n%d bytes page file, compression ratio %.2f%n", pageToRead.getFile().size(), compressor.getCompressionRatio());
+      factory.stop();
+      Stream.of(factory.getDirectory().listFiles()).forEach(File::delete);
+      factory.getDirectory().delete();
+   }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.io.File;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.activemq.artemis.api.core.ICoreMessage;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.io.SequentialFile;
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.message.impl.CoreMessagePersister;
+import org.apache.activemq.artemis.core.paging.PagedMessage;
+import org.apache.activemq.artemis.core.paging.impl.Page;
+import org.apache.activemq.artemis.core.paging.impl.PagedMessageImpl;
+import org.apache.activemq.artemis.core.persistence.StorageManager;
+import org.apache.activemq.artemis.core.persistence.impl.nullpm.NullStorageManager;
+import org.apache.activemq.artemis.spi.core.protocol.MessagePersister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads messages at random positions of a paged address of {@code pages} pages of {@code pageSize} bytes, seeking
+ * them through the page index or reading their whole page, as a page subscription querying scattered messages
+ * did.
+ * <p>
+ * Run it with {@code -p pages=1000} to read from a 10 GB paged address.
+ */
+@State(Scope.Benchmark)
+@Fork(2)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageRandomReadBenchmark {
+
+   private static final String STORE_DIR = System.getProperty("user.dir") + File.separator + "PageRandomReadBenchmark";
+   private static final SimpleString STORE_NAME = SimpleString.of("PageRandomReadBenchmark");
+
+   @Param({"10"})
+   private int pages;
+   @Param({"10485760"})
+   private int pageSize;
+   @Param({"1024"})
+   private int messageSize;
+
+   private SequentialFileFactory factory;
+   private StorageManager storageManager;
+   private Page[] indexedPages;
+   private int messagesPerPage;
+
+   @Setup
+   public void init() throws Exception {
+      MessagePersister.registerPersister(CoreMessagePersister.getInstance());
+      factory = new NIOSequentialFileFactory(new File(STORE_DIR), 1).setDatasync(false);
+      factory.start();
+      factory.createDirs();
+      storageManager = new NullStorageManager();
+      final byte[] body = new byte[messageSize];
+      indexedPages = new Page[pages];
+      for (int p = 0; p < pages; p++) {
+         final Page page = newPage(p);
+         page.open(true);
+         int messages = 0;
+         while (page.getSize() < pageSize) {
+            final ICoreMessage message = new CoreMessage().initBuffer(messageSize + 100);
+            message.setMessageID(messages++);
+            message.setAddress(STORE_NAME);
+            message.getBodyBuffer().writeBytes(body);
+            page.writeDirect(new PagedMessageImpl(message, new long[0]));
+         }
+         page.close(false, false);
+         messagesPerPage = messages;
+         indexedPages[p] = newPage(p);
+      }
+   }
+
+   private Page newPage(int pageId) throws Exception {
+      final SequentialFile file = factory.createSequentialFile(pageId + ".page");
+      return new Page(STORE_NAME, storageManager, factory, file, pageId);
+   }
+
+   @Benchmark
+   public PagedMessage readIndexed() throws Exception {
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      return indexedPages[random.nextInt(pages)].readMessage(random.nextInt(messagesPerPage));
+   }
+
+   @Benchmark
+   public PagedMessage readWholePage() throws Exception {
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      final Page page = newPage(random.nextInt(pages));
+      page.getFile().open();
+      try {
+         return page.read().get(random.nextInt(messagesPerPage));
+      } finally {
+         page.getFile().close();
+      }
+   }
+
+   @TearDown
+   public void stop() {
+      factory.stop();
+      Stream.of(factory.getDirectory().listFiles()).forEach(File::delete);
+      factory.getDirectory().delete();
+   }
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.activemq.artemis.ArtemisConstants;
+import org.apache.activemq.artemis.core.io.IOCallback;
+import org.apache.activemq.artemis.core.paging.impl.PageSyncTimer;
+import org.apache.activemq.artemis.core.persistence.OperationContext;
+import org.apache.activemq.artemis.core.persistence.impl.journal.OperationContextImpl;
+import org.apache.activemq.artemis.utils.RunnableEx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of durable paged sends waiting for the sync of a page file, at a low rate, with a single producer pausing
+ * between sends, and at a high rate, with 32 producers sending back to back.
+ * <p>
+ * The single producer pauses either less than {@code page-sync-timeout}, so that its sends are batched, or longer, so
+ * that each one finds the store idle.
+ * <p>
+ * The {@code adaptive} policy is the one of {@link PageSyncTimer}, the {@code fixed} one always waits for
+ * {@code page-sync-timeout} before syncing, as the store did before. The percentiles are reported by the sample time
+ * mode.
+ */
+@State(Scope.Benchmark)
+@Fork(2)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 4)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSyncBenchmark {
+
+   private static final String STORE_DIR = System.getProperty("user.dir") + File.separator + "PageSyncBenchmark";
+
+   @Param({"adaptive", "fixed"})
+   private String policy;
+   @Param({"" + ArtemisConstants.DEFAULT_JOURNAL_BUFFER_TIMEOUT_NIO})
+   private long pageSyncTimeout;
+   @Param({"1024"})
+   private int messageSize;
+
+   private File pageFile;
+   private FileChannel channel;
+   private ScheduledExecutorService scheduledExecutor;
+   private ExecutorService ioExecutor;
+   private ExecutorService completionExecutor;
+   private Syncer syncer;
+
+   private interface Syncer {
+
+      void addSync(OperationContext ctx);
+   }
+
+   @State(Scope.Thread)
+   public static class Producer {
+
+      private ByteBuffer message;
+
+      @Setup
+      public void init(PageSyncBenchmark benchmark) {
+         message = ByteBuffer.allocateDirect(benchmark.messageSize);
+      }
+   }
+
+   @State(Scope.Thread)
+   public static class PausingProducer extends Producer {
+
+      @Param({"1000", "10000"})
+      private long pauseMicros;
+
+      @Setup(Level.Invocation)
+      public void pause() {
+         LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(pauseMicros));
+      }
+   }
+
+   @Setup
+   public void init() throws Exception {
+      final File storeDir = new File(STORE_DIR);
+      storeDir.mkdirs();
+      pageFile = new File(storeDir, "1.page");
+      channel = FileChannel.open(pageFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+      scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+      ioExecutor = Executors.newSingleThreadExecutor();
+      completionExecutor = Executors.newSingleThreadExecutor();
+      final RunnableEx sync = () -> channel.force(false);
+      switch (policy) {
+         case "adaptive":
+            syncer = new PageSyncTimer(sync, scheduledExecutor, ioExecutor, pageSyncTimeout)::addSync;
+            break;
+         case "fixed":
+            syncer = new FixedSyncTimer(sync, scheduledExecutor, ioExecutor, pageSyncTimeout)::addSync;
+            break;
+         default:
+            throw new IllegalArgumentException("unknown policy " + policy);
+      }
+   }
+
+   private void sendDurable(Producer producer) throws Exception {
+      synchronized (channel) {
+         producer.message.clear();
+         channel.write(producer.message);
+         if (channel.position() > 64 * 1024 * 1024) {
+            channel.truncate(0);
+         }
+      }
+      final OperationContextImpl ctx = new OperationContextImpl(completionExecutor);
+      final CountDownLatch synced = new CountDownLatch(1);
+      syncer.addSync(ctx);
+      ctx.executeOnCompletion(new IOCallback() {
+         @Override
+         public void done() {
+            synced.countDown();
+         }
+
+         @Override
+         public void onError(int errorCode, String errorMessage) {
+            synced.countDown();
+         }
+      });
+      synced.await();
+   }
+
+   @Benchmark
+   @Threads(1)
+   public void lowRate(PausingProducer producer) throws Exception {
+      sendDurable(producer);
+   }
+
+   @Benchmark
+   @Threads(32)
+   public void highRate(Producer producer) throws Exception {
+      sendDurable(producer);
+   }
+
+   @TearDown
+   public void stop() throws Exception {
+      scheduledExecutor.shutdownNow();
+      ioExecutor.shutdownNow();
+      completionExecutor.shutdownNow();
+      channel.close();
+      pageFile.delete();
+      pageFile.getParentFile().delete();
+   }
+
+   /**
+    * Syncs once {@code timeSync} elapsed since the first sync requested, however long ago the last one was.
+    */
+   private static final class FixedSyncTimer {
+
+      private final RunnableEx sync;
+      private final ScheduledExecutorService scheduledExecutor;
+      private final ExecutorService executor;
+      private final long timeSync;
+      private boolean pendingSync;
+      private List<OperationContext> syncOperations = new ArrayList<>();
+
+      private FixedSyncTimer(RunnableEx sync, ScheduledExecutorService scheduledExecutor, ExecutorService executor, long timeSync) {
+         this.sync = sync;
+         this.scheduledExecutor = scheduledExecutor;
+         this.executor = executor;
+         this.timeSync = timeSync;
+      }
+
+      synchronized void addSync(OperationContext ctx) {
+         ctx.pageSyncLineUp();
+         if (!pendingSync) {
+            pendingSync = true;
+            scheduledExecutor.schedule(() -> executor.execute(this::tick), timeSync, TimeUnit.NANOSECONDS);
+         }
+         syncOperations.add(ctx);
+      }
+
+      private void tick() {
+         final List<OperationContext> pendingSyncs;
+         synchronized (this) {
+            pendingSync = false;
+            pendingSyncs = syncOperations;
+            syncOperations = new ArrayList<>();
+         }
+         try {
+            sync.run();
+         } catch (Exception e) {
+            pendingSyncs.forEach(ctx -> ctx.onError(0, e.getMessage()));
+         } finally {
+            pendingSyncs.forEach(OperationContext::pageSyncDone);
+         }
+      }
+   }
+}
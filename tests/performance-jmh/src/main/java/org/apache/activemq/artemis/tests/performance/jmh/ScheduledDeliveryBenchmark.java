@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.apache.activemq.artemis.core.server.impl.MessageReferenceImpl;
+import org.apache.activemq.artemis.core.server.impl.ScheduledDeliveryWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Schedules {@code messages} references over {@code spread} ms and delivers them all advancing the time by
+ * {@code step} ms, on a {@link ScheduledDeliveryWheel} and on a {@link TreeSet} with a timer per distinct delivery
+ * time, as the scheduled delivery handler did before the wheel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ScheduledDeliveryBenchmark {
+
+   @Param({"wheel", "treeset"})
+   String type;
+
+   @Param({"10000000"})
+   int messages;
+
+   // 1 hour
+   @Param({"3600000"})
+   long spread;
+
+   @Param({"10"})
+   long step;
+
+   private MessageReference[] refs;
+
+   private boolean[] tails;
+
+   private long start;
+
+   private Schedule schedule;
+
+   private interface Schedule {
+
+      void add(MessageReference ref, boolean tail);
+
+      void advance(long now, Consumer<MessageReference> due);
+
+      int size();
+   }
+
+   private static final class WheelSchedule implements Schedule {
+
+      private final ScheduledDeliveryWheel wheel = new ScheduledDeliveryWheel();
+
+      @Override
+      public void add(MessageReference ref, boolean tail) {
+         wheel.add(ref, tail);
+      }
+
+      @Override
+      public void advance(long now, Consumer<MessageReference> due) {
+         wheel.advance(now, due);
+      }
+
+      @Override
+      public int size() {
+         return wheel.size();
+      }
+   }
+
+   private static final class TreeSetSchedule implements Schedule {
+
+      private static final Runnable TIMER = () -> { };
+
+      private final Map<Long, Runnable> runnables = new ConcurrentHashMap<>();
+
+      private final TreeSet<RefScheduled> scheduledReferences = new TreeSet<>(TreeSetSchedule::compare);
+
+      private static final class RefScheduled {
+
+         final MessageReference ref;
+         final boolean tail;
+
+         RefScheduled(MessageReference ref, boolean tail) {
+            this.ref = ref;
+            this.tail = tail;
+         }
+      }
+
+      private static int compare(RefScheduled ref1, RefScheduled ref2) {
+         final int byTime = Long.compare(ref1.ref.getScheduledDeliveryTime(), ref2.ref.getScheduledDeliveryTime());
+         if (byTime != 0) {
+            return byTime;
+         }
+         if (ref1 == ref2) {
+            return 0;
+         }
+         if (ref1.tail && !ref2.tail) {
+            return 1;
+         }
+         if (!ref1.tail && ref2.tail) {
+            return -1;
+         }
+         return ref1.tail ? 1 : -1;
+      }
+
+      @Override
+      public void add(MessageReference ref, boolean tail) {
+         scheduledReferences.add(new RefScheduled(ref, tail));
+         runnables.putIfAbsent(ref.getScheduledDeliveryTime(), TIMER);
+      }
+
+      @Override
+      public void advance(long now, Consumer<MessageReference> due) {
+         final Iterator<RefScheduled> iter = scheduledReferences.iterator();
+         while (iter.hasNext()) {
+            final MessageReference ref = iter.next().ref;
+            if (ref.getScheduledDeliveryTime() > now) {
+               break;
+            }
+            iter.remove();
+            runnables.remove(ref.getScheduledDeliveryTime());
+            due.accept(ref);
+         }
+      }
+
+      @Override
+      public int size() {
+         return scheduledReferences.size();
+      }
+   }
+
+   @Setup
+   public void init() {
+      // the delivery time is on the reference: all of them can share the same message
+      final CoreMessage message = new CoreMessage();
+      message.setMessageID(1);
+      final SplittableRandom random = new SplittableRandom(42);
+      start = System.currentTimeMillis();
+      refs = new MessageReference[messages];
+      tails = new boolean[messages];
+      for (int i = 0; i < messages; i++) {
+         refs[i] = new MessageReferenceImpl(message, null);
+         refs[i].setScheduledDeliveryTime(start + 1 + random.nextLong(spread));
+         tails[i] = random.nextInt(8) != 0;
+      }
+   }
+
+   @Setup(Level.Invocation)
+   public void initSchedule() {
+      switch (type) {
+         case "wheel":
+            schedule = new WheelSchedule();
+            break;
+         case "treeset":
+            schedule = new TreeSetSchedule();
+            break;
+         default:
+            throw new IllegalArgumentException("unknown type " + type);
+      }
+   }
+
+   @TearDown(Level.Invocation)
+   public void clearSchedule() {
+      if (schedule.size() != 0) {
+         throw new IllegalStateException(schedule.size() + " references still scheduled");
+      }
+      schedule = null;
+   }
+
+   @Benchmark
+   public long scheduleAndDeliver() {
+      final Schedule schedule = this.schedule;
+      final MessageReference[] refs = this.refs;
+      final boolean[] tails = this.tails;
+      for (int i = 0; i < refs.length; i++) {
+         schedule.add(refs[i], tails[i]);
+      }
+      final long[] delivered = new long[1];
+      final Consumer<MessageReference> due = ref -> delivered[0] += ref.getScheduledDeliveryTime();
+      for (long now = start; now <= start + spread; now += step) {
+         schedule.advance(now, due);
+      }
+      schedule.advance(start + spread, due);
+      return delivered[0];
+   }
+}
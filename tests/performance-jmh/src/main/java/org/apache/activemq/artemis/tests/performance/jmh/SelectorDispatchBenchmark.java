@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.server.impl.QueueConsumerIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares finding the consumer of a message by trying the filter of every consumer in turn, as
+ * the round-robin delivery of a queue does, against looking up the candidates in a
+ * {@link QueueConsumerIndex} first, as the {@code selector-indexed-dispatch} delivery does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class SelectorDispatchBenchmark {
+
+   @Param({"10", "100", "1000"})
+   private int consumers;
+
+   /**
+    * Adds a residual predicate to each selector, that still needs to be evaluated once the
+    * candidates are found.
+    */
+   @Param({"false", "true"})
+   private boolean residual;
+
+   private Filter[] filters;
+   private QueueConsumerIndex<Filter> index;
+   private List<Filter> candidates;
+   private Message[] messages;
+   private int messagesMask;
+   private long nextMessage;
+
+   @Setup
+   public void init() throws Exception {
+      filters = new Filter[consumers];
+      index = new QueueConsumerIndex<>();
+      candidates = new ArrayList<>();
+      for (int i = 0; i < consumers; i++) {
+         filters[i] = FilterImpl.createFilter("region = 'R" + i + "'" + (residual ? " AND priority > 2" : ""));
+         index.add(filters[i], filters[i]);
+      }
+      // always use the same seed!
+      SplittableRandom random = new SplittableRandom(0);
+      messages = new Message[1024];
+      messagesMask = messages.length - 1;
+      for (int i = 0; i < messages.length; i++) {
+         CoreMessage message = new CoreMessage(i, 512);
+         message.putStringProperty("region", "R" + random.nextInt(0, consumers));
+         message.putIntProperty("priority", 5);
+         messages[i] = message;
+      }
+   }
+
+   private Message nextMessage() {
+      final long seq = nextMessage;
+      nextMessage = seq + 1;
+      return messages[(int) (seq & messagesMask)];
+   }
+
+   @Benchmark
+   public Filter roundRobin() {
+      final Message message = nextMessage();
+      for (Filter filter : filters) {
+         if (filter.match(message)) {
+            return filter;
+         }
+      }
+      return null;
+   }
+
+   @Benchmark
+   public Filter indexed() {
+      final Message message = nextMessage();
+      try {
+         index.candidates(message, candidates);
+         for (int i = 0, size = candidates.size(); i < size; i++) {
+            final Filter filter = candidates.get(i);
+            if (filter.match(message)) {
+               return filter;
+            }
+         }
+         return null;
+      } finally {
+         candidates.clear();
+      }
+   }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.filter.FilterException;
+import org.apache.activemq.artemis.selector.filter.Filterable;
+import org.apache.activemq.artemis.selector.filter.SelectorCompiler;
+import org.apache.activemq.artemis.selector.impl.SelectorParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the evaluation of typical selectors by the interpreted expressions against the
+ * evaluators built by {@link SelectorCompiler}, on the properties of core messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class SelectorEvaluationBenchmark {
+
+   @Param({
+      "region = 'EU'",
+      "priority > 4",
+      "region = 'EU' AND priority > 4",
+      "region IN ('EU', 'US', 'APAC') AND amount BETWEEN 100 AND 1000",
+      "(region = 'EU' OR region = 'US') AND NOT urgent AND amount > 500.5",
+      "name LIKE 'order-1%' OR region IS NULL"})
+   private String selector;
+
+   @Param({"false", "true"})
+   private boolean compiled;
+
+   private BooleanExpression expression;
+   private Filterable[] messages;
+   private int messagesMask;
+   private long nextMessage;
+
+   @Setup
+   public void init() throws Exception {
+      expression = SelectorParser.parse(selector);
+      if (compiled) {
+         expression = SelectorCompiler.compile(expression);
+      }
+      final String[] regions = {"EU", "US", "APAC", "LATAM"};
+      // always use the same seed!
+      SplittableRandom random = new SplittableRandom(0);
+      messages = new Filterable[1024];
+      messagesMask = messages.length - 1;
+      for (int i = 0; i < messages.length; i++) {
+         CoreMessage message = new CoreMessage(i, 512);
+         message.putStringProperty("region", regions[random.nextInt(regions.length)]);
+         message.putIntProperty("priority", random.nextInt(10));
+         message.putLongProperty("amount", random.nextInt(2000));
+         message.putBooleanProperty("urgent", random.nextBoolean());
+         message.putStringProperty("name", "order-" + i);
+         messages[i] = FilterImpl.filterableOf(message);
+      }
+   }
+
+   @Benchmark
+   public boolean matches() throws FilterException {
+      final long seq = nextMessage;
+      nextMessage = seq + 1;
+      return expression.matches(messages[(int) (seq & messagesMask)]);
+   }
+}
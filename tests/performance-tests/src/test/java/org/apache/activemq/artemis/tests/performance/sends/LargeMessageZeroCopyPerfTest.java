@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.sends;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.management.OperatingSystemMXBean;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CPU time spent by the process, broker and consumer, to consume large messages over a plain TCP connection, with the
+ * chunks read and copied by the broker and with the chunks sent straight from their files (i.e.
+ * {@code largeMessageZeroCopy}). The consumer does the same work in both cases.
+ */
+public class LargeMessageZeroCopyPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString ADDRESS = SimpleString.of("large-message-zero-copy");
+
+   private static final int MESSAGE_SIZE = Integer.getInteger("ZERO_COPY_MESSAGE_SIZE", 10 * 1024 * 1024);
+
+   private static final int MESSAGES = Integer.getInteger("ZERO_COPY_MESSAGES", 100);
+
+   private static final int ROUNDS = Integer.getInteger("ZERO_COPY_ROUNDS", 3);
+
+   @Test
+   public void testConsumeLargeMessages() throws Exception {
+      for (int round = 0; round < ROUNDS; round++) {
+         for (boolean zeroCopy : new boolean[] {false, true}) {
+            final long[] measure = measure(zeroCopy);
+            final double gb = (double) MESSAGES * MESSAGE_SIZE / (1024 * 1024 * 1024);
+            System.out.printf("largeMessageZeroCopy=%b: %.0f CPU ms/GB, %.0f ms/GB%n", zeroCopy,
+                              TimeUnit.NANOSECONDS.toMillis(measure[0]) / gb, TimeUnit.NANOSECONDS.toMillis(measure[1]) / gb);
+         }
+      }
+   }
+
+   /**
+    * @return the CPU time and the elapsed time consuming the messages, in nanoseconds
+    */
+   private long[] measure(boolean zeroCopy) throws Exception {
+      final Configuration configuration = createDefaultNettyConfig();
+      for (TransportConfiguration acceptor : configuration.getAcceptorConfigurations()) {
+         if (NETTY_ACCEPTOR_FACTORY.equals(acceptor.getFactoryClassName())) {
+            acceptor.getParams().put(TransportConstants.LARGE_MESSAGE_ZERO_COPY, zeroCopy);
+         }
+      }
+      final ActiveMQServer server = addServer(createServer(true, configuration));
+      server.start();
+      try (ServerLocator locator = createNettyNonHALocator();
+           ClientSessionFactory factory = createSessionFactory(locator);
+           ClientSession session = factory.createSession()) {
+         session.createQueue(new QueueConfiguration(ADDRESS).setRoutingType(RoutingType.ANYCAST).setDurable(false));
+
+         final byte[] body = new byte[MESSAGE_SIZE];
+         final ClientProducer producer = session.createProducer(ADDRESS);
+         for (int i = 0; i < MESSAGES; i++) {
+            final ClientMessage message = session.createMessage(true);
+            message.setBodyInputStream(new ByteArrayInputStream(body));
+            producer.send(message);
+         }
+
+         final ClientConsumer consumer = session.createConsumer(ADDRESS);
+         session.start();
+         final OperatingSystemMXBean os = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+         final long startCpu = os.getProcessCpuTime();
+         final long start = System.nanoTime();
+         for (int i = 0; i < MESSAGES; i++) {
+            final ClientMessage message = consumer.receive(30_000);
+            assertNotNull(message);
+            message.saveToOutputStream(OutputStream.nullOutputStream());
+            message.acknowledge();
+         }
+         final long elapsed = System.nanoTime() - start;
+         final long cpu = os.getProcessCpuTime() - startCpu;
+         assertNull(consumer.receiveImmediate());
+         return new long[] {cpu, elapsed};
+      } finally {
+         server.stop();
+      }
+   }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.sends;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Latency percentiles of non-durable messages from the send to the return of {@link ClientConsumer#receive(long)},
+ * for a consumer always waiting on an empty buffer (paced sends) and for one always finding it full (burst sends).
+ */
+public class ReceiveLatencyPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = SimpleString.of("receive-latency-queue");
+
+   private static final SimpleString SENT_NANOS = SimpleString.of("sentNanos");
+
+   private static final int MESSAGE_SIZE = 1024;
+
+   private static final int WARMUP_MESSAGES = Integer.getInteger("RECEIVE_LATENCY_WARMUP_MESSAGES", 20_000);
+
+   private static final int MEASURE_MESSAGES = Integer.getInteger("RECEIVE_LATENCY_MEASURE_MESSAGES", 100_000);
+
+   private static final long PACED_SEND_INTERVAL_NANOS = Long.getLong("RECEIVE_LATENCY_PACED_INTERVAL_NANOS", 20_000);
+
+   private ActiveMQServer server;
+
+   @Override
+   @BeforeEach
+   public void setUp() throws Exception {
+      super.setUp();
+      server = addServer(createServer(false, createDefaultNettyConfig()));
+      server.start();
+      server.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST).setDurable(false));
+   }
+
+   @Test
+   public void testReceiveLatency() throws Exception {
+      for (long interval : new long[] {PACED_SEND_INTERVAL_NANOS, 0}) {
+         final long[] latencies = measure(interval);
+         Arrays.sort(latencies);
+         System.out.printf("sendInterval=%dns: p50=%dus p99=%dus p999=%dus max=%dus%n", interval,
+                           percentile(latencies, 0.5) / 1000, percentile(latencies, 0.99) / 1000,
+                           percentile(latencies, 0.999) / 1000, latencies[latencies.length - 1] / 1000);
+      }
+   }
+
+   private static long percentile(long[] sorted, double percentile) {
+      return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+   }
+
+   private long[] measure(long sendIntervalNanos) throws Exception {
+      try (ServerLocator locator = createNettyNonHALocator().setBlockOnNonDurableSend(false);
+           ClientSessionFactory factory = createSessionFactory(locator);
+           ClientSession producerSession = factory.createSession();
+           ClientSession consumerSession = factory.createSession()) {
+
+         final ClientConsumer consumer = consumerSession.createConsumer(QUEUE);
+         consumerSession.start();
+         final ClientProducer producer = producerSession.createProducer(QUEUE);
+         final int messages = WARMUP_MESSAGES + MEASURE_MESSAGES;
+         final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+         final Thread sender = new Thread(() -> {
+            try {
+               final byte[] body = new byte[MESSAGE_SIZE];
+               long next = System.nanoTime();
+               for (int i = 0; i < messages; i++) {
+                  if (sendIntervalNanos > 0) {
+                     next += sendIntervalNanos;
+                     while (System.nanoTime() - next < 0) {
+                        LockSupport.parkNanos(1);
+                     }
+                  }
+                  final ClientMessage message = producerSession.createMessage(false);
+                  message.getBodyBuffer().writeBytes(body);
+                  message.putLongProperty(SENT_NANOS, System.nanoTime());
+                  producer.send(message);
+               }
+            } catch (Throwable t) {
+               failure.compareAndSet(null, t);
+            }
+         }, "producer");
+         sender.start();
+
+         final long[] latencies = new long[MEASURE_MESSAGES];
+         for (int i = 0; i < messages; i++) {
+            final ClientMessage message = consumer.receive(10_000);
+            assertNotNull(message);
+            final long latency = System.nanoTime() - message.getLongProperty(SENT_NANOS);
+            message.acknowledge();
+            if (i >= WARMUP_MESSAGES) {
+               latencies[i - WARMUP_MESSAGES] = latency;
+            }
+         }
+
+         sender.join();
+         assertNull(failure.get());
+         return latencies;
+      }
+   }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.sends;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Throughput of many producer threads sending non-durable messages through the same core session, hence the same
+ * channel of a single connection, with and without the confirmation window of the resend cache.
+ * <p>
+ * The producers encode their packets concurrently and serialize on the send lock of the channel only to line them up
+ * and write them: the gain over encoding under the lock shows only with more cores than the broker and the client
+ * keep busy.
+ */
+public class SharedSessionSendPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString ADDRESS = SimpleString.of("shared-session-address");
+
+   private static final int MESSAGE_SIZE = 1024;
+
+   private static final long WARMUP_MILLIS = Long.getLong("SHARED_SESSION_WARMUP_MILLIS", 2_000);
+
+   private static final long MEASURE_MILLIS = Long.getLong("SHARED_SESSION_MEASURE_MILLIS", 5_000);
+
+   private ActiveMQServer server;
+
+   @Override
+   @BeforeEach
+   public void setUp() throws Exception {
+      super.setUp();
+      // no queue bound to the address: the broker drops the messages, just the send path is measured
+      server = addServer(createServer(false, createDefaultNettyConfig()));
+      server.start();
+   }
+
+   @Test
+   public void testSharedSessionSends() throws Exception {
+      for (int confirmationWindowSize : new int[] {-1, 1024 * 1024}) {
+         for (int threads : new int[] {1, 2, 4, 8, 16}) {
+            final double rate = measure(threads, confirmationWindowSize);
+            System.out.printf("confirmationWindowSize=%d threads=%d: %.0f msgs/sec%n", confirmationWindowSize, threads, rate);
+         }
+      }
+   }
+
+   private double measure(int threads, int confirmationWindowSize) throws Exception {
+      try (ServerLocator locator = createNettyNonHALocator()
+         .setConfirmationWindowSize(confirmationWindowSize)
+         .setBlockOnNonDurableSend(false);
+           ClientSessionFactory factory = createSessionFactory(locator);
+           ClientSession session = factory.createSession()) {
+
+         final AtomicLong sent = new AtomicLong();
+         final AtomicReference<Throwable> failure = new AtomicReference<>();
+         final CountDownLatch done = new CountDownLatch(threads);
+         final long warmupEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS);
+         final long end = warmupEnd + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+
+         for (int i = 0; i < threads; i++) {
+            final ClientProducer producer = session.createProducer(ADDRESS);
+            new Thread(() -> {
+               try {
+                  final byte[] body = new byte[MESSAGE_SIZE];
+                  long now;
+                  while ((now = System.nanoTime()) - end < 0) {
+                     final ClientMessage message = session.createMessage(false);
+                     message.getBodyBuffer().writeBytes(body);
+                     producer.send(message);
+                     if (now - warmupEnd >= 0) {
+                        sent.incrementAndGet();
+                     }
+                  }
+               } catch (Throwable t) {
+                  failure.compareAndSet(null, t);
+               } finally {
+                  done.countDown();
+               }
+            }, "producer-" + i).start();
+         }
+
+         done.await();
+         assertNull(failure.get());
+         return sent.get() * 1000d / MEASURE_MILLIS;
+      }
+   }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.journal.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
+import org.apache.activemq.artemis.core.journal.JournalLoadInformation;
+import org.apache.activemq.artemis.core.journal.LoaderCallback;
+import org.apache.activemq.artemis.core.journal.PreparedTransactionInfo;
+import org.apache.activemq.artemis.core.journal.RecordInfo;
+import org.apache.activemq.artemis.core.journal.impl.JournalImpl;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.jupiter.api.Test;
+
+public class JournalParallelLoadTest extends ActiveMQTestBase {
+
+   private static final int FILE_SIZE = 10 * 1024;
+
+   @Test
+   public void testParallelLoadMatchesSequentialLoad() throws Exception {
+      File journalFolder = new File(getTestDirfile(), "journal");
+      journalFolder.mkdirs();
+
+      JournalImpl journal = createJournal(journalFolder, 1);
+      journal.start();
+      journal.loadInternalOnly();
+
+      long txID = 1_000_000;
+      for (int i = 0; i < 1000; i++) {
+         journal.appendAddRecord(i, (byte) 1, record(i, 100), false);
+         if (i % 3 == 0) {
+            journal.appendUpdateRecord(i, (byte) 2, record(i + 1, 50), false);
+         }
+         if (i % 5 == 0) {
+            journal.appendDeleteRecord(i, false);
+         }
+         if (i % 50 == 0) {
+            txID++;
+            for (int j = 0; j < 5; j++) {
+               journal.appendAddRecordTransactional(txID, 10_000 + i * 10 + j, (byte) 3, record(j, 80));
+            }
+            journal.appendDeleteRecordTransactional(txID, i + 1);
+            if (i % 200 == 0) {
+               journal.appendPrepareRecord(txID, record(i, 20), false);
+            } else if (i % 150 == 0) {
+               journal.appendRollbackRecord(txID, false);
+            } else {
+               journal.appendCommitRecord(txID, false);
+            }
+         }
+      }
+      // never completed
+      journal.appendAddRecordTransactional(++txID, 20_000, (byte) 3, record(0, 10));
+      journal.appendAddRecord(30_000, (byte) 1, record(0, 10), true);
+      journal.stop();
+
+      // the load rolls back the incomplete transaction: every load needs its own copy
+      List<String> sequential = new ArrayList<>();
+      JournalLoadInformation sequentialInfo = load(copy(journalFolder, "sequential"), 1, sequential);
+
+      List<String> parallel = new ArrayList<>();
+      JournalLoadInformation parallelInfo = load(copy(journalFolder, "parallel"), 4, parallel);
+
+      assertTrue(sequential.size() > 1000, "records = " + sequential.size());
+      assertEquals(sequential, parallel);
+      assertEquals(sequentialInfo.getNumberOfRecords(), parallelInfo.getNumberOfRecords());
+      assertEquals(sequentialInfo.getMaxID(), parallelInfo.getMaxID());
+   }
+
+   private File copy(File journalFolder, String name) throws Exception {
+      File copy = new File(getTestDirfile(), name);
+      copy.mkdirs();
+      for (File file : journalFolder.listFiles()) {
+         Files.copy(file.toPath(), new File(copy, file.getName()).toPath());
+      }
+      return copy;
+   }
+
+   private static JournalImpl createJournal(File journalFolder, int loadThreads) {
+      JournalImpl journal = new JournalImpl(FILE_SIZE, 2, 2, 0, 0, new NIOSequentialFileFactory(journalFolder, 1), "test", "journal", 1);
+      journal.setLoadThreads(loadThreads);
+      return journal;
+   }
+
+   private static JournalLoadInformation load(File journalFolder, int loadThreads, List<String> events) throws Exception {
+      JournalImpl journal = createJournal(journalFolder, loadThreads);
+      journal.start();
+      try {
+         return journal.load(new LoaderCallback() {
+            @Override
+            public void addPreparedTransaction(PreparedTransactionInfo preparedTransaction) {
+               events.add("prepared " + preparedTransaction.getId() + " " + describe(preparedTransaction.getRecords()) + " " + describe(preparedTransaction.getRecordsToDelete()));
+            }
+
+            @Override
+            public void addRecord(RecordInfo info) {
+               events.add("add " + describe(info));
+            }
+
+            @Override
+            public void deleteRecord(long id) {
+               events.add("delete " + id);
+            }
+
+            @Override
+            public void updateRecord(RecordInfo info) {
+               events.add("update " + describe(info));
+            }
+
+            @Override
+            public void failedTransaction(long transactionID, List<RecordInfo> records, List<RecordInfo> recordsToDelete) {
+               events.add("failed " + transactionID + " " + describe(records) + " " + describe(recordsToDelete));
+            }
+         });
+      } finally {
+         journal.stop();
+      }
+   }
+
+   private static String describe(List<RecordInfo> records) {
+      StringBuilder description = new StringBuilder("[");
+      for (RecordInfo info : records) {
+         description.append(describe(info)).append(',');
+      }
+      return description.append(']').toString();
+   }
+
+   private static String describe(RecordInfo info) {
+      return info.id + "/" + info.userRecordType + "/" + Arrays.hashCode(info.data);
+   }
+
+   private static byte[] record(int seed, int size) {
+      byte[] record = new byte[size];
+      Arrays.fill(record, (byte) seed);
+      return record;
+   }
+}
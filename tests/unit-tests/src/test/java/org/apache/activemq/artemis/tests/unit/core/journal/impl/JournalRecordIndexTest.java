@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.journal.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.activemq.artemis.core.journal.impl.JournalFile;
+import org.apache.activemq.artemis.core.journal.impl.JournalFileImpl;
+import org.apache.activemq.artemis.core.journal.impl.JournalRecordIndex;
+import org.apache.activemq.artemis.tests.unit.core.journal.impl.fakes.FakeSequentialFileFactory;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.jupiter.api.Test;
+
+public class JournalRecordIndexTest extends ActiveMQTestBase {
+
+   private final FakeSequentialFileFactory factory = new FakeSequentialFileFactory();
+
+   private JournalFile newFile(long fileID) {
+      return new JournalFileImpl(factory.createSequentialFile("file-" + fileID), fileID, 2);
+   }
+
+   @Test
+   public void testAddUpdateDeleteAccounting() {
+      JournalRecordIndex index = new JournalRecordIndex();
+      JournalFile file1 = newFile(1);
+      JournalFile file2 = newFile(2);
+      JournalFile file3 = newFile(3);
+
+      index.add(1, file1, 100);
+      assertEquals(1, file1.getPosCount());
+      assertEquals(1, file1.getAddRecord());
+      assertEquals(100, file1.getLiveSize());
+
+      assertTrue(index.update(1, file1, 10, true));
+      assertTrue(index.update(1, file1, 10, true));
+      assertTrue(index.update(1, file2, 20, true));
+      assertTrue(index.update(1, file2, 20, false));
+      assertTrue(index.update(1, file3, 30, false));
+      assertFalse(index.update(2, file3, 30, false));
+
+      assertEquals(3, file1.getPosCount());
+      assertEquals(120, file1.getLiveSize());
+      // only the first update of a record on a file is replaceable
+      assertEquals(1, file1.getReplaceableCount());
+      assertEquals(2, file2.getPosCount());
+      assertEquals(40, file2.getLiveSize());
+      assertEquals(1, file2.getReplaceableCount());
+      assertEquals(1, file3.getPosCount());
+      assertEquals(0, file3.getReplaceableCount());
+
+      assertTrue(index.delete(1, file3));
+      assertFalse(index.contains(1));
+      assertFalse(index.delete(1, file3));
+      assertFalse(index.update(1, file3, 30, false));
+
+      assertEquals(3, file3.getNegCount(file1));
+      assertEquals(2, file3.getNegCount(file2));
+      assertEquals(1, file3.getNegCount(file3));
+      assertEquals(0, file1.getLiveSize());
+      assertEquals(0, file2.getLiveSize());
+      assertEquals(0, file3.getLiveSize());
+      assertTrue(index.isEmpty());
+   }
+
+   @Test
+   public void testRehashAndTombstones() {
+      JournalRecordIndex index = new JournalRecordIndex(16, 2);
+      JournalFile file = newFile(1);
+      final int records = 10_000;
+      for (int i = 0; i < records; i++) {
+         index.add(i, file, 10);
+         if (i % 3 == 0) {
+            index.update(i, file, 5, false);
+         }
+      }
+      assertEquals(records, index.size());
+      for (int i = 0; i < records; i += 2) {
+         assertTrue(index.delete(i, file));
+      }
+      assertEquals(records / 2, index.size());
+      // reuse the deleted buckets
+      for (int i = 0; i < records; i += 4) {
+         index.add(i, file, 10);
+      }
+      Set<Long> ids = new HashSet<>();
+      index.forEach(ids::add);
+      assertEquals(index.size(), ids.size());
+      for (long i = 0; i < records; i++) {
+         assertEquals(i % 2 == 1 || i % 4 == 0, index.contains(i), "id = " + i);
+         assertEquals(index.contains(i), ids.contains(i), "id = " + i);
+      }
+      assertEquals(index.size(), index.keysLongHashSet().size());
+
+      // the ids are collected before calling back, so the index can be modified meanwhile
+      index.forEach(id -> index.delete(id, file));
+      assertTrue(index.isEmpty());
+      assertEquals(0, file.getLiveSize());
+   }
+
+   @Test
+   public void testAddAllMovesRecordsWithoutAccounting() {
+      JournalRecordIndex index = new JournalRecordIndex();
+      JournalRecordIndex compacted = new JournalRecordIndex();
+      JournalFile file1 = newFile(1);
+      JournalFile file2 = newFile(2);
+      JournalFile deleteFile = newFile(3);
+
+      index.add(1, file1, 100);
+      compacted.add(2, file1, 100);
+      compacted.update(2, file1, 10, false);
+      compacted.update(2, file2, 20, false);
+
+      index.addAll(compacted);
+
+      assertEquals(2, index.size());
+      assertEquals(3, file1.getPosCount());
+      assertEquals(1, file2.getPosCount());
+
+      assertTrue(index.delete(2, deleteFile));
+      assertEquals(2, deleteFile.getNegCount(file1));
+      assertEquals(1, deleteFile.getNegCount(file2));
+      assertEquals(100, file1.getLiveSize());
+      assertEquals(0, file2.getLiveSize());
+
+      index.clear();
+      assertTrue(index.isEmpty());
+      assertFalse(index.contains(1));
+   }
+
+   @Test
+   public void testReplaceCompactedKeepsLaterUpdates() {
+      JournalRecordIndex index = new JournalRecordIndex();
+      JournalRecordIndex compacted = new JournalRecordIndex();
+      JournalFile oldFile = newFile(1);
+      JournalFile laterFile = newFile(2);
+      JournalFile newFile = newFile(3);
+      JournalFile deleteFile = newFile(4);
+
+      index.add(1, oldFile, 100);
+      index.update(1, oldFile, 10, false);
+      index.update(1, laterFile, 20, false);
+      index.add(2, laterFile, 100);
+
+      compacted.add(1, newFile, 100);
+      compacted.update(1, newFile, 10, false);
+
+      index.replaceCompacted(compacted, Set.of(oldFile));
+
+      assertEquals(2, index.size());
+      assertTrue(index.delete(1, deleteFile));
+      assertEquals(0, deleteFile.getNegCount(oldFile));
+      assertEquals(2, deleteFile.getNegCount(newFile));
+      assertEquals(1, deleteFile.getNegCount(laterFile));
+      assertEquals(0, newFile.getLiveSize());
+      assertEquals(100, laterFile.getLiveSize());
+      assertTrue(index.contains(2));
+   }
+}
@@ -17,10 +17,15 @@
 package org.apache.activemq.artemis.tests.unit.core.paging.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -32,8 +37,12 @@ import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
 import org.apache.activemq.artemis.core.message.impl.CoreMessage;
 import org.apache.activemq.artemis.core.message.impl.CoreMessagePersister;
 import org.apache.activemq.artemis.core.paging.PagedMessage;
+import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.paging.impl.Page;
+import org.apache.activemq.artemis.core.paging.impl.PageCache;
+import org.apache.activemq.artemis.core.paging.impl.PageCompressor;
 import org.apache.activemq.artemis.core.paging.impl.PagedMessageImpl;
+import org.apache.activemq.artemis.core.paging.impl.SharedPageCache;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
 import org.apache.activemq.artemis.core.persistence.impl.journal.JournalStorageManager;
 import org.apache.activemq.artemis.core.persistence.impl.journal.LargeServerMessageImpl;
@@ -49,6 +58,7 @@ import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
 import org.apache.activemq.artemis.utils.critical.EmptyCriticalAnalyzer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 public class PageTest extends ActiveMQTestBase {
 
@@ -177,6 +187,189 @@ public class PageTest extends ActiveMQTestBase {
 
    }
 
+   @Test
+   public void testReadMessageWithIndexNIO() throws Exception {
+      recreateDirectory(getTestDir());
+      final SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
+      final StorageManager storageManager = new NullStorageManager();
+      final SimpleString address = SimpleString.of("Test");
+      final int numberOfElements = 500;
+
+      SequentialFile file = factory.createSequentialFile("00010.page");
+      Page page = new Page(SimpleString.of("something"), storageManager, factory, file, 10);
+      page.open(true);
+      for (int i = 0; i < numberOfElements; i++) {
+         // some records larger than the read chunks
+         final byte[] content = new byte[i % 50 == 0 ? 10_000 : 10 + i];
+         Arrays.fill(content, (byte) i);
+         writeMessage(storageManager, false, i, address, content, page);
+      }
+      page.close(false, false);
+
+      assertEquals(1, factory.listFiles("idx").size());
+
+      page = new Page(SimpleString.of("something"), storageManager, factory, factory.createSequentialFile("00010.page"), 10);
+      assertEquals(numberOfElements, page.readNumberOfMessages());
+      for (int i : new int[]{numberOfElements - 1, 0, 250, 50, 251, 49}) {
+         final PagedMessage message = page.readMessage(i);
+         assertEquals(i, message.getMessage().getMessageID());
+         assertEquals(i, message.getMessageNumber());
+         assertEquals(10, message.getPageNumber());
+         assertEquals(i % 50 == 0 ? 10_000 : 10 + i, message.getMessage().toCore().getBodyBuffer().readableBytes());
+      }
+      assertNull(page.readMessage(numberOfElements));
+      assertFalse(page.isOpen());
+
+      // messages appended without updating the index make it stale: it is rebuilt from the page
+      file = factory.createSequentialFile("00010.page");
+      file.open();
+      file.position(file.size());
+      page = new Page(SimpleString.of("something"), storageManager, factory, file, 10);
+      writeMessage(storageManager, false, numberOfElements, address, new byte[10], page);
+      file.close();
+
+      page = new Page(SimpleString.of("something"), storageManager, factory, factory.createSequentialFile("00010.page"), 10);
+      assertEquals(numberOfElements, page.readMessage(numberOfElements).getMessage().getMessageID());
+      assertEquals(7, page.readMessage(7).getMessage().getMessageID());
+      assertEquals(numberOfElements + 1, page.readNumberOfMessages());
+
+      page.delete(null);
+      assertEquals(0, factory.listFiles("page").size());
+      assertEquals(0, factory.listFiles("idx").size());
+   }
+
+   @Test
+   public void testCompressedPageNIO() throws Exception {
+      recreateDirectory(getTestDir());
+      final SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
+      final StorageManager storageManager = new NullStorageManager();
+      final SimpleString address = SimpleString.of("Test");
+      final PageCompressor compressor = new PageCompressor();
+      final Random random = new Random(1);
+      final int numberOfElements = 100;
+      final byte[][] contents = new byte[numberOfElements][];
+
+      Page page = new Page(SimpleString.of("something"), storageManager, factory, factory.createSequentialFile("00010.page"), 10);
+      page.setCompressor(compressor);
+      page.open(true);
+      for (int i = 0; i < numberOfElements; i++) {
+         contents[i] = new byte[10_000];
+         if (i % 10 == 0) {
+            // not compressible: written as it is
+            random.nextBytes(contents[i]);
+         } else {
+            Arrays.fill(contents[i], (byte) i);
+         }
+         writeMessage(storageManager, false, i, address, contents[i], page);
+      }
+      final long pageSize = page.getSize();
+      page.close(false, false);
+
+      assertTrue(pageSize < numberOfElements * 10_000 / 2, "page size " + pageSize);
+      assertTrue(compressor.getCompressionRatio() > 2, "compression ratio " + compressor.getCompressionRatio());
+
+      page = new Page(SimpleString.of("something"), storageManager, factory, factory.createSequentialFile("00010.page"), 10);
+      assertEquals(numberOfElements, page.readNumberOfMessages());
+      page.open(false);
+      final LinkedList<PagedMessage> messages = page.read(storageManager);
+      page.close(false, false);
+      assertEquals(numberOfElements, messages.size());
+      for (int i = 0; i < numberOfElements; i++) {
+         final ICoreMessage message = messages.get(i).getMessage().toCore();
+         assertEquals(i, message.getMessageID());
+         final byte[] body = new byte[message.getBodyBuffer().readableBytes()];
+         message.getBodyBuffer().readBytes(body);
+         assertTrue(Arrays.equals(contents[i], body), "message " + i);
+      }
+      for (int i : new int[]{numberOfElements - 1, 0, 50, 55}) {
+         final PagedMessage message = page.readMessage(i);
+         assertEquals(i, message.getMessage().getMessageID());
+         assertEquals(10_000, message.getMessage().toCore().getBodyBuffer().readableBytes());
+      }
+
+      // records written uncompressed are read along the compressed ones
+      page = new Page(SimpleString.of("something"), storageManager, factory, factory.createSequentialFile("00010.page"), 10);
+      page.open(false);
+      page.getFile().position(page.getFile().size());
+      writeMessage(storageManager, false, numberOfElements, address, contents[1], page);
+      page.close(false, false);
+      page = new Page(SimpleString.of("something"), storageManager, factory, factory.createSequentialFile("00010.page"), 10);
+      assertEquals(numberOfElements + 1, page.readNumberOfMessages());
+      assertEquals(numberOfElements, page.readMessage(numberOfElements).getMessage().getMessageID());
+      assertEquals(1, page.readMessage(1).getMessage().getMessageID());
+   }
+
+   @Test
+   public void testSharedPageCache() throws Exception {
+      recreateDirectory(getTestDir());
+      final SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
+      final StorageManager storageManager = new NullStorageManager();
+      final SimpleString address = SimpleString.of("Test");
+
+      long fileSize = 0;
+      for (int pageId = 1; pageId <= 3; pageId++) {
+         final Page page = new Page(address, storageManager, factory, factory.createSequentialFile(pageId + ".page"), pageId);
+         page.open(true);
+         for (int i = 0; i < 100; i++) {
+            writeMessage(storageManager, false, i, address, new byte[100], page);
+         }
+         page.close(false, false);
+         fileSize = page.getSize();
+      }
+
+      // the cache is bounded by the heap held by the decoded messages, more than their file
+      final Page read = new Page(address, storageManager, factory, factory.createSequentialFile("1.page"), 1);
+      assertEquals(0, read.getMemoryEstimate());
+      assertEquals(100, read.getMessages().size());
+      final long pageSize = read.getMemoryEstimate();
+      assertTrue(pageSize > fileSize, pageSize + " > " + fileSize);
+
+      // room for two pages only
+      final SharedPageCache sharedCache = new SharedPageCache(pageSize * 2 + pageSize / 2);
+      final PageCache pageCache = new PageCache(Mockito.mock(PagingStore.class), sharedCache);
+      final Page[] pages = new Page[4];
+      for (int pageId = 1; pageId <= 3; pageId++) {
+         assertNull(pageCache.use(pageId));
+         pages[pageId] = new Page(address, storageManager, factory, factory.createSequentialFile(pageId + ".page"), pageId);
+         assertEquals(100, pages[pageId].getMessages().size());
+         pageCache.injectPage(pages[pageId]);
+         pages[pageId].usageUp();
+      }
+      assertEquals(pageSize * 3, pageCache.getResidentBytes());
+
+      // a page used by two subscriptions is retained once both release it
+      final Page page1 = pageCache.use(1);
+      assertSame(pages[1], page1);
+      page1.usageUp();
+      page1.usageDown();
+      assertEquals(0, sharedCache.getPageCount());
+      page1.usageDown();
+      assertEquals(1, sharedCache.getPageCount());
+      assertNull(pageCache.get(1));
+      assertEquals(pageSize * 3, pageCache.getResidentBytes());
+
+      // the eldest released page is evicted beyond the max size
+      pages[2].usageDown();
+      pages[3].usageDown();
+      assertEquals(2, sharedCache.getPageCount());
+      assertEquals(pageSize * 2, sharedCache.getSize());
+      assertEquals(pageSize * 2, pageCache.getResidentBytes());
+      assertNull(pageCache.use(1));
+
+      final Page page2 = pageCache.use(2);
+      assertSame(pages[2], page2);
+      assertNotNull(pageCache.get(2));
+      assertEquals(1, sharedCache.getPageCount());
+      assertEquals(100, page2.getMessages().size());
+      assertEquals((double) 2 / 6, pageCache.getHitRatio(), 0.0001);
+
+      // removed pages aren't retained anymore
+      pageCache.forget(3);
+      assertEquals(0, sharedCache.getPageCount());
+      assertEquals(0, sharedCache.getSize());
+      assertEquals(pageSize, pageCache.getResidentBytes());
+   }
+
    protected void testDamagedPage(final SequentialFileFactory factory, final int numberOfElements) throws Exception {
 
       SequentialFile file = factory.createSequentialFile("00010.page");
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -366,6 +367,57 @@ public class PagingStoreImplTest extends ActiveMQTestBase {
       }
    }
 
+   @Test
+   public void testReadAhead() throws Exception {
+      SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
+
+      SimpleString destination = SimpleString.of("test");
+
+      FakeStoreFactory storeFactory = new FakeStoreFactory(factory);
+      storeFactory.executor = getExecutorFactory().getExecutor();
+
+      AddressSettings settings = new AddressSettings().setAddressFullMessagePolicy(AddressFullMessagePolicy.PAGE).setPageReadAheadPages(2);
+
+      PagingStoreImpl storeImpl = new PagingStoreImpl(PagingStoreImplTest.destinationTestName, null, 100, createMockManager(), createStorageManagerMock(), factory, storeFactory, PagingStoreImplTest.destinationTestName, settings, getExecutorFactory().getExecutor(), getExecutorFactory().getExecutor(), true);
+      PageSubscription subscription = storeImpl.getCursorProvider().createSubscription(1, null, true);
+      FakeQueue fakeQueue = new FakeQueue(destination, 1).setDurable(true).setPageSubscription(subscription);
+
+      storeImpl.start();
+      storeImpl.startPaging();
+      storeImpl.getCursorProvider().disableCleanup();
+
+      final int numMessages = 50;
+      for (int i = 0; i < numMessages; i++) {
+         Message msg = createMessage(i, storeImpl, destination, createRandomBuffer(i + 1L, 10));
+         msg.putIntProperty("i", i);
+         final RoutingContextImpl ctx = new RoutingContextImpl(null);
+         ctx.addQueue(fakeQueue.getName(), fakeQueue);
+         assertTrue(storeImpl.page(msg, ctx.getTransaction(), ctx.getContextListing(storeImpl.getStoreName())));
+         if ((i + 1) % 10 == 0) {
+            storeImpl.forceAnotherPage();
+         }
+      }
+      assertEquals(6, storeImpl.getCurrentWritingPage());
+
+      PageIterator iterator = subscription.iterator();
+      assertEquals(0, iterator.next().getPagedMessage().getMessage().getIntProperty("i").intValue());
+      // pages 2 and 3 are read while page 1 is consumed
+      Wait.assertEquals(2, () -> PagingStoreTestAccessor.getReadAheadSize(storeImpl), 5000, 10);
+      Wait.assertEquals(4, () -> PagingStoreTestAccessor.getUsedPagesSize(storeImpl), 5000, 10);
+
+      for (int i = 1; i < numMessages; i++) {
+         assertTrue(iterator.hasNext());
+         assertEquals(i, iterator.next().getPagedMessage().getMessage().getIntProperty("i").intValue());
+      }
+      iterator.close();
+
+      // pages reached by the subscription are no longer read ahead, and the current page is never read ahead
+      Wait.assertEquals(0, () -> PagingStoreTestAccessor.getReadAheadSize(storeImpl), 5000, 10);
+      Wait.assertEquals(1, () -> PagingStoreTestAccessor.getUsedPagesSize(storeImpl), 5000, 10);
+
+      storeImpl.stop();
+   }
+
    private void debugPage(PagingStoreImpl storeImpl, PageSubscription subscription, long startPage, long endPage) throws Exception {
       for (long pgID = startPage; pgID <= endPage; pgID++) {
          Page page = storeImpl.newPageObject(pgID);
@@ -1402,6 +1454,8 @@ public class PagingStoreImplTest extends ActiveMQTestBase {
 
       final SequentialFileFactory factory;
 
+      Executor executor;
+
       FakeStoreFactory() {
          factory = new FakeSequentialFileFactory();
       }
@@ -1437,6 +1491,11 @@ public class PagingStoreImplTest extends ActiveMQTestBase {
          return new PageCursorProviderImpl(store, storageManager);
       }
 
+      @Override
+      public Executor newExecutor() {
+         return executor;
+      }
+
       @Override
       public void setPagingManager(final PagingManager manager) {
       }
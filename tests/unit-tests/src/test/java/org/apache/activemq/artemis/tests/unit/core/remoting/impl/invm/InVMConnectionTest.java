@@ -16,20 +16,36 @@
  */
 package org.apache.activemq.artemis.tests.unit.core.remoting.impl.invm;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 import org.apache.activemq.artemis.api.core.TransportConfiguration;
 import org.apache.activemq.artemis.core.remoting.impl.invm.InVMConnection;
 import org.apache.activemq.artemis.core.remoting.impl.invm.InVMConnectorFactory;
 import org.apache.activemq.artemis.core.remoting.impl.invm.TransportConstants;
+import org.apache.activemq.artemis.utils.actors.ArtemisExecutor;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class InVMConnectionTest {
 
+   @TempDir
+   public File temporaryFolder;
+
    @Test
    public void testIsTargetNode() throws Exception {
 
@@ -55,4 +71,39 @@ public class InVMConnectionTest {
       assertTrue(conn.isSameTarget(tf2, tf0));
       assertFalse(conn.isSameTarget(tf2, tf1));
    }
+
+   @Test
+   public void testWriteFileRegionCopies() throws Exception {
+      final byte[] content = new byte[10_000];
+      for (int i = 0; i < content.length; i++) {
+         content[i] = (byte) i;
+      }
+      final File file = new File(temporaryFolder, "region");
+      Files.write(file.toPath(), content);
+
+      final List<byte[]> received = new ArrayList<>();
+      InVMConnection conn = new InVMConnection(0, (connectionID, buffer) -> {
+         final byte[] bytes = new byte[buffer.readableBytes()];
+         buffer.readBytes(bytes);
+         received.add(bytes);
+      }, null, ArtemisExecutor.delegate(Runnable::run));
+      assertFalse(conn.isFileRegionSupported());
+
+      final ActiveMQBuffer header = ActiveMQBuffers.dynamicBuffer(8);
+      header.writeInt(4 + 1 + content.length + 1);
+      header.writeByte((byte) -1);
+      final ActiveMQBuffer trailer = ActiveMQBuffers.dynamicBuffer(1);
+      trailer.writeByte((byte) -2);
+      final FileRegion region = new DefaultFileRegion(file, 0, content.length);
+
+      conn.write(header, region, trailer);
+
+      assertEquals(1, received.size());
+      final byte[] bytes = received.get(0);
+      assertEquals(1 + content.length + 1, bytes.length);
+      assertEquals(-1, bytes[0]);
+      assertArrayEquals(content, Arrays.copyOfRange(bytes, 1, 1 + content.length));
+      assertEquals(-2, bytes[bytes.length - 1]);
+      assertEquals(0, region.refCnt());
+   }
 }
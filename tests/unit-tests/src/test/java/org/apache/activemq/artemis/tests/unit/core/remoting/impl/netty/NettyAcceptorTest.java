@@ -16,9 +16,13 @@
  */
 package org.apache.activemq.artemis.tests.unit.core.remoting.impl.netty;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -29,11 +33,17 @@ import java.util.concurrent.ScheduledExecutorService;
 import org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.remoting.impl.netty.CheckDependencies;
 import org.apache.activemq.artemis.core.remoting.impl.netty.NettyAcceptor;
+import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnection;
 import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
 import org.apache.activemq.artemis.spi.core.protocol.ProtocolManager;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 import org.apache.activemq.artemis.spi.core.remoting.BufferHandler;
 import org.apache.activemq.artemis.spi.core.remoting.Connection;
 import org.apache.activemq.artemis.spi.core.remoting.ServerConnectionLifeCycleListener;
@@ -48,6 +58,8 @@ import org.junit.jupiter.api.Test;
 
 public class NettyAcceptorTest extends ActiveMQTestBase {
 
+   private static final String IO_URING_SOCKET_CHANNEL = "IOUringSocketChannel";
+
    private ScheduledExecutorService pool2;
    private ExecutorService pool3;
 
@@ -129,6 +141,44 @@ public class NettyAcceptorTest extends ActiveMQTestBase {
       assertFalse(server.getRemotingService().getAcceptor("noStart").isStarted());
    }
 
+   @Test
+   public void testIoUringFallback() throws Exception {
+      // the io_uring transport isn't on the classpath unless running with the io-uring profile
+      assumeFalse(CheckDependencies.isIoUringAvailable());
+
+      // both ends fall back to the other transports
+      assertNotEquals(IO_URING_SOCKET_CHANNEL, connectWithIoUring());
+   }
+
+   @Test
+   public void testIoUring() throws Exception {
+      assumeTrue(CheckDependencies.isIoUringAvailable(), "io_uring transport not available: run with -Pio-uring on a kernel supporting it");
+
+      assertEquals(IO_URING_SOCKET_CHANNEL, connectWithIoUring());
+   }
+
+   /**
+    * Connects to an acceptor with {@code useIoUring=true} with {@code useIoUring=true} too, checks that both ends use
+    * the same transport and returns the simple name of the class of their channels.
+    */
+   private String connectWithIoUring() throws Exception {
+      ActiveMQServer server = createServer(false, createDefaultInVMConfig());
+      server.getConfiguration().addAcceptorConfiguration("ioUring", "tcp://127.0.0.1:61617?useIoUring=true");
+      server.start();
+      assertTrue(server.getRemotingService().getAcceptor("ioUring").isStarted());
+
+      ServerLocator locator = addServerLocator(ActiveMQClient.createServerLocator("tcp://127.0.0.1:61617?useIoUring=true"));
+      ClientSessionFactory sf = addSessionFactory(createSessionFactory(locator));
+      addClientSession(sf.createSession()).close();
+
+      final String clientChannel = ((NettyConnection) sf.getConnection().getTransportConnection()).getNettyChannel().getClass().getSimpleName();
+      assertEquals(1, server.getRemotingService().getConnections().size());
+      for (RemotingConnection connection : server.getRemotingService().getConnections()) {
+         assertEquals(clientChannel, ((NettyConnection) connection.getTransportConnection()).getNettyChannel().getClass().getSimpleName());
+      }
+      return clientChannel;
+   }
+
    @Test
    public void testActualPort() throws Exception {
       String firstPort0 = RandomUtil.randomString();
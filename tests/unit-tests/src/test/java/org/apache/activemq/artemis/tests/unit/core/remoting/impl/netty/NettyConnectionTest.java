@@ -25,22 +25,35 @@ import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.DefaultEventLoopGroup;
 import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.ReferenceCountUtil;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.TransportConfiguration;
 import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnection;
 import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnectorFactory;
+import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
 import org.apache.activemq.artemis.spi.core.remoting.ClientConnectionLifeCycleListener;
 import org.apache.activemq.artemis.spi.core.remoting.ClientProtocolManager;
 import org.apache.activemq.artemis.spi.core.remoting.Connection;
 import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.utils.Wait;
 import org.junit.jupiter.api.Test;
 
 public class NettyConnectionTest extends ActiveMQTestBase {
@@ -68,6 +81,73 @@ public class NettyConnectionTest extends ActiveMQTestBase {
       assertEquals(1, channel.outboundMessages().size());
    }
 
+   @Test
+   public void testWriteFlushesEachWrite() throws Exception {
+      EmbeddedChannel channel = createChannel();
+      NettyConnection conn = new NettyConnection(emptyMap, channel, new MyListener(), false, false);
+
+      for (int i = 0; i < 3; i++) {
+         conn.write(packet());
+      }
+      assertEquals(3, channel.outboundMessages().size());
+      assertEquals(3, conn.getFlushCount());
+      assertEquals(3 * 128, conn.getWrittenBytes());
+      assertEquals(128, conn.getBytesPerFlush());
+   }
+
+   @Test
+   public void testAdaptiveFlushCoalescesWrites() throws Exception {
+      DefaultEventLoopGroup group = new DefaultEventLoopGroup(1);
+      try {
+         AtomicLong received = new AtomicLong();
+         LocalAddress address = new LocalAddress(NettyConnectionTest.class);
+         Channel server = new ServerBootstrap().group(group).channel(LocalServerChannel.class).childHandler(new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+               received.addAndGet(((ByteBuf) msg).readableBytes());
+               ReferenceCountUtil.release(msg);
+            }
+         }).bind(address).sync().channel();
+         Channel channel = new Bootstrap().group(group).channel(LocalChannel.class).handler(new ChannelInboundHandlerAdapter()).connect(address).sync().channel();
+
+         NettyConnection conn = new NettyConnection(Map.of(TransportConstants.ADAPTIVE_FLUSH, true), channel, new MyListener(), false, false);
+         assertTrue(conn.isAdaptiveFlush());
+         assertEquals(0, conn.getBytesPerFlush());
+
+         // the writes submitted while the event loop is busy are flushed together
+         CountDownLatch busy = new CountDownLatch(1);
+         channel.eventLoop().execute(() -> {
+            try {
+               busy.await();
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         });
+         for (int i = 0; i < 3; i++) {
+            conn.write(packet());
+         }
+         busy.countDown();
+         Wait.assertEquals(3 * 128, received::get);
+         assertEquals(1, conn.getFlushCount());
+         assertEquals(3 * 128, conn.getBytesPerFlush());
+
+         // an idle event loop flushes right away
+         conn.write(packet());
+         Wait.assertEquals(4 * 128, received::get);
+         assertEquals(2, conn.getFlushCount());
+
+         conn.write(packet(), true, false);
+         Wait.assertEquals(5 * 128, received::get);
+         assertEquals(3, conn.getFlushCount());
+         assertEquals(5 * 128, conn.getWrittenBytes());
+
+         channel.close().sync();
+         server.close().sync();
+      } finally {
+         group.shutdownGracefully().sync();
+      }
+   }
+
    @Test
    public void testCreateBuffer() throws Exception {
       EmbeddedChannel channel = createChannel();
@@ -147,6 +227,12 @@ public class NettyConnectionTest extends ActiveMQTestBase {
       assertTrue(conn.isSameTarget(tf6, tf2));
    }
 
+   private static ActiveMQBuffer packet() {
+      ActiveMQBuffer buffer = ActiveMQBuffers.fixedBuffer(128);
+      buffer.writerIndex(128);
+      return buffer;
+   }
+
    private static EmbeddedChannel createChannel() {
       return new EmbeddedChannel(new ChannelInboundHandlerAdapter());
    }
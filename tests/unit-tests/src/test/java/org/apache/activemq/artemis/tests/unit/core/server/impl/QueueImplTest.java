@@ -1089,6 +1089,143 @@ public class QueueImplTest extends ActiveMQTestBase {
       }
    }
 
+   @Test
+   public void testSelectorIndexedDispatch() throws Exception {
+      QueueImpl queue = getIndexedDispatchQueue();
+
+      FakeConsumer consumerRed = new FakeConsumer(FilterImpl.createFilter("color = 'red'"));
+      FakeConsumer consumerGreen = new FakeConsumer(FilterImpl.createFilter("size > 5 AND color IN ('green', 'yellow')"));
+      FakeConsumer consumerBlue = new FakeConsumer(FilterImpl.createFilter("color = 'blue' OR color = 'white'"));
+      queue.addConsumer(consumerRed);
+      queue.addConsumer(consumerGreen);
+      queue.addConsumer(consumerBlue);
+
+      final String[] colors = {"red", "green", "yellow", "blue", "white", "black"};
+      for (int i = 0; i < 60; i++) {
+         MessageReference ref = generateReference(queue, i);
+         ref.getMessage().putStringProperty("color", colors[i % colors.length]);
+         ref.getMessage().putIntProperty("size", i % 2 == 0 ? 10 : 1);
+         queue.addTail(ref);
+      }
+
+      queue.deliverNow();
+
+      assertEquals(10, consumerRed.getReferences().size());
+      // only the even messages of the green and yellow ones are big enough
+      assertEquals(10, consumerGreen.getReferences().size());
+      assertEquals(20, consumerBlue.getReferences().size());
+      // the black ones and half of the green and yellow ones have no matching consumer
+      assertEquals(20, getMessageCount(queue) - queue.getDeliveringCount());
+
+      for (MessageReference ref : consumerRed.getReferences()) {
+         assertEquals("red", ref.getMessage().getStringProperty("color"));
+      }
+      for (MessageReference ref : consumerGreen.getReferences()) {
+         assertEquals(10, (int) ref.getMessage().getIntProperty("size"));
+      }
+   }
+
+   @Test
+   public void testSelectorIndexedDispatchBusyConsumer() throws Exception {
+      QueueImpl queue = getIndexedDispatchQueue();
+
+      FakeConsumer consumerRed = new FakeConsumer(FilterImpl.createFilter("color = 'red'"));
+      FakeConsumer consumerGreen = new FakeConsumer(FilterImpl.createFilter("color = 'green'"));
+      consumerRed.setStatusImmediate(HandleStatus.BUSY);
+      queue.addConsumer(consumerRed);
+      queue.addConsumer(consumerGreen);
+
+      for (int i = 0; i < 20; i++) {
+         MessageReference ref = generateReference(queue, i);
+         ref.getMessage().putStringProperty("color", i % 2 == 0 ? "red" : "green");
+         queue.addTail(ref);
+      }
+
+      queue.deliverNow();
+
+      assertEquals(0, consumerRed.getReferences().size());
+      assertEquals(10, consumerGreen.getReferences().size());
+
+      consumerRed.setStatusImmediate(null);
+
+      queue.deliverNow();
+
+      assertEquals(10, consumerRed.getReferences().size());
+      int currId = 0;
+      for (MessageReference ref : consumerRed.getReferences()) {
+         assertEquals(currId, ref.getMessage().getMessageID(), "messages received out of order");
+         currId += 2;
+      }
+   }
+
+   @Test
+   public void testSelectorIndexedDispatchDirect() throws Exception {
+      QueueImpl queue = getIndexedDispatchQueue();
+
+      FakeConsumer consumerRed = new FakeConsumer(FilterImpl.createFilter("color = 'red'"));
+      FakeConsumer consumerAny = new FakeConsumer();
+      queue.addConsumer(consumerRed);
+      queue.addConsumer(consumerAny);
+
+      for (int i = 0; i < 10; i++) {
+         MessageReference ref = generateReference(queue, i);
+         ref.getMessage().putStringProperty("color", i < 5 ? "red" : "blue");
+         queue.addTail(ref, true);
+      }
+
+      queue.deliverNow();
+
+      assertEquals(10, consumerRed.getReferences().size() + consumerAny.getReferences().size());
+      for (MessageReference ref : consumerRed.getReferences()) {
+         assertEquals("red", ref.getMessage().getStringProperty("color"));
+      }
+      assertEquals(0, getMessageCount(queue) - queue.getDeliveringCount());
+   }
+
+   @Test
+   public void testConsumerFilterMismatchesRecorded() throws Exception {
+      QueueImpl queue = getTemporaryQueue();
+
+      final int numConsumers = 5;
+      final int numMessages = 100;
+      FakeConsumer[] consumers = new FakeConsumer[numConsumers];
+      for (int i = 0; i < numConsumers; i++) {
+         consumers[i] = new FakeConsumer(FilterImpl.createFilter("color = 'red'"));
+         queue.addConsumer(consumers[i]);
+      }
+
+      for (int i = 0; i < numMessages; i++) {
+         MessageReference ref = generateReference(queue, i);
+         ref.getMessage().putStringProperty("color", "blue");
+         queue.addTail(ref);
+      }
+
+      queue.deliverNow();
+
+      // the first consumer visiting a message evaluates the filter, the others skip it
+      assertEquals(numMessages, queue.getConsumerFilterMismatches());
+      assertEquals((long) numMessages * (numConsumers - 1), queue.getConsumerFilterEvaluationsSkipped());
+
+      // e.g. a rollback on another consumer will make every consumer iterate from the start again
+      queue.resetAllIterators();
+      queue.deliverNow();
+
+      assertEquals(numMessages, queue.getConsumerFilterMismatches());
+      assertEquals((long) numMessages * (numConsumers - 1) + numMessages * numConsumers, queue.getConsumerFilterEvaluationsSkipped());
+
+      FakeConsumer consumerRed = new FakeConsumer(FilterImpl.createFilter("color = 'red'"));
+      FakeConsumer consumerBlue = new FakeConsumer(FilterImpl.createFilter("color = 'blue'"));
+      queue.addConsumer(consumerRed);
+      queue.addConsumer(consumerBlue);
+      queue.deliverNow();
+
+      for (FakeConsumer consumer : consumers) {
+         assertEquals(0, consumer.getReferences().size());
+      }
+      assertEquals(0, consumerRed.getReferences().size());
+      assertEquals(numMessages, consumerBlue.getReferences().size());
+   }
+
    @Test
    public void testNoRedistributorInternalQueue() throws Exception {
       QueueImpl queue = getTemporaryQueue();
@@ -1519,6 +1656,12 @@ public class QueueImplTest extends ActiveMQTestBase {
       return getQueue(QueueImplTest.queue1, false, true, null);
    }
 
+   private QueueImpl getIndexedDispatchQueue() {
+      defaultServer.getAddressSettingsRepository().addMatch(QueueImplTest.address1.toString(), new AddressSettings().setSelectorIndexedDispatch(true));
+      return new QueueImpl(1, QueueImplTest.address1, QueueImplTest.queue1, null, null, false, true, false, scheduledExecutor,
+                           new FakePostOffice(), null, defaultServer.getAddressSettingsRepository(), ArtemisExecutor.delegate(executor), defaultServer, null);
+   }
+
    private QueueImpl getQueue(SimpleString name, boolean durable, boolean temporary, Filter filter) {
       return new QueueImpl(1, QueueImplTest.address1, name, filter, null, durable, temporary, false, scheduledExecutor,
                            new FakePostOffice(), null, null, ArtemisExecutor.delegate(executor), defaultServer, null);